@@ -0,0 +1,60 @@
+package no.unit.nva.benchmarks;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the calls to a DynamoDB client, per API operation. The counts of a benchmark divided by the number of
+ * benchmark operations show how many round trips to DynamoDB an operation costs.
+ */
+public class DynamoDbCallCounter {
+
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Wraps a client so that its calls are counted.
+     *
+     * @param client the client.
+     * @return a client that counts the calls and delegates them to {@code client}.
+     */
+    public AmazonDynamoDB countCallsOf(AmazonDynamoDB client) {
+        InvocationHandler countingHandler = (proxy, method, arguments) -> {
+            calls.computeIfAbsent(method.getName(), name -> new LongAdder()).increment();
+            return invoke(client, method, arguments);
+        };
+        return (AmazonDynamoDB) Proxy.newProxyInstance(AmazonDynamoDB.class.getClassLoader(),
+            new Class<?>[]{AmazonDynamoDB.class}, countingHandler);
+    }
+
+    public void reset() {
+        calls.clear();
+    }
+
+    /**
+     * The number of calls per API operation, divided by a number of benchmark operations.
+     *
+     * @param numberOfOperations the number of benchmark operations.
+     * @return the average number of calls of every API operation, sorted by the name of the API operation.
+     */
+    public Map<String, Double> callsPerOperation(long numberOfOperations) {
+        Map<String, Double> callsPerOperation = new TreeMap<>();
+        calls.forEach((apiOperation, count) ->
+            callsPerOperation.put(apiOperation, count.doubleValue() / numberOfOperations));
+        return callsPerOperation;
+    }
+
+    private static Object invoke(AmazonDynamoDB client, Method method, Object[] arguments) throws Throwable {
+        try {
+            return method.invoke(client, arguments);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package no.unit.nva.benchmarks;
+
+import static nva.commons.core.JsonUtils.objectMapper;
+import static org.mockito.Mockito.mock;
+import com.amazonaws.services.lambda.runtime.Context;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import no.unit.nva.database.DatabaseServiceImpl;
+import no.unit.nva.database.UserService;
+import no.unit.nva.handlers.AddUserHandler;
+import no.unit.nva.handlers.GetUserHandler;
+import no.unit.nva.handlers.HandlerAccessingUser;
+import no.unit.nva.handlers.ListByInstitutionHandler;
+import no.unit.nva.handlers.UpdateUserHandler;
+import no.unit.nva.testutils.HandlerRequestBuilder;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.model.RoleDto;
+import no.unit.nva.useraccessmanagement.model.UserDto;
+import nva.commons.apigateway.ApiGatewayHandler;
+import nva.commons.apigateway.GatewayResponse;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
+import nva.commons.core.Environment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Runs the handlers in-process against the embedded DynamoDBLocal, with synthetic API Gateway events, over a database
+ * seeded with users spread across institutions. The sample time mode reports the latency percentiles of every
+ * handler, and the number of DynamoDB calls per operation is printed when each benchmark ends.
+ *
+ * <p>DynamoDBLocal has no network and no throttling, so the latencies are lower than in production. The numbers are
+ * meant for comparing commits, together with the number of DynamoDB calls per operation, which is the same as in
+ * production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HandlerBenchmark {
+
+    public static final int NUMBER_OF_INSTITUTIONS = 100;
+    public static final int NUMBER_OF_ROLES = 5;
+    public static final String INSTITUTION_PREFIX = "https://api.cristin.no/v2/institutions/";
+    public static final String ROLE_NAME_PREFIX = "Role";
+    public static final String NEW_USERNAME_PREFIX = "new";
+    public static final String GIVEN_NAME = "Kari";
+    public static final String UPDATED_GIVEN_NAME = "Ola";
+    public static final String FAMILY_NAME = "Nordmann";
+    public static final String INSTITUTION_QUERY_PARAMETER = ListByInstitutionHandler.INSTITUTION_ID_QUERY_PARAMETER;
+    public static final String HANDLER_FAILURE_ERROR = "Handler did not succeed before the benchmark. Status code: ";
+    public static final String CALLS_PER_OPERATION_MESSAGE = "DynamoDB calls per operation (%d users): %s%n";
+    private static final int FIRST_ERROR_STATUS = 400;
+
+    @Param({"1000", "10000", "100000"})
+    public int numberOfUsers;
+
+    private final LongAdder operations = new LongAdder();
+    private final AtomicLong newUsers = new AtomicLong();
+    private LocalDatabase database;
+    private AddUserHandler addUserHandler;
+    private GetUserHandler getUserHandler;
+    private UpdateUserHandler updateUserHandler;
+    private ListByInstitutionHandler listByInstitutionHandler;
+    private Context context;
+
+    /**
+     * Seeds the database and checks that every handler succeeds. The DynamoDB calls of the seeding are not counted.
+     *
+     * @throws ApiGatewayException when the seeding fails.
+     * @throws IOException         when a request cannot be written.
+     */
+    @Setup(Level.Trial)
+    public void seedDatabase() throws ApiGatewayException, IOException {
+        database = new LocalDatabase();
+        DatabaseServiceImpl databaseService = database.start();
+        for (int index = 0; index < NUMBER_OF_ROLES; index++) {
+            databaseService.addRole(role(index));
+        }
+        List<UserDto> users = new ArrayList<>();
+        for (int index = 0; index < numberOfUsers; index++) {
+            users.add(user(username(index), index));
+            if (users.size() == UserService.MAX_USERS_PER_IMPORT) {
+                databaseService.addUsers(users);
+                users.clear();
+            }
+        }
+        databaseService.addUsers(users);
+
+        Environment environment = database.mockEnvironment();
+        addUserHandler = new AddUserHandler(environment, databaseService);
+        getUserHandler = new GetUserHandler(environment, databaseService);
+        updateUserHandler = new UpdateUserHandler(environment, databaseService);
+        listByInstitutionHandler = new ListByInstitutionHandler(environment, databaseService);
+        context = mock(Context.class);
+        checkThatHandlersSucceed();
+        database.getCallCounter().reset();
+    }
+
+    /**
+     * Prints the DynamoDB calls per operation of the benchmark and stops the database.
+     */
+    @TearDown(Level.Trial)
+    public void reportDynamoDbCalls() {
+        Map<String, Double> callsPerOperation = database.getCallCounter().callsPerOperation(operations.sum());
+        System.out.printf(CALLS_PER_OPERATION_MESSAGE, numberOfUsers, callsPerOperation);
+        database.stop();
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream addUser() throws IOException, InvalidEntryInternalException {
+        return send(addUserHandler, addUserRequest());
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream getUser() throws IOException {
+        return send(getUserHandler, getUserRequest(randomExistingUser()));
+    }
+
+    /**
+     * Updates a user without the If-Match header, so the update reads the stored user before writing it.
+     *
+     * @return the response.
+     * @throws IOException                   when the request cannot be written.
+     * @throws InvalidEntryInternalException when the update is not valid (should never happen).
+     */
+    @Benchmark
+    public ByteArrayOutputStream updateUser() throws IOException, InvalidEntryInternalException {
+        return send(updateUserHandler, updateUserRequest(randomExistingUser()));
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream listByInstitution() throws IOException {
+        int institution = ThreadLocalRandom.current().nextInt(NUMBER_OF_INSTITUTIONS);
+        return send(listByInstitutionHandler, listByInstitutionRequest(institution));
+    }
+
+    private void checkThatHandlersSucceed() throws IOException, InvalidEntryInternalException {
+        requireSuccess(send(addUserHandler, addUserRequest()));
+        requireSuccess(send(getUserHandler, getUserRequest(0)));
+        requireSuccess(send(updateUserHandler, updateUserRequest(0)));
+        requireSuccess(send(listByInstitutionHandler, listByInstitutionRequest(0)));
+    }
+
+    private static void requireSuccess(ByteArrayOutputStream output) throws IOException {
+        GatewayResponse<String> response = GatewayResponse.fromOutputStream(output);
+        if (response.getStatusCode() >= FIRST_ERROR_STATUS) {
+            throw new IllegalStateException(HANDLER_FAILURE_ERROR + response.getStatusCode());
+        }
+    }
+
+    private ByteArrayOutputStream send(ApiGatewayHandler<?, ?> handler, InputStream request) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        handler.handleRequest(request, output, context);
+        operations.increment();
+        return output;
+    }
+
+    private InputStream addUserRequest() throws IOException, InvalidEntryInternalException {
+        long index = newUsers.getAndIncrement();
+        UserDto user = user(NEW_USERNAME_PREFIX + username(index), index);
+        return new HandlerRequestBuilder<UserDto>(objectMapper)
+            .withBody(user)
+            .build();
+    }
+
+    private static InputStream getUserRequest(int index) throws IOException {
+        return new HandlerRequestBuilder<Void>(objectMapper)
+            .withPathParameters(Map.of(HandlerAccessingUser.USERNAME_PATH_PARAMETER, username(index)))
+            .build();
+    }
+
+    private static InputStream updateUserRequest(int index) throws IOException, InvalidEntryInternalException {
+        String givenName = ThreadLocalRandom.current().nextBoolean() ? GIVEN_NAME : UPDATED_GIVEN_NAME;
+        UserDto update = user(username(index), index).copy().withGivenName(givenName).build();
+        return new HandlerRequestBuilder<UserDto>(objectMapper)
+            .withPathParameters(Map.of(HandlerAccessingUser.USERNAME_PATH_PARAMETER, update.getUsername()))
+            .withBody(update)
+            .build();
+    }
+
+    private static InputStream listByInstitutionRequest(int institution) throws IOException {
+        return new HandlerRequestBuilder<Void>(objectMapper)
+            .withQueryParameters(Map.of(INSTITUTION_QUERY_PARAMETER, institutionId(institution)))
+            .build();
+    }
+
+    private int randomExistingUser() {
+        return ThreadLocalRandom.current().nextInt(numberOfUsers);
+    }
+
+    /*The users are spread evenly across the institutions, and each user has one of the roles*/
+    private static UserDto user(String username, long index) throws InvalidEntryInternalException {
+        return UserDto.newBuilder()
+            .withUsername(username)
+            .withGivenName(GIVEN_NAME)
+            .withFamilyName(FAMILY_NAME)
+            .withInstitution(institutionId(index % NUMBER_OF_INSTITUTIONS))
+            .withRoles(List.of(role(index % NUMBER_OF_ROLES)))
+            .build();
+    }
+
+    private static RoleDto role(long index) throws InvalidEntryInternalException {
+        return RoleDto.newBuilder()
+            .withName(ROLE_NAME_PREFIX + index)
+            .withAccessRights(SampleUsers.roleWithAllAccessRights().getAccessRights())
+            .build();
+    }
+
+    private static String username(long index) {
+        return index + "@" + index % NUMBER_OF_INSTITUTIONS + ".0.0.0";
+    }
+
+    private static String institutionId(long institution) {
+        return INSTITUTION_PREFIX + institution;
+    }
+}
@@ -0,0 +1,31 @@
+package no.unit.nva.benchmarks;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import no.unit.nva.database.DatabaseAccessor;
+import no.unit.nva.database.DatabaseServiceImpl;
+
+/**
+ * The embedded DynamoDBLocal used by the tests, with a client whose calls are counted.
+ */
+public class LocalDatabase extends DatabaseAccessor {
+
+    private final DynamoDbCallCounter callCounter = new DynamoDbCallCounter();
+
+    /**
+     * Creates the table in a new embedded database.
+     *
+     * @return a service using the database through a counting client.
+     */
+    public DatabaseServiceImpl start() {
+        AmazonDynamoDB countingClient = callCounter.countCallsOf(initializeTestDatabase());
+        return new DatabaseServiceImpl(countingClient, envWithTableName);
+    }
+
+    public void stop() {
+        closeDB();
+    }
+
+    public DynamoDbCallCounter getCallCounter() {
+        return callCounter;
+    }
+}
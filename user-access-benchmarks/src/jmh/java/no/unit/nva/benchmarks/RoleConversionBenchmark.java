@@ -0,0 +1,60 @@
+package no.unit.nva.benchmarks;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import java.util.concurrent.TimeUnit;
+import no.unit.nva.useraccessmanagement.dao.RoleDb;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.model.RoleDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The conversions of a role that gives every access right. Roles are also converted once for every role of a user
+ * that is read or written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RoleConversionBenchmark {
+
+    private RoleDto roleDto;
+    private RoleDb roleDb;
+    private Item item;
+
+    /**
+     * Creates the role in all its representations.
+     *
+     * @throws InvalidEntryInternalException when the role is invalid (should never happen).
+     */
+    @Setup
+    public void createRole() throws InvalidEntryInternalException {
+        roleDto = SampleUsers.roleWithAllAccessRights();
+        roleDb = RoleDb.fromRoleDto(roleDto);
+        item = roleDb.toItem();
+    }
+
+    @Benchmark
+    public RoleDb roleDbFromRoleDto() throws InvalidEntryInternalException {
+        return RoleDb.fromRoleDto(roleDto);
+    }
+
+    @Benchmark
+    public RoleDto roleDbToRoleDto() throws InvalidEntryInternalException {
+        return roleDb.toRoleDto();
+    }
+
+    @Benchmark
+    public Item roleDbToItem() {
+        return roleDb.toItem();
+    }
+
+    @Benchmark
+    public RoleDb roleDbFromItem() {
+        return RoleDb.fromItem(item);
+    }
+}
@@ -0,0 +1,80 @@
+package no.unit.nva.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.model.RoleDto;
+import no.unit.nva.useraccessmanagement.model.UserDto;
+import no.unit.useraccessserivce.accessrights.AccessRight;
+
+/**
+ * Users and roles shaped like the ones stored in production: a username with the institution suffix, a Cristin
+ * institution URI and roles that together give every {@link AccessRight}.
+ */
+public final class SampleUsers {
+
+    public static final String USERNAME = "1234567@20754.0.0.0";
+    public static final String GIVEN_NAME = "Kari";
+    public static final String FAMILY_NAME = "Nordmann";
+    public static final String INSTITUTION = "https://api.cristin.no/v2/institutions/20754";
+    public static final String ROLE_NAME_PREFIX = "Role";
+    public static final long VERSION = 7L;
+    private static final long ALL_ACCESS_RIGHTS = AccessRight.toBitmask(Set.of(AccessRight.values()));
+
+    private SampleUsers() {
+    }
+
+    /**
+     * Creates a user with a number of roles. Each role gives a different combination of access rights, and the roles
+     * give every access right when there is more than one role.
+     *
+     * @param numberOfRoles the number of roles of the user.
+     * @return the user.
+     * @throws InvalidEntryInternalException when the user is invalid (should never happen).
+     */
+    public static UserDto userWithRoles(int numberOfRoles) throws InvalidEntryInternalException {
+        return UserDto.newBuilder()
+            .withUsername(USERNAME)
+            .withGivenName(GIVEN_NAME)
+            .withFamilyName(FAMILY_NAME)
+            .withInstitution(INSTITUTION)
+            .withRoles(roles(numberOfRoles))
+            .withVersion(VERSION)
+            .build();
+    }
+
+    /**
+     * Creates a role that gives every access right.
+     *
+     * @return the role.
+     * @throws InvalidEntryInternalException when the role is invalid (should never happen).
+     */
+    public static RoleDto roleWithAllAccessRights() throws InvalidEntryInternalException {
+        return role(ROLE_NAME_PREFIX, ALL_ACCESS_RIGHTS);
+    }
+
+    private static List<RoleDto> roles(int numberOfRoles) throws InvalidEntryInternalException {
+        List<RoleDto> roles = new ArrayList<>();
+        for (int index = 0; index < numberOfRoles; index++) {
+            roles.add(role(ROLE_NAME_PREFIX + index, accessRightsOfRole(index)));
+        }
+        return roles;
+    }
+
+    /*Cycles through the non-empty combinations of access rights, starting with all of them*/
+    private static long accessRightsOfRole(int index) {
+        return ALL_ACCESS_RIGHTS - index % ALL_ACCESS_RIGHTS;
+    }
+
+    private static RoleDto role(String name, long accessRights) throws InvalidEntryInternalException {
+        Set<String> accessRightNames = AccessRight.fromBitmask(accessRights).stream()
+            .map(AccessRight::toString)
+            .collect(Collectors.toSet());
+        return RoleDto.newBuilder()
+            .withName(name)
+            .withAccessRights(accessRightNames)
+            .build();
+    }
+}
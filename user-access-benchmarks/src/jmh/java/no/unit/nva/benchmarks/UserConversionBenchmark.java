@@ -0,0 +1,87 @@
+package no.unit.nva.benchmarks;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import no.unit.nva.useraccessmanagement.dao.DynamoEntryWithRangeKey;
+import no.unit.nva.useraccessmanagement.dao.UserDb;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.model.UserDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The conversions that every request reading or writing a user goes through. The cost grows with the number of roles,
+ * since every role is copied with its access rights.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserConversionBenchmark {
+
+    @Param({"0", "1", "10", "50"})
+    public int numberOfRoles;
+
+    private UserDto userDto;
+    private UserDb userDb;
+    private Item item;
+
+    /**
+     * Creates the user in all its representations.
+     *
+     * @throws InvalidEntryInternalException when the user is invalid (should never happen).
+     */
+    @Setup
+    public void createUser() throws InvalidEntryInternalException {
+        userDto = SampleUsers.userWithRoles(numberOfRoles);
+        userDb = UserDb.fromUserDto(userDto);
+        item = userDb.toItem();
+    }
+
+    @Benchmark
+    public UserDb userDbFromUserDto() throws InvalidEntryInternalException {
+        return UserDb.fromUserDto(userDto);
+    }
+
+    @Benchmark
+    public UserDto userDbToUserDto() throws InvalidEntryInternalException {
+        return userDb.toUserDto();
+    }
+
+    @Benchmark
+    public Item userDbToItem() {
+        return userDb.toItem();
+    }
+
+    @Benchmark
+    public UserDb userDbFromItem() {
+        return UserDb.fromItem(item);
+    }
+
+    /**
+     * The generic conversion of {@link DynamoEntryWithRangeKey} through JSON, as a baseline for {@link
+     * #userDbFromItem()}.
+     *
+     * @return the user.
+     */
+    @Benchmark
+    public UserDb userDbFromItemThroughJson() {
+        return DynamoEntryWithRangeKey.fromItem(item, UserDb.class);
+    }
+
+    @Benchmark
+    public String userDtoToJsonString() {
+        return userDto.toJsonString();
+    }
+
+    @Benchmark
+    public Set<String> userDtoGetAccessRights() {
+        return userDto.getAccessRights();
+    }
+}
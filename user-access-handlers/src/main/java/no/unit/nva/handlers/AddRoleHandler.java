@@ -3,18 +3,18 @@ package no.unit.nva.handlers;
 import com.amazonaws.services.lambda.runtime.Context;
 import java.net.HttpURLConnection;
 import no.unit.nva.database.DatabaseService;
-import no.unit.nva.database.DatabaseServiceImpl;
+import no.unit.nva.database.SharedDatabaseService;
+import no.unit.nva.handlers.RequestTimings.Phase;
 import no.unit.nva.useraccessmanagement.exceptions.DataSyncException;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
-import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
 import no.unit.nva.useraccessmanagement.model.RoleDto;
 import nva.commons.apigateway.RequestInfo;
-import nva.commons.apigateway.exceptions.ConflictException;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
 import nva.commons.apigateway.exceptions.NotFoundException;
 import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
 
-public class AddRoleHandler extends HandlerWithEventualConsistency<RoleDto, RoleDto> {
+public class AddRoleHandler extends HandlerReadingSavedEntry<RoleDto, RoleDto> {
 
     public static final String ERROR_FETCHING_SAVED_ROLE = "Could not fetch role with name: ";
     private final DatabaseService databaseService;
@@ -24,8 +24,7 @@ public class AddRoleHandler extends HandlerWithEventualConsistency<RoleDto, Role
      */
     @JacocoGenerated
     public AddRoleHandler() {
-        this(new Environment(), new DatabaseServiceImpl()
-        );
+        this(new Environment(), SharedDatabaseService.getInstance());
     }
 
     public AddRoleHandler(
@@ -38,14 +37,14 @@ public class AddRoleHandler extends HandlerWithEventualConsistency<RoleDto, Role
 
     @Override
     protected RoleDto processInput(RoleDto input, RequestInfo requestInfo, Context context)
-        throws DataSyncException, ConflictException, InvalidInputException, InvalidEntryInternalException {
-        databaseService.addRole(input);
-        return getEventuallyConsistent(() -> getRole(input))
+        throws ApiGatewayException {
+        timedRun(Phase.DATABASE, () -> databaseService.addRole(input));
+        return fetchSavedEntry(() -> getRole(input))
             .orElseThrow(() -> new DataSyncException(ERROR_FETCHING_SAVED_ROLE + input.getRoleName()));
     }
 
     private RoleDto getRole(RoleDto input) throws NotFoundException, InvalidEntryInternalException {
-        return databaseService.getRole(input);
+        return databaseService.getRoleWithConsistentRead(input);
     }
 
     @Override
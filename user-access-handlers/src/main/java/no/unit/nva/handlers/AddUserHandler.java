@@ -2,7 +2,8 @@ package no.unit.nva.handlers;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import no.unit.nva.database.DatabaseService;
-import no.unit.nva.database.DatabaseServiceImpl;
+import no.unit.nva.database.SharedDatabaseService;
+import no.unit.nva.handlers.RequestTimings.Phase;
 import no.unit.nva.useraccessmanagement.exceptions.DataSyncException;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
@@ -17,7 +18,7 @@ import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class AddUserHandler extends HandlerWithEventualConsistency<UserDto, UserDto> {
+public class AddUserHandler extends HandlerReadingSavedEntry<UserDto, UserDto> {
 
     public static final String SYNC_ERROR_MESSAGE = "Error while trying to retrieve saved user:";
     public static final String PUBLIC_MESSAGE_FOR_INTERNAL_CONSISTENCY_PROBLEMS = "Α problem with the data has occured";
@@ -30,7 +31,7 @@ public class AddUserHandler extends HandlerWithEventualConsistency<UserDto, User
      */
     @JacocoGenerated
     public AddUserHandler() {
-        this(new Environment(), new DatabaseServiceImpl());
+        this(new Environment(), SharedDatabaseService.getInstance());
     }
 
     public AddUserHandler(Environment environment,
@@ -41,9 +42,9 @@ public class AddUserHandler extends HandlerWithEventualConsistency<UserDto, User
 
     @Override
     protected UserDto processInput(UserDto input, RequestInfo requestInfo, Context context) throws ApiGatewayException {
-        tryAddingUser(input);
+        timedRun(Phase.DATABASE, () -> tryAddingUser(input));
 
-        return getEventuallyConsistent(() -> getUser(input))
+        return fetchSavedEntry(() -> getUser(input))
                    .orElseThrow(() -> new DataSyncException(SYNC_ERROR_MESSAGE + input.getUsername()));
     }
 
@@ -63,6 +64,6 @@ public class AddUserHandler extends HandlerWithEventualConsistency<UserDto, User
     }
 
     private UserDto getUser(UserDto input) throws NotFoundException, InvalidEntryInternalException {
-        return databaseService.getUser(input);
+        return databaseService.getUserWithConsistentRead(input);
     }
 }
@@ -0,0 +1,61 @@
+package no.unit.nva.handlers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import java.util.Collections;
+import java.util.Map;
+import no.unit.nva.database.DatabaseService;
+import no.unit.nva.database.SharedDatabaseService;
+import no.unit.nva.database.UserIndexBackfillResult;
+import no.unit.nva.handlers.RequestTimings.Phase;
+import nva.commons.apigateway.RequestInfo;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
+import nva.commons.core.Environment;
+import nva.commons.core.JacocoGenerated;
+import org.apache.http.HttpStatus;
+
+/**
+ * Writes the role edges and name tokens of all stored users, so that users that were written before the indices
+ * existed are found by the lists of users by role, the role propagation and the search by name. When there are more
+ * users than can be indexed within the remaining time of the invocation, the response contains the header
+ * {@link #BACKFILL_CHECKPOINT_HEADER}, and the request should be repeated with the value of the header in the query
+ * parameter {@link #CHECKPOINT_QUERY_PARAMETER} until the header is no longer present. The number of indexed users is
+ * returned in the header {@link #INDEXED_USERS_HEADER}.
+ */
+public class BackfillUserIndicesHandler extends HandlerRecordingTimings<Void, Void> {
+
+    public static final String BACKFILL_CHECKPOINT_HEADER = "X-Backfill-Checkpoint";
+    public static final String INDEXED_USERS_HEADER = "X-Indexed-Users";
+
+    private final DatabaseService databaseService;
+
+    @JacocoGenerated
+    public BackfillUserIndicesHandler() {
+        this(new Environment(), SharedDatabaseService.getInstance());
+    }
+
+    public BackfillUserIndicesHandler(Environment environment, DatabaseService databaseService) {
+        super(Void.class, environment);
+        this.databaseService = databaseService;
+    }
+
+    @Override
+    protected Void processInput(Void input, RequestInfo requestInfo, Context context) throws ApiGatewayException {
+        String checkpoint = extractCheckpoint(requestInfo);
+        UserIndexBackfillResult result =
+            timed(Phase.DATABASE, () -> databaseService.backfillUserIndices(checkpoint, timeBudget(context)));
+        addAdditionalHeaders(() -> backfillHeaders(result));
+        return null;
+    }
+
+    @Override
+    protected Integer getSuccessStatusCode(Void input, Void output) {
+        return HttpStatus.SC_OK;
+    }
+
+    private static Map<String, String> backfillHeaders(UserIndexBackfillResult result) {
+        String indexedUsers = String.valueOf(result.getIndexedUsers());
+        return result.getCheckpoint()
+            .map(checkpoint -> Map.of(INDEXED_USERS_HEADER, indexedUsers, BACKFILL_CHECKPOINT_HEADER, checkpoint))
+            .orElse(Collections.singletonMap(INDEXED_USERS_HEADER, indexedUsers));
+    }
+}
@@ -0,0 +1,54 @@
+package no.unit.nva.handlers;
+
+import static java.util.Objects.isNull;
+import com.amazonaws.services.lambda.runtime.Context;
+import no.unit.nva.database.DatabaseService;
+import no.unit.nva.database.SharedDatabaseService;
+import no.unit.nva.handlers.RequestTimings.Phase;
+import no.unit.nva.useraccessmanagement.exceptions.BadRequestException;
+import no.unit.nva.useraccessmanagement.model.BatchGetUsersRequest;
+import no.unit.nva.useraccessmanagement.model.BatchGetUsersResponse;
+import nva.commons.apigateway.RequestInfo;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
+import nva.commons.core.Environment;
+import nva.commons.core.JacocoGenerated;
+import org.apache.http.HttpStatus;
+
+/**
+ * Fetches many users in one request, for clients that show lists of users. Users that do not exist are returned as
+ * missing usernames instead of failing the request.
+ */
+public class BatchGetUsersHandler extends HandlerRecordingTimings<BatchGetUsersRequest, BatchGetUsersResponse> {
+
+    public static final String EMPTY_REQUEST_ERROR = "Request body should contain a list of usernames";
+
+    private final DatabaseService databaseService;
+
+    @JacocoGenerated
+    public BatchGetUsersHandler() {
+        this(new Environment(), SharedDatabaseService.getInstance());
+    }
+
+    public BatchGetUsersHandler(Environment environment, DatabaseService databaseService) {
+        super(BatchGetUsersRequest.class, environment);
+        this.databaseService = databaseService;
+    }
+
+    @Override
+    protected BatchGetUsersResponse processInput(BatchGetUsersRequest input, RequestInfo requestInfo,
+                                                 Context context) throws ApiGatewayException {
+        timedRun(Phase.VALIDATION, () -> validateRequest(input));
+        return timed(Phase.DATABASE, () -> databaseService.getUsers(input.getUsernames()));
+    }
+
+    @Override
+    protected Integer getSuccessStatusCode(BatchGetUsersRequest input, BatchGetUsersResponse output) {
+        return HttpStatus.SC_OK;
+    }
+
+    private static void validateRequest(BatchGetUsersRequest input) throws BadRequestException {
+        if (isNull(input) || isNull(input.getUsernames())) {
+            throw new BadRequestException(EMPTY_REQUEST_ERROR);
+        }
+    }
+}
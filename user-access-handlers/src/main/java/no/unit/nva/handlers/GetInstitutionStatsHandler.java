@@ -0,0 +1,54 @@
+package no.unit.nva.handlers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import no.unit.nva.database.DatabaseService;
+import no.unit.nva.database.SharedDatabaseService;
+import no.unit.nva.handlers.RequestTimings.Phase;
+import no.unit.nva.useraccessmanagement.exceptions.BadRequestException;
+import no.unit.nva.useraccessmanagement.model.InstitutionStatsDto;
+import nva.commons.apigateway.RequestInfo;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
+import nva.commons.core.Environment;
+import nva.commons.core.JacocoGenerated;
+import org.apache.http.HttpStatus;
+
+/**
+ * Returns the number of users of the institution in the query parameter {@link #INSTITUTION_QUERY_PARAMETER}, and the
+ * number of its users that have each role. The numbers are read from counters that are kept up to date when users are
+ * added and updated, so the users are not listed. When the response reports that a recount is needed, the counters
+ * are repaired with the {@link RecountInstitutionHandler}.
+ */
+public class GetInstitutionStatsHandler extends HandlerRecordingTimings<Void, InstitutionStatsDto> {
+
+    public static final String INSTITUTION_QUERY_PARAMETER = "institution";
+    public static final String MISSING_INSTITUTION_ERROR = "Missing institution query parameter";
+
+    private final DatabaseService databaseService;
+
+    @JacocoGenerated
+    public GetInstitutionStatsHandler() {
+        this(new Environment(), SharedDatabaseService.getInstance());
+    }
+
+    public GetInstitutionStatsHandler(Environment environment, DatabaseService databaseService) {
+        super(Void.class, environment);
+        this.databaseService = databaseService;
+    }
+
+    @Override
+    protected InstitutionStatsDto processInput(Void input, RequestInfo requestInfo, Context context)
+        throws ApiGatewayException {
+        String institution = timed(Phase.VALIDATION, () -> institutionThatIsNotNullOrBlank(requestInfo));
+        return timed(Phase.DATABASE, () -> databaseService.getInstitutionStats(institution));
+    }
+
+    @Override
+    protected Integer getSuccessStatusCode(Void input, InstitutionStatsDto output) {
+        return HttpStatus.SC_OK;
+    }
+
+    private static String institutionThatIsNotNullOrBlank(RequestInfo requestInfo) throws BadRequestException {
+        return extractQueryParameter(requestInfo, INSTITUTION_QUERY_PARAMETER)
+            .orElseThrow(() -> new BadRequestException(MISSING_INSTITUTION_ERROR));
+    }
+}
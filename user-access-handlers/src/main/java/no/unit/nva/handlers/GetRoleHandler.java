@@ -4,17 +4,17 @@ import static java.util.function.Predicate.not;
 import com.amazonaws.services.lambda.runtime.Context;
 import java.util.Optional;
 import no.unit.nva.database.DatabaseService;
-import no.unit.nva.database.DatabaseServiceImpl;
+import no.unit.nva.database.SharedDatabaseService;
+import no.unit.nva.handlers.RequestTimings.Phase;
 import no.unit.nva.useraccessmanagement.exceptions.BadRequestException;
 import no.unit.nva.useraccessmanagement.model.RoleDto;
-import nva.commons.apigateway.ApiGatewayHandler;
 import nva.commons.apigateway.RequestInfo;
 import nva.commons.apigateway.exceptions.ApiGatewayException;
 import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
 import org.apache.http.HttpStatus;
 
-public class GetRoleHandler extends ApiGatewayHandler<Void, RoleDto> {
+public class GetRoleHandler extends HandlerRecordingTimings<Void, RoleDto> {
 
     public static final String EMPTY_ROLE_NAME = "Role-name cannot be empty";
     public static final String ROLE_PATH_PARAMETER = "role";
@@ -26,7 +26,7 @@ public class GetRoleHandler extends ApiGatewayHandler<Void, RoleDto> {
      */
     @JacocoGenerated
     public GetRoleHandler() {
-        this(new Environment(), new DatabaseServiceImpl());
+        this(new Environment(), SharedDatabaseService.getInstance());
     }
 
     public GetRoleHandler(Environment environment, DatabaseService databaseService) {
@@ -36,10 +36,10 @@ public class GetRoleHandler extends ApiGatewayHandler<Void, RoleDto> {
 
     @Override
     public RoleDto processInput(Void input, RequestInfo requestInfo, Context context) throws ApiGatewayException {
-        String roleName = roleNameThatIsNotNullOrBlank(requestInfo);
+        String roleName = timed(Phase.VALIDATION, () -> roleNameThatIsNotNullOrBlank(requestInfo));
 
         RoleDto searchObject = RoleDto.newBuilder().withName(roleName).build();
-        return databaseService.getRole(searchObject);
+        return timed(Phase.DATABASE, () -> databaseService.getRole(searchObject));
     }
 
     @Override
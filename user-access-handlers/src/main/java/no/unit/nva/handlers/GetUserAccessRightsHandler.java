@@ -0,0 +1,62 @@
+package no.unit.nva.handlers;
+
+import static java.util.Objects.isNull;
+import com.amazonaws.services.lambda.runtime.Context;
+import java.net.HttpURLConnection;
+import java.util.HashMap;
+import java.util.Map;
+import no.unit.nva.database.DatabaseService;
+import no.unit.nva.database.SharedDatabaseService;
+import no.unit.nva.handlers.RequestTimings.Phase;
+import no.unit.nva.useraccessmanagement.model.UserAccessRightsDto;
+import no.unit.nva.useraccessmanagement.model.UserDto;
+import nva.commons.apigateway.RequestInfo;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
+import nva.commons.core.Environment;
+import nva.commons.core.JacocoGenerated;
+
+/**
+ * Returns the username, the institution and the access rights of a user, for services that only need to know what a
+ * user is allowed to do. The response has the same ETag as the user, and when the If-None-Match header contains the
+ * ETag of the stored user, the response is 304 Not Modified without a body.
+ */
+public class GetUserAccessRightsHandler extends HandlerAccessingUser<Void, UserAccessRightsDto> {
+
+    public static final String CACHE_CONTROL_HEADER = "Cache-Control";
+    public static final String REVALIDATE_BEFORE_USE = "no-cache";
+
+    private final DatabaseService databaseService;
+
+    @JacocoGenerated
+    public GetUserAccessRightsHandler() {
+        this(new Environment(), SharedDatabaseService.getInstance());
+    }
+
+    public GetUserAccessRightsHandler(Environment environment, DatabaseService databaseService) {
+        super(Void.class, environment);
+        this.databaseService = databaseService;
+    }
+
+    @Override
+    protected UserAccessRightsDto processInput(Void input, RequestInfo requestInfo, Context context)
+        throws ApiGatewayException {
+        String username = timed(Phase.VALIDATION, () -> extractValidUserNameOrThrowException(requestInfo));
+        UserDto queryObject = UserDto.newBuilder().withUsername(username).build();
+        UserAccessRightsDto accessRights =
+            timed(Phase.DATABASE, () -> databaseService.getUserAccessRights(queryObject));
+        addAdditionalHeaders(() -> cachingHeaders(accessRights));
+        return ifNoneMatchHeaderContainsVersion(requestInfo, accessRights.getVersion()) ? null : accessRights;
+    }
+
+    @Override
+    protected Integer getSuccessStatusCode(Void input, UserAccessRightsDto output) {
+        return isNull(output) ? HttpURLConnection.HTTP_NOT_MODIFIED : HttpURLConnection.HTTP_OK;
+    }
+
+    /*Access rights may change at any time, so caches have to check the ETag before every use*/
+    private static Map<String, String> cachingHeaders(UserAccessRightsDto accessRights) {
+        Map<String, String> headers = new HashMap<>(etagHeaders(accessRights.getVersion()));
+        headers.put(CACHE_CONTROL_HEADER, REVALIDATE_BEFORE_USE);
+        return headers;
+    }
+}
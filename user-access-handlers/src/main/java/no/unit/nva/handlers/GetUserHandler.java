@@ -1,12 +1,13 @@
 package no.unit.nva.handlers;
 
-import static java.util.function.Predicate.not;
 import com.amazonaws.services.lambda.runtime.Context;
 import java.net.HttpURLConnection;
 import java.util.Optional;
 import no.unit.nva.database.DatabaseService;
-import no.unit.nva.database.DatabaseServiceImpl;
-import no.unit.nva.useraccessmanagement.exceptions.BadRequestException;
+import no.unit.nva.database.SharedDatabaseService;
+import no.unit.nva.database.UserFields;
+import no.unit.nva.handlers.RequestTimings.Phase;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
 import no.unit.nva.useraccessmanagement.model.UserDto;
 import nva.commons.apigateway.RequestInfo;
 import nva.commons.apigateway.exceptions.ApiGatewayException;
@@ -15,11 +16,12 @@ import nva.commons.core.JacocoGenerated;
 
 public class GetUserHandler extends HandlerAccessingUser<Void, UserDto> {
 
+    public static final String FIELDS_QUERY_PARAMETER = "fields";
     private final DatabaseService databaseService;
 
     @JacocoGenerated
     public GetUserHandler() {
-        this(new Environment(), new DatabaseServiceImpl());
+        this(new Environment(), SharedDatabaseService.getInstance());
     }
 
     public GetUserHandler(Environment environment, DatabaseService databaseService) {
@@ -31,9 +33,12 @@ public class GetUserHandler extends HandlerAccessingUser<Void, UserDto> {
     protected UserDto processInput(Void input, RequestInfo requestInfo, Context context)
         throws ApiGatewayException {
 
-        String username = extractValidUserNameOrThrowException(requestInfo);
+        String username = timed(Phase.VALIDATION, () -> extractValidUserNameOrThrowException(requestInfo));
+        UserFields fields = timed(Phase.VALIDATION, () -> extractFields(requestInfo));
         UserDto queryObject = UserDto.newBuilder().withUsername(username).build();
-        return databaseService.getUser(queryObject);
+        UserDto user = timed(Phase.DATABASE, () -> databaseService.getUser(queryObject, fields));
+        addAdditionalHeaders(() -> etagHeaders(user));
+        return user;
     }
 
     @Override
@@ -41,12 +46,11 @@ public class GetUserHandler extends HandlerAccessingUser<Void, UserDto> {
         return HttpURLConnection.HTTP_OK;
     }
 
-    private String extractValidUserNameOrThrowException(RequestInfo requestInfo) throws BadRequestException {
-        return Optional.of(requestInfo)
-                   .map(RequestInfo::getPathParameters)
-                   .map(map -> map.get(USERNAME_PATH_PARAMETER))
-                   .map(this::decodeUrlPart)
-                   .filter(not(String::isBlank))
-                   .orElseThrow(() -> new BadRequestException(EMPTY_USERNAME_PATH_PARAMETER_ERROR));
+    private static UserFields extractFields(RequestInfo requestInfo) throws InvalidInputException {
+        String fields = Optional.of(requestInfo)
+            .map(RequestInfo::getQueryParameters)
+            .map(queryParams -> queryParams.get(FIELDS_QUERY_PARAMETER))
+            .orElse(null);
+        return UserFields.fromQueryParameter(fields);
     }
 }
@@ -1,16 +1,32 @@
 package no.unit.nva.handlers;
 
+import static java.util.Objects.isNull;
+import static java.util.function.Predicate.not;
 import java.nio.charset.StandardCharsets;
-import nva.commons.apigateway.ApiGatewayHandler;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import no.unit.nva.useraccessmanagement.exceptions.BadRequestException;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import no.unit.nva.useraccessmanagement.model.UserDto;
+import nva.commons.apigateway.RequestInfo;
 import nva.commons.core.Environment;
 
-public abstract class HandlerAccessingUser<I, O> extends ApiGatewayHandler<I, O> {
+public abstract class HandlerAccessingUser<I, O> extends HandlerRecordingTimings<I, O> {
 
     public static String USERS_RELATIVE_PATH = "/users/";
     public static String USERNAME_PATH_PARAMETER = "username";
 
     public static final String EMPTY_USERNAME_PATH_PARAMETER_ERROR =
         "Path parameter \"" + USERNAME_PATH_PARAMETER + "\" cannot be empty";
+    public static final String ETAG_HEADER = "ETag";
+    public static final String IF_MATCH_HEADER = "If-Match";
+    public static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    public static final String INVALID_IF_MATCH_HEADER_ERROR = "If-Match header should contain an ETag of the user: ";
+    private static final Pattern VERSION_ETAG = Pattern.compile("^\"?(\\d{1,18})\"?$");
 
     public HandlerAccessingUser(Class<I> iclass, Environment environment) {
         super(iclass, environment);
@@ -19,4 +35,89 @@ public abstract class HandlerAccessingUser<I, O> extends ApiGatewayHandler<I, O>
     protected String decodeUrlPart(String encodedString) {
         return java.net.URLDecoder.decode(encodedString, StandardCharsets.UTF_8);
     }
+
+    /**
+     * Creates the ETag header of a user. The ETag is the version of the stored user.
+     *
+     * @param user the user.
+     * @return the ETag header or no headers when the version of the user is unknown.
+     */
+    protected static Map<String, String> etagHeaders(UserDto user) {
+        return etagHeaders(user.getVersion());
+    }
+
+    /**
+     * Creates the ETag header of a version of a user.
+     *
+     * @param version the version of the stored user.
+     * @return the ETag header or no headers when the version is {@code null}.
+     */
+    protected static Map<String, String> etagHeaders(Long version) {
+        return Optional.ofNullable(version)
+            .map(value -> exposedHeader(ETAG_HEADER, "\"" + value + "\""))
+            .orElse(Collections.emptyMap());
+    }
+
+    /**
+     * Extracts the username from the path parameters of the request.
+     *
+     * @param requestInfo the request.
+     * @return the URL-decoded username.
+     * @throws BadRequestException when the username is missing or blank.
+     */
+    protected String extractValidUserNameOrThrowException(RequestInfo requestInfo) throws BadRequestException {
+        return Optional.of(requestInfo)
+                   .map(RequestInfo::getPathParameters)
+                   .map(map -> map.get(USERNAME_PATH_PARAMETER))
+                   .map(this::decodeUrlPart)
+                   .filter(not(String::isBlank))
+                   .orElseThrow(() -> new BadRequestException(EMPTY_USERNAME_PATH_PARAMETER_ERROR));
+    }
+
+    /**
+     * Reads the version of the user from the If-Match header. HTTP header names are case-insensitive.
+     *
+     * @param requestInfo the request.
+     * @return the version in the If-Match header or empty when there is no If-Match header.
+     * @throws InvalidInputException when the header does not contain an ETag created by {@link #etagHeaders}.
+     */
+    protected static Optional<Long> readVersionFromIfMatchHeader(RequestInfo requestInfo) throws InvalidInputException {
+        Optional<String> ifMatch = readHeader(requestInfo, IF_MATCH_HEADER);
+        if (ifMatch.isEmpty()) {
+            return Optional.empty();
+        }
+        Matcher matcher = VERSION_ETAG.matcher(ifMatch.get().strip());
+        if (!matcher.matches()) {
+            throw new InvalidInputException(INVALID_IF_MATCH_HEADER_ERROR + ifMatch.get());
+        }
+        return Optional.of(Long.parseLong(matcher.group(1)));
+    }
+
+    /**
+     * Checks whether the If-None-Match header of the request contains the ETag of a version of a user, in which case
+     * the client has the current representation. Values that are not ETags created by {@link #etagHeaders} never
+     * match, since they cannot belong to the current version.
+     *
+     * @param requestInfo the request.
+     * @param version     the version of the stored user.
+     * @return {@code true} if the header contains the ETag of the version.
+     */
+    protected static boolean ifNoneMatchHeaderContainsVersion(RequestInfo requestInfo, Long version) {
+        if (isNull(version)) {
+            return false;
+        }
+        return readHeader(requestInfo, IF_NONE_MATCH_HEADER).stream()
+            .flatMap(ifNoneMatch -> Arrays.stream(ifNoneMatch.split(",")))
+            .map(etag -> VERSION_ETAG.matcher(etag.strip()))
+            .anyMatch(matcher -> matcher.matches() && version.equals(Long.parseLong(matcher.group(1))));
+    }
+
+    /*HTTP header names are case-insensitive*/
+    private static Optional<String> readHeader(RequestInfo requestInfo, String headerName) {
+        return Optional.ofNullable(requestInfo.getHeaders())
+            .flatMap(headers -> headers.entrySet().stream()
+                .filter(header -> headerName.equalsIgnoreCase(header.getKey()))
+                .map(Map.Entry::getValue)
+                .findAny());
+    }
 }
@@ -0,0 +1,87 @@
+package no.unit.nva.handlers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import no.unit.nva.database.UserPage;
+import no.unit.nva.handlers.RequestTimings.Phase;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import no.unit.nva.useraccessmanagement.model.UserList;
+import nva.commons.apigateway.RequestInfo;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
+import nva.commons.core.Environment;
+import org.apache.http.HttpStatus;
+
+/**
+ * Lists users one page at a time. The page size is read from the query parameter {@link #LIMIT_QUERY_PARAMETER} and
+ * the cursor of the page from {@link #CURSOR_QUERY_PARAMETER}. When there may be more users, the cursor of the next
+ * page is returned in the header {@link #NEXT_CURSOR_HEADER}.
+ *
+ * <p>A request without limit gets a page of {@link #DEFAULT_PAGE_SIZE} users. The users of all pages are never
+ * collected in one response, so the size of a response is bounded by {@link #MAX_PAGE_SIZE} users. Clients that need
+ * all the users follow the {@link #NEXT_CURSOR_HEADER} until it is no longer returned.
+ */
+public abstract class HandlerListingUsers extends HandlerRecordingTimings<Void, UserList> {
+
+    public static final String LIMIT_QUERY_PARAMETER = "limit";
+    public static final String CURSOR_QUERY_PARAMETER = "cursor";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final String INVALID_LIMIT_ERROR = "Query parameter limit should be a positive integer. Limit was: ";
+    private static final Pattern POSITIVE_INTEGER = Pattern.compile("0*[1-9][0-9]{0,8}");
+
+    public HandlerListingUsers(Environment environment) {
+        super(Void.class, environment);
+    }
+
+    @Override
+    protected UserList processInput(Void input, RequestInfo requestInfo, Context context) throws ApiGatewayException {
+        Optional<String> limit = extractQueryParameter(requestInfo, LIMIT_QUERY_PARAMETER);
+        String cursor = extractQueryParameter(requestInfo, CURSOR_QUERY_PARAMETER).orElse(null);
+        int pageSize = timed(Phase.VALIDATION, () -> pageSize(limit));
+        UserPage page = timed(Phase.DATABASE, () -> listUsers(requestInfo, pageSize, cursor));
+        addAdditionalHeaders(() -> nextCursorHeaders(page));
+        return UserList.fromList(page.getUsers());
+    }
+
+    @Override
+    protected Integer getSuccessStatusCode(Void input, UserList output) {
+        return HttpStatus.SC_OK;
+    }
+
+    /**
+     * Reads one page of users.
+     *
+     * @param requestInfo the request.
+     * @param pageSize    the maximum number of users in the page.
+     * @param cursor      the cursor sent by the client, or {@code null} for the first page.
+     * @return the page.
+     * @throws ApiGatewayException when the request is not valid.
+     */
+    protected abstract UserPage listUsers(RequestInfo requestInfo, int pageSize, String cursor)
+        throws ApiGatewayException;
+
+    private static int pageSize(Optional<String> limit) throws InvalidInputException {
+        if (limit.isEmpty()) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        int pageSize = parseLimit(limit.get());
+        return Math.min(pageSize, MAX_PAGE_SIZE);
+    }
+
+    private static int parseLimit(String limit) throws InvalidInputException {
+        if (!POSITIVE_INTEGER.matcher(limit.strip()).matches()) {
+            throw new InvalidInputException(INVALID_LIMIT_ERROR + limit);
+        }
+        return Integer.parseInt(limit.strip());
+    }
+
+    private static Map<String, String> nextCursorHeaders(UserPage page) {
+        return page.getNextCursor()
+            .map(cursor -> exposedHeader(NEXT_CURSOR_HEADER, cursor))
+            .orElse(Collections.emptyMap());
+    }
+}
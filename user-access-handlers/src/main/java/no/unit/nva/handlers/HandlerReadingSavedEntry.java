@@ -0,0 +1,38 @@
+package no.unit.nva.handlers;
+
+import static nva.commons.core.attempt.Try.attempt;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import no.unit.nva.handlers.RequestTimings.Phase;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import nva.commons.core.Environment;
+import nva.commons.core.attempt.Failure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handler that returns an entry that it has just written to the database. The entry is read with a strongly consistent
+ * read, so one read is enough and there is no waiting for the write to propagate.
+ */
+public abstract class HandlerReadingSavedEntry<I, O> extends HandlerRecordingTimings<I, O> {
+
+    public static final String FAILED_TO_FETCH_OBJECT = "Failed to fetch saved object.";
+    public static final String INVALID_ENTRY_IN_DATABASE = "Saved invalid entry in database.";
+    private static final Logger logger = LoggerFactory.getLogger(HandlerReadingSavedEntry.class);
+
+    protected HandlerReadingSavedEntry(Class<I> iclass, Environment environment) {
+        super(iclass, environment);
+    }
+
+    protected Optional<O> fetchSavedEntry(Callable<O> fetchEntry) {
+        return timed(Phase.SAVED_ENTRY_READ, () -> attempt(fetchEntry).toOptional(this::logMessage));
+    }
+
+    private <S> void logMessage(Failure<S> failure) {
+        if (failure.getException() instanceof InvalidEntryInternalException) {
+            logger.error(INVALID_ENTRY_IN_DATABASE, failure.getException());
+        } else {
+            logger.debug(FAILED_TO_FETCH_OBJECT, failure.getException());
+        }
+    }
+}
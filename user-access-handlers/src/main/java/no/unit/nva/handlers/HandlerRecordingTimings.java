@@ -0,0 +1,108 @@
+package no.unit.nva.handlers;
+
+import static java.util.function.Predicate.not;
+import com.amazonaws.services.lambda.runtime.Context;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import no.unit.nva.handlers.RequestTimings.Phase;
+import no.unit.nva.handlers.RequestTimings.TimedAction;
+import no.unit.nva.handlers.RequestTimings.TimedCall;
+import nva.commons.apigateway.ApiGatewayHandler;
+import nva.commons.apigateway.RequestInfo;
+import nva.commons.core.Environment;
+
+/**
+ * Handler that records the time every request spends in each {@link Phase} and writes it as one
+ * {@link RequestTimings} log line when the request ends. The first request of the Lambda instance is flagged as cold
+ * start.
+ */
+public abstract class HandlerRecordingTimings<I, O> extends ApiGatewayHandler<I, O> {
+
+    public static final String EXPOSE_HEADERS_HEADER = "Access-Control-Expose-Headers";
+    public static final String CHECKPOINT_QUERY_PARAMETER = "checkpoint";
+    public static final Duration RESPONSE_TIME_MARGIN = Duration.ofSeconds(5);
+
+    private static final AtomicBoolean coldStart = new AtomicBoolean(true);
+
+    /*Calls of processInput outside handleRequest are timed but never written*/
+    private RequestTimings timings = RequestTimings.start(getClass().getSimpleName(), null, false);
+
+    protected HandlerRecordingTimings(Class<I> iclass, Environment environment) {
+        super(iclass, environment);
+    }
+
+    @Override
+    public void handleRequest(InputStream inputStream, OutputStream outputStream, Context context)
+        throws IOException {
+        timings = RequestTimings.start(getClass().getSimpleName(), requestId(context), coldStart.getAndSet(false));
+        try {
+            super.handleRequest(inputStream, outputStream, context);
+        } finally {
+            timings.finish();
+        }
+    }
+
+    protected <T, E extends Exception> T timed(Phase phase, TimedCall<T, E> call) throws E {
+        return timings.time(phase, call);
+    }
+
+    protected <E extends Exception> void timedRun(Phase phase, TimedAction<E> action) throws E {
+        timings.run(phase, action);
+    }
+
+    /**
+     * A response header together with the CORS header that lets browser clients read it.
+     *
+     * @param name  the name of the header.
+     * @param value the value of the header.
+     * @return the header and the {@link #EXPOSE_HEADERS_HEADER} that exposes it.
+     */
+    protected static Map<String, String> exposedHeader(String name, String value) {
+        return Map.of(name, value, EXPOSE_HEADERS_HEADER, name);
+    }
+
+    /**
+     * A query parameter of the request.
+     *
+     * @param requestInfo   the request.
+     * @param parameterName the name of the query parameter.
+     * @return the value of the query parameter, empty when it is missing or blank.
+     */
+    protected static Optional<String> extractQueryParameter(RequestInfo requestInfo, String parameterName) {
+        return Optional.of(requestInfo)
+            .map(RequestInfo::getQueryParameters)
+            .map(queryParams -> queryParams.get(parameterName))
+            .filter(not(String::isBlank));
+    }
+
+    /**
+     * The checkpoint that a long-running request continues from, sent by the client in the query parameter
+     * {@link #CHECKPOINT_QUERY_PARAMETER}.
+     *
+     * @param requestInfo the request.
+     * @return the checkpoint, or {@code null} when the request starts from the beginning.
+     */
+    protected static String extractCheckpoint(RequestInfo requestInfo) {
+        return extractQueryParameter(requestInfo, CHECKPOINT_QUERY_PARAMETER).orElse(null);
+    }
+
+    /**
+     * The time that a long-running request can spend before it has to stop and return a checkpoint.
+     *
+     * @param context the context of the invocation.
+     * @return the remaining time of the invocation minus {@link #RESPONSE_TIME_MARGIN}.
+     */
+    protected static Duration timeBudget(Context context) {
+        Duration remainingTime = Duration.ofMillis(context.getRemainingTimeInMillis());
+        return remainingTime.minus(RESPONSE_TIME_MARGIN);
+    }
+
+    private static String requestId(Context context) {
+        return Optional.ofNullable(context).map(Context::getAwsRequestId).orElse(null);
+    }
+}
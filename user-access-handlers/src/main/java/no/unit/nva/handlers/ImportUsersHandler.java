@@ -0,0 +1,54 @@
+package no.unit.nva.handlers;
+
+import static java.util.Objects.isNull;
+import com.amazonaws.services.lambda.runtime.Context;
+import no.unit.nva.database.DatabaseService;
+import no.unit.nva.database.SharedDatabaseService;
+import no.unit.nva.handlers.RequestTimings.Phase;
+import no.unit.nva.useraccessmanagement.exceptions.BadRequestException;
+import no.unit.nva.useraccessmanagement.model.UserImportReport;
+import no.unit.nva.useraccessmanagement.model.UserList;
+import nva.commons.apigateway.RequestInfo;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
+import nva.commons.core.Environment;
+import nva.commons.core.JacocoGenerated;
+import org.apache.http.HttpStatus;
+
+/**
+ * Adds a list of users in one request, for onboarding institutions. The response contains the outcome of every user,
+ * so the users that were not created can be corrected and sent again.
+ */
+public class ImportUsersHandler extends HandlerRecordingTimings<UserList, UserImportReport> {
+
+    public static final String EMPTY_IMPORT_ERROR = "Request body should contain a list of users";
+
+    private final DatabaseService databaseService;
+
+    @JacocoGenerated
+    public ImportUsersHandler() {
+        this(new Environment(), SharedDatabaseService.getInstance());
+    }
+
+    public ImportUsersHandler(Environment environment, DatabaseService databaseService) {
+        super(UserList.class, environment);
+        this.databaseService = databaseService;
+    }
+
+    @Override
+    protected UserImportReport processInput(UserList input, RequestInfo requestInfo, Context context)
+        throws ApiGatewayException {
+        timedRun(Phase.VALIDATION, () -> validateRequest(input));
+        return timed(Phase.DATABASE, () -> databaseService.addUsers(input));
+    }
+
+    @Override
+    protected Integer getSuccessStatusCode(UserList input, UserImportReport output) {
+        return HttpStatus.SC_OK;
+    }
+
+    private static void validateRequest(UserList input) throws BadRequestException {
+        if (isNull(input)) {
+            throw new BadRequestException(EMPTY_IMPORT_ERROR);
+        }
+    }
+}
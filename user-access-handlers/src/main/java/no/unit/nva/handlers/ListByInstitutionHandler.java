@@ -1,23 +1,21 @@
 package no.unit.nva.handlers;
 
-import static java.util.function.Predicate.not;
-import com.amazonaws.services.lambda.runtime.Context;
-import java.util.List;
 import java.util.Optional;
 import no.unit.nva.database.DatabaseService;
-import no.unit.nva.database.DatabaseServiceImpl;
-import no.unit.nva.useraccessmanagement.model.UserDto;
-import no.unit.nva.useraccessmanagement.model.UserList;
-import nva.commons.apigateway.ApiGatewayHandler;
+import no.unit.nva.database.SharedDatabaseService;
+import no.unit.nva.database.UserFields;
+import no.unit.nva.database.UserPage;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
 import nva.commons.apigateway.RequestInfo;
-import nva.commons.apigateway.exceptions.ApiGatewayException;
 import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
-import org.apache.http.HttpStatus;
 
-public class ListByInstitutionHandler extends ApiGatewayHandler<Void, UserList> {
+public class ListByInstitutionHandler extends HandlerListingUsers {
 
     public static final String INSTITUTION_ID_QUERY_PARAMETER = "institution";
+    public static final String FIELDS_QUERY_PARAMETER = "fields";
+    public static final String PREFIX_QUERY_PARAMETER = "prefix";
+    public static final String NAME_QUERY_PARAMETER = "name";
     public static final String MISSING_QUERY_PARAMETER_ERROR = "Missing institution path parameter. "
         + "Probably error in the Lambda function definition.";
     private final DatabaseService databaseService;
@@ -25,31 +23,32 @@ public class ListByInstitutionHandler extends ApiGatewayHandler<Void, UserList>
     @SuppressWarnings("unused")
     @JacocoGenerated
     public ListByInstitutionHandler() {
-        this(new Environment(), new DatabaseServiceImpl());
+        this(new Environment(), SharedDatabaseService.getInstance());
     }
 
     public ListByInstitutionHandler(Environment environment, DatabaseService databaseService) {
-        super(Void.class, environment);
+        super(environment);
         this.databaseService = databaseService;
     }
 
     @Override
-    protected UserList processInput(Void input, RequestInfo requestInfo, Context context) throws ApiGatewayException {
+    protected UserPage listUsers(RequestInfo requestInfo, int pageSize, String cursor) throws InvalidInputException {
         String institutionId = extractInstitutionIdFromRequest(requestInfo);
-        List<UserDto> users = databaseService.listUsers(institutionId);
-        return UserList.fromList(users);
-    }
-
-    @Override
-    protected Integer getSuccessStatusCode(Void input, UserList output) {
-        return HttpStatus.SC_OK;
+        UserFields fields = UserFields.fromQueryParameter(
+            extractQueryParameter(requestInfo, FIELDS_QUERY_PARAMETER).orElse(null));
+        Optional<String> name = extractQueryParameter(requestInfo, NAME_QUERY_PARAMETER);
+        if (name.isPresent()) {
+            return new UserPage(databaseService.searchUsersByName(institutionId, name.get(), pageSize, fields), null);
+        }
+        Optional<String> usernamePrefix = extractQueryParameter(requestInfo, PREFIX_QUERY_PARAMETER);
+        if (usernamePrefix.isPresent()) {
+            return databaseService.searchUsers(institutionId, usernamePrefix.get(), pageSize, cursor, fields);
+        }
+        return databaseService.listUsers(institutionId, pageSize, cursor, fields);
     }
 
     private String extractInstitutionIdFromRequest(RequestInfo requestInfo) {
-        return Optional.of(requestInfo)
-            .map(RequestInfo::getQueryParameters)
-            .map(queryParams -> queryParams.get(INSTITUTION_ID_QUERY_PARAMETER))
-            .filter(not(String::isBlank))
+        return extractQueryParameter(requestInfo, INSTITUTION_ID_QUERY_PARAMETER)
             .orElseThrow(() -> new IllegalStateException(MISSING_QUERY_PARAMETER_ERROR));
     }
 }
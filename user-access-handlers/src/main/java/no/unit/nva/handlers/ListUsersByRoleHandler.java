@@ -0,0 +1,46 @@
+package no.unit.nva.handlers;
+
+import static java.util.function.Predicate.not;
+import java.util.Optional;
+import no.unit.nva.database.DatabaseService;
+import no.unit.nva.database.SharedDatabaseService;
+import no.unit.nva.database.UserPage;
+import no.unit.nva.useraccessmanagement.exceptions.BadRequestException;
+import nva.commons.apigateway.RequestInfo;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
+import nva.commons.core.Environment;
+import nva.commons.core.JacocoGenerated;
+
+/**
+ * Lists the users that have the role in the path parameter {@link GetRoleHandler#ROLE_PATH_PARAMETER}.
+ */
+public class ListUsersByRoleHandler extends HandlerListingUsers {
+
+    private final DatabaseService databaseService;
+
+    /**
+     * Default constructor used by AWS Lambda.
+     */
+    @JacocoGenerated
+    public ListUsersByRoleHandler() {
+        this(new Environment(), SharedDatabaseService.getInstance());
+    }
+
+    public ListUsersByRoleHandler(Environment environment, DatabaseService databaseService) {
+        super(environment);
+        this.databaseService = databaseService;
+    }
+
+    @Override
+    protected UserPage listUsers(RequestInfo requestInfo, int pageSize, String cursor) throws ApiGatewayException {
+        String roleName = roleNameThatIsNotNullOrBlank(requestInfo);
+        return databaseService.listUsersByRole(roleName, pageSize, cursor);
+    }
+
+    private static String roleNameThatIsNotNullOrBlank(RequestInfo requestInfo) throws BadRequestException {
+        return Optional.ofNullable(requestInfo.getPathParameters())
+            .map(pathParams -> pathParams.get(GetRoleHandler.ROLE_PATH_PARAMETER))
+            .filter(not(String::isBlank))
+            .orElseThrow(() -> new BadRequestException(GetRoleHandler.EMPTY_ROLE_NAME));
+    }
+}
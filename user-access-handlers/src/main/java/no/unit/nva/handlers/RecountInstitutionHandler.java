@@ -0,0 +1,63 @@
+package no.unit.nva.handlers;
+
+import static no.unit.nva.handlers.GetInstitutionStatsHandler.INSTITUTION_QUERY_PARAMETER;
+import static no.unit.nva.handlers.GetInstitutionStatsHandler.MISSING_INSTITUTION_ERROR;
+import com.amazonaws.services.lambda.runtime.Context;
+import java.util.Map;
+import no.unit.nva.database.DatabaseService;
+import no.unit.nva.database.InstitutionRecountResult;
+import no.unit.nva.database.SharedDatabaseService;
+import no.unit.nva.handlers.RequestTimings.Phase;
+import no.unit.nva.useraccessmanagement.exceptions.BadRequestException;
+import nva.commons.apigateway.RequestInfo;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
+import nva.commons.core.Environment;
+import nva.commons.core.JacocoGenerated;
+import org.apache.http.HttpStatus;
+
+/**
+ * Counts the users of the institution in the query parameter {@link
+ * GetInstitutionStatsHandler#INSTITUTION_QUERY_PARAMETER} and sets its counters to the absolute numbers, so that
+ * counters that report a recount as needed are repaired. When the users cannot be counted within the remaining time
+ * of the invocation, or users of the institution were written during the recount, the header {@link
+ * #RECOUNT_COMPLETE_HEADER} is {@code false} and the request should be repeated until it is {@code true}. The number
+ * of users counted by the request is returned in the header {@link #COUNTED_USERS_HEADER}.
+ */
+public class RecountInstitutionHandler extends HandlerRecordingTimings<Void, Void> {
+
+    public static final String COUNTED_USERS_HEADER = "X-Counted-Users";
+    public static final String RECOUNT_COMPLETE_HEADER = "X-Recount-Complete";
+
+    private final DatabaseService databaseService;
+
+    @JacocoGenerated
+    public RecountInstitutionHandler() {
+        this(new Environment(), SharedDatabaseService.getInstance());
+    }
+
+    public RecountInstitutionHandler(Environment environment, DatabaseService databaseService) {
+        super(Void.class, environment);
+        this.databaseService = databaseService;
+    }
+
+    @Override
+    protected Void processInput(Void input, RequestInfo requestInfo, Context context) throws ApiGatewayException {
+        String institution = timed(Phase.VALIDATION, () -> institutionThatIsNotNullOrBlank(requestInfo));
+        InstitutionRecountResult result =
+            timed(Phase.DATABASE, () -> databaseService.recountInstitution(institution, timeBudget(context)));
+        addAdditionalHeaders(() -> Map.of(
+            COUNTED_USERS_HEADER, String.valueOf(result.getCountedUsers()),
+            RECOUNT_COMPLETE_HEADER, String.valueOf(result.isComplete())));
+        return null;
+    }
+
+    @Override
+    protected Integer getSuccessStatusCode(Void input, Void output) {
+        return HttpStatus.SC_OK;
+    }
+
+    private static String institutionThatIsNotNullOrBlank(RequestInfo requestInfo) throws BadRequestException {
+        return extractQueryParameter(requestInfo, INSTITUTION_QUERY_PARAMETER)
+            .orElseThrow(() -> new BadRequestException(MISSING_INSTITUTION_ERROR));
+    }
+}
@@ -0,0 +1,217 @@
+package no.unit.nva.handlers;
+
+import static nva.commons.core.JsonUtils.objectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.EnumMap;
+import java.util.Map;
+import no.unit.nva.database.DynamoDbMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The time one request spends in each {@link Phase}, written as one log line in the CloudWatch embedded metric format
+ * with the handler as dimension.
+ *
+ * <p>The handler times validation, database calls and the read of a saved entry explicitly. The time before the
+ * first timed phase is input parsing, and the time after the last timed phase is serialization of the response. The
+ * timed phases must not be nested.
+ */
+public final class RequestTimings {
+
+    public static final String HANDLER_DIMENSION = "Handler";
+    public static final String TOTAL_LATENCY_METRIC = "RequestLatency";
+    public static final String COLD_START_PROPERTY = "ColdStart";
+    public static final String REQUEST_ID_PROPERTY = "RequestId";
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final Logger logger = LoggerFactory.getLogger(RequestTimings.class);
+
+    private final String handler;
+    private final String requestId;
+    private final boolean coldStart;
+    private final long startNanos;
+    private final Map<Phase, Long> phaseNanos = new EnumMap<>(Phase.class);
+    private Long firstPhaseStartNanos;
+    private Long lastPhaseEndNanos;
+    private Long endNanos;
+
+    private RequestTimings(String handler, String requestId, boolean coldStart) {
+        this.handler = handler;
+        this.requestId = requestId;
+        this.coldStart = coldStart;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Starts timing a request.
+     *
+     * @param handler   the name of the handler.
+     * @param requestId the AWS request id, or {@code null} when it is unknown.
+     * @param coldStart whether the request is the first request of the Lambda instance.
+     * @return the timings of the request.
+     */
+    public static RequestTimings start(String handler, String requestId, boolean coldStart) {
+        return new RequestTimings(handler, requestId, coldStart);
+    }
+
+    /**
+     * Runs a call and adds its duration to a phase.
+     *
+     * @param phase the phase.
+     * @param call  the call.
+     * @param <T>   the result of the call.
+     * @param <E>   the exception of the call.
+     * @return the result of the call.
+     * @throws E when the call fails.
+     */
+    public <T, E extends Exception> T time(Phase phase, TimedCall<T, E> call) throws E {
+        long phaseStart = System.nanoTime();
+        if (firstPhaseStartNanos == null) {
+            firstPhaseStartNanos = phaseStart;
+        }
+        try {
+            return call.call();
+        } finally {
+            lastPhaseEndNanos = System.nanoTime();
+            phaseNanos.merge(phase, lastPhaseEndNanos - phaseStart, Long::sum);
+        }
+    }
+
+    /**
+     * Runs an action and adds its duration to a phase.
+     *
+     * @param phase  the phase.
+     * @param action the action.
+     * @param <E>    the exception of the action.
+     * @throws E when the action fails.
+     */
+    public <E extends Exception> void run(Phase phase, TimedAction<E> action) throws E {
+        time(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Ends the request and writes its timings.
+     */
+    public void finish() {
+        endNanos = System.nanoTime();
+        logger.info(toEmfLine());
+    }
+
+    /**
+     * The time spent in a phase.
+     *
+     * @param phase the phase.
+     * @return the time in milliseconds.
+     */
+    public double millis(Phase phase) {
+        return nanos(phase) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Creates the log line in the CloudWatch embedded metric format.
+     *
+     * @return a JSON object in one line.
+     */
+    public String toEmfLine() {
+        ObjectNode line = objectMapper.createObjectNode();
+        line.set("_aws", emfMetadata());
+        line.put(HANDLER_DIMENSION, handler);
+        line.put(REQUEST_ID_PROPERTY, requestId);
+        line.put(COLD_START_PROPERTY, coldStart);
+        line.put(TOTAL_LATENCY_METRIC, (end() - startNanos) / NANOS_PER_MILLI);
+        for (Phase phase : Phase.values()) {
+            line.put(phase.getMetricName(), millis(phase));
+        }
+        return line.toString();
+    }
+
+    /*A request that fails before the first phase has spent all its time reading the input*/
+    private long nanos(Phase phase) {
+        if (phase == Phase.INPUT_PARSING) {
+            return (firstPhaseStartNanos == null ? end() : firstPhaseStartNanos) - startNanos;
+        }
+        if (phase == Phase.SERIALIZATION) {
+            return lastPhaseEndNanos == null ? 0 : end() - lastPhaseEndNanos;
+        }
+        return phaseNanos.getOrDefault(phase, 0L);
+    }
+
+    private long end() {
+        return endNanos == null ? System.nanoTime() : endNanos;
+    }
+
+    private ObjectNode emfMetadata() {
+        ObjectNode directive = objectMapper.createObjectNode();
+        directive.put("Namespace", DynamoDbMetrics.NAMESPACE);
+        directive.putArray("Dimensions").addArray().add(HANDLER_DIMENSION);
+        ArrayNode metrics = directive.putArray("Metrics");
+        metrics.addObject().put("Name", TOTAL_LATENCY_METRIC).put("Unit", DynamoDbMetrics.MILLISECONDS_UNIT);
+        for (Phase phase : Phase.values()) {
+            metrics.addObject().put("Name", phase.getMetricName()).put("Unit", DynamoDbMetrics.MILLISECONDS_UNIT);
+        }
+
+        ObjectNode metadata = objectMapper.createObjectNode();
+        metadata.put("Timestamp", System.currentTimeMillis());
+        metadata.putArray("CloudWatchMetrics").add(directive);
+        return metadata;
+    }
+
+    public enum Phase {
+        /**
+         * Reading the request and parsing the input, until the first timed phase.
+         */
+        INPUT_PARSING("InputParsingLatency"),
+        /**
+         * Checking the path parameters, query parameters, headers and body of the request.
+         */
+        VALIDATION("ValidationLatency"),
+        /**
+         * Calls to the database service.
+         */
+        DATABASE("DatabaseLatency"),
+        /**
+         * Reading an entry that the handler has just written.
+         */
+        SAVED_ENTRY_READ("SavedEntryReadLatency"),
+        /**
+         * Creating and writing the response, after the last timed phase.
+         */
+        SERIALIZATION("SerializationLatency");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    /**
+     * A call that is timed in a phase.
+     *
+     * @param <T> the result of the call.
+     * @param <E> the exception of the call.
+     */
+    @FunctionalInterface
+    public interface TimedCall<T, E extends Exception> {
+
+        T call() throws E;
+    }
+
+    /**
+     * An action without result that is timed in a phase.
+     *
+     * @param <E> the exception of the action.
+     */
+    @FunctionalInterface
+    public interface TimedAction<E extends Exception> {
+
+        void run() throws E;
+    }
+}
@@ -0,0 +1,44 @@
+package no.unit.nva.handlers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import java.io.InputStream;
+import java.io.OutputStream;
+import no.unit.nva.database.DatabaseService;
+import no.unit.nva.database.SharedDatabaseService;
+import no.unit.nva.database.UserIndexBackfillResult;
+import nva.commons.core.JacocoGenerated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the backfill of the role edges and name tokens on a schedule, so that users whose indices could not be written
+ * after the user, for example because the invocation that wrote the user ended before its index writes, are listed by
+ * role and searched by name again without manual action. Each run continues from the checkpoint that the previous run
+ * stored in the table. The scheduled event is not read.
+ */
+public class ScheduledUserIndexBackfillHandler implements RequestStreamHandler {
+
+    public static final String BACKFILL_RUN_MESSAGE = "Scheduled user index backfill. Indexed, synced, complete: ";
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledUserIndexBackfillHandler.class);
+
+    private final DatabaseService databaseService;
+
+    @JacocoGenerated
+    public ScheduledUserIndexBackfillHandler() {
+        this(SharedDatabaseService.getInstance());
+    }
+
+    public ScheduledUserIndexBackfillHandler(DatabaseService databaseService) {
+        this.databaseService = databaseService;
+    }
+
+    @Override
+    public void handleRequest(InputStream input, OutputStream output, Context context) {
+        UserIndexBackfillResult result =
+            databaseService.continueUserIndexBackfill(HandlerRecordingTimings.timeBudget(context));
+        logger.info("{}{}, {}, {}", BACKFILL_RUN_MESSAGE, result.getIndexedUsers(), result.getSyncedUsers(),
+            result.isComplete());
+    }
+}
@@ -0,0 +1,91 @@
+package no.unit.nva.handlers;
+
+import static java.util.Objects.isNull;
+import static java.util.function.Predicate.not;
+import com.amazonaws.services.lambda.runtime.Context;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import no.unit.nva.database.DatabaseService;
+import no.unit.nva.database.RolePropagationResult;
+import no.unit.nva.database.SharedDatabaseService;
+import no.unit.nva.handlers.RequestTimings.Phase;
+import no.unit.nva.useraccessmanagement.exceptions.BadRequestException;
+import no.unit.nva.useraccessmanagement.model.RoleDto;
+import nva.commons.apigateway.RequestInfo;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
+import nva.commons.core.Environment;
+import nva.commons.core.JacocoGenerated;
+import org.apache.http.HttpStatus;
+
+/**
+ * Updates a role and writes the updated role in the users that have the role. When there are more users than can be
+ * updated within the remaining time of the invocation, the response contains the header {@link
+ * #PROPAGATION_CHECKPOINT_HEADER}, and the request should be repeated with the value of the header in the query
+ * parameter {@link #CHECKPOINT_QUERY_PARAMETER} until the header is no longer present. When some users could not be
+ * updated, their number is returned in the header {@link #PROPAGATION_FAILURES_HEADER}, and repeating the request
+ * without checkpoint retries them.
+ */
+public class UpdateRoleHandler extends HandlerRecordingTimings<RoleDto, RoleDto> {
+
+    public static final String PROPAGATION_CHECKPOINT_HEADER = "X-Propagation-Checkpoint";
+    public static final String PROPAGATION_FAILURES_HEADER = "X-Propagation-Failures";
+    public static final String HEADER_NAME_SEPARATOR = ", ";
+    public static final String INCONSISTENT_ROLE_NAME_ERROR =
+        "Role name in path is different from the role name in the body: ";
+
+    private final DatabaseService databaseService;
+
+    /**
+     * Default constructor used by AWS Lambda.
+     */
+    @JacocoGenerated
+    public UpdateRoleHandler() {
+        this(new Environment(), SharedDatabaseService.getInstance());
+    }
+
+    public UpdateRoleHandler(Environment environment, DatabaseService databaseService) {
+        super(RoleDto.class, environment);
+        this.databaseService = databaseService;
+    }
+
+    @Override
+    protected RoleDto processInput(RoleDto input, RequestInfo requestInfo, Context context)
+        throws ApiGatewayException {
+        timedRun(Phase.VALIDATION, () -> validateRoleNameInPath(input, requestInfo));
+        String checkpoint = extractCheckpoint(requestInfo);
+
+        timedRun(Phase.DATABASE, () -> databaseService.updateRole(input));
+        RolePropagationResult result =
+            timed(Phase.DATABASE, () -> databaseService.propagateRole(input, checkpoint, timeBudget(context)));
+        addAdditionalHeaders(() -> propagationHeaders(result));
+        return timed(Phase.SAVED_ENTRY_READ, () -> databaseService.getRoleWithConsistentRead(input));
+    }
+
+    @Override
+    protected Integer getSuccessStatusCode(RoleDto input, RoleDto output) {
+        return HttpStatus.SC_OK;
+    }
+
+    private static void validateRoleNameInPath(RoleDto input, RequestInfo requestInfo) throws BadRequestException {
+        String roleName = Optional.ofNullable(requestInfo.getPathParameters())
+            .map(pathParams -> pathParams.get(GetRoleHandler.ROLE_PATH_PARAMETER))
+            .filter(not(String::isBlank))
+            .orElseThrow(() -> new BadRequestException(GetRoleHandler.EMPTY_ROLE_NAME));
+        if (isNull(input) || !roleName.equals(input.getRoleName())) {
+            throw new BadRequestException(INCONSISTENT_ROLE_NAME_ERROR + roleName);
+        }
+    }
+
+    private static Map<String, String> propagationHeaders(RolePropagationResult result) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        result.getCheckpoint().ifPresent(checkpoint -> headers.put(PROPAGATION_CHECKPOINT_HEADER, checkpoint));
+        if (!result.getFailedUsers().isEmpty()) {
+            headers.put(PROPAGATION_FAILURES_HEADER, String.valueOf(result.getFailedUsers().size()));
+        }
+        if (!headers.isEmpty()) {
+            headers.put(EXPOSE_HEADERS_HEADER, String.join(HEADER_NAME_SEPARATOR, headers.keySet()));
+        }
+        return headers;
+    }
+}
@@ -7,7 +7,9 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
 import no.unit.nva.database.DatabaseService;
-import no.unit.nva.database.DatabaseServiceImpl;
+import no.unit.nva.database.SharedDatabaseService;
+import no.unit.nva.handlers.RequestTimings.Phase;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
 import no.unit.nva.useraccessmanagement.model.UserDto;
 import nva.commons.apigateway.RequestInfo;
@@ -26,7 +28,7 @@ public class UpdateUserHandler extends HandlerAccessingUser<UserDto, Void> {
     @JacocoGenerated
     public UpdateUserHandler() {
         this(new Environment(),
-            new DatabaseServiceImpl());
+            SharedDatabaseService.getInstance());
     }
 
     public UpdateUserHandler(Environment environment, DatabaseService databaseService) {
@@ -36,8 +38,8 @@ public class UpdateUserHandler extends HandlerAccessingUser<UserDto, Void> {
 
     @Override
     protected Void processInput(UserDto input, RequestInfo requestInfo, Context context) throws ApiGatewayException {
-        validateRequest(input, requestInfo);
-        databaseService.updateUser(input);
+        UserDto update = timed(Phase.VALIDATION, () -> validUpdate(input, requestInfo));
+        timedRun(Phase.DATABASE, () -> databaseService.updateUser(update));
         addAdditionalHeaders(addLocationHeaderToResponseSupplier(input));
         return null;
     }
@@ -47,6 +49,12 @@ public class UpdateUserHandler extends HandlerAccessingUser<UserDto, Void> {
         return HttpURLConnection.HTTP_ACCEPTED;
     }
 
+    private UserDto validUpdate(UserDto input, RequestInfo requestInfo)
+        throws InvalidInputException, InvalidEntryInternalException {
+        validateRequest(input, requestInfo);
+        return withVersionFromIfMatchHeader(input, requestInfo);
+    }
+
     private void validateRequest(UserDto input, RequestInfo requestInfo)
         throws InvalidInputException {
         String userIdFromPath = extractUsernameFromPathParameters(requestInfo);
@@ -58,6 +66,13 @@ public class UpdateUserHandler extends HandlerAccessingUser<UserDto, Void> {
         }
     }
 
+    /*The If-Match header takes precedence over a version in the body*/
+    private UserDto withVersionFromIfMatchHeader(UserDto input, RequestInfo requestInfo)
+        throws InvalidInputException, InvalidEntryInternalException {
+        Optional<Long> expectedVersion = readVersionFromIfMatchHeader(requestInfo);
+        return expectedVersion.isPresent() ? input.copy().withVersion(expectedVersion.get()).build() : input;
+    }
+
     private String extractUsernameFromPathParameters(RequestInfo requestInfo) {
         return Optional.ofNullable(requestInfo.getPathParameters())
                    .flatMap(pathParams -> Optional.ofNullable(pathParams.get(USERNAME_PATH_PARAMETER)))
@@ -1,6 +1,5 @@
 package no.unit.nva.handlers.authorizer;
 
-import static nva.commons.core.attempt.Try.attempt;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
 import com.amazonaws.services.secretsmanager.AWSSecretsManagerClientBuilder;
 import no.unit.commons.apigateway.authentication.RequestAuthorizer;
@@ -13,7 +12,8 @@ public class LambdaAuthorizer extends RequestAuthorizer {
     public static final String DEFAULT_PRINCIPAL_ID = "ServiceAccessingUsersAndRoles";
     public static final String AWS_SECRET_NAME_ENV_VAR = "API_SECRET_NAME";
     public static final String AWS_SECRET_KEY_ENV_VAR = "API_SECRET_KEY";
-    private final AWSSecretsManager awsSecretsManager;
+    private final SecretsReader secretsReader;
+    private final SecretCache secretCache;
 
     @JacocoGenerated
     public LambdaAuthorizer() {
@@ -21,8 +21,13 @@ public class LambdaAuthorizer extends RequestAuthorizer {
     }
 
     public LambdaAuthorizer(AWSSecretsManager awsSecretsManager, Environment environment) {
+        this(awsSecretsManager, environment, SecretCache.fromEnvironment(environment));
+    }
+
+    public LambdaAuthorizer(AWSSecretsManager awsSecretsManager, Environment environment, SecretCache secretCache) {
         super(environment);
-        this.awsSecretsManager = awsSecretsManager;
+        this.secretsReader = new SecretsReader(awsSecretsManager);
+        this.secretCache = secretCache;
     }
 
     @Override
@@ -34,9 +39,7 @@ public class LambdaAuthorizer extends RequestAuthorizer {
     protected String fetchSecret() {
         final String secretName = environment.readEnv(AWS_SECRET_NAME_ENV_VAR);
         final String secretKey = environment.readEnv(AWS_SECRET_KEY_ENV_VAR);
-        SecretsReader secretsReader = new SecretsReader(awsSecretsManager);
-        return attempt(() -> secretsReader.fetchSecret(secretName, secretKey))
-                   .orElseThrow();
+        return secretCache.get(() -> secretsReader.fetchSecret(secretName, secretKey));
     }
 
     @JacocoGenerated
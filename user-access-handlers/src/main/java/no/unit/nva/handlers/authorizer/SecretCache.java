@@ -0,0 +1,154 @@
+package no.unit.nva.handlers.authorizer;
+
+import static java.util.Objects.isNull;
+import static nva.commons.core.attempt.Try.attempt;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import nva.commons.core.Environment;
+import nva.commons.core.attempt.Failure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a secret in memory for as long as the Lambda container lives, so that Secrets Manager is not called for every
+ * authorization request. The secret is refreshed when it is older than the TTL minus the refresh-ahead period, so a
+ * failed refresh still leaves a valid secret in place. If fetching the secret fails, the last fetched value is used
+ * and the next fetch is not attempted before the retry delay has passed, so an outage of Secrets Manager does not
+ * cause one failing call per request. A secret older than the maximum staleness is never used.
+ *
+ * <p>Background threads are frozen between Lambda invocations, so the refresh happens in the request that finds the
+ * secret due for refresh.
+ */
+public class SecretCache {
+
+    public static final String SECRET_CACHE_TTL_ENV_VARIABLE = "API_SECRET_CACHE_TTL_SECONDS";
+    public static final String SECRET_CACHE_REFRESH_AHEAD_ENV_VARIABLE = "API_SECRET_CACHE_REFRESH_AHEAD_SECONDS";
+    public static final String SECRET_CACHE_RETRY_DELAY_ENV_VARIABLE = "API_SECRET_CACHE_RETRY_DELAY_SECONDS";
+    public static final String SECRET_CACHE_MAX_STALENESS_ENV_VARIABLE = "API_SECRET_CACHE_MAX_STALENESS_SECONDS";
+    public static final long DEFAULT_TTL_SECONDS = 300;
+    public static final long DEFAULT_REFRESH_AHEAD_SECONDS = 60;
+    public static final long DEFAULT_RETRY_DELAY_SECONDS = 10;
+    public static final long DEFAULT_MAX_STALENESS_SECONDS = 3600;
+    public static final String INVALID_CACHE_SETTING_WARNING = "Invalid secret cache setting, using default value: ";
+    public static final String FETCH_SECRET_ERROR = "Failed to fetch secret";
+    public static final String STALE_SECRET_WARNING = "Using secret fetched at: ";
+    public static final String SECRET_NOT_AVAILABLE_ERROR =
+        "Secret could not be fetched and there is no cached value that is recent enough";
+
+    private static final Logger logger = LoggerFactory.getLogger(SecretCache.class);
+
+    private final Duration ttl;
+    private final Duration refreshAhead;
+    private final Duration retryDelay;
+    private final Duration maxStaleness;
+    private final Clock clock;
+    private final Object lock = new Object();
+    private String secret;
+    private Instant fetchedAt;
+    private Instant nextFetchAt;
+
+    /**
+     * Creates a cache with the default retry delay and maximum staleness.
+     *
+     * @param ttl          the time a fetched secret is used before it is fetched again.
+     * @param refreshAhead how long before the end of the TTL the secret is fetched again.
+     * @param clock        the clock used for checking the age of the secret.
+     */
+    public SecretCache(Duration ttl, Duration refreshAhead, Clock clock) {
+        this(ttl, refreshAhead, Duration.ofSeconds(DEFAULT_RETRY_DELAY_SECONDS),
+            Duration.ofSeconds(DEFAULT_MAX_STALENESS_SECONDS), clock);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param ttl          the time a fetched secret is used before it is fetched again.
+     * @param refreshAhead how long before the end of the TTL the secret is fetched again.
+     * @param retryDelay   the time after a failed fetch during which the secret is not fetched again.
+     * @param maxStaleness the age after which a secret is no longer used, even when it cannot be fetched again.
+     * @param clock        the clock used for checking the age of the secret.
+     */
+    public SecretCache(Duration ttl, Duration refreshAhead, Duration retryDelay, Duration maxStaleness, Clock clock) {
+        this.ttl = ttl;
+        this.refreshAhead = refreshAhead;
+        this.retryDelay = retryDelay;
+        this.maxStaleness = maxStaleness;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a cache with the settings read from the environment variables {@link #SECRET_CACHE_TTL_ENV_VARIABLE},
+     * {@link #SECRET_CACHE_REFRESH_AHEAD_ENV_VARIABLE}, {@link #SECRET_CACHE_RETRY_DELAY_ENV_VARIABLE} and {@link
+     * #SECRET_CACHE_MAX_STALENESS_ENV_VARIABLE}. Missing or invalid values are replaced by the defaults.
+     *
+     * @param environment the environment.
+     * @return a {@link SecretCache}.
+     */
+    public static SecretCache fromEnvironment(Environment environment) {
+        long ttlSeconds = readNumber(environment, SECRET_CACHE_TTL_ENV_VARIABLE).orElse(DEFAULT_TTL_SECONDS);
+        long refreshAheadSeconds = readNumber(environment, SECRET_CACHE_REFRESH_AHEAD_ENV_VARIABLE)
+            .orElse(DEFAULT_REFRESH_AHEAD_SECONDS);
+        long retryDelaySeconds = readNumber(environment, SECRET_CACHE_RETRY_DELAY_ENV_VARIABLE)
+            .orElse(DEFAULT_RETRY_DELAY_SECONDS);
+        long maxStalenessSeconds = readNumber(environment, SECRET_CACHE_MAX_STALENESS_ENV_VARIABLE)
+            .orElse(DEFAULT_MAX_STALENESS_SECONDS);
+        return new SecretCache(Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(refreshAheadSeconds),
+            Duration.ofSeconds(retryDelaySeconds), Duration.ofSeconds(maxStalenessSeconds), Clock.systemUTC());
+    }
+
+    /**
+     * Returns the cached secret, fetching it first when the cached secret is due for refresh or when there is no
+     * cached secret, unless a fetch has failed within the retry delay.
+     *
+     * @param fetchSecret the call that fetches the secret from the secrets store.
+     * @return the secret.
+     * @throws IllegalStateException when the secret cannot be fetched and there is no cached secret that is younger
+     *                               than the maximum staleness.
+     */
+    public String get(Callable<String> fetchSecret) {
+        synchronized (lock) {
+            Instant now = clock.instant();
+            if (isNull(nextFetchAt) || !now.isBefore(nextFetchAt)) {
+                fetch(fetchSecret, now);
+            }
+            return cachedSecret(now);
+        }
+    }
+
+    private void fetch(Callable<String> fetchSecret, Instant now) {
+        Optional<String> fetchedSecret = attempt(fetchSecret).toOptional(SecretCache::logFetchFailure);
+        if (fetchedSecret.isPresent()) {
+            secret = fetchedSecret.get();
+            fetchedAt = now;
+            nextFetchAt = now.plus(ttl).minus(refreshAhead);
+        } else {
+            nextFetchAt = now.plus(retryDelay);
+        }
+    }
+
+    private String cachedSecret(Instant now) {
+        if (isNull(secret) || !now.isBefore(fetchedAt.plus(maxStaleness))) {
+            throw new IllegalStateException(SECRET_NOT_AVAILABLE_ERROR);
+        }
+        if (!now.isBefore(fetchedAt.plus(ttl).minus(refreshAhead))) {
+            logger.warn(STALE_SECRET_WARNING + fetchedAt);
+        }
+        return secret;
+    }
+
+    private static Optional<Long> readNumber(Environment environment, String variableName) {
+        return environment.readEnvOpt(variableName)
+            .flatMap(value -> attempt(() -> Long.parseLong(value)).toOptional(SecretCache::logInvalidSetting));
+    }
+
+    private static <T> void logInvalidSetting(Failure<T> failure) {
+        logger.warn(INVALID_CACHE_SETTING_WARNING + failure.getException().getMessage());
+    }
+
+    private static <T> void logFetchFailure(Failure<T> failure) {
+        logger.error(FETCH_SECRET_ERROR, failure.getException());
+    }
+}
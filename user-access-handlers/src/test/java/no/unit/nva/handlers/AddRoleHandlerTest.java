@@ -12,6 +12,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
 import no.unit.nva.database.DatabaseService;
 import no.unit.nva.database.DatabaseServiceImpl;
 import no.unit.nva.database.RoleService;
@@ -80,10 +81,10 @@ public class AddRoleHandlerTest extends HandlerTest {
     }
 
     @Test
-    public void handlerRequestReturnsTheGeneratedObjectAfterWaitingForSyncingToComplete()
+    public void handlerRequestReturnsTheGeneratedObjectUsingConsistentReadWhenEventuallyConsistentReadIsStale()
         throws InvalidEntryInternalException, IOException {
         RoleDto actualRole = sampleRole();
-        DatabaseService service = databaseServiceWithSyncDelay();
+        DatabaseService service = databaseServiceWithStaleEventuallyConsistentReads();
         addRoleHandler = new AddRoleHandler(mockEnvironment(), service);
 
         GatewayResponse<RoleDto> response = sendRequest(actualRole);
@@ -91,6 +92,19 @@ public class AddRoleHandlerTest extends HandlerTest {
         assertThat(savedRole, is(equalTo(actualRole)));
     }
 
+    @Test
+    public void processInputReadsTheSavedRoleOnlyOnceWithoutWaitingWhenTheRoleIsNotFound()
+        throws InvalidEntryInternalException {
+        AtomicInteger numberOfReads = new AtomicInteger();
+        AddRoleHandler addRoleHandler = new AddRoleHandler(mockEnvironment(),
+            databaseServiceCountingFailingConsistentReads(numberOfReads));
+
+        RoleDto inputRole = sampleRole();
+        Executable action = () -> addRoleHandler.processInput(inputRole, null, null);
+        assertThrows(DataSyncException.class, action);
+        assertThat(numberOfReads.get(), is(equalTo(1)));
+    }
+
     @Test
     public void handleRequestReturnsInternalServerErrorWhenDatabaseFailsToSaveTheData()
         throws InvalidEntryInternalException, IOException {
@@ -171,23 +185,29 @@ public class AddRoleHandlerTest extends HandlerTest {
         return new DatabaseServiceImpl(localDynamo, envWithTableName) {
 
             @Override
-            public RoleDto getRole(RoleDto queryObject) throws NotFoundException {
+            public RoleDto getRoleWithConsistentRead(RoleDto queryObject) throws NotFoundException {
+                throw new NotFoundException(RoleService.ROLE_NOT_FOUND_MESSAGE);
+            }
+        };
+    }
+
+    private DatabaseServiceImpl databaseServiceCountingFailingConsistentReads(AtomicInteger numberOfReads) {
+        return new DatabaseServiceImpl(localDynamo, envWithTableName) {
+
+            @Override
+            public RoleDto getRoleWithConsistentRead(RoleDto queryObject) throws NotFoundException {
+                numberOfReads.incrementAndGet();
                 throw new NotFoundException(RoleService.ROLE_NOT_FOUND_MESSAGE);
             }
         };
     }
 
-    private DatabaseServiceImpl databaseServiceWithSyncDelay() {
+    private DatabaseServiceImpl databaseServiceWithStaleEventuallyConsistentReads() {
         return new DatabaseServiceImpl(localDynamo, envWithTableName) {
-            private int counter = 0;
 
             @Override
-            public RoleDto getRole(RoleDto queryObject) throws InvalidEntryInternalException, NotFoundException {
-                if (counter == 0) {
-                    counter++;
-                    throw new NotFoundException(RoleService.ROLE_NOT_FOUND_MESSAGE);
-                }
-                return super.getRole(queryObject);
+            public RoleDto getRole(RoleDto queryObject) throws NotFoundException {
+                throw new NotFoundException(RoleService.ROLE_NOT_FOUND_MESSAGE);
             }
         };
     }
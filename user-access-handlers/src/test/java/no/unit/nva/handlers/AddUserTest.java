@@ -21,8 +21,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicInteger;
 import no.unit.nva.database.DatabaseService;
 import no.unit.nva.database.DatabaseServiceImpl;
+import no.unit.nva.database.UserService;
 import no.unit.nva.useraccessmanagement.exceptions.DataSyncException;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
@@ -32,6 +34,7 @@ import nva.commons.apigateway.RequestInfo;
 import nva.commons.apigateway.exceptions.ApiGatewayException;
 import nva.commons.apigateway.exceptions.ConflictException;
 import nva.commons.apigateway.exceptions.InvalidOrMissingTypeException;
+import nva.commons.apigateway.exceptions.NotFoundException;
 import org.apache.http.HttpStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -141,6 +144,30 @@ public class AddUserTest extends HandlerTest {
         assertThat(exception.getMessage(), containsString(SYNC_ERROR_MESSAGE));
     }
 
+    @Test
+    public void processInputReturnsSavedUserUsingConsistentReadWhenEventuallyConsistentReadIsStale()
+        throws ApiGatewayException {
+        AddUserHandler addUserHandler = new AddUserHandler(mockEnvironment(),
+            databaseServiceWithStaleEventuallyConsistentReads());
+        UserDto sampleUser = createSampleUserWithExistingRoles();
+
+        UserDto savedUser = addUserHandler.processInput(sampleUser, requestInfo, context);
+        assertThat(savedUser, is(equalTo(sampleUser)));
+    }
+
+    @Test
+    public void processInputReadsTheSavedUserOnlyOnceWithoutWaitingWhenTheUserIsNotFound()
+        throws InvalidEntryInternalException {
+        AtomicInteger numberOfReads = new AtomicInteger();
+        AddUserHandler addUserHandler = new AddUserHandler(mockEnvironment(),
+            databaseServiceCountingFailingConsistentReads(numberOfReads));
+
+        UserDto sampleUser = createUserWithRolesAndInstitution();
+        Executable action = () -> addUserHandler.processInput(sampleUser, requestInfo, context);
+        assertThrows(DataSyncException.class, action);
+        assertThat(numberOfReads.get(), is(equalTo(1)));
+    }
+
     @DisplayName("handleRequest() returns BadRequest when input object has no type")
     @Test
     public void handlerRequestReturnsBadRequestWhenInputObjectHasNoType()
@@ -170,12 +197,31 @@ public class AddUserTest extends HandlerTest {
     private DatabaseService databaseServiceReturnsAlwaysEmptyUser() {
         return new DatabaseServiceImpl(localDynamo, envWithTableName) {
             @Override
-            public UserDto getUser(UserDto queryObject) {
+            public UserDto getUserWithConsistentRead(UserDto queryObject) {
                 return null;
             }
         };
     }
 
+    private DatabaseService databaseServiceCountingFailingConsistentReads(AtomicInteger numberOfReads) {
+        return new DatabaseServiceImpl(localDynamo, envWithTableName) {
+            @Override
+            public UserDto getUserWithConsistentRead(UserDto queryObject) throws NotFoundException {
+                numberOfReads.incrementAndGet();
+                throw new NotFoundException(UserService.USER_NOT_FOUND_MESSAGE);
+            }
+        };
+    }
+
+    private DatabaseService databaseServiceWithStaleEventuallyConsistentReads() {
+        return new DatabaseServiceImpl(localDynamo, envWithTableName) {
+            @Override
+            public UserDto getUser(UserDto queryObject) throws NotFoundException {
+                throw new NotFoundException(UserService.USER_NOT_FOUND_MESSAGE);
+            }
+        };
+    }
+
     private GatewayResponse<Problem> parseResponseStream(ByteArrayOutputStream outputStream)
         throws IOException {
         String outputString = outputStream.toString();
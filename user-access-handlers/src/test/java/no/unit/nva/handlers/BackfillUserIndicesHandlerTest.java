@@ -0,0 +1,113 @@
+package no.unit.nva.handlers;
+
+import static no.unit.nva.handlers.BackfillUserIndicesHandler.BACKFILL_CHECKPOINT_HEADER;
+import static no.unit.nva.handlers.BackfillUserIndicesHandler.INDEXED_USERS_HEADER;
+import static no.unit.nva.handlers.HandlerRecordingTimings.CHECKPOINT_QUERY_PARAMETER;
+import static nva.commons.core.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import com.amazonaws.services.lambda.runtime.Context;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import no.unit.nva.database.DatabaseService;
+import no.unit.nva.database.DatabaseServiceImpl;
+import no.unit.nva.database.UserIndexBackfillResult;
+import no.unit.nva.testutils.HandlerRequestBuilder;
+import no.unit.nva.useraccessmanagement.dao.UserDb;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import no.unit.nva.useraccessmanagement.model.UserDto;
+import nva.commons.apigateway.GatewayResponse;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BackfillUserIndicesHandlerTest extends HandlerTest {
+
+    public static final String SOME_CHECKPOINT = "someCheckpoint";
+    public static final String NEXT_CHECKPOINT = "nextCheckpoint";
+    public static final int PAGE_SIZE = 10;
+    private BackfillUserIndicesHandler backfillUserIndicesHandler;
+    private Context context;
+
+    @BeforeEach
+    public void init() {
+        databaseService = createDatabaseServiceUsingLocalStorage();
+        backfillUserIndicesHandler = new BackfillUserIndicesHandler(mockEnvironment(), databaseService);
+        context = mock(Context.class);
+    }
+
+    @Test
+    public void statusCodeReturnsOkWhenRequestIsSuccessful() {
+        Integer successCode = backfillUserIndicesHandler.getSuccessStatusCode(null, null);
+        assertThat(successCode, is(equalTo(HttpStatus.SC_OK)));
+    }
+
+    @Test
+    public void handleRequestIndexesUsersThatWereWrittenWithoutIndices()
+        throws IOException, InvalidEntryInternalException, InvalidInputException {
+        UserDto userWithoutIndices = createSampleUserWithExistingRoles();
+        DatabaseServiceImpl.createTable(localDynamo, envWithTableName)
+            .putItem(UserDb.fromUserDto(userWithoutIndices).toItem());
+
+        GatewayResponse<Void> response = sendRequest(null);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+        assertThat(response.getHeaders().get(INDEXED_USERS_HEADER), is(equalTo("1")));
+        assertThat(response.getHeaders(), not(hasKey(BACKFILL_CHECKPOINT_HEADER)));
+        assertThat(usernamesWithRole(), contains(userWithoutIndices.getUsername()));
+    }
+
+    @Test
+    public void handleRequestResumesFromTheCheckpointAndReturnsTheNextCheckpoint()
+        throws IOException, InvalidInputException {
+        DatabaseService service = mock(DatabaseService.class);
+        when(service.backfillUserIndices(eq(SOME_CHECKPOINT), any(Duration.class)))
+            .thenReturn(new UserIndexBackfillResult(PAGE_SIZE, 0, NEXT_CHECKPOINT));
+        backfillUserIndicesHandler = new BackfillUserIndicesHandler(mockEnvironment(), service);
+
+        GatewayResponse<Void> response = sendRequest(SOME_CHECKPOINT);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+        assertThat(response.getHeaders().get(INDEXED_USERS_HEADER), is(equalTo(String.valueOf(PAGE_SIZE))));
+        assertThat(response.getHeaders().get(BACKFILL_CHECKPOINT_HEADER), is(equalTo(NEXT_CHECKPOINT)));
+    }
+
+    @Test
+    public void handleRequestReturnsBadRequestWhenCheckpointIsNotValid() throws IOException {
+        GatewayResponse<Void> response = sendRequest("invalidCheckpoint");
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_BAD_REQUEST)));
+        assertThat(response.getHeaders(), not(hasKey(BACKFILL_CHECKPOINT_HEADER)));
+    }
+
+    private List<String> usernamesWithRole() throws InvalidInputException {
+        return databaseService.listUsersByRole(DEFAULT_ROLE, PAGE_SIZE, null).getUsers().stream()
+            .map(UserDto::getUsername)
+            .collect(Collectors.toList());
+    }
+
+    private <T> GatewayResponse<T> sendRequest(String checkpoint) throws IOException {
+        HandlerRequestBuilder<Void> requestBuilder = new HandlerRequestBuilder<>(objectMapper);
+        if (checkpoint != null) {
+            requestBuilder.withQueryParameters(Map.of(CHECKPOINT_QUERY_PARAMETER, checkpoint));
+        }
+        InputStream request = requestBuilder.build();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        backfillUserIndicesHandler.handleRequest(request, outputStream, context);
+        return GatewayResponse.fromOutputStream(outputStream);
+    }
+}
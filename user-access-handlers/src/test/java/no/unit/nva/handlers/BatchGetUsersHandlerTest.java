@@ -0,0 +1,79 @@
+package no.unit.nva.handlers;
+
+import static nva.commons.core.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.mockito.Mockito.mock;
+import com.amazonaws.services.lambda.runtime.Context;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import no.unit.nva.testutils.HandlerRequestBuilder;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import no.unit.nva.useraccessmanagement.model.BatchGetUsersRequest;
+import no.unit.nva.useraccessmanagement.model.BatchGetUsersResponse;
+import no.unit.nva.useraccessmanagement.model.UserDto;
+import nva.commons.apigateway.GatewayResponse;
+import nva.commons.apigateway.exceptions.ConflictException;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zalando.problem.Problem;
+
+public class BatchGetUsersHandlerTest extends HandlerTest {
+
+    public static final String SOME_OTHER_USERNAME = "someOtherUsername@inst";
+    private BatchGetUsersHandler batchGetUsersHandler;
+    private Context context;
+
+    @BeforeEach
+    public void init() {
+        databaseService = createDatabaseServiceUsingLocalStorage();
+        batchGetUsersHandler = new BatchGetUsersHandler(mockEnvironment(), databaseService);
+        context = mock(Context.class);
+    }
+
+    @Test
+    public void statusCodeReturnsOkWhenRequestIsSuccessful() {
+        Integer successCode = batchGetUsersHandler.getSuccessStatusCode(null, null);
+        assertThat(successCode, is(equalTo(HttpStatus.SC_OK)));
+    }
+
+    @Test
+    public void handleRequestReturnsTheExistingUsersAndTheMissingUsernames()
+        throws IOException, InvalidEntryInternalException, ConflictException, InvalidInputException {
+        UserDto existingUser = insertSampleUserToDatabase();
+        BatchGetUsersRequest request =
+            BatchGetUsersRequest.fromList(List.of(SOME_OTHER_USERNAME, existingUser.getUsername()));
+
+        GatewayResponse<BatchGetUsersResponse> response = sendBatchGetRequest(request);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+        BatchGetUsersResponse body = response.getBodyObject(BatchGetUsersResponse.class);
+        assertThat(body.getUsers(), contains(existingUser));
+        assertThat(body.getMissingUsernames(), contains(SOME_OTHER_USERNAME));
+    }
+
+    @Test
+    public void handleRequestReturnsBadRequestWhenBodyIsMissing() throws IOException {
+        GatewayResponse<Problem> response = sendBatchGetRequest(null);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_BAD_REQUEST)));
+        assertThat(response.getBodyObject(Problem.class).getDetail(),
+            containsString(BatchGetUsersHandler.EMPTY_REQUEST_ERROR));
+    }
+
+    private <T> GatewayResponse<T> sendBatchGetRequest(BatchGetUsersRequest body) throws IOException {
+        InputStream request = new HandlerRequestBuilder<BatchGetUsersRequest>(objectMapper)
+            .withBody(body)
+            .build();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        batchGetUsersHandler.handleRequest(request, outputStream, context);
+        return GatewayResponse.fromOutputStream(outputStream);
+    }
+}
@@ -0,0 +1,77 @@
+package no.unit.nva.handlers;
+
+import static no.unit.nva.handlers.GetInstitutionStatsHandler.INSTITUTION_QUERY_PARAMETER;
+import static nva.commons.core.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.mockito.Mockito.mock;
+import com.amazonaws.services.lambda.runtime.Context;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import no.unit.nva.testutils.HandlerRequestBuilder;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import no.unit.nva.useraccessmanagement.model.InstitutionStatsDto;
+import nva.commons.apigateway.GatewayResponse;
+import nva.commons.apigateway.exceptions.ConflictException;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zalando.problem.Problem;
+
+public class GetInstitutionStatsHandlerTest extends HandlerTest {
+
+    public static final String SOME_OTHER_USERNAME = "someOtherUsername@inst";
+    public static final String BLANK_INSTITUTION = " ";
+    private GetInstitutionStatsHandler getInstitutionStatsHandler;
+    private Context context;
+
+    @BeforeEach
+    public void init() {
+        databaseService = createDatabaseServiceUsingLocalStorage();
+        getInstitutionStatsHandler = new GetInstitutionStatsHandler(mockEnvironment(), databaseService);
+        context = mock(Context.class);
+    }
+
+    @Test
+    public void statusCodeReturnsOkWhenRequestIsSuccessful() {
+        Integer successCode = getInstitutionStatsHandler.getSuccessStatusCode(null, null);
+        assertThat(successCode, is(equalTo(HttpStatus.SC_OK)));
+    }
+
+    @Test
+    public void handleRequestReturnsTheNumberOfUsersOfTheInstitutionAndOfEachRole()
+        throws IOException, ConflictException, InvalidEntryInternalException, InvalidInputException {
+        insertSampleUserToDatabase();
+        insertSampleUserToDatabase(SOME_OTHER_USERNAME, DEFAULT_INSTITUTION);
+
+        GatewayResponse<InstitutionStatsDto> response = sendRequest(DEFAULT_INSTITUTION);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+        InstitutionStatsDto stats = response.getBodyObject(InstitutionStatsDto.class);
+        assertThat(stats.getUserCount(), is(equalTo(2L)));
+        assertThat(stats.getUsersPerRole(), is(equalTo(Map.of(DEFAULT_ROLE, 2L))));
+    }
+
+    @Test
+    public void handleRequestReturnsBadRequestWhenInstitutionIsBlank() throws IOException {
+        GatewayResponse<Problem> response = sendRequest(BLANK_INSTITUTION);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_BAD_REQUEST)));
+        assertThat(response.getBodyObject(Problem.class).getDetail(),
+            containsString(GetInstitutionStatsHandler.MISSING_INSTITUTION_ERROR));
+    }
+
+    private <T> GatewayResponse<T> sendRequest(String institution) throws IOException {
+        InputStream request = new HandlerRequestBuilder<Void>(objectMapper)
+            .withQueryParameters(Map.of(INSTITUTION_QUERY_PARAMETER, institution))
+            .build();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        getInstitutionStatsHandler.handleRequest(request, outputStream, context);
+        return GatewayResponse.fromOutputStream(outputStream);
+    }
+}
@@ -0,0 +1,138 @@
+package no.unit.nva.handlers;
+
+import static no.unit.nva.handlers.GetUserAccessRightsHandler.CACHE_CONTROL_HEADER;
+import static no.unit.nva.handlers.GetUserAccessRightsHandler.REVALIDATE_BEFORE_USE;
+import static no.unit.nva.handlers.HandlerAccessingUser.ETAG_HEADER;
+import static no.unit.nva.handlers.HandlerAccessingUser.IF_NONE_MATCH_HEADER;
+import static nva.commons.core.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.Mockito.mock;
+import com.amazonaws.services.lambda.runtime.Context;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import no.unit.nva.testutils.HandlerRequestBuilder;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import no.unit.nva.useraccessmanagement.model.RoleDto;
+import no.unit.nva.useraccessmanagement.model.UserAccessRightsDto;
+import no.unit.nva.useraccessmanagement.model.UserDto;
+import no.unit.useraccessserivce.accessrights.AccessRight;
+import nva.commons.apigateway.GatewayResponse;
+import nva.commons.apigateway.exceptions.ConflictException;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zalando.problem.Problem;
+
+public class GetUserAccessRightsHandlerTest extends HandlerTest {
+
+    public static final String OUTDATED_ETAG = "\"0\"";
+    public static final String INVALID_ETAG = "notAnEtag";
+    public static final String BLANK_USERNAME = " ";
+    private GetUserAccessRightsHandler handler;
+    private Context context;
+
+    @BeforeEach
+    public void init() {
+        databaseService = createDatabaseServiceUsingLocalStorage();
+        handler = new GetUserAccessRightsHandler(envWithTableName, databaseService);
+        context = mock(Context.class);
+    }
+
+    @Test
+    public void handleRequestReturnsUsernameInstitutionAndAccessRightsOfTheUser()
+        throws IOException, ConflictException, InvalidEntryInternalException, InvalidInputException {
+        UserDto user = insertUserWithAccessRight(AccessRight.APPROVE_DOI_REQUEST);
+
+        GatewayResponse<UserAccessRightsDto> response = sendRequest(DEFAULT_USERNAME, Collections.emptyMap());
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+        UserAccessRightsDto accessRights = response.getBodyObject(UserAccessRightsDto.class);
+        assertThat(accessRights.getUsername(), is(equalTo(user.getUsername())));
+        assertThat(accessRights.getInstitution(), is(equalTo(user.getInstitution())));
+        assertThat(accessRights.getAccessRights(), is(equalTo(Set.of(AccessRight.APPROVE_DOI_REQUEST.toString()))));
+    }
+
+    @Test
+    public void handleRequestReturnsEtagAndCacheControlHeaders()
+        throws IOException, ConflictException, InvalidEntryInternalException, InvalidInputException {
+        insertUserWithAccessRight(AccessRight.APPROVE_DOI_REQUEST);
+
+        GatewayResponse<UserAccessRightsDto> response = sendRequest(DEFAULT_USERNAME, Collections.emptyMap());
+
+        String expectedEtag = "\"" + response.getBodyObject(UserAccessRightsDto.class).getVersion() + "\"";
+        assertThat(response.getHeaders().get(ETAG_HEADER), is(equalTo(expectedEtag)));
+        assertThat(response.getHeaders().get(CACHE_CONTROL_HEADER), is(equalTo(REVALIDATE_BEFORE_USE)));
+    }
+
+    @Test
+    public void handleRequestReturnsNotModifiedWhenIfNoneMatchHeaderContainsTheCurrentEtag()
+        throws IOException, ConflictException, InvalidEntryInternalException, InvalidInputException {
+        insertUserWithAccessRight(AccessRight.APPROVE_DOI_REQUEST);
+        String etag = sendRequest(DEFAULT_USERNAME, Collections.emptyMap()).getHeaders().get(ETAG_HEADER);
+
+        GatewayResponse<UserAccessRightsDto> response =
+            sendRequest(DEFAULT_USERNAME, Map.of(IF_NONE_MATCH_HEADER, OUTDATED_ETAG + ", " + etag));
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_NOT_MODIFIED)));
+        assertThat(response.getHeaders().get(ETAG_HEADER), is(equalTo(etag)));
+    }
+
+    @Test
+    public void handleRequestReturnsAccessRightsWhenIfNoneMatchHeaderDoesNotContainTheCurrentEtag()
+        throws IOException, ConflictException, InvalidEntryInternalException, InvalidInputException {
+        insertUserWithAccessRight(AccessRight.APPROVE_DOI_REQUEST);
+
+        GatewayResponse<UserAccessRightsDto> outdated =
+            sendRequest(DEFAULT_USERNAME, Map.of(IF_NONE_MATCH_HEADER, OUTDATED_ETAG));
+        GatewayResponse<UserAccessRightsDto> invalid =
+            sendRequest(DEFAULT_USERNAME, Map.of(IF_NONE_MATCH_HEADER, INVALID_ETAG));
+
+        assertThat(outdated.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+        assertThat(invalid.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+    }
+
+    @Test
+    public void handleRequestReturnsNotFoundWhenUserDoesNotExist() throws IOException {
+        GatewayResponse<Problem> response = sendRequest(DEFAULT_USERNAME, Collections.emptyMap());
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_NOT_FOUND)));
+    }
+
+    @Test
+    public void handleRequestReturnsBadRequestWhenUsernameIsBlank() throws IOException {
+        GatewayResponse<Problem> response = sendRequest(BLANK_USERNAME, Collections.emptyMap());
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_BAD_REQUEST)));
+    }
+
+    private UserDto insertUserWithAccessRight(AccessRight accessRight)
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException {
+        RoleDto role = RoleDto.newBuilder()
+            .withName(DEFAULT_ROLE)
+            .withAccessRights(Set.of(accessRight.toString()))
+            .build();
+        databaseService.addRole(role);
+        UserDto user = createSampleUser(DEFAULT_USERNAME, DEFAULT_INSTITUTION).copy()
+            .withRoles(Collections.singletonList(role))
+            .build();
+        databaseService.addUser(user);
+        return user;
+    }
+
+    private <T> GatewayResponse<T> sendRequest(String username, Map<String, String> headers) throws IOException {
+        InputStream request = new HandlerRequestBuilder<Void>(objectMapper)
+            .withPathParameters(Map.of(HandlerAccessingUser.USERNAME_PATH_PARAMETER, username))
+            .withHeaders(headers)
+            .build();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        handler.handleRequest(request, outputStream, context);
+        return GatewayResponse.fromOutputStream(outputStream);
+    }
+}
@@ -3,6 +3,7 @@ package no.unit.nva.handlers;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.StringContains.containsString;
 import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.IsNull.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -13,6 +14,8 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
+import java.util.Map;
+import no.unit.nva.database.UserFields;
 import no.unit.nva.testutils.HandlerRequestBuilder;
 import no.unit.nva.useraccessmanagement.exceptions.BadRequestException;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
@@ -24,11 +27,14 @@ import nva.commons.apigateway.exceptions.ApiGatewayException;
 import nva.commons.apigateway.exceptions.ConflictException;
 import nva.commons.apigateway.exceptions.NotFoundException;
 import nva.commons.core.JsonUtils;
+import nva.commons.logutils.LogUtils;
+import nva.commons.logutils.TestAppender;
 import org.apache.http.HttpStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
+import org.zalando.problem.Problem;
 
 class GetUserHandlerTest extends HandlerTest {
 
@@ -61,6 +67,61 @@ class GetUserHandlerTest extends HandlerTest {
         assertThat(type, is(equalTo(UserDto.TYPE)));
     }
 
+    @Test
+    public void handleRequestReturnsEtagHeaderWithTheVersionOfTheUser()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException, IOException {
+        insertSampleUserToDatabase();
+
+        ByteArrayOutputStream outputStream = sendGetUserRequestToHandler();
+
+        GatewayResponse<UserDto> response = GatewayResponse.fromOutputStream(outputStream);
+        UserDto user = response.getBodyObject(UserDto.class);
+        String expectedEtag = "\"" + user.getVersion() + "\"";
+        assertThat(response.getHeaders().get(GetUserHandler.ETAG_HEADER), is(equalTo(expectedEtag)));
+    }
+
+    @Test
+    public void handleRequestWritesTheTimingsOfTheRequest()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException, IOException {
+        TestAppender appender = LogUtils.getTestingAppender(RequestTimings.class);
+        insertSampleUserToDatabase();
+
+        sendGetUserRequestToHandler();
+
+        assertThat(appender.getMessages(), containsString(GetUserHandler.class.getSimpleName()));
+        assertThat(appender.getMessages(), containsString(RequestTimings.Phase.DATABASE.getMetricName()));
+    }
+
+    @Test
+    public void handleRequestReturnsOnlyTheRequestedFieldsWhenFieldsQueryParameterIsSet()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException, IOException {
+        UserDto insertedUser = insertSampleUserToDatabase();
+
+        ByteArrayOutputStream outputStream = sendGetUserRequestToHandler(
+            Map.of(GetUserHandler.FIELDS_QUERY_PARAMETER, "username,institution"));
+
+        GatewayResponse<ObjectNode> response = GatewayResponse.fromOutputStream(outputStream);
+        ObjectNode bodyObject = response.getBodyObject(ObjectNode.class);
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+        assertThat(bodyObject.get("username").asText(), is(equalTo(insertedUser.getUsername())));
+        assertThat(bodyObject.get("institution").asText(), is(equalTo(insertedUser.getInstitution())));
+        assertThat(bodyObject.has("roles"), is(false));
+        assertThat(bodyObject.has("accessRights"), is(false));
+    }
+
+    @Test
+    public void handleRequestReturnsBadRequestWhenFieldsQueryParameterContainsUnknownField()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException, IOException {
+        insertSampleUserToDatabase();
+
+        ByteArrayOutputStream outputStream = sendGetUserRequestToHandler(
+            Map.of(GetUserHandler.FIELDS_QUERY_PARAMETER, "username,password"));
+
+        GatewayResponse<Problem> response = GatewayResponse.fromOutputStream(outputStream);
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_BAD_REQUEST)));
+        assertThat(response.getBodyObject(Problem.class).getDetail(), containsString(UserFields.UNKNOWN_FIELD_ERROR));
+    }
+
     @Test
     void getSuccessStatusCodeReturnsOK() {
         Integer actual = getUserHandler.getSuccessStatusCode(null, null);
@@ -114,9 +175,15 @@ class GetUserHandlerTest extends HandlerTest {
     }
 
     private ByteArrayOutputStream sendGetUserRequestToHandler() throws IOException {
+        return sendGetUserRequestToHandler(Collections.emptyMap());
+    }
+
+    private ByteArrayOutputStream sendGetUserRequestToHandler(Map<String, String> queryParameters)
+        throws IOException {
         requestInfo = createRequestInfoForGetUser(DEFAULT_USERNAME);
         InputStream inputStream = new HandlerRequestBuilder<Void>(JsonUtils.objectMapper)
             .withPathParameters(requestInfo.getPathParameters())
+            .withQueryParameters(queryParameters)
             .build();
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         getUserHandler.handleRequest(inputStream, outputStream, context);
@@ -0,0 +1,87 @@
+package no.unit.nva.handlers;
+
+import static nva.commons.core.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.mockito.Mockito.mock;
+import com.amazonaws.services.lambda.runtime.Context;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+import no.unit.nva.testutils.HandlerRequestBuilder;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import no.unit.nva.useraccessmanagement.model.UserDto;
+import no.unit.nva.useraccessmanagement.model.UserImportReport;
+import no.unit.nva.useraccessmanagement.model.UserImportResult;
+import no.unit.nva.useraccessmanagement.model.UserImportResult.Status;
+import no.unit.nva.useraccessmanagement.model.UserList;
+import nva.commons.apigateway.GatewayResponse;
+import nva.commons.apigateway.exceptions.ConflictException;
+import nva.commons.apigateway.exceptions.NotFoundException;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zalando.problem.Problem;
+
+public class ImportUsersHandlerTest extends HandlerTest {
+
+    public static final String SOME_OTHER_USERNAME = "someOtherUsername@inst";
+    private ImportUsersHandler importUsersHandler;
+    private Context context;
+
+    @BeforeEach
+    public void init() {
+        databaseService = createDatabaseServiceUsingLocalStorage();
+        importUsersHandler = new ImportUsersHandler(mockEnvironment(), databaseService);
+        context = mock(Context.class);
+    }
+
+    @Test
+    public void statusCodeReturnsOkWhenRequestIsSuccessful() {
+        Integer successCode = importUsersHandler.getSuccessStatusCode(null, null);
+        assertThat(successCode, is(equalTo(HttpStatus.SC_OK)));
+    }
+
+    @Test
+    public void handleRequestAddsTheUsersAndReturnsTheOutcomeOfEveryUser()
+        throws IOException, InvalidEntryInternalException, ConflictException, InvalidInputException,
+               NotFoundException {
+        UserDto existingUser = insertSampleUserToDatabase();
+        UserDto newUser = createSampleUserWithExistingRoles(SOME_OTHER_USERNAME, DEFAULT_INSTITUTION);
+        UserList users = UserList.fromList(List.of(existingUser, newUser));
+
+        GatewayResponse<UserImportReport> response = sendImportRequest(users);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+        List<UserImportResult> results = response.getBodyObject(UserImportReport.class).getResults();
+        assertThat(results.stream().map(UserImportResult::getUsername).collect(Collectors.toList()),
+            contains(existingUser.getUsername(), newUser.getUsername()));
+        assertThat(results.stream().map(UserImportResult::getStatus).collect(Collectors.toList()),
+            contains(Status.CONFLICT, Status.CREATED));
+        assertThat(databaseService.getUser(newUser), is(equalTo(newUser)));
+    }
+
+    @Test
+    public void handleRequestReturnsBadRequestWhenBodyIsMissing() throws IOException {
+        GatewayResponse<Problem> response = sendImportRequest(null);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_BAD_REQUEST)));
+        assertThat(response.getBodyObject(Problem.class).getDetail(),
+            containsString(ImportUsersHandler.EMPTY_IMPORT_ERROR));
+    }
+
+    private <T> GatewayResponse<T> sendImportRequest(UserList users) throws IOException {
+        InputStream request = new HandlerRequestBuilder<UserList>(objectMapper)
+            .withBody(users)
+            .build();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        importUsersHandler.handleRequest(request, outputStream, context);
+        return GatewayResponse.fromOutputStream(outputStream);
+    }
+}
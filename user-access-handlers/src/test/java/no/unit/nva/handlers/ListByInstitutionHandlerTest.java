@@ -1,16 +1,35 @@
 package no.unit.nva.handlers;
 
+import static no.unit.nva.handlers.ListByInstitutionHandler.CURSOR_QUERY_PARAMETER;
+import static no.unit.nva.handlers.ListByInstitutionHandler.DEFAULT_PAGE_SIZE;
+import static no.unit.nva.handlers.ListByInstitutionHandler.FIELDS_QUERY_PARAMETER;
 import static no.unit.nva.handlers.ListByInstitutionHandler.INSTITUTION_ID_QUERY_PARAMETER;
+import static no.unit.nva.handlers.ListByInstitutionHandler.LIMIT_QUERY_PARAMETER;
+import static no.unit.nva.handlers.ListByInstitutionHandler.NAME_QUERY_PARAMETER;
+import static no.unit.nva.handlers.ListByInstitutionHandler.NEXT_CURSOR_HEADER;
+import static no.unit.nva.handlers.ListByInstitutionHandler.PREFIX_QUERY_PARAMETER;
 import static nva.commons.core.JsonUtils.objectMapper;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import java.io.ByteArrayOutputStream;
@@ -18,9 +37,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import no.unit.nva.database.DatabaseService;
+import no.unit.nva.database.UserPage;
 import no.unit.nva.testutils.HandlerRequestBuilder;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
@@ -38,6 +61,10 @@ class ListByInstitutionHandlerTest extends HandlerTest {
 
     public static final String SOME_OTHER_USERNAME = "SomeOtherUsername";
     public static final String SOME_OTHER_INSTITUTION = "SomeOtherInstitution";
+    public static final String ONE_USER_PER_PAGE = "1";
+    public static final String INVALID_LIMIT = "-1";
+    public static final String INVALID_CURSOR = "invalidCursor";
+    public static final String SOME_CURSOR = "someCursor";
     private ListByInstitutionHandler listByInstitutionHandler;
     private Context context;
 
@@ -106,6 +133,123 @@ class ListByInstitutionHandlerTest extends HandlerTest {
         assertThat(actualUsers, is(empty()));
     }
 
+    @Test
+    public void handleRequestReturnsNextCursorHeaderWhenThereAreMoreUsersThanTheLimit()
+        throws IOException, ConflictException, InvalidEntryInternalException, InvalidInputException {
+        UserList insertedUsers = insertTwoUsersOfSameInstitution();
+
+        GatewayResponse<UserList> firstResponse = sendListRequest(DEFAULT_INSTITUTION, ONE_USER_PER_PAGE, null);
+        assertThatResponseIsSuccessful(firstResponse);
+        String cursor = firstResponse.getHeaders().get(NEXT_CURSOR_HEADER);
+        assertThat(cursor, is(notNullValue()));
+
+        GatewayResponse<UserList> secondResponse = sendListRequest(DEFAULT_INSTITUTION, ONE_USER_PER_PAGE, cursor);
+        assertThatResponseIsSuccessful(secondResponse);
+
+        UserList actualUsers = new UserList();
+        actualUsers.addAll(firstResponse.getBodyObject(UserList.class));
+        actualUsers.addAll(secondResponse.getBodyObject(UserList.class));
+        assertThatListsAreEquivalent(insertedUsers, actualUsers);
+    }
+
+    @Test
+    public void handleRequestReturnsNoNextCursorHeaderWhenAllUsersFitInOnePage()
+        throws IOException, ConflictException, InvalidEntryInternalException, InvalidInputException {
+        insertTwoUsersOfSameInstitution();
+
+        GatewayResponse<UserList> response = sendListRequest(DEFAULT_INSTITUTION, null, null);
+        assertThatResponseIsSuccessful(response);
+        assertThat(response.getHeaders(), not(hasKey(NEXT_CURSOR_HEADER)));
+    }
+
+    @Test
+    public void handleRequestReturnsOnePageOfDefaultSizeAndNextCursorWhenThereIsNoLimitAndNoCursor()
+        throws IOException, InvalidInputException {
+        DatabaseService pagingService = mock(DatabaseService.class);
+        UserDto firstUser = UserDto.newBuilder().withUsername(DEFAULT_USERNAME).build();
+        when(pagingService.listUsers(eq(DEFAULT_INSTITUTION), eq(DEFAULT_PAGE_SIZE), isNull(), any()))
+            .thenReturn(new UserPage(List.of(firstUser), SOME_CURSOR));
+        listByInstitutionHandler = new ListByInstitutionHandler(mockEnvironment(), pagingService);
+
+        GatewayResponse<UserList> response = sendListRequest(DEFAULT_INSTITUTION, null, null);
+
+        assertThatResponseIsSuccessful(response);
+        List<String> usernames = response.getBodyObject(UserList.class).stream()
+            .map(UserDto::getUsername)
+            .collect(Collectors.toList());
+        assertThat(usernames, contains(DEFAULT_USERNAME));
+        assertThat(response.getHeaders().get(NEXT_CURSOR_HEADER), is(equalTo(SOME_CURSOR)));
+        verify(pagingService, times(1)).listUsers(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    public void handleRequestReturnsOnlyTheRequestedFieldsOfTheUsersWhenFieldsQueryParameterIsSet()
+        throws IOException, ConflictException, InvalidEntryInternalException, InvalidInputException {
+        UserList insertedUsers = insertTwoUsersOfSameInstitution();
+        InputStream request = new HandlerRequestBuilder<Void>(objectMapper)
+            .withQueryParameters(Map.of(INSTITUTION_ID_QUERY_PARAMETER, DEFAULT_INSTITUTION,
+                FIELDS_QUERY_PARAMETER, "username"))
+            .build();
+
+        GatewayResponse<UserList> response = GatewayResponse.fromOutputStream(sendRequestToHandler(request));
+
+        assertThatResponseIsSuccessful(response);
+        UserList actualUsers = response.getBodyObject(UserList.class);
+        assertThat(actualUsers.stream().map(UserDto::getUsername).collect(Collectors.toList()),
+            containsInAnyOrder(insertedUsers.stream().map(UserDto::getUsername).toArray()));
+        assertThat(actualUsers.stream().map(UserDto::getInstitution).collect(Collectors.toList()),
+            everyItem(is(nullValue())));
+    }
+
+    @Test
+    public void handleRequestReturnsOnlyTheUsersWithUsernamesStartingWithThePrefixWhenPrefixIsSet()
+        throws IOException, ConflictException, InvalidEntryInternalException, InvalidInputException {
+        insertSampleUserToDatabase(DEFAULT_USERNAME, DEFAULT_INSTITUTION);
+        UserDto matchingUser = insertSampleUserToDatabase(SOME_OTHER_USERNAME, DEFAULT_INSTITUTION);
+        InputStream request = new HandlerRequestBuilder<Void>(objectMapper)
+            .withQueryParameters(Map.of(INSTITUTION_ID_QUERY_PARAMETER, DEFAULT_INSTITUTION,
+                PREFIX_QUERY_PARAMETER, "SomeOther"))
+            .build();
+
+        GatewayResponse<UserList> response = GatewayResponse.fromOutputStream(sendRequestToHandler(request));
+
+        assertThatResponseIsSuccessful(response);
+        assertThat(response.getBodyObject(UserList.class), contains(matchingUser));
+    }
+
+    @Test
+    public void handleRequestReturnsTheUsersWhoseNamesMatchTheNameWhenNameIsSet()
+        throws IOException, ConflictException, InvalidEntryInternalException, InvalidInputException {
+        insertSampleUserToDatabase(DEFAULT_USERNAME, DEFAULT_INSTITUTION);
+        UserDto matchingUser = createSampleUserWithExistingRoles(SOME_OTHER_USERNAME, DEFAULT_INSTITUTION).copy()
+            .withGivenName("Kari")
+            .withFamilyName("Nordmann")
+            .build();
+        databaseService.addUser(matchingUser);
+        InputStream request = new HandlerRequestBuilder<Void>(objectMapper)
+            .withQueryParameters(Map.of(INSTITUTION_ID_QUERY_PARAMETER, DEFAULT_INSTITUTION,
+                NAME_QUERY_PARAMETER, "kari nord"))
+            .build();
+
+        GatewayResponse<UserList> response = GatewayResponse.fromOutputStream(sendRequestToHandler(request));
+
+        assertThatResponseIsSuccessful(response);
+        assertThat(response.getBodyObject(UserList.class), contains(matchingUser));
+        assertThat(response.getHeaders(), not(hasKey(NEXT_CURSOR_HEADER)));
+    }
+
+    @Test
+    public void handleRequestReturnsBadRequestWhenLimitIsNotAPositiveInteger() throws IOException {
+        GatewayResponse<UserList> response = sendListRequest(DEFAULT_INSTITUTION, INVALID_LIMIT, null);
+        assertThat(response.getStatusCode(), is(HttpStatus.SC_BAD_REQUEST));
+    }
+
+    @Test
+    public void handleRequestReturnsBadRequestWhenCursorIsInvalid() throws IOException {
+        GatewayResponse<UserList> response = sendListRequest(DEFAULT_INSTITUTION, null, INVALID_CURSOR);
+        assertThat(response.getStatusCode(), is(HttpStatus.SC_BAD_REQUEST));
+    }
+
     @Test
     public void processInputThrowsIllegalStateExceptionWhenPathParameterIsMissing() {
         RequestInfo requestInfo = new RequestInfo();
@@ -171,6 +315,18 @@ class ListByInstitutionHandlerTest extends HandlerTest {
         return users;
     }
 
+    private GatewayResponse<UserList> sendListRequest(String institutionId, String limit, String cursor)
+        throws IOException {
+        Map<String, String> queryParams = new HashMap<>();
+        queryParams.put(INSTITUTION_ID_QUERY_PARAMETER, institutionId);
+        Optional.ofNullable(limit).ifPresent(value -> queryParams.put(LIMIT_QUERY_PARAMETER, value));
+        Optional.ofNullable(cursor).ifPresent(value -> queryParams.put(CURSOR_QUERY_PARAMETER, value));
+        InputStream request = new HandlerRequestBuilder<Void>(objectMapper)
+            .withQueryParameters(queryParams)
+            .build();
+        return GatewayResponse.fromOutputStream(sendRequestToHandler(request));
+    }
+
     private ByteArrayOutputStream outputStream() {
         return new ByteArrayOutputStream();
     }
@@ -0,0 +1,150 @@
+package no.unit.nva.handlers;
+
+import static no.unit.nva.handlers.HandlerListingUsers.CURSOR_QUERY_PARAMETER;
+import static no.unit.nva.handlers.HandlerListingUsers.LIMIT_QUERY_PARAMETER;
+import static no.unit.nva.handlers.HandlerListingUsers.NEXT_CURSOR_HEADER;
+import static nva.commons.core.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.mockito.Mockito.mock;
+import com.amazonaws.services.lambda.runtime.Context;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import no.unit.nva.testutils.HandlerRequestBuilder;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import no.unit.nva.useraccessmanagement.model.UserDto;
+import no.unit.nva.useraccessmanagement.model.UserList;
+import nva.commons.apigateway.GatewayResponse;
+import nva.commons.apigateway.exceptions.ConflictException;
+import nva.commons.apigateway.exceptions.NotFoundException;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zalando.problem.Problem;
+
+public class ListUsersByRoleHandlerTest extends HandlerTest {
+
+    public static final String SOME_OTHER_USERNAME = "someOtherUsername@inst";
+    public static final String SOME_OTHER_ROLE = "SomeOtherRole";
+    public static final String ONE_USER_PER_PAGE = "1";
+    public static final String INVALID_CURSOR = "invalidCursor";
+    public static final String BLANK_ROLE_NAME = " ";
+    private ListUsersByRoleHandler listUsersByRoleHandler;
+    private Context context;
+
+    @BeforeEach
+    public void init() {
+        databaseService = createDatabaseServiceUsingLocalStorage();
+        listUsersByRoleHandler = new ListUsersByRoleHandler(mockEnvironment(), databaseService);
+        context = mock(Context.class);
+    }
+
+    @Test
+    public void statusCodeReturnsOkWhenRequestIsSuccessful() {
+        Integer successCode = listUsersByRoleHandler.getSuccessStatusCode(null, null);
+        assertThat(successCode, is(equalTo(HttpStatus.SC_OK)));
+    }
+
+    @Test
+    public void handleRequestReturnsTheUsersThatHaveTheRole()
+        throws IOException, ConflictException, InvalidEntryInternalException, InvalidInputException {
+        insertSampleUserToDatabase();
+        insertSampleUserToDatabase(SOME_OTHER_USERNAME, DEFAULT_INSTITUTION);
+
+        GatewayResponse<UserList> response = sendListRequest(DEFAULT_ROLE, null, null);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+        assertThat(usernames(response.getBodyObject(UserList.class)),
+            contains(SOME_OTHER_USERNAME, DEFAULT_USERNAME));
+        assertThat(response.getHeaders(), not(hasKey(NEXT_CURSOR_HEADER)));
+    }
+
+    @Test
+    public void handleRequestDoesNotReturnUsersWhoseRoleHasBeenRemoved()
+        throws IOException, ConflictException, InvalidEntryInternalException, InvalidInputException,
+               NotFoundException {
+        UserDto user = insertSampleUserToDatabase();
+        databaseService.updateUser(user.copy().withRoles(Collections.emptyList()).build());
+
+        GatewayResponse<UserList> response = sendListRequest(DEFAULT_ROLE, null, null);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+        assertThat(response.getBodyObject(UserList.class), is(empty()));
+    }
+
+    @Test
+    public void handleRequestReturnsEmptyListWhenNoUserHasTheRole()
+        throws IOException, ConflictException, InvalidEntryInternalException, InvalidInputException {
+        insertSampleUserToDatabase();
+
+        GatewayResponse<UserList> response = sendListRequest(SOME_OTHER_ROLE, null, null);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+        assertThat(response.getBodyObject(UserList.class), is(empty()));
+    }
+
+    @Test
+    public void handleRequestReturnsNextCursorHeaderWhenThereAreMoreUsersThanTheLimit()
+        throws IOException, ConflictException, InvalidEntryInternalException, InvalidInputException {
+        insertSampleUserToDatabase();
+        insertSampleUserToDatabase(SOME_OTHER_USERNAME, DEFAULT_INSTITUTION);
+
+        GatewayResponse<UserList> firstResponse = sendListRequest(DEFAULT_ROLE, ONE_USER_PER_PAGE, null);
+        String cursor = firstResponse.getHeaders().get(NEXT_CURSOR_HEADER);
+        assertThat(cursor, is(notNullValue()));
+        GatewayResponse<UserList> secondResponse = sendListRequest(DEFAULT_ROLE, ONE_USER_PER_PAGE, cursor);
+
+        List<String> usernames = new ArrayList<>(usernames(firstResponse.getBodyObject(UserList.class)));
+        usernames.addAll(usernames(secondResponse.getBodyObject(UserList.class)));
+        assertThat(usernames, contains(SOME_OTHER_USERNAME, DEFAULT_USERNAME));
+    }
+
+    @Test
+    public void handleRequestReturnsBadRequestWhenCursorIsInvalid() throws IOException {
+        GatewayResponse<Problem> response = sendListRequest(DEFAULT_ROLE, null, INVALID_CURSOR);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_BAD_REQUEST)));
+    }
+
+    @Test
+    public void handleRequestReturnsBadRequestWhenRoleNameIsBlank() throws IOException {
+        GatewayResponse<Problem> response = sendListRequest(BLANK_ROLE_NAME, null, null);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_BAD_REQUEST)));
+        assertThat(response.getBodyObject(Problem.class).getDetail(), containsString(GetRoleHandler.EMPTY_ROLE_NAME));
+    }
+
+    private static List<String> usernames(UserList users) {
+        return users.stream().map(UserDto::getUsername).collect(Collectors.toList());
+    }
+
+    private <T> GatewayResponse<T> sendListRequest(String roleName, String limit, String cursor)
+        throws IOException {
+        Map<String, String> queryParams = new HashMap<>();
+        Optional.ofNullable(limit).ifPresent(value -> queryParams.put(LIMIT_QUERY_PARAMETER, value));
+        Optional.ofNullable(cursor).ifPresent(value -> queryParams.put(CURSOR_QUERY_PARAMETER, value));
+        InputStream request = new HandlerRequestBuilder<Void>(objectMapper)
+            .withPathParameters(Map.of(GetRoleHandler.ROLE_PATH_PARAMETER, roleName))
+            .withQueryParameters(queryParams)
+            .build();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        listUsersByRoleHandler.handleRequest(request, outputStream, context);
+        return GatewayResponse.fromOutputStream(outputStream);
+    }
+}
@@ -0,0 +1,103 @@
+package no.unit.nva.handlers;
+
+import static no.unit.nva.handlers.GetInstitutionStatsHandler.INSTITUTION_QUERY_PARAMETER;
+import static no.unit.nva.handlers.RecountInstitutionHandler.COUNTED_USERS_HEADER;
+import static no.unit.nva.handlers.RecountInstitutionHandler.RECOUNT_COMPLETE_HEADER;
+import static nva.commons.core.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import com.amazonaws.services.lambda.runtime.Context;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+import no.unit.nva.database.DatabaseService;
+import no.unit.nva.database.DatabaseServiceImpl;
+import no.unit.nva.database.InstitutionRecountResult;
+import no.unit.nva.testutils.HandlerRequestBuilder;
+import no.unit.nva.useraccessmanagement.dao.UserDb;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.model.InstitutionStatsDto;
+import no.unit.nva.useraccessmanagement.model.UserDto;
+import nva.commons.apigateway.GatewayResponse;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zalando.problem.Problem;
+
+public class RecountInstitutionHandlerTest extends HandlerTest {
+
+    public static final String BLANK_INSTITUTION = " ";
+    public static final int COUNTED_USERS = 10;
+    private RecountInstitutionHandler recountInstitutionHandler;
+    private Context context;
+
+    @BeforeEach
+    public void init() {
+        databaseService = createDatabaseServiceUsingLocalStorage();
+        recountInstitutionHandler = new RecountInstitutionHandler(mockEnvironment(), databaseService);
+        context = mock(Context.class);
+    }
+
+    @Test
+    public void statusCodeReturnsOkWhenRequestIsSuccessful() {
+        Integer successCode = recountInstitutionHandler.getSuccessStatusCode(null, null);
+        assertThat(successCode, is(equalTo(HttpStatus.SC_OK)));
+    }
+
+    @Test
+    public void handleRequestCountsUsersThatWereWrittenWithoutCounters()
+        throws IOException, InvalidEntryInternalException {
+        UserDto userWithoutCounters = createSampleUserWithExistingRoles();
+        DatabaseServiceImpl.createTable(localDynamo, envWithTableName)
+            .putItem(UserDb.fromUserDto(userWithoutCounters).toItem());
+
+        GatewayResponse<Void> response = sendRequest(DEFAULT_INSTITUTION);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+        assertThat(response.getHeaders().get(COUNTED_USERS_HEADER), is(equalTo("1")));
+        assertThat(response.getHeaders().get(RECOUNT_COMPLETE_HEADER), is(equalTo("true")));
+        InstitutionStatsDto stats = databaseService.getInstitutionStats(DEFAULT_INSTITUTION);
+        assertThat(stats.getUserCount(), is(equalTo(1L)));
+        assertThat(stats.isRecountNeeded(), is(false));
+    }
+
+    @Test
+    public void handleRequestReportsThatTheRecountIsNotCompleteWhenItHasToBeRepeated() throws IOException {
+        DatabaseService service = mock(DatabaseService.class);
+        when(service.recountInstitution(eq(DEFAULT_INSTITUTION), any(Duration.class)))
+            .thenReturn(new InstitutionRecountResult(COUNTED_USERS, false));
+        recountInstitutionHandler = new RecountInstitutionHandler(mockEnvironment(), service);
+
+        GatewayResponse<Void> response = sendRequest(DEFAULT_INSTITUTION);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+        assertThat(response.getHeaders().get(COUNTED_USERS_HEADER), is(equalTo(String.valueOf(COUNTED_USERS))));
+        assertThat(response.getHeaders().get(RECOUNT_COMPLETE_HEADER), is(equalTo("false")));
+    }
+
+    @Test
+    public void handleRequestReturnsBadRequestWhenInstitutionIsBlank() throws IOException {
+        GatewayResponse<Problem> response = sendRequest(BLANK_INSTITUTION);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_BAD_REQUEST)));
+        assertThat(response.getBodyObject(Problem.class).getDetail(),
+            containsString(GetInstitutionStatsHandler.MISSING_INSTITUTION_ERROR));
+    }
+
+    private <T> GatewayResponse<T> sendRequest(String institution) throws IOException {
+        InputStream request = new HandlerRequestBuilder<Void>(objectMapper)
+            .withQueryParameters(Map.of(INSTITUTION_QUERY_PARAMETER, institution))
+            .build();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        recountInstitutionHandler.handleRequest(request, outputStream, context);
+        return GatewayResponse.fromOutputStream(outputStream);
+    }
+}
@@ -0,0 +1,99 @@
+package no.unit.nva.handlers;
+
+import static nva.commons.core.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import no.unit.nva.handlers.RequestTimings.Phase;
+import no.unit.nva.useraccessmanagement.exceptions.BadRequestException;
+import nva.commons.logutils.LogUtils;
+import nva.commons.logutils.TestAppender;
+import org.junit.jupiter.api.Test;
+
+public class RequestTimingsTest {
+
+    public static final String SOME_HANDLER = "SomeHandler";
+    public static final String SOME_REQUEST_ID = "someRequestId";
+    public static final String SOME_RESULT = "someResult";
+    public static final long PHASE_DURATION_MILLIS = 5;
+
+    @Test
+    public void timeReturnsTheResultOfTheCallAndAddsItsDurationToThePhase() throws InterruptedException {
+        RequestTimings timings = RequestTimings.start(SOME_HANDLER, SOME_REQUEST_ID, false);
+
+        String result = timings.time(Phase.DATABASE, this::slowCall);
+
+        assertThat(result, is(equalTo(SOME_RESULT)));
+        assertThat(timings.millis(Phase.DATABASE), is(greaterThanOrEqualTo((double) PHASE_DURATION_MILLIS)));
+        assertThat(timings.millis(Phase.VALIDATION), is(equalTo(0.0)));
+    }
+
+    @Test
+    public void runAddsTheDurationOfAFailedActionToThePhase() {
+        RequestTimings timings = RequestTimings.start(SOME_HANDLER, SOME_REQUEST_ID, false);
+
+        assertThrows(BadRequestException.class, () -> timings.run(Phase.VALIDATION, this::failingAction));
+
+        assertThat(timings.millis(Phase.VALIDATION), is(greaterThanOrEqualTo((double) PHASE_DURATION_MILLIS)));
+    }
+
+    @Test
+    public void inputParsingIsTheTimeBeforeTheFirstPhaseAndSerializationTheTimeAfterTheLastPhase()
+        throws InterruptedException {
+        RequestTimings timings = RequestTimings.start(SOME_HANDLER, SOME_REQUEST_ID, false);
+        Thread.sleep(PHASE_DURATION_MILLIS);
+        timings.time(Phase.DATABASE, () -> SOME_RESULT);
+        Thread.sleep(PHASE_DURATION_MILLIS);
+        timings.finish();
+
+        assertThat(timings.millis(Phase.INPUT_PARSING), is(greaterThanOrEqualTo((double) PHASE_DURATION_MILLIS)));
+        assertThat(timings.millis(Phase.SERIALIZATION), is(greaterThanOrEqualTo((double) PHASE_DURATION_MILLIS)));
+    }
+
+    @Test
+    public void inputParsingIsTheWholeRequestWhenNoPhaseWasTimed() throws InterruptedException {
+        RequestTimings timings = RequestTimings.start(SOME_HANDLER, SOME_REQUEST_ID, false);
+        Thread.sleep(PHASE_DURATION_MILLIS);
+        timings.finish();
+
+        assertThat(timings.millis(Phase.INPUT_PARSING), is(greaterThanOrEqualTo((double) PHASE_DURATION_MILLIS)));
+        assertThat(timings.millis(Phase.SERIALIZATION), is(equalTo(0.0)));
+    }
+
+    @Test
+    public void finishWritesOneLineWithTheHandlerTheColdStartFlagAndEveryPhase() throws IOException {
+        TestAppender appender = LogUtils.getTestingAppender(RequestTimings.class);
+        RequestTimings timings = RequestTimings.start(SOME_HANDLER, SOME_REQUEST_ID, true);
+        timings.time(Phase.DATABASE, () -> SOME_RESULT);
+
+        timings.finish();
+
+        JsonNode line = objectMapper.readTree(timings.toEmfLine());
+        assertThat(appender.getMessages().contains(SOME_REQUEST_ID), is(true));
+        assertThat(line.get(RequestTimings.HANDLER_DIMENSION).textValue(), is(equalTo(SOME_HANDLER)));
+        assertThat(line.get(RequestTimings.COLD_START_PROPERTY).booleanValue(), is(true));
+        assertThat(line.get(RequestTimings.TOTAL_LATENCY_METRIC).doubleValue(), is(greaterThan(0.0)));
+        for (Phase phase : Phase.values()) {
+            assertThat(line.has(phase.getMetricName()), is(true));
+        }
+    }
+
+    private String slowCall() throws InterruptedException {
+        Thread.sleep(PHASE_DURATION_MILLIS);
+        return SOME_RESULT;
+    }
+
+    private void failingAction() throws BadRequestException {
+        try {
+            Thread.sleep(PHASE_DURATION_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new BadRequestException(SOME_RESULT);
+    }
+}
@@ -0,0 +1,75 @@
+package no.unit.nva.handlers;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import com.amazonaws.services.lambda.runtime.Context;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import no.unit.nva.database.DatabaseService;
+import no.unit.nva.database.DatabaseServiceImpl;
+import no.unit.nva.database.UserIndexBackfillResult;
+import no.unit.nva.useraccessmanagement.dao.UserDb;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import no.unit.nva.useraccessmanagement.model.UserDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ScheduledUserIndexBackfillHandlerTest extends HandlerTest {
+
+    public static final int PAGE_SIZE = 10;
+    public static final String SCHEDULED_EVENT = "{}";
+    private ScheduledUserIndexBackfillHandler handler;
+    private Context context;
+
+    @BeforeEach
+    public void init() {
+        databaseService = createDatabaseServiceUsingLocalStorage();
+        handler = new ScheduledUserIndexBackfillHandler(databaseService);
+        context = mock(Context.class);
+    }
+
+    @Test
+    public void handleRequestIndexesUsersThatWereWrittenWithoutIndices()
+        throws InvalidEntryInternalException, InvalidInputException {
+        UserDto userWithoutIndices = createSampleUserWithExistingRoles();
+        DatabaseServiceImpl.createTable(localDynamo, envWithTableName)
+            .putItem(UserDb.fromUserDto(userWithoutIndices).toItem());
+
+        sendScheduledEvent();
+
+        assertThat(usernamesWithRole(), contains(userWithoutIndices.getUsername()));
+    }
+
+    @Test
+    public void handleRequestContinuesTheBackfillOncePerScheduledEvent() {
+        DatabaseService service = mock(DatabaseService.class);
+        when(service.continueUserIndexBackfill(any(Duration.class)))
+            .thenReturn(new UserIndexBackfillResult(PAGE_SIZE, 0, null));
+        handler = new ScheduledUserIndexBackfillHandler(service);
+
+        sendScheduledEvent();
+
+        verify(service, times(1)).continueUserIndexBackfill(any(Duration.class));
+    }
+
+    private List<String> usernamesWithRole() throws InvalidInputException {
+        return databaseService.listUsersByRole(DEFAULT_ROLE, PAGE_SIZE, null).getUsers().stream()
+            .map(UserDto::getUsername)
+            .collect(Collectors.toList());
+    }
+
+    private void sendScheduledEvent() {
+        ByteArrayInputStream input = new ByteArrayInputStream(SCHEDULED_EVENT.getBytes(StandardCharsets.UTF_8));
+        handler.handleRequest(input, new ByteArrayOutputStream(), context);
+    }
+}
@@ -0,0 +1,192 @@
+package no.unit.nva.handlers;
+
+import static no.unit.nva.handlers.HandlerRecordingTimings.CHECKPOINT_QUERY_PARAMETER;
+import static no.unit.nva.handlers.UpdateRoleHandler.PROPAGATION_CHECKPOINT_HEADER;
+import static no.unit.nva.handlers.UpdateRoleHandler.PROPAGATION_FAILURES_HEADER;
+import static nva.commons.core.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import com.amazonaws.services.lambda.runtime.Context;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import no.unit.nva.database.DatabaseService;
+import no.unit.nva.database.DatabaseServiceImpl;
+import no.unit.nva.database.RolePropagationResult;
+import no.unit.nva.database.RolePropagationSettings;
+import no.unit.nva.testutils.HandlerRequestBuilder;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import no.unit.nva.useraccessmanagement.model.RoleDto;
+import no.unit.nva.useraccessmanagement.model.UserDto;
+import no.unit.useraccessserivce.accessrights.AccessRight;
+import nva.commons.apigateway.GatewayResponse;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
+import nva.commons.apigateway.exceptions.ConflictException;
+import nva.commons.apigateway.exceptions.NotFoundException;
+import nva.commons.core.Environment;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zalando.problem.Problem;
+
+public class UpdateRoleHandlerTest extends HandlerTest {
+
+    public static final String SOME_OTHER_USERNAME = "someOtherUsername@inst";
+    public static final String SOME_OTHER_ROLE = "SomeOtherRole";
+    public static final String ONE_USER_PER_BATCH = "1";
+    public static final int MAX_NUMBER_OF_REQUESTS = 10;
+    private UpdateRoleHandler updateRoleHandler;
+    private Context context;
+
+    /**
+     * init. The propagation settings make every request update at most one user, since the mocked context has no
+     * remaining time.
+     */
+    @BeforeEach
+    public void init() {
+        databaseService = new DatabaseServiceImpl(initializeTestDatabase(), environmentWithOneUserPerBatch());
+        updateRoleHandler = new UpdateRoleHandler(mockEnvironment(), databaseService);
+        context = mock(Context.class);
+    }
+
+    @Test
+    public void statusCodeReturnsOkWhenRequestIsSuccessful() {
+        Integer successCode = updateRoleHandler.getSuccessStatusCode(null, null);
+        assertThat(successCode, is(equalTo(HttpStatus.SC_OK)));
+    }
+
+    @Test
+    public void handleRequestReturnsUpdatedRoleAndUpdatesTheUsersThatHaveTheRole()
+        throws IOException, ConflictException, InvalidEntryInternalException, InvalidInputException,
+               NotFoundException {
+        List<UserDto> usersWithRole = List.of(insertSampleUserToDatabase(),
+            insertSampleUserToDatabase(SOME_OTHER_USERNAME, DEFAULT_INSTITUTION));
+        RoleDto roleUpdate = roleUpdate(DEFAULT_ROLE);
+
+        GatewayResponse<RoleDto> response = sendUpdateRequestsUntilPropagationIsComplete(roleUpdate);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+        assertThat(response.getBodyObject(RoleDto.class), is(equalTo(roleUpdate)));
+        for (UserDto user : usersWithRole) {
+            UserDto savedUser = databaseService.getUser(user);
+            assertThat(savedUser.getRoles(), is(equalTo(Collections.singletonList(roleUpdate))));
+        }
+    }
+
+    @Test
+    public void handleRequestReturnsCheckpointHeaderWhenThereAreUsersLeftToUpdate()
+        throws IOException, ConflictException, InvalidEntryInternalException, InvalidInputException {
+        insertSampleUserToDatabase();
+        insertSampleUserToDatabase(SOME_OTHER_USERNAME, DEFAULT_INSTITUTION);
+
+        GatewayResponse<RoleDto> response = sendUpdateRequest(DEFAULT_ROLE, roleUpdate(DEFAULT_ROLE), null);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+        assertThat(response.getHeaders().get(PROPAGATION_CHECKPOINT_HEADER), is(notNullValue()));
+    }
+
+    @Test
+    public void handleRequestReturnsTheNumberOfFailedUsersWhenSomeUsersCouldNotBeUpdated()
+        throws IOException, ApiGatewayException {
+        RoleDto roleUpdate = roleUpdate(DEFAULT_ROLE);
+        DatabaseService failingService = mock(DatabaseService.class);
+        when(failingService.propagateRole(any(RoleDto.class), any(), any(Duration.class)))
+            .thenReturn(new RolePropagationResult(0, List.of(DEFAULT_USERNAME), null));
+        when(failingService.getRoleWithConsistentRead(any(RoleDto.class))).thenReturn(roleUpdate);
+        updateRoleHandler = new UpdateRoleHandler(mockEnvironment(), failingService);
+
+        GatewayResponse<RoleDto> response = sendUpdateRequest(DEFAULT_ROLE, roleUpdate, null);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_OK)));
+        assertThat(response.getHeaders().get(PROPAGATION_FAILURES_HEADER), is(equalTo("1")));
+        assertThat(response.getHeaders(), not(hasKey(PROPAGATION_CHECKPOINT_HEADER)));
+    }
+
+    @Test
+    public void handleRequestReturnsBadRequestWhenRoleNameInPathIsDifferentFromRoleNameInBody()
+        throws IOException, InvalidEntryInternalException, ConflictException, InvalidInputException {
+        insertSampleUserToDatabase();
+
+        GatewayResponse<Problem> response = sendUpdateRequest(SOME_OTHER_ROLE, roleUpdate(DEFAULT_ROLE), null);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_BAD_REQUEST)));
+        assertThat(response.getBodyObject(Problem.class).getDetail(),
+            containsString(UpdateRoleHandler.INCONSISTENT_ROLE_NAME_ERROR));
+    }
+
+    @Test
+    public void handleRequestReturnsNotFoundWhenRoleDoesNotExist()
+        throws IOException, InvalidEntryInternalException {
+        GatewayResponse<Problem> response = sendUpdateRequest(DEFAULT_ROLE, roleUpdate(DEFAULT_ROLE), null);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_NOT_FOUND)));
+    }
+
+    @Test
+    public void handleRequestReturnsBadRequestWhenCheckpointIsNotValid()
+        throws IOException, InvalidEntryInternalException, ConflictException, InvalidInputException {
+        insertSampleUserToDatabase();
+        String invalidCheckpoint = "invalidCheckpoint";
+
+        GatewayResponse<Problem> response =
+            sendUpdateRequest(DEFAULT_ROLE, roleUpdate(DEFAULT_ROLE), invalidCheckpoint);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_BAD_REQUEST)));
+        assertThat(response.getHeaders(), not(hasKey(PROPAGATION_CHECKPOINT_HEADER)));
+    }
+
+    private Environment environmentWithOneUserPerBatch() {
+        return mockEnvironment(Map.of(
+            DatabaseService.USERS_AND_ROLES_TABLE_NAME_ENV_VARIABLE, USERS_AND_ROLES_TABLE,
+            RolePropagationSettings.BATCH_SIZE_ENV_VARIABLE, ONE_USER_PER_BATCH), DEFAULT_ENV_VALUE);
+    }
+
+    private static RoleDto roleUpdate(String roleName) throws InvalidEntryInternalException {
+        return RoleDto.newBuilder()
+            .withName(roleName)
+            .withAccessRights(Set.of(AccessRight.APPROVE_DOI_REQUEST.toString()))
+            .build();
+    }
+
+    private GatewayResponse<RoleDto> sendUpdateRequestsUntilPropagationIsComplete(RoleDto roleUpdate)
+        throws IOException {
+        GatewayResponse<RoleDto> response = sendUpdateRequest(roleUpdate.getRoleName(), roleUpdate, null);
+        int numberOfRequests = 1;
+        while (response.getHeaders().containsKey(PROPAGATION_CHECKPOINT_HEADER)
+               && numberOfRequests < MAX_NUMBER_OF_REQUESTS) {
+            String checkpoint = response.getHeaders().get(PROPAGATION_CHECKPOINT_HEADER);
+            response = sendUpdateRequest(roleUpdate.getRoleName(), roleUpdate, checkpoint);
+            numberOfRequests++;
+        }
+        assertThat(response.getHeaders(), not(hasKey(PROPAGATION_CHECKPOINT_HEADER)));
+        return response;
+    }
+
+    private <T> GatewayResponse<T> sendUpdateRequest(String roleNameInPath, RoleDto roleUpdate, String checkpoint)
+        throws IOException {
+        HandlerRequestBuilder<RoleDto> requestBuilder = new HandlerRequestBuilder<RoleDto>(objectMapper)
+            .withPathParameters(Map.of(GetRoleHandler.ROLE_PATH_PARAMETER, roleNameInPath))
+            .withBody(roleUpdate);
+        if (checkpoint != null) {
+            requestBuilder.withQueryParameters(Map.of(CHECKPOINT_QUERY_PARAMETER, checkpoint));
+        }
+        InputStream request = requestBuilder.build();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        updateRoleHandler.handleRequest(request, outputStream, context);
+        return GatewayResponse.fromOutputStream(outputStream);
+    }
+}
@@ -1,7 +1,10 @@
 package no.unit.nva.handlers;
 
+import static no.unit.nva.database.UserService.CONCURRENT_UPDATE_ERROR_MESSAGE;
+import static no.unit.nva.database.UserService.INITIAL_VERSION;
 import static no.unit.nva.database.UserService.USER_NOT_FOUND_MESSAGE;
 import static no.unit.nva.handlers.EntityUtils.createUserWithoutUsername;
+import static no.unit.nva.handlers.UpdateUserHandler.IF_MATCH_HEADER;
 import static no.unit.nva.handlers.UpdateUserHandler.INCONSISTENT_USERNAME_IN_PATH_AND_OBJECT_ERROR;
 import static no.unit.nva.handlers.UpdateUserHandler.LOCATION_HEADER;
 import static no.unit.nva.handlers.UpdateUserHandler.USERNAME_PATH_PARAMETER;
@@ -45,6 +48,7 @@ public class UpdateUserHandlerTest extends HandlerTest {
     public static final String SAMPLE_INSTITUTION = "somewhere";
     public static final String ANOTHER_ROLE = "ANOTHER_ROLE";
     public static final String SOME_OTHER_USERNAME = "SomeOtherUsername";
+    public static final String INVALID_ETAG = "notAnEtag";
     private DatabaseServiceImpl databaseService;
     private Context context;
 
@@ -170,6 +174,44 @@ public class UpdateUserHandlerTest extends HandlerTest {
         assertThat(problem.getDetail(), containsString(USER_NOT_FOUND_MESSAGE));
     }
 
+    @Test
+    public void handleRequestReturnsAcceptedWhenIfMatchHeaderContainsTheCurrentEtagOfTheUser()
+        throws ApiGatewayException, IOException {
+        UserDto userUpdate = createUserUpdateOnExistingUser().copy().withVersion(null).build();
+        String currentEtag = etagOf(databaseService.getUser(userUpdate));
+
+        GatewayResponse<Void> response = sendUpdateRequest(userUpdate.getUsername(), userUpdate, currentEtag);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_ACCEPTED)));
+        assertThat(databaseService.getUser(userUpdate).getVersion(), is(equalTo(INITIAL_VERSION + 1)));
+    }
+
+    @Test
+    public void handleRequestReturnsConflictWhenIfMatchHeaderContainsAnOutdatedEtag()
+        throws ApiGatewayException, IOException {
+        UserDto userUpdate = createUserUpdateOnExistingUser();
+        String outdatedEtag = etagOf(databaseService.getUser(userUpdate));
+        databaseService.updateUser(userUpdate);
+
+        GatewayResponse<Problem> response = sendUpdateRequest(userUpdate.getUsername(), userUpdate, outdatedEtag);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_CONFLICT)));
+        Problem problem = response.getBodyObject(Problem.class);
+        assertThat(problem.getDetail(), containsString(CONCURRENT_UPDATE_ERROR_MESSAGE));
+    }
+
+    @Test
+    public void handleRequestReturnsBadRequestWhenIfMatchHeaderIsNotAnEtagOfTheUser()
+        throws ApiGatewayException, IOException {
+        UserDto userUpdate = createUserUpdateOnExistingUser();
+
+        GatewayResponse<Problem> response = sendUpdateRequest(userUpdate.getUsername(), userUpdate, INVALID_ETAG);
+
+        assertThat(response.getStatusCode(), is(equalTo(HttpStatus.SC_BAD_REQUEST)));
+        Problem problem = response.getBodyObject(Problem.class);
+        assertThat(problem.getDetail(), containsString(UpdateUserHandler.INVALID_IF_MATCH_HEADER_ERROR));
+    }
+
     @Test
     public void handleRequestReturnsBadRequestWhenInputUserHasNoType()
         throws InvalidEntryInternalException, IOException {
@@ -216,6 +258,22 @@ public class UpdateUserHandlerTest extends HandlerTest {
         return databaseService.getUser(userDto);
     }
 
+    private static String etagOf(UserDto user) {
+        return "\"" + user.getVersion() + "\"";
+    }
+
+    private <I, O> GatewayResponse<O> sendUpdateRequest(String userId, I userUpdate, String ifMatch)
+        throws IOException {
+        UpdateUserHandler updateUserHandler = new UpdateUserHandler(envWithTableName, databaseService);
+        InputStream input = new HandlerRequestBuilder<I>(objectMapper)
+            .withPathParameters(Collections.singletonMap(USERNAME_PATH_PARAMETER, userId))
+            .withHeaders(Collections.singletonMap(IF_MATCH_HEADER, ifMatch))
+            .withBody(userUpdate)
+            .build();
+        updateUserHandler.handleRequest(input, output, context);
+        return GatewayResponse.fromOutputStream(output);
+    }
+
     private <I, O> GatewayResponse<O> sendUpdateRequest(String userId, I userUpdate)
         throws IOException {
         UpdateUserHandler updateUserHandler = new UpdateUserHandler(envWithTableName, databaseService);
@@ -6,9 +6,12 @@ import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.secretsmanager.AWSSecretsManager;
+import com.amazonaws.services.secretsmanager.model.AWSSecretsManagerException;
 import com.amazonaws.services.secretsmanager.model.GetSecretValueRequest;
 import com.amazonaws.services.secretsmanager.model.GetSecretValueResult;
 import com.amazonaws.services.secretsmanager.model.ResourceNotFoundException;
@@ -16,6 +19,9 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import no.unit.commons.apigateway.authentication.AuthorizerResponse;
@@ -45,6 +51,10 @@ public class LambdaAuthorizerTest implements WithEnvironment {
     public static final String METHOD_ARN_REQUEST_FIELD = "methodArn";
     public static final String WRONG_SECRET_NAME = "WrongSecretName";
     private static final String WRONG_SECRET_KEY = "WrongSecretKey";
+    private static final int NUMBER_OF_REQUESTS = 3;
+    private static final Duration SECRET_TTL = Duration.ofSeconds(60);
+    private static final Duration REFRESH_AHEAD = Duration.ofSeconds(10);
+    private static final Instant NOW = Instant.parse("2021-01-01T00:00:00Z");
 
     private final Environment envWithCorrectValues;
     private Context context;
@@ -104,6 +114,64 @@ public class LambdaAuthorizerTest implements WithEnvironment {
         assertThat(actualEffect, is(equalTo(ACTION_DENIED)));
     }
 
+    @Test
+    public void authorizerFetchesSecretOnlyOnceForRequestsWithinTheTtl() throws IOException {
+        AWSSecretsManager awsSecretsManager = secretsManager();
+        LambdaAuthorizer authorizer = new LambdaAuthorizer(awsSecretsManager, envWithCorrectValues);
+
+        for (int request = 0; request < NUMBER_OF_REQUESTS; request++) {
+            assertThat(effectOf(sendRequest(authorizer)), is(equalTo(ACTION_ALLOWED)));
+        }
+
+        verify(awsSecretsManager, times(1)).getSecretValue(any(GetSecretValueRequest.class));
+    }
+
+    @Test
+    public void authorizerFetchesSecretAgainWhenSecretIsDueForRefresh() throws IOException {
+        AWSSecretsManager awsSecretsManager = secretsManager();
+        Clock clock = clockAdvancingTo(NOW, NOW.plus(SECRET_TTL).minus(REFRESH_AHEAD));
+        LambdaAuthorizer authorizer = new LambdaAuthorizer(awsSecretsManager, envWithCorrectValues,
+            new SecretCache(SECRET_TTL, REFRESH_AHEAD, clock));
+
+        sendRequest(authorizer);
+        AuthorizerResponse response = sendRequest(authorizer);
+
+        assertThat(effectOf(response), is(equalTo(ACTION_ALLOWED)));
+        verify(awsSecretsManager, times(2)).getSecretValue(any(GetSecretValueRequest.class));
+    }
+
+    @Test
+    public void authorizerUsesCachedSecretWhenFetchingTheSecretFailsAfterTheTtl() throws IOException {
+        AWSSecretsManager awsSecretsManager = secretsManagerFailingAfterFirstCall();
+        Clock clock = clockAdvancingTo(NOW, NOW.plus(SECRET_TTL).plusSeconds(1));
+        LambdaAuthorizer authorizer = new LambdaAuthorizer(awsSecretsManager, envWithCorrectValues,
+            new SecretCache(SECRET_TTL, REFRESH_AHEAD, clock));
+
+        sendRequest(authorizer);
+        AuthorizerResponse response = sendRequest(authorizer);
+
+        assertThat(effectOf(response), is(equalTo(ACTION_ALLOWED)));
+        verify(awsSecretsManager, times(2)).getSecretValue(any(GetSecretValueRequest.class));
+    }
+
+    private static Clock clockAdvancingTo(Instant first, Instant second) {
+        Clock clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(first, second);
+        return clock;
+    }
+
+    private static String effectOf(AuthorizerResponse response) {
+        return response.getPolicyDocument().getStatement().get(UNIQUE_STATEMENT).getEffect();
+    }
+
+    private AWSSecretsManager secretsManagerFailingAfterFirstCall() {
+        AWSSecretsManager awsSecretsManager = mock(AWSSecretsManager.class);
+        when(awsSecretsManager.getSecretValue(any(GetSecretValueRequest.class)))
+            .thenAnswer(provideSecret())
+            .thenThrow(new AWSSecretsManagerException(AWS_SERCRETS_MANAGER_ERROR_MESSAGE));
+        return awsSecretsManager;
+    }
+
     private AWSSecretsManager secretsManager() {
         AWSSecretsManager awsSecretsManager = mock(AWSSecretsManager.class);
         when(awsSecretsManager.getSecretValue(any(GetSecretValueRequest.class)))
@@ -112,7 +180,10 @@ public class LambdaAuthorizerTest implements WithEnvironment {
     }
 
     private AuthorizerResponse sendRequest(Environment environment) throws IOException {
-        LambdaAuthorizer authorizer = new LambdaAuthorizer(secretsManager(), environment);
+        return sendRequest(new LambdaAuthorizer(secretsManager(), environment));
+    }
+
+    private AuthorizerResponse sendRequest(LambdaAuthorizer authorizer) throws IOException {
         InputStream request = buildRequest();
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         authorizer.handleRequest(request, outputStream, context);
@@ -0,0 +1,167 @@
+package no.unit.nva.handlers.authorizer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import no.unit.nva.database.interfaces.WithEnvironment;
+import nva.commons.core.Environment;
+import nva.commons.logutils.LogUtils;
+import nva.commons.logutils.TestAppender;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+public class SecretCacheTest implements WithEnvironment {
+
+    public static final Duration SOME_TTL = Duration.ofSeconds(60);
+    public static final Duration SOME_REFRESH_AHEAD = Duration.ofSeconds(10);
+    public static final Duration SOME_RETRY_DELAY = Duration.ofSeconds(5);
+    public static final Duration SOME_MAX_STALENESS = Duration.ofSeconds(600);
+    public static final Instant NOW = Instant.parse("2021-01-01T00:00:00Z");
+    public static final String SOME_SECRET = "someSecret";
+    public static final String SOME_OTHER_SECRET = "someOtherSecret";
+    public static final String INVALID_NUMBER = "notANumber";
+    public static final String FETCH_ERROR_MESSAGE = "Secrets Manager is not available";
+
+    @Test
+    public void getFetchesSecretOnlyOnceBeforeRefreshIsDue() {
+        Clock clock = clockReturning(NOW, NOW.plus(SOME_TTL).minus(SOME_REFRESH_AHEAD).minusSeconds(1));
+        SecretCache secretCache = new SecretCache(SOME_TTL, SOME_REFRESH_AHEAD, clock);
+        AtomicInteger fetches = new AtomicInteger();
+
+        secretCache.get(countingFetch(fetches, SOME_SECRET));
+        String secret = secretCache.get(countingFetch(fetches, SOME_OTHER_SECRET));
+
+        assertThat(secret, is(equalTo(SOME_SECRET)));
+        assertThat(fetches.get(), is(equalTo(1)));
+    }
+
+    @Test
+    public void getFetchesSecretAgainWhenRefreshIsDue() {
+        Clock clock = clockReturning(NOW, NOW.plus(SOME_TTL).minus(SOME_REFRESH_AHEAD));
+        SecretCache secretCache = new SecretCache(SOME_TTL, SOME_REFRESH_AHEAD, clock);
+        AtomicInteger fetches = new AtomicInteger();
+
+        secretCache.get(countingFetch(fetches, SOME_SECRET));
+        String secret = secretCache.get(countingFetch(fetches, SOME_OTHER_SECRET));
+
+        assertThat(secret, is(equalTo(SOME_OTHER_SECRET)));
+        assertThat(fetches.get(), is(equalTo(2)));
+    }
+
+    @Test
+    public void getReturnsCachedSecretAndLogsWarningWhenRefreshFails() {
+        TestAppender appender = LogUtils.getTestingAppender(SecretCache.class);
+        Clock clock = clockReturning(NOW, NOW.plus(SOME_TTL).plusSeconds(1));
+        SecretCache secretCache = new SecretCache(SOME_TTL, SOME_REFRESH_AHEAD, clock);
+
+        secretCache.get(() -> SOME_SECRET);
+        String secret = secretCache.get(failingFetch());
+
+        assertThat(secret, is(equalTo(SOME_SECRET)));
+        assertThat(appender.getMessages(), containsString(SecretCache.STALE_SECRET_WARNING));
+    }
+
+    @Test
+    public void getDoesNotFetchSecretAgainBeforeTheRetryDelayHasPassedAfterAFailedFetch() {
+        Instant failedFetch = NOW.plus(SOME_TTL);
+        Clock clock = clockReturning(NOW, failedFetch, failedFetch.plus(SOME_RETRY_DELAY).minusSeconds(1),
+            failedFetch.plus(SOME_RETRY_DELAY));
+        SecretCache secretCache = new SecretCache(SOME_TTL, SOME_REFRESH_AHEAD, SOME_RETRY_DELAY, SOME_MAX_STALENESS,
+            clock);
+        AtomicInteger fetches = new AtomicInteger();
+
+        secretCache.get(() -> SOME_SECRET);
+        secretCache.get(countingFailingFetch(fetches));
+        String secretDuringRetryDelay = secretCache.get(countingFailingFetch(fetches));
+        assertThat(secretDuringRetryDelay, is(equalTo(SOME_SECRET)));
+        assertThat(fetches.get(), is(equalTo(1)));
+
+        secretCache.get(countingFailingFetch(fetches));
+        assertThat(fetches.get(), is(equalTo(2)));
+    }
+
+    @Test
+    public void getThrowsExceptionWhenFetchFailsAndCachedSecretIsOlderThanTheMaxStaleness() {
+        Clock clock = clockReturning(NOW, NOW.plus(SOME_MAX_STALENESS));
+        SecretCache secretCache = new SecretCache(SOME_TTL, SOME_REFRESH_AHEAD, SOME_RETRY_DELAY, SOME_MAX_STALENESS,
+            clock);
+
+        secretCache.get(() -> SOME_SECRET);
+        Executable action = () -> secretCache.get(failingFetch());
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, action);
+        assertThat(exception.getMessage(), containsString(SecretCache.SECRET_NOT_AVAILABLE_ERROR));
+    }
+
+    @Test
+    public void getThrowsExceptionWhenFetchFailsAndThereIsNoCachedSecret() {
+        SecretCache secretCache = new SecretCache(SOME_TTL, SOME_REFRESH_AHEAD, Clock.systemUTC());
+
+        Executable action = () -> secretCache.get(failingFetch());
+        IllegalStateException exception = assertThrows(IllegalStateException.class, action);
+        assertThat(exception.getMessage(), containsString(SecretCache.SECRET_NOT_AVAILABLE_ERROR));
+    }
+
+    @Test
+    public void fromEnvironmentReadsTtlAndRefreshAheadFromEnvironment() {
+        Environment environment = mockEnvironment(Map.of(
+            SecretCache.SECRET_CACHE_TTL_ENV_VARIABLE, "1",
+            SecretCache.SECRET_CACHE_REFRESH_AHEAD_ENV_VARIABLE, "0"), DEFAULT_ENV_VALUE);
+        SecretCache secretCache = SecretCache.fromEnvironment(environment);
+        AtomicInteger fetches = new AtomicInteger();
+
+        secretCache.get(countingFetch(fetches, SOME_SECRET));
+        secretCache.get(countingFetch(fetches, SOME_SECRET));
+
+        assertThat(fetches.get(), is(equalTo(1)));
+    }
+
+    @Test
+    public void fromEnvironmentUsesDefaultsAndLogsWarningWhenSettingsAreInvalid() {
+        TestAppender appender = LogUtils.getTestingAppender(SecretCache.class);
+        SecretCache secretCache = SecretCache.fromEnvironment(mockEnvironment(INVALID_NUMBER));
+        AtomicInteger fetches = new AtomicInteger();
+
+        secretCache.get(countingFetch(fetches, SOME_SECRET));
+        secretCache.get(countingFetch(fetches, SOME_SECRET));
+
+        assertThat(fetches.get(), is(equalTo(1)));
+        assertThat(appender.getMessages(), containsString(SecretCache.INVALID_CACHE_SETTING_WARNING));
+    }
+
+    private static Clock clockReturning(Instant first, Instant... later) {
+        Clock clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(first, later);
+        return clock;
+    }
+
+    private static Callable<String> countingFetch(AtomicInteger fetches, String secret) {
+        return () -> {
+            fetches.incrementAndGet();
+            return secret;
+        };
+    }
+
+    private static Callable<String> countingFailingFetch(AtomicInteger fetches) {
+        return () -> {
+            fetches.incrementAndGet();
+            throw new IllegalStateException(FETCH_ERROR_MESSAGE);
+        };
+    }
+
+    private static Callable<String> failingFetch() {
+        return () -> {
+            throw new IllegalStateException(FETCH_ERROR_MESSAGE);
+        };
+    }
+}
@@ -0,0 +1,269 @@
+package no.unit.nva.useraccessmanagement.dao;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import com.amazonaws.services.dynamodbv2.document.Item;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.useraccessserivce.accessrights.AccessRight;
+
+/**
+ * Maps {@link UserDb}, {@link RoleDb}, {@link RoleMembershipDb} and {@link NameTokenDb} directly to and from DynamoDB
+ * {@link Item}s. The produced items are equivalent to the ones produced by serializing the entries to JSON and parsing
+ * the JSON with {@link Item#fromJSON(String)}, but without creating and parsing a JSON document for every read and
+ * write.
+ *
+ * <p>Null and empty string values are not written, so that entries without an institution are left out of the
+ * {@link DatabaseIndexDetails#SECONDARY_INDEX_1_HASH_KEY} index as before.
+ */
+public final class DynamoEntryCodec {
+
+    public static final String TYPE_FIELD = "type";
+    public static final String USERNAME_FIELD = "username";
+    public static final String INSTITUTION_FIELD = "institution";
+    public static final String ROLES_FIELD = "roles";
+    public static final String GIVEN_NAME_FIELD = "givenName";
+    public static final String FAMILY_NAME_FIELD = "familyName";
+    public static final String ROLE_NAME_FIELD = "name";
+    public static final String ACCESS_RIGHTS_FIELD = "accessRights";
+    public static final String VERSION_FIELD = "version";
+    public static final String MEMBERSHIP_ROLE_NAME_FIELD = "roleName";
+    public static final String EFFECTIVE_ACCESS_RIGHTS_FIELD = "effectiveAccessRights";
+    public static final String NAME_TOKEN_FIELD = "token";
+
+    private DynamoEntryCodec() {
+    }
+
+    /**
+     * Creates an {@link Item} from a {@link UserDb}.
+     *
+     * @param user the user.
+     * @return an {@link Item}.
+     */
+    public static Item toItem(UserDb user) {
+        return Item.fromMap(userAttributes(user));
+    }
+
+    /**
+     * Creates an {@link Item} from a {@link RoleDb}.
+     *
+     * @param role the role.
+     * @return an {@link Item}.
+     */
+    public static Item toItem(RoleDb role) {
+        return Item.fromMap(roleAttributes(role));
+    }
+
+    /**
+     * Creates an {@link Item} from a {@link RoleMembershipDb}.
+     *
+     * @param membership the membership.
+     * @return an {@link Item}.
+     */
+    public static Item toItem(RoleMembershipDb membership) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        putIfNotEmpty(attributes, DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY, membership.getPrimaryHashKey());
+        putIfNotEmpty(attributes, DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY, membership.getPrimaryRangeKey());
+        putIfNotEmpty(attributes, MEMBERSHIP_ROLE_NAME_FIELD, membership.getRoleName());
+        putIfNotEmpty(attributes, USERNAME_FIELD, membership.getUsername());
+        attributes.put(TYPE_FIELD, membership.getType());
+        if (nonNull(membership.getUserVersion())) {
+            attributes.put(VERSION_FIELD, membership.getUserVersion());
+        }
+        return Item.fromMap(attributes);
+    }
+
+    /**
+     * Creates an {@link Item} from a {@link NameTokenDb}.
+     *
+     * @param nameToken the name token.
+     * @return an {@link Item}.
+     */
+    public static Item toItem(NameTokenDb nameToken) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        putIfNotEmpty(attributes, DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY, nameToken.getPrimaryHashKey());
+        putIfNotEmpty(attributes, DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY, nameToken.getPrimaryRangeKey());
+        putIfNotEmpty(attributes, NAME_TOKEN_FIELD, nameToken.getToken());
+        putIfNotEmpty(attributes, USERNAME_FIELD, nameToken.getUsername());
+        attributes.put(TYPE_FIELD, nameToken.getType());
+        if (nonNull(nameToken.getUserVersion())) {
+            attributes.put(VERSION_FIELD, nameToken.getUserVersion());
+        }
+        return Item.fromMap(attributes);
+    }
+
+    /**
+     * Creates a {@link UserDb} from an {@link Item}.
+     *
+     * @param item the item.
+     * @return a {@link UserDb} or {@code null} if the item is {@code null}.
+     * @throws IllegalArgumentException when the primary keys of the item are not keys of a user.
+     */
+    public static UserDb toUserDb(Item item) {
+        if (isNull(item)) {
+            return null;
+        }
+        UserDb user = new UserDb();
+        setPrimaryKeys(user, item.getString(DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY),
+            item.getString(DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY));
+        user.setUsername(item.getString(USERNAME_FIELD));
+        user.setInstitution(item.getString(INSTITUTION_FIELD));
+        user.setGivenName(item.getString(GIVEN_NAME_FIELD));
+        user.setFamilyName(item.getString(FAMILY_NAME_FIELD));
+        user.setRoles(readRoles(item.getList(ROLES_FIELD)));
+        user.setVersion(readVersion(item.get(VERSION_FIELD)));
+        user.setEffectiveAccessRights(readEffectiveAccessRights(item.get(EFFECTIVE_ACCESS_RIGHTS_FIELD), user));
+        return user;
+    }
+
+    /**
+     * Creates a {@link RoleDb} from an {@link Item}.
+     *
+     * @param item the item.
+     * @return a {@link RoleDb} or {@code null} if the item is {@code null}.
+     * @throws IllegalArgumentException when the primary keys of the item are not keys of a role.
+     */
+    public static RoleDb toRoleDb(Item item) {
+        return nonNull(item) ? toRoleDb(item.asMap()) : null;
+    }
+
+    /**
+     * Creates a {@link RoleMembershipDb} from an {@link Item}.
+     *
+     * @param item the item.
+     * @return a {@link RoleMembershipDb} or {@code null} if the item is {@code null}.
+     */
+    public static RoleMembershipDb toRoleMembershipDb(Item item) {
+        if (isNull(item)) {
+            return null;
+        }
+        RoleMembershipDb membership = new RoleMembershipDb();
+        membership.setPrimaryHashKey(item.getString(DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY));
+        membership.setPrimaryRangeKey(item.getString(DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY));
+        membership.setRoleName(item.getString(MEMBERSHIP_ROLE_NAME_FIELD));
+        membership.setUsername(item.getString(USERNAME_FIELD));
+        membership.setUserVersion(readVersion(item.get(VERSION_FIELD)));
+        return membership;
+    }
+
+    /**
+     * Creates a {@link NameTokenDb} from an {@link Item}.
+     *
+     * @param item the item.
+     * @return a {@link NameTokenDb} or {@code null} if the item is {@code null}.
+     */
+    public static NameTokenDb toNameTokenDb(Item item) {
+        if (isNull(item)) {
+            return null;
+        }
+        NameTokenDb nameToken = new NameTokenDb();
+        nameToken.setPrimaryHashKey(item.getString(DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY));
+        nameToken.setPrimaryRangeKey(item.getString(DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY));
+        nameToken.setToken(item.getString(NAME_TOKEN_FIELD));
+        nameToken.setUsername(item.getString(USERNAME_FIELD));
+        nameToken.setUserVersion(readVersion(item.get(VERSION_FIELD)));
+        return nameToken;
+    }
+
+    private static Map<String, Object> userAttributes(UserDb user) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        putIfNotEmpty(attributes, DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY, user.getPrimaryHashKey());
+        putIfNotEmpty(attributes, DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY, user.getPrimaryRangeKey());
+        putIfNotEmpty(attributes, USERNAME_FIELD, user.getUsername());
+        putIfNotEmpty(attributes, INSTITUTION_FIELD, user.getInstitution());
+        putIfNotEmpty(attributes, GIVEN_NAME_FIELD, user.getGivenName());
+        putIfNotEmpty(attributes, FAMILY_NAME_FIELD, user.getFamilyName());
+        putIfNotEmpty(attributes, DatabaseIndexDetails.SECONDARY_INDEX_1_HASH_KEY,
+            user.getSearchByInstitutionHashKey());
+        putIfNotEmpty(attributes, DatabaseIndexDetails.SECONDARY_INDEX_1_RANGE_KEY,
+            user.getSearchByInstitutionRangeKey());
+        attributes.put(ROLES_FIELD, user.getRoles().stream()
+            .map(DynamoEntryCodec::roleAttributes)
+            .collect(Collectors.toList()));
+        attributes.put(TYPE_FIELD, user.getType());
+        if (nonNull(user.getVersion())) {
+            attributes.put(VERSION_FIELD, user.getVersion());
+        }
+        attributes.put(EFFECTIVE_ACCESS_RIGHTS_FIELD, user.getEffectiveAccessRights());
+        return attributes;
+    }
+
+    private static Map<String, Object> roleAttributes(RoleDb role) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        putIfNotEmpty(attributes, DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY, role.getPrimaryHashKey());
+        putIfNotEmpty(attributes, DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY, role.getPrimaryRangeKey());
+        putIfNotEmpty(attributes, ROLE_NAME_FIELD, role.getName());
+        attributes.put(ACCESS_RIGHTS_FIELD, role.getAccessRights().stream()
+            .map(AccessRight::toString)
+            .collect(Collectors.toList()));
+        attributes.put(TYPE_FIELD, role.getType());
+        return attributes;
+    }
+
+    private static void putIfNotEmpty(Map<String, Object> attributes, String name, String value) {
+        if (nonNull(value) && !value.isEmpty()) {
+            attributes.put(name, value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<RoleDb> readRoles(List<Object> roles) {
+        if (isNull(roles)) {
+            return Collections.emptyList();
+        }
+        return roles.stream()
+            .map(role -> toRoleDb((Map<String, Object>) role))
+            .collect(Collectors.toList());
+    }
+
+    private static RoleDb toRoleDb(Map<String, Object> attributes) {
+        RoleDb role = new RoleDb();
+        setPrimaryKeys(role, (String) attributes.get(DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY),
+            (String) attributes.get(DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY));
+        role.setName((String) attributes.get(ROLE_NAME_FIELD));
+        role.setAccessRights(readAccessRights(attributes.get(ACCESS_RIGHTS_FIELD)));
+        return role;
+    }
+
+    private static Set<AccessRight> readAccessRights(Object accessRights) {
+        if (accessRights instanceof Collection) {
+            return ((Collection<?>) accessRights).stream()
+                .map(Object::toString)
+                .map(AccessRight::fromString)
+                .collect(Collectors.toSet());
+        }
+        return Collections.emptySet();
+    }
+
+    private static Long readVersion(Object version) {
+        return version instanceof Number ? ((Number) version).longValue() : null;
+    }
+
+    /*Users written before the access rights were stored get them from their roles until their next update*/
+    private static long readEffectiveAccessRights(Object effectiveAccessRights, UserDb user) {
+        return effectiveAccessRights instanceof Number
+            ? ((Number) effectiveAccessRights).longValue()
+            : UserDb.effectiveAccessRightsOf(user.getRoles());
+    }
+
+    /*Setters are called only for existing keys, in the same way as when deserializing with Jackson*/
+    private static void setPrimaryKeys(DynamoEntryWithRangeKey entry, String hashKey, String rangeKey) {
+        try {
+            if (nonNull(hashKey)) {
+                entry.setPrimaryHashKey(hashKey);
+            }
+            if (nonNull(rangeKey)) {
+                entry.setPrimaryRangeKey(rangeKey);
+            }
+        } catch (InvalidEntryInternalException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+}
@@ -6,7 +6,10 @@ import static nva.commons.core.JsonUtils.objectMapper;
 import com.amazonaws.services.dynamodbv2.document.Item;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails;
@@ -17,7 +20,7 @@ import nva.commons.core.JsonSerializable;
 public abstract class DynamoEntryWithRangeKey implements WithType, JsonSerializable {
 
     public static final TypeFactory TYPE_FACTORY = objectMapper.getTypeFactory();
-    private static final Map<String, JavaType> JAVA_TYPES = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
     @SuppressWarnings("PMD.ConstantsInInterface")
     public static String FIELD_DELIMITER = "#";
 
@@ -31,12 +34,22 @@ public abstract class DynamoEntryWithRangeKey implements WithType, JsonSerializa
      */
     public static <E extends DynamoEntryWithRangeKey> E fromItem(Item item, Class<E> entryClass) {
         if (nonNull(item)) {
-            JavaType javaType = fetchJavaType(entryClass);
-            return objectMapper.convertValue(item.asMap(), javaType);
+            return readItem(item, readerFor(entryClass));
         }
         return null;
     }
 
+    /**
+     * Returns the {@link ObjectReader} for the specified entry class. The reader is created once per class and reused
+     * for every subsequent deserialization.
+     *
+     * @param entryClass the class of the entry.
+     * @return an {@link ObjectReader} for the class.
+     */
+    public static ObjectReader readerFor(Class<? extends DynamoEntryWithRangeKey> entryClass) {
+        return READERS.computeIfAbsent(entryClass, DynamoEntryWithRangeKey::createReader);
+    }
+
     @JsonProperty(DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY)
     public abstract String getPrimaryHashKey();
 
@@ -74,13 +87,18 @@ public abstract class DynamoEntryWithRangeKey implements WithType, JsonSerializa
         return isNull(getPrimaryRangeKey());
     }
 
-    private static <E> JavaType fetchJavaType(Class<E> entryClass) {
-        return JAVA_TYPES.getOrDefault(entryClass.getName(), constructNewJavaType(entryClass));
+    private static ObjectReader createReader(Class<?> entryClass) {
+        JavaType javaType = TYPE_FACTORY.constructType(entryClass);
+        return objectMapper.readerFor(javaType);
     }
 
-    private static <E> JavaType constructNewJavaType(Class<E> entryClass) {
-        JavaType javaType = TYPE_FACTORY.constructType(entryClass);
-        JAVA_TYPES.put(entryClass.getName(), javaType);
-        return javaType;
+    /*Same conversion as ObjectMapper#convertValue, but with a reader whose root deserializer has been resolved once*/
+    private static <E> E readItem(Item item, ObjectReader reader) {
+        try (TokenBuffer buffer = new TokenBuffer(objectMapper, false)) {
+            objectMapper.writeValue(buffer, item.asMap());
+            return reader.readValue(buffer.asParser());
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,197 @@
+package no.unit.nva.useraccessmanagement.dao;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails;
+import no.unit.nva.useraccessmanagement.interfaces.WithType;
+import nva.commons.core.JacocoGenerated;
+
+/**
+ * A token of the given or family name of a user. The token is stored in the partition of the institution of the user,
+ * with a range key that starts with the token, so that the users whose names contain a word that starts with a prefix
+ * can be found with a {@code begins_with} query on the primary key. There is one token per distinct word of the names
+ * of each user.
+ *
+ * <p>The tokens are lowercased and accent-folded, so that names with accents and Nordic letters are found with plain
+ * ASCII prefixes. The token contains the version of the user that it was written for, so that a token that has been
+ * written again by a later update of the user is not removed by an earlier one.
+ */
+public class NameTokenDb extends DynamoEntryWithRangeKey implements WithType {
+
+    public static final String TYPE = "NAME_TOKEN";
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD_CHARACTERS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    /*Letters that are not composed of a base letter and a combining mark*/
+    private static final Map<String, String> FOLDED_LETTERS = Map.of(
+        "\u00f8", "o", "\u00e6", "ae", "\u0153", "oe", "\u00df", "ss", "\u00f0", "d",
+        "\u0111", "d", "\u00fe", "th", "\u0142", "l", "\u0131", "i");
+
+    @JsonProperty(DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY)
+    private String primaryHashKey;
+    @JsonProperty(DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY)
+    private String primaryRangeKey;
+    @JsonProperty(DynamoEntryCodec.NAME_TOKEN_FIELD)
+    private String token;
+    @JsonProperty(DynamoEntryCodec.USERNAME_FIELD)
+    private String username;
+    @JsonProperty(DynamoEntryCodec.VERSION_FIELD)
+    private Long userVersion;
+
+    public NameTokenDb() {
+        super();
+    }
+
+    /**
+     * Creates a token of the names of a user.
+     *
+     * @param institution the institution of the user.
+     * @param token       a token returned by {@link #tokensOf}.
+     * @param username    the username of the user.
+     * @return a {@link NameTokenDb}.
+     */
+    public static NameTokenDb of(String institution, String token, String username) {
+        NameTokenDb nameToken = new NameTokenDb();
+        nameToken.setToken(token);
+        nameToken.setUsername(username);
+        nameToken.setPrimaryHashKey(primaryHashKeyOfInstitution(institution));
+        nameToken.setPrimaryRangeKey(String.join(DynamoEntryWithRangeKey.FIELD_DELIMITER, token, username));
+        return nameToken;
+    }
+
+    /**
+     * The primary hash key of the name tokens of the users of an institution.
+     *
+     * @param institution the institution.
+     * @return the primary hash key.
+     */
+    public static String primaryHashKeyOfInstitution(String institution) {
+        return String.join(DynamoEntryWithRangeKey.FIELD_DELIMITER, TYPE, institution);
+    }
+
+    /**
+     * Splits names into lowercased and accent-folded words. Words are separated by any character that is not a letter
+     * or a digit, so "Anne-Marie" gives the tokens "anne" and "marie".
+     *
+     * @param names the names, of which some may be {@code null}.
+     * @return the distinct tokens, in the order in which they appear.
+     */
+    public static Set<String> tokensOf(String... names) {
+        Set<String> tokens = Arrays.stream(names)
+            .filter(Objects::nonNull)
+            .map(NameTokenDb::normalize)
+            .flatMap(NON_WORD_CHARACTERS::splitAsStream)
+            .filter(word -> !word.isEmpty())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        return Collections.unmodifiableSet(tokens);
+    }
+
+    /**
+     * Creates a {@link NameTokenDb} from an {@link Item} without going through JSON.
+     *
+     * @param item the item.
+     * @return a {@link NameTokenDb} or {@code null} when the item is {@code null}.
+     */
+    public static NameTokenDb fromItem(Item item) {
+        return DynamoEntryCodec.toNameTokenDb(item);
+    }
+
+    @Override
+    public Item toItem() {
+        return DynamoEntryCodec.toItem(this);
+    }
+
+    @Override
+    public String getPrimaryHashKey() {
+        return primaryHashKey;
+    }
+
+    @Override
+    public void setPrimaryHashKey(String primaryHashKey) {
+        this.primaryHashKey = primaryHashKey;
+    }
+
+    @Override
+    public String getPrimaryRangeKey() {
+        return primaryRangeKey;
+    }
+
+    @Override
+    public void setPrimaryRangeKey(String primaryRangeKey) {
+        this.primaryRangeKey = primaryRangeKey;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Long getUserVersion() {
+        return userVersion;
+    }
+
+    public void setUserVersion(Long userVersion) {
+        this.userVersion = userVersion;
+    }
+
+    @JacocoGenerated
+    @JsonProperty(DynamoEntryCodec.TYPE_FIELD)
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @JacocoGenerated
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NameTokenDb)) {
+            return false;
+        }
+        NameTokenDb that = (NameTokenDb) o;
+        return Objects.equals(getPrimaryHashKey(), that.getPrimaryHashKey())
+            && Objects.equals(getPrimaryRangeKey(), that.getPrimaryRangeKey())
+            && Objects.equals(getToken(), that.getToken())
+            && Objects.equals(getUsername(), that.getUsername())
+            && Objects.equals(getUserVersion(), that.getUserVersion());
+    }
+
+    @JacocoGenerated
+    @Override
+    public int hashCode() {
+        return Objects.hash(getPrimaryHashKey(), getPrimaryRangeKey(), getToken(), getUsername(), getUserVersion());
+    }
+
+    private static String normalize(String name) {
+        String lowercase = Normalizer.normalize(name, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        String folded = COMBINING_MARKS.matcher(lowercase).replaceAll("");
+        for (Map.Entry<String, String> letter : FOLDED_LETTERS.entrySet()) {
+            if (folded.contains(letter.getKey())) {
+                folded = folded.replace(letter.getKey(), letter.getValue());
+            }
+        }
+        return folded;
+    }
+}
@@ -2,6 +2,7 @@ package no.unit.nva.useraccessmanagement.dao;
 
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
+import com.amazonaws.services.dynamodbv2.document.Item;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.Collections;
 import java.util.Objects;
@@ -70,6 +71,21 @@ public class RoleDb extends DynamoEntryWithRangeKey implements WithCopy<Builder>
             .build();
     }
 
+    /**
+     * Creates a {@link RoleDb} from an {@link Item} without going through JSON.
+     *
+     * @param item the item.
+     * @return a {@link RoleDb} or {@code null} when the item is {@code null}.
+     */
+    public static RoleDb fromItem(Item item) {
+        return DynamoEntryCodec.toRoleDb(item);
+    }
+
+    @Override
+    public Item toItem() {
+        return DynamoEntryCodec.toItem(this);
+    }
+
     @JacocoGenerated
     @Override
     public String getPrimaryHashKey() {
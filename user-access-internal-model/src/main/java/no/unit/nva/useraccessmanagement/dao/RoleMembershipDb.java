@@ -0,0 +1,151 @@
+package no.unit.nva.useraccessmanagement.dao;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Objects;
+import no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails;
+import no.unit.nva.useraccessmanagement.interfaces.WithType;
+import nva.commons.core.JacocoGenerated;
+
+/**
+ * An edge from a role to a user that has the role. The edge is stored in the partition of the role, so that the users
+ * of a role can be listed with a query on the primary key. There is one edge per role of each user.
+ *
+ * <p>The edge contains the version of the user that it was written for, so that an edge that has been written again by
+ * a later update of the user is not removed by an earlier one.
+ */
+public class RoleMembershipDb extends DynamoEntryWithRangeKey implements WithType {
+
+    public static final String TYPE = "ROLE_MEMBERSHIP";
+    public static final String USER_KEY_PREFIX = UserDb.TYPE + DynamoEntryWithRangeKey.FIELD_DELIMITER;
+
+    @JsonProperty(DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY)
+    private String primaryHashKey;
+    @JsonProperty(DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY)
+    private String primaryRangeKey;
+    @JsonProperty(DynamoEntryCodec.MEMBERSHIP_ROLE_NAME_FIELD)
+    private String roleName;
+    @JsonProperty(DynamoEntryCodec.USERNAME_FIELD)
+    private String username;
+    @JsonProperty(DynamoEntryCodec.VERSION_FIELD)
+    private Long userVersion;
+
+    public RoleMembershipDb() {
+        super();
+    }
+
+    /**
+     * Creates the edge from a role to a user.
+     *
+     * @param roleName the name of the role.
+     * @param username the username of the user.
+     * @return a {@link RoleMembershipDb}.
+     */
+    public static RoleMembershipDb of(String roleName, String username) {
+        RoleMembershipDb membership = new RoleMembershipDb();
+        membership.setRoleName(roleName);
+        membership.setUsername(username);
+        membership.setPrimaryHashKey(primaryHashKeyOfRole(roleName));
+        membership.setPrimaryRangeKey(USER_KEY_PREFIX + username);
+        return membership;
+    }
+
+    /**
+     * The primary hash key of the edges of a role, which is the same as the primary hash key of the role.
+     *
+     * @param roleName the name of the role.
+     * @return the primary hash key.
+     */
+    public static String primaryHashKeyOfRole(String roleName) {
+        return String.join(DynamoEntryWithRangeKey.FIELD_DELIMITER, RoleDb.TYPE, roleName);
+    }
+
+    /**
+     * Creates a {@link RoleMembershipDb} from an {@link Item} without going through JSON.
+     *
+     * @param item the item.
+     * @return a {@link RoleMembershipDb} or {@code null} when the item is {@code null}.
+     */
+    public static RoleMembershipDb fromItem(Item item) {
+        return DynamoEntryCodec.toRoleMembershipDb(item);
+    }
+
+    @Override
+    public Item toItem() {
+        return DynamoEntryCodec.toItem(this);
+    }
+
+    @Override
+    public String getPrimaryHashKey() {
+        return primaryHashKey;
+    }
+
+    @Override
+    public void setPrimaryHashKey(String primaryHashKey) {
+        this.primaryHashKey = primaryHashKey;
+    }
+
+    @Override
+    public String getPrimaryRangeKey() {
+        return primaryRangeKey;
+    }
+
+    @Override
+    public void setPrimaryRangeKey(String primaryRangeKey) {
+        this.primaryRangeKey = primaryRangeKey;
+    }
+
+    public String getRoleName() {
+        return roleName;
+    }
+
+    public void setRoleName(String roleName) {
+        this.roleName = roleName;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Long getUserVersion() {
+        return userVersion;
+    }
+
+    public void setUserVersion(Long userVersion) {
+        this.userVersion = userVersion;
+    }
+
+    @JacocoGenerated
+    @JsonProperty(DynamoEntryCodec.TYPE_FIELD)
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @JacocoGenerated
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RoleMembershipDb)) {
+            return false;
+        }
+        RoleMembershipDb that = (RoleMembershipDb) o;
+        return Objects.equals(getPrimaryHashKey(), that.getPrimaryHashKey())
+            && Objects.equals(getPrimaryRangeKey(), that.getPrimaryRangeKey())
+            && Objects.equals(getRoleName(), that.getRoleName())
+            && Objects.equals(getUsername(), that.getUsername())
+            && Objects.equals(getUserVersion(), that.getUserVersion());
+    }
+
+    @JacocoGenerated
+    @Override
+    public int hashCode() {
+        return Objects.hash(getPrimaryHashKey(), getPrimaryRangeKey(), getRoleName(), getUsername(), getUserVersion());
+    }
+}
@@ -3,6 +3,7 @@ package no.unit.nva.useraccessmanagement.dao;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static nva.commons.core.attempt.Try.attempt;
+import com.amazonaws.services.dynamodbv2.document.Item;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -10,6 +11,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails;
 import no.unit.nva.useraccessmanagement.dao.UserDb.Builder;
@@ -17,7 +19,9 @@ import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException
 import no.unit.nva.useraccessmanagement.interfaces.WithCopy;
 import no.unit.nva.useraccessmanagement.interfaces.WithType;
 import no.unit.nva.useraccessmanagement.model.RoleDto;
+import no.unit.nva.useraccessmanagement.model.UserAccessRightsDto;
 import no.unit.nva.useraccessmanagement.model.UserDto;
+import no.unit.useraccessserivce.accessrights.AccessRight;
 import nva.commons.core.JacocoGenerated;
 import nva.commons.core.attempt.Failure;
 import org.slf4j.Logger;
@@ -48,6 +52,10 @@ public class UserDb extends DynamoEntryWithRangeKey implements WithCopy<Builder>
     private String givenName;
     @JsonProperty("familyName")
     private String familyName;
+    @JsonProperty(DynamoEntryCodec.VERSION_FIELD)
+    private Long version;
+    @JsonProperty(DynamoEntryCodec.EFFECTIVE_ACCESS_RIGHTS_FIELD)
+    private long effectiveAccessRights;
 
     public UserDb() {
         super();
@@ -60,6 +68,8 @@ public class UserDb extends DynamoEntryWithRangeKey implements WithCopy<Builder>
         setFamilyName(builder.familyName);
         setInstitution(builder.institution);
         setRoles(builder.roles);
+        setVersion(builder.version);
+        setEffectiveAccessRights(effectiveAccessRightsOf(getRoles()));
         setPrimaryHashKey(builder.primaryHashKey);
         setPrimaryRangeKey(builder.primaryRangeKey);
     }
@@ -80,11 +90,47 @@ public class UserDb extends DynamoEntryWithRangeKey implements WithCopy<Builder>
             .withGivenName(userDto.getGivenName())
             .withFamilyName(userDto.getFamilyName())
             .withInstitution(userDto.getInstitution())
-            .withRoles(createRoleDbList(userDto));
+            .withRoles(createRoleDbList(userDto))
+            .withVersion(userDto.getVersion());
 
         return userDb.build();
     }
 
+    /**
+     * Creates a {@link UserDb} from an {@link Item} without going through JSON.
+     *
+     * @param item the item.
+     * @return a {@link UserDb} or {@code null} when the item is {@code null}.
+     */
+    public static UserDb fromItem(Item item) {
+        return DynamoEntryCodec.toUserDb(item);
+    }
+
+    /**
+     * Combines the access rights of roles to a bitmask, as returned by {@link #getEffectiveAccessRights()}.
+     *
+     * @param roles the roles.
+     * @return the bitmask of the access rights that the roles give.
+     */
+    public static long effectiveAccessRightsOf(Collection<RoleDb> roles) {
+        long bitmask = 0;
+        for (RoleDb role : roles) {
+            bitmask |= AccessRight.toBitmask(role.getAccessRights());
+        }
+        return bitmask;
+    }
+
+    /**
+     * Checks whether any of the roles of the user gives an access right. The check reads only the stored bitmask of
+     * the user.
+     *
+     * @param accessRight the access right.
+     * @return {@code true} if the user has the access right.
+     */
+    public boolean hasAccessRight(AccessRight accessRight) {
+        return accessRight.isIn(effectiveAccessRights);
+    }
+
     /**
      * Creates a {@link UserDto} from a {@link UserDb}.
      *
@@ -98,10 +144,34 @@ public class UserDb extends DynamoEntryWithRangeKey implements WithCopy<Builder>
             .withGivenName(this.getGivenName())
             .withFamilyName(this.getFamilyName())
             .withRoles(extractRoles(this))
-            .withInstitution(this.getInstitution());
+            .withInstitution(this.getInstitution())
+            .withVersion(this.getVersion());
         return userDto.build();
     }
 
+    /**
+     * Creates a {@link UserAccessRightsDto} from the stored bitmask of the access rights, without reading the roles.
+     *
+     * @return a data transfer object {@link UserAccessRightsDto}
+     * @throws InvalidEntryInternalException when database object is invalid (should never happen).
+     */
+    public UserAccessRightsDto toUserAccessRightsDto() throws InvalidEntryInternalException {
+        Set<String> accessRights = AccessRight.fromBitmask(getEffectiveAccessRights()).stream()
+            .map(AccessRight::toString)
+            .collect(Collectors.toSet());
+        return UserAccessRightsDto.newBuilder()
+            .withUsername(this.getUsername())
+            .withInstitution(this.getInstitution())
+            .withAccessRights(accessRights)
+            .withVersion(this.getVersion())
+            .build();
+    }
+
+    @Override
+    public Item toItem() {
+        return DynamoEntryCodec.toItem(this);
+    }
+
     @JacocoGenerated
     @Override
     public String getPrimaryHashKey() {
@@ -243,6 +313,39 @@ public class UserDb extends DynamoEntryWithRangeKey implements WithCopy<Builder>
         this.institution = institution;
     }
 
+    @JacocoGenerated
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Method to be used only by DynamoDb mapper. Do not use. Use the builder instead.
+     *
+     * @param version the version of the entry.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * The access rights of all the roles of the user, as a bitmask of {@link AccessRight#getBit()}. It is computed when
+     * the entry is built and stored with the user, so it is not derived from the roles when the user is read.
+     *
+     * @return the bitmask.
+     */
+    public long getEffectiveAccessRights() {
+        return effectiveAccessRights;
+    }
+
+    /**
+     * Method to be used only by DynamoDb mapper. Do not use. Use the builder instead.
+     *
+     * @param effectiveAccessRights the bitmask of the access rights of the user.
+     */
+    public void setEffectiveAccessRights(long effectiveAccessRights) {
+        this.effectiveAccessRights = effectiveAccessRights;
+    }
+
     @JacocoGenerated
     @JsonProperty("type")
     @Override
@@ -257,9 +360,11 @@ public class UserDb extends DynamoEntryWithRangeKey implements WithCopy<Builder>
             .withGivenName(this.givenName)
             .withFamilyName(this.familyName)
             .withInstitution(this.institution)
-            .withRoles(this.roles);
+            .withRoles(this.roles)
+            .withVersion(this.version);
     }
 
+    /*The version is metadata of the stored entry and not part of the user's content*/
     @Override
     @JacocoGenerated
     public boolean equals(Object o) {
@@ -317,6 +422,7 @@ public class UserDb extends DynamoEntryWithRangeKey implements WithCopy<Builder>
         private List<RoleDb> roles;
         private String primaryHashKey;
         private String primaryRangeKey;
+        private Long version;
 
         private Builder() {
         }
@@ -346,6 +452,11 @@ public class UserDb extends DynamoEntryWithRangeKey implements WithCopy<Builder>
             return this;
         }
 
+        public Builder withVersion(Long version) {
+            this.version = version;
+            return this;
+        }
+
         public UserDb build() throws InvalidEntryInternalException {
             this.primaryHashKey = formatPrimaryHashKey();
             this.primaryRangeKey = formatPrimaryRangeKey();
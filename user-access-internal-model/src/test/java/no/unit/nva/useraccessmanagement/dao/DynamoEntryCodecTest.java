@@ -0,0 +1,257 @@
+package no.unit.nva.useraccessmanagement.dao;
+
+import static no.unit.nva.hamcrest.DoesNotHaveNullOrEmptyFields.doesNotHaveNullOrEmptyFields;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import com.amazonaws.services.dynamodbv2.document.Item;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.useraccessserivce.accessrights.AccessRight;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+public class DynamoEntryCodecTest {
+
+    public static final String SOME_USERNAME = "someUser";
+    public static final String SOME_ROLENAME = "someRole";
+    public static final String SOME_GIVEN_NAME = "givenName";
+    public static final String SOME_FAMILY_NAME = "familyName";
+    public static final String SOME_INSTITUTION = "someInstitution";
+    public static final int NUMBER_OF_ROLES = 5;
+    public static final Long SOME_VERSION = 7L;
+
+    @ParameterizedTest(name = "codec creates the same item as the JSON serialization for {0}")
+    @MethodSource("fullyPopulatedUsers")
+    public void toItemCreatesTheSameItemAsTheJsonSerializationForUsers(String description, UserDb user) {
+        Item expectedItem = Item.fromJSON(user.toJsonString());
+        Item actualItem = DynamoEntryCodec.toItem(user);
+        assertThat(actualItem.asMap(), is(equalTo(expectedItem.asMap())));
+    }
+
+    @ParameterizedTest(name = "codec creates the same item as the JSON serialization for {0}")
+    @MethodSource("fullyPopulatedRoles")
+    public void toItemCreatesTheSameItemAsTheJsonSerializationForRoles(String description, RoleDb role) {
+        Item expectedItem = Item.fromJSON(role.toJsonString());
+        Item actualItem = DynamoEntryCodec.toItem(role);
+        assertThat(actualItem.asMap(), is(equalTo(expectedItem.asMap())));
+    }
+
+    @ParameterizedTest(name = "codec reads items written by the JSON serialization for {0}")
+    @MethodSource("sampleUsers")
+    public void toUserDbReadsItemsCreatedByTheJsonSerialization(String description, UserDb user) {
+        Item item = Item.fromJSON(user.toJsonString());
+        assertThat(DynamoEntryCodec.toUserDb(item), is(equalTo(user)));
+    }
+
+    @ParameterizedTest(name = "JSON deserialization reads items written by the codec for {0}")
+    @MethodSource("sampleUsers")
+    public void jsonDeserializationReadsUserItemsCreatedByTheCodec(String description, UserDb user) {
+        Item item = DynamoEntryCodec.toItem(user);
+        assertThat(DynamoEntryWithRangeKey.fromItem(item, UserDb.class), is(equalTo(user)));
+    }
+
+    @ParameterizedTest(name = "codec reads items written by the JSON serialization for {0}")
+    @MethodSource("sampleRoles")
+    public void toRoleDbReadsItemsCreatedByTheJsonSerialization(String description, RoleDb role) {
+        Item item = Item.fromJSON(role.toJsonString());
+        assertThat(DynamoEntryCodec.toRoleDb(item), is(equalTo(role)));
+    }
+
+    @ParameterizedTest(name = "JSON deserialization reads items written by the codec for {0}")
+    @MethodSource("sampleRoles")
+    public void jsonDeserializationReadsRoleItemsCreatedByTheCodec(String description, RoleDb role) {
+        Item item = DynamoEntryCodec.toItem(role);
+        assertThat(DynamoEntryWithRangeKey.fromItem(item, RoleDb.class), is(equalTo(role)));
+    }
+
+    @Test
+    public void userDbAndRoleDbUseTheCodecForConvertingToAndFromItems() throws InvalidEntryInternalException {
+        UserDb user = fullUser();
+        assertThat(user.toItem().asMap(), is(equalTo(DynamoEntryCodec.toItem(user).asMap())));
+        assertThat(UserDb.fromItem(user.toItem()), is(equalTo(user)));
+
+        RoleDb role = roleWithAccessRights(SOME_ROLENAME, EnumSet.allOf(AccessRight.class));
+        assertThat(role.toItem().asMap(), is(equalTo(DynamoEntryCodec.toItem(role).asMap())));
+        assertThat(RoleDb.fromItem(role.toItem()), is(equalTo(role)));
+    }
+
+    @Test
+    public void codecKeepsTheVersionOfTheUser() throws InvalidEntryInternalException {
+        UserDb user = fullUser();
+
+        assertThat(DynamoEntryCodec.toUserDb(DynamoEntryCodec.toItem(user)).getVersion(), is(equalTo(SOME_VERSION)));
+        assertThat(DynamoEntryCodec.toUserDb(Item.fromJSON(user.toJsonString())).getVersion(),
+            is(equalTo(SOME_VERSION)));
+        assertThat(DynamoEntryWithRangeKey.fromItem(DynamoEntryCodec.toItem(user), UserDb.class).getVersion(),
+            is(equalTo(SOME_VERSION)));
+    }
+
+    @Test
+    public void toItemDoesNotWriteVersionWhenUserHasNoVersion() throws InvalidEntryInternalException {
+        UserDb userWithoutVersion = fullUser().copy().withVersion(null).build();
+        Item item = DynamoEntryCodec.toItem(userWithoutVersion);
+
+        assertThat(item.asMap().containsKey(DynamoEntryCodec.VERSION_FIELD), is(false));
+        assertThat(DynamoEntryCodec.toUserDb(item).getVersion(), is(nullValue()));
+    }
+
+    @Test
+    public void codecKeepsTheStoredEffectiveAccessRightsOfTheUser() throws InvalidEntryInternalException {
+        UserDb user = fullUser();
+        Item itemWithoutAccessRights = user.toItem().withLong(DynamoEntryCodec.EFFECTIVE_ACCESS_RIGHTS_FIELD, 0L);
+
+        assertThat(DynamoEntryCodec.toUserDb(user.toItem()).hasAccessRight(AccessRight.APPROVE_DOI_REQUEST),
+            is(true));
+        assertThat(DynamoEntryCodec.toUserDb(itemWithoutAccessRights).hasAccessRight(AccessRight.APPROVE_DOI_REQUEST),
+            is(false));
+    }
+
+    @Test
+    public void toUserDbComputesEffectiveAccessRightsOfUsersStoredWithoutThem() throws InvalidEntryInternalException {
+        UserDb user = fullUser();
+        Item itemOfOlderVersion = user.toItem().removeAttribute(DynamoEntryCodec.EFFECTIVE_ACCESS_RIGHTS_FIELD);
+
+        UserDb readUser = DynamoEntryCodec.toUserDb(itemOfOlderVersion);
+
+        assertThat(readUser.getEffectiveAccessRights(), is(equalTo(user.getEffectiveAccessRights())));
+        assertThat(readUser.hasAccessRight(AccessRight.APPROVE_DOI_REQUEST), is(true));
+    }
+
+    @Test
+    public void roleMembershipDbUsesTheCodecForConvertingToAndFromItems() {
+        RoleMembershipDb membership = RoleMembershipDb.of(SOME_ROLENAME, SOME_USERNAME);
+        membership.setUserVersion(SOME_VERSION);
+
+        assertThat(membership, doesNotHaveNullOrEmptyFields());
+        assertThat(membership.toItem().asMap(), is(equalTo(Item.fromJSON(membership.toJsonString()).asMap())));
+        assertThat(RoleMembershipDb.fromItem(membership.toItem()), is(equalTo(membership)));
+    }
+
+    @Test
+    public void roleMembershipDbIsStoredInThePartitionOfTheRole() throws InvalidEntryInternalException {
+        RoleDb role = roleWithAccessRights(SOME_ROLENAME, Collections.emptySet());
+        RoleMembershipDb membership = RoleMembershipDb.of(SOME_ROLENAME, SOME_USERNAME);
+
+        assertThat(membership.getPrimaryHashKey(), is(equalTo(role.getPrimaryHashKey())));
+        assertThat(membership.getPrimaryRangeKey(), is(equalTo(fullUser().getPrimaryHashKey())));
+    }
+
+    @Test
+    public void nameTokenDbUsesTheCodecForConvertingToAndFromItems() {
+        NameTokenDb nameToken = NameTokenDb.of(SOME_INSTITUTION, "givenname", SOME_USERNAME);
+        nameToken.setUserVersion(SOME_VERSION);
+
+        assertThat(nameToken, doesNotHaveNullOrEmptyFields());
+        assertThat(nameToken.toItem().asMap(), is(equalTo(Item.fromJSON(nameToken.toJsonString()).asMap())));
+        assertThat(NameTokenDb.fromItem(nameToken.toItem()), is(equalTo(nameToken)));
+    }
+
+    @Test
+    public void toUserDbAndToRoleDbReturnNullWhenItemIsNull() {
+        assertThat(DynamoEntryCodec.toUserDb(null), is(nullValue()));
+        assertThat(DynamoEntryCodec.toRoleDb(null), is(nullValue()));
+        assertThat(DynamoEntryCodec.toRoleMembershipDb(null), is(nullValue()));
+        assertThat(DynamoEntryCodec.toNameTokenDb(null), is(nullValue()));
+    }
+
+    @Test
+    public void toUserDbThrowsIllegalArgumentExceptionWhenItemIsNotAUser() throws InvalidEntryInternalException {
+        Item roleItem = roleWithAccessRights(SOME_ROLENAME, Collections.emptySet()).toItem();
+        Executable action = () -> DynamoEntryCodec.toUserDb(roleItem);
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, action);
+        assertThat(exception.getMessage(), containsString(UserDb.INVALID_PRIMARY_HASH_KEY));
+    }
+
+    @Test
+    public void toRoleDbThrowsIllegalArgumentExceptionWhenItemIsNotARole() throws InvalidEntryInternalException {
+        Item userItem = fullUser().toItem();
+        Executable action = () -> DynamoEntryCodec.toRoleDb(userItem);
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, action);
+        assertThat(exception.getMessage(), containsString(RoleDb.INVALID_PRIMARY_HASH_KEY));
+    }
+
+    private static Stream<Object[]> fullyPopulatedUsers() throws InvalidEntryInternalException {
+        return Stream.of(
+            new Object[]{"user with all fields", fullUser()},
+            new Object[]{"user with many roles", fullUser().copy().withRoles(manyRoles()).build()}
+        );
+    }
+
+    private static Stream<Object[]> fullyPopulatedRoles() throws InvalidEntryInternalException {
+        return Stream.of(
+            new Object[]{"role with one access right",
+                roleWithAccessRights(SOME_ROLENAME, Collections.singleton(AccessRight.APPROVE_DOI_REQUEST))},
+            new Object[]{"role with all access rights",
+                roleWithAccessRights(SOME_ROLENAME, EnumSet.allOf(AccessRight.class))}
+        );
+    }
+
+    private static Stream<Object[]> sampleUsers() throws InvalidEntryInternalException {
+        return Stream.of(
+            new Object[]{"user with all fields", fullUser()},
+            new Object[]{"user with username only", UserDb.newBuilder().withUsername(SOME_USERNAME).build()},
+            new Object[]{"user without institution", fullUser().copy().withInstitution(null).build()},
+            new Object[]{"user with role without access rights", fullUser().copy()
+                .withRoles(Collections.singletonList(roleWithAccessRights(SOME_ROLENAME, Collections.emptySet())))
+                .build()},
+            new Object[]{"user with many roles", fullUser().copy().withRoles(manyRoles()).build()}
+        );
+    }
+
+    private static Stream<Object[]> sampleRoles() throws InvalidEntryInternalException {
+        return Stream.of(
+            new Object[]{"role without access rights", roleWithAccessRights(SOME_ROLENAME, Collections.emptySet())},
+            new Object[]{"role with one access right",
+                roleWithAccessRights(SOME_ROLENAME, Collections.singleton(AccessRight.APPROVE_DOI_REQUEST))},
+            new Object[]{"role with all access rights",
+                roleWithAccessRights(SOME_ROLENAME, EnumSet.allOf(AccessRight.class))}
+        );
+    }
+
+    private static UserDb fullUser() throws InvalidEntryInternalException {
+        return UserDb.newBuilder()
+            .withUsername(SOME_USERNAME)
+            .withGivenName(SOME_GIVEN_NAME)
+            .withFamilyName(SOME_FAMILY_NAME)
+            .withInstitution(SOME_INSTITUTION)
+            .withRoles(Collections.singletonList(
+                roleWithAccessRights(SOME_ROLENAME, Collections.singleton(AccessRight.APPROVE_DOI_REQUEST))))
+            .withVersion(SOME_VERSION)
+            .build();
+    }
+
+    private static List<RoleDb> manyRoles() {
+        return IntStream.range(0, NUMBER_OF_ROLES)
+            .boxed()
+            .map(index -> roleWithAccessRightsUnchecked(SOME_ROLENAME + index))
+            .collect(Collectors.toList());
+    }
+
+    private static RoleDb roleWithAccessRightsUnchecked(String roleName) {
+        try {
+            return roleWithAccessRights(roleName, EnumSet.allOf(AccessRight.class));
+        } catch (InvalidEntryInternalException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static RoleDb roleWithAccessRights(String roleName, Set<AccessRight> accessRights)
+        throws InvalidEntryInternalException {
+        return RoleDb.newBuilder()
+            .withName(roleName)
+            .withAccessRights(accessRights)
+            .build();
+    }
+}
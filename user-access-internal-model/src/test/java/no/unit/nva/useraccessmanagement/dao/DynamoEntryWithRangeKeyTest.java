@@ -4,9 +4,14 @@ import static no.unit.nva.hamcrest.DoesNotHaveNullOrEmptyFields.doesNotHaveNullO
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.hamcrest.core.StringContains.containsString;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import com.amazonaws.services.dynamodbv2.document.Item;
+import com.fasterxml.jackson.databind.ObjectReader;
 import java.util.Collections;
+import no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
 import no.unit.useraccessserivce.accessrights.AccessRight;
 import org.junit.jupiter.api.Test;
@@ -22,6 +27,7 @@ class DynamoEntryWithRangeKeyTest {
     public static final String SOME_USER_NAME = "SomeUserName";
     public static final String SOME_ROLE_NAME = "SomeRole";
     public static final String SOME_INSTITUTION = "SomeInstitution";
+    public static final Long SOME_VERSION = 1L;
 
     @Test
     public void fromItemReturnsEntryWithoutDataLoss() throws InvalidEntryInternalException {
@@ -33,6 +39,34 @@ class DynamoEntryWithRangeKeyTest {
         assertThat(actualUser, is(equalTo(expectedUser)));
     }
 
+    @Test
+    public void fromItemReturnsRoleWithoutDataLoss() throws InvalidEntryInternalException {
+        RoleDb expectedRole = createSampleUser().getRoles().get(0);
+        RoleDb actualRole = RoleDb.fromItem(expectedRole.toItem(), RoleDb.class);
+
+        assertThat(actualRole, is(equalTo(expectedRole)));
+    }
+
+    @Test
+    public void fromItemReturnsNullWhenItemIsNull() {
+        assertThat(UserDb.fromItem(null, UserDb.class), is(equalTo(null)));
+    }
+
+    @Test
+    public void fromItemThrowsIllegalArgumentExceptionWhenItemIsInvalid() {
+        Item invalidItem = new Item().withString(DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY, SOME_INVALID_KEY);
+        Executable action = () -> UserDb.fromItem(invalidItem, UserDb.class);
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, action);
+        assertThat(exception.getMessage(), containsString(UserDb.INVALID_PRIMARY_HASH_KEY));
+    }
+
+    @Test
+    public void readerForReturnsTheSameReaderForEveryCallWithTheSameClass() {
+        ObjectReader reader = DynamoEntryWithRangeKey.readerFor(UserDb.class);
+        assertThat(DynamoEntryWithRangeKey.readerFor(UserDb.class), is(sameInstance(reader)));
+        assertThat(DynamoEntryWithRangeKey.readerFor(RoleDb.class), is(not(sameInstance(reader))));
+    }
+
     public UserDb createSampleUser() throws InvalidEntryInternalException {
         RoleDb sampleRole = RoleDb.newBuilder()
             .withName(SOME_ROLE_NAME)
@@ -44,6 +78,7 @@ class DynamoEntryWithRangeKeyTest {
             .withGivenName(SOME_GIVEN_NAME)
             .withInstitution(SOME_INSTITUTION)
             .withRoles(Collections.singletonList(sampleRole))
+            .withVersion(SOME_VERSION)
             .build();
         return sampleUser;
     }
@@ -0,0 +1,40 @@
+package no.unit.nva.useraccessmanagement.dao;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.startsWith;
+import static org.hamcrest.core.Is.is;
+import org.junit.jupiter.api.Test;
+
+public class NameTokenDbTest {
+
+    public static final String SOME_INSTITUTION = "someInstitution";
+    public static final String SOME_USERNAME = "someUser";
+
+    @Test
+    public void tokensOfReturnsTheDistinctLowercaseWordsOfTheNames() {
+        assertThat(NameTokenDb.tokensOf("Anne-Marie Kari", null, "KARI  Nordmann"),
+            contains("anne", "marie", "kari", "nordmann"));
+    }
+
+    @Test
+    public void tokensOfRemovesAccentsAndFoldsNordicLetters() {
+        assertThat(NameTokenDb.tokensOf("\u00c5se \u00c6rlig", "\u00d8deg\u00e5rd Jos\u00e9"),
+            contains("ase", "aerlig", "odegard", "jose"));
+    }
+
+    @Test
+    public void tokensOfReturnsNoTokensWhenNamesHaveNoLettersOrDigits() {
+        assertThat(NameTokenDb.tokensOf(" - ", null), is(empty()));
+    }
+
+    @Test
+    public void nameTokenIsStoredInThePartitionOfTheInstitutionWithRangeKeyStartingWithTheToken() {
+        NameTokenDb nameToken = NameTokenDb.of(SOME_INSTITUTION, "kari", SOME_USERNAME);
+
+        assertThat(nameToken.getPrimaryHashKey(), startsWith(NameTokenDb.TYPE));
+        assertThat(nameToken.getPrimaryHashKey(), is(NameTokenDb.primaryHashKeyOfInstitution(SOME_INSTITUTION)));
+        assertThat(nameToken.getPrimaryRangeKey(), startsWith("kari" + DynamoEntryWithRangeKey.FIELD_DELIMITER));
+    }
+}
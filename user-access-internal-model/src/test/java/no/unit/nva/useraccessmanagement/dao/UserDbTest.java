@@ -15,13 +15,17 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import no.unit.nva.useraccessmanagement.dao.UserDb.Builder;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
 import no.unit.nva.useraccessmanagement.model.RoleDto;
+import no.unit.nva.useraccessmanagement.model.UserAccessRightsDto;
 import no.unit.nva.useraccessmanagement.model.UserDto;
+import no.unit.useraccessserivce.accessrights.AccessRight;
 import nva.commons.core.attempt.Try;
 import nva.commons.logutils.LogUtils;
 import nva.commons.logutils.TestAppender;
@@ -36,9 +40,11 @@ public class UserDbTest {
 
     public static final String SOME_USERNAME = "someUser";
     public static final String SOME_ROLENAME = "someRole";
+    public static final String SOME_OTHER_ROLENAME = "someOtherRole";
     public static final String SOME_GIVEN_NAME = "givenName";
     public static final String SOME_FAMILY_NAME = "familyName";
     public static final String SOME_INSTITUTION = "SomeInstitution";
+    public static final Long SOME_VERSION = 3L;
     public static final List<RoleDb> SAMPLE_ROLES = createSampleRoles();
 
     private UserDb dynamoFunctionalityTestUser;
@@ -64,6 +70,44 @@ public class UserDbTest {
         assertDoesNotThrow(action);
     }
 
+    @Test
+    public void builderSetsTheAccessRightsOfAllRolesAsEffectiveAccessRights() throws InvalidEntryInternalException {
+        RoleDb approvingRole = roleWithAccessRights(SOME_ROLENAME, EnumSet.of(AccessRight.APPROVE_DOI_REQUEST));
+        RoleDb readingRole = roleWithAccessRights(SOME_OTHER_ROLENAME, EnumSet.of(AccessRight.READ_DOI_REQUEST));
+
+        UserDb user = UserDb.newBuilder().withUsername(SOME_USERNAME)
+            .withRoles(List.of(approvingRole, readingRole))
+            .build();
+
+        assertThat(AccessRight.fromBitmask(user.getEffectiveAccessRights()),
+            is(equalTo(EnumSet.of(AccessRight.APPROVE_DOI_REQUEST, AccessRight.READ_DOI_REQUEST))));
+        assertThat(user.hasAccessRight(AccessRight.APPROVE_DOI_REQUEST), is(true));
+        assertThat(user.hasAccessRight(AccessRight.REJECT_DOI_REQUEST), is(false));
+    }
+
+    @Test
+    public void toUserAccessRightsDtoReturnsTheEffectiveAccessRightsOfTheUser() throws InvalidEntryInternalException {
+        RoleDb approvingRole = roleWithAccessRights(SOME_ROLENAME, EnumSet.of(AccessRight.APPROVE_DOI_REQUEST));
+        UserDb user = UserDb.newBuilder().withUsername(SOME_USERNAME)
+            .withInstitution(SOME_INSTITUTION)
+            .withRoles(List.of(approvingRole))
+            .withVersion(SOME_VERSION)
+            .build();
+
+        UserAccessRightsDto accessRights = user.toUserAccessRightsDto();
+
+        assertThat(accessRights.getUsername(), is(equalTo(SOME_USERNAME)));
+        assertThat(accessRights.getInstitution(), is(equalTo(SOME_INSTITUTION)));
+        assertThat(accessRights.getAccessRights(), is(equalTo(Set.of(AccessRight.APPROVE_DOI_REQUEST.toString()))));
+        assertThat(accessRights.getVersion(), is(equalTo(SOME_VERSION)));
+    }
+
+    @Test
+    public void userWithoutRolesHasNoAccessRights() {
+        assertThat(sampleUser.getEffectiveAccessRights(), is(equalTo(0L)));
+        assertThat(sampleUser.hasAccessRight(AccessRight.READ_DOI_REQUEST), is(false));
+    }
+
     @Test
     void userDbHasABuilder() {
         Builder builder = UserDb.newBuilder();
@@ -205,4 +249,9 @@ public class UserDbTest {
     private UserDto convertToUserDbAndBack(UserDto userDto) throws InvalidEntryInternalException {
         return UserDb.fromUserDto(userDto).toUserDto();
     }
-}
\ No newline at end of file
+
+    private static RoleDb roleWithAccessRights(String roleName, Set<AccessRight> accessRights)
+        throws InvalidEntryInternalException {
+        return RoleDb.newBuilder().withName(roleName).withAccessRights(accessRights).build();
+    }
+}
@@ -0,0 +1,61 @@
+package no.unit.nva.useraccessmanagement.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import nva.commons.core.JacocoGenerated;
+import nva.commons.core.JsonSerializable;
+
+/**
+ * The usernames of the users that are fetched together in one request.
+ */
+public class BatchGetUsersRequest implements JsonSerializable {
+
+    private List<String> usernames;
+
+    @JacocoGenerated
+    public BatchGetUsersRequest() {
+        this.usernames = new ArrayList<>();
+    }
+
+    private BatchGetUsersRequest(List<String> usernames) {
+        this.usernames = usernames;
+    }
+
+    public static BatchGetUsersRequest fromList(List<String> usernames) {
+        return new BatchGetUsersRequest(usernames);
+    }
+
+    public List<String> getUsernames() {
+        return usernames;
+    }
+
+    public void setUsernames(List<String> usernames) {
+        this.usernames = usernames;
+    }
+
+    @Override
+    @JacocoGenerated
+    public String toString() {
+        return toJsonString();
+    }
+
+    @Override
+    @JacocoGenerated
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BatchGetUsersRequest that = (BatchGetUsersRequest) o;
+        return Objects.equals(getUsernames(), that.getUsernames());
+    }
+
+    @Override
+    @JacocoGenerated
+    public int hashCode() {
+        return Objects.hash(getUsernames());
+    }
+}
@@ -0,0 +1,74 @@
+package no.unit.nva.useraccessmanagement.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import nva.commons.core.JacocoGenerated;
+import nva.commons.core.JsonSerializable;
+
+/**
+ * The users found by a batch get, in the order they were requested, and the usernames of the requested users that do
+ * not exist.
+ */
+public class BatchGetUsersResponse implements JsonSerializable {
+
+    private List<UserDto> users;
+    private List<String> missingUsernames;
+
+    @JacocoGenerated
+    public BatchGetUsersResponse() {
+        this.users = new ArrayList<>();
+        this.missingUsernames = new ArrayList<>();
+    }
+
+    private BatchGetUsersResponse(List<UserDto> users, List<String> missingUsernames) {
+        this.users = users;
+        this.missingUsernames = missingUsernames;
+    }
+
+    public static BatchGetUsersResponse of(List<UserDto> users, List<String> missingUsernames) {
+        return new BatchGetUsersResponse(users, missingUsernames);
+    }
+
+    public List<UserDto> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<UserDto> users) {
+        this.users = users;
+    }
+
+    public List<String> getMissingUsernames() {
+        return missingUsernames;
+    }
+
+    public void setMissingUsernames(List<String> missingUsernames) {
+        this.missingUsernames = missingUsernames;
+    }
+
+    @Override
+    @JacocoGenerated
+    public String toString() {
+        return toJsonString();
+    }
+
+    @Override
+    @JacocoGenerated
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BatchGetUsersResponse that = (BatchGetUsersResponse) o;
+        return Objects.equals(getUsers(), that.getUsers())
+            && Objects.equals(getMissingUsernames(), that.getMissingUsernames());
+    }
+
+    @Override
+    @JacocoGenerated
+    public int hashCode() {
+        return Objects.hash(getUsers(), getMissingUsernames());
+    }
+}
@@ -0,0 +1,101 @@
+package no.unit.nva.useraccessmanagement.model;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import nva.commons.core.JacocoGenerated;
+import nva.commons.core.JsonSerializable;
+
+/**
+ * The number of users of an institution, and the number of users of the institution that have each role. Roles that
+ * no user of the institution has are left out.
+ *
+ * <p>When {@link #isRecountNeeded()} is {@code true}, the numbers may be wrong, because the users of the institution
+ * have not been recounted since the counters were introduced or a counter has become negative. Negative numbers are
+ * never returned: a negative user count is returned as zero and roles with a negative count are left out.
+ */
+public class InstitutionStatsDto implements JsonSerializable {
+
+    private String institution;
+    private long userCount;
+    private Map<String, Long> usersPerRole;
+    private boolean recountNeeded;
+
+    @JacocoGenerated
+    public InstitutionStatsDto() {
+        this.usersPerRole = new TreeMap<>();
+    }
+
+    private InstitutionStatsDto(String institution, long userCount, Map<String, Long> usersPerRole,
+                                boolean recountNeeded) {
+        this.institution = institution;
+        this.userCount = userCount;
+        this.usersPerRole = usersPerRole;
+        this.recountNeeded = recountNeeded;
+    }
+
+    public static InstitutionStatsDto of(String institution, long userCount, Map<String, Long> usersPerRole,
+                                         boolean recountNeeded) {
+        return new InstitutionStatsDto(institution, userCount, new TreeMap<>(usersPerRole), recountNeeded);
+    }
+
+    public String getInstitution() {
+        return institution;
+    }
+
+    public void setInstitution(String institution) {
+        this.institution = institution;
+    }
+
+    public long getUserCount() {
+        return userCount;
+    }
+
+    public void setUserCount(long userCount) {
+        this.userCount = userCount;
+    }
+
+    public Map<String, Long> getUsersPerRole() {
+        return usersPerRole;
+    }
+
+    public void setUsersPerRole(Map<String, Long> usersPerRole) {
+        this.usersPerRole = usersPerRole;
+    }
+
+    public boolean isRecountNeeded() {
+        return recountNeeded;
+    }
+
+    public void setRecountNeeded(boolean recountNeeded) {
+        this.recountNeeded = recountNeeded;
+    }
+
+    @Override
+    @JacocoGenerated
+    public String toString() {
+        return toJsonString();
+    }
+
+    @Override
+    @JacocoGenerated
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        InstitutionStatsDto that = (InstitutionStatsDto) o;
+        return getUserCount() == that.getUserCount()
+            && isRecountNeeded() == that.isRecountNeeded()
+            && Objects.equals(getInstitution(), that.getInstitution())
+            && Objects.equals(getUsersPerRole(), that.getUsersPerRole());
+    }
+
+    @Override
+    @JacocoGenerated
+    public int hashCode() {
+        return Objects.hash(getInstitution(), getUserCount(), getUsersPerRole(), isRecountNeeded());
+    }
+}
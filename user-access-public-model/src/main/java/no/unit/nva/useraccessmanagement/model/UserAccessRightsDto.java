@@ -0,0 +1,157 @@
+package no.unit.nva.useraccessmanagement.model;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.model.interfaces.Typed;
+import nva.commons.core.JacocoGenerated;
+import nva.commons.core.JsonSerializable;
+import nva.commons.core.StringUtils;
+
+/**
+ * The access rights of a user, without the roles and the personal details of the user. It is returned to services
+ * that only need to know what a user is allowed to do.
+ */
+@JsonTypeName(UserAccessRightsDto.TYPE)
+public class UserAccessRightsDto implements JsonSerializable, Typed {
+
+    public static final String TYPE = "UserAccessRights";
+    public static final String MISSING_FIELD_ERROR = "Invalid user access rights. Missing obligatory field: ";
+
+    private String username;
+    private String institution;
+    private Set<String> accessRights;
+    private Long version;
+
+    public UserAccessRightsDto() {
+        accessRights = Collections.emptySet();
+    }
+
+    private UserAccessRightsDto(Builder builder) {
+        setUsername(builder.username);
+        setInstitution(builder.institution);
+        setAccessRights(builder.accessRights);
+        setVersion(builder.version);
+    }
+
+    /**
+     * returns a new builder.
+     *
+     * @return a new {@link UserAccessRightsDto.Builder}
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    private void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getInstitution() {
+        return institution;
+    }
+
+    private void setInstitution(String institution) {
+        this.institution = institution;
+    }
+
+    public Set<String> getAccessRights() {
+        return accessRights;
+    }
+
+    private void setAccessRights(Set<String> accessRights) {
+        this.accessRights = accessRights;
+    }
+
+    /**
+     * The version of the stored user that the access rights were read from.
+     *
+     * @return the version of the user or {@code null} when the version is unknown.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    private void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    @JacocoGenerated
+    public String toString() {
+        return toJsonString();
+    }
+
+    @Override
+    @JacocoGenerated
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        UserAccessRightsDto that = (UserAccessRightsDto) o;
+        return Objects.equals(getUsername(), that.getUsername())
+            && Objects.equals(getInstitution(), that.getInstitution())
+            && Objects.equals(getAccessRights(), that.getAccessRights())
+            && Objects.equals(getVersion(), that.getVersion());
+    }
+
+    @Override
+    @JacocoGenerated
+    public int hashCode() {
+        return Objects.hash(getUsername(), getInstitution(), getAccessRights(), getVersion());
+    }
+
+    public static final class Builder {
+
+        private String username;
+        private String institution;
+        private Set<String> accessRights;
+        private Long version;
+
+        private Builder() {
+            accessRights = Collections.emptySet();
+        }
+
+        public Builder withUsername(String username) {
+            this.username = username;
+            return this;
+        }
+
+        public Builder withInstitution(String institution) {
+            this.institution = institution;
+            return this;
+        }
+
+        public Builder withAccessRights(Set<String> accessRights) {
+            this.accessRights = accessRights;
+            return this;
+        }
+
+        public Builder withVersion(Long version) {
+            this.version = version;
+            return this;
+        }
+
+        /**
+         * creates a UserAccessRightsDto instance.
+         *
+         * @return a {@link UserAccessRightsDto}
+         * @throws InvalidEntryInternalException when the username is missing.
+         */
+        public UserAccessRightsDto build() throws InvalidEntryInternalException {
+            if (StringUtils.isBlank(username)) {
+                throw new InvalidEntryInternalException(MISSING_FIELD_ERROR + "username");
+            }
+            return new UserAccessRightsDto(this);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package no.unit.nva.useraccessmanagement.model;
 
 import static java.util.Objects.isNull;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import java.util.ArrayList;
@@ -20,7 +22,12 @@ import nva.commons.core.JacocoGenerated;
 import nva.commons.core.JsonSerializable;
 import nva.commons.core.StringUtils;
 
+/**
+ * A user as it is sent to and returned by the API. Fields that are {@code null} are left out of the JSON, so users
+ * read with only some of their fields contain only those fields.
+ */
 @JsonTypeName(UserDto.TYPE)
+@JsonInclude(Include.NON_NULL)
 public class UserDto implements WithCopy<Builder>, JsonSerializable, Validable, Typed {
 
     public static final String TYPE = "User";
@@ -32,6 +39,7 @@ public class UserDto implements WithCopy<Builder>, JsonSerializable, Validable,
     private String institution;
     private String givenName;
     private String familyName;
+    private Long version;
 
     public UserDto() {
         roles = new ArrayList<>();
@@ -43,6 +51,7 @@ public class UserDto implements WithCopy<Builder>, JsonSerializable, Validable,
         setFamilyName(builder.familyName);
         setInstitution(builder.institution);
         setRoles(builder.roles);
+        setVersion(builder.version);
     }
 
     /**
@@ -54,8 +63,17 @@ public class UserDto implements WithCopy<Builder>, JsonSerializable, Validable,
         return new Builder();
     }
 
+    /**
+     * The access rights of all the roles of the user.
+     *
+     * @return the access rights, or {@code null} when the user was read without its roles.
+     */
     @JsonProperty("accessRights")
+    @SuppressWarnings("PMD.ReturnEmptyCollectionRatherThanNull")
     public Set<String> getAccessRights() {
+        if (isNull(roles)) {
+            return null;
+        }
         return roles.stream()
             .flatMap(role -> role.getAccessRights().stream())
             .collect(Collectors.toSet());
@@ -105,6 +123,20 @@ public class UserDto implements WithCopy<Builder>, JsonSerializable, Validable,
         this.roles = roles;
     }
 
+    /**
+     * The version of the stored user. It changes every time the user is updated, and can be sent back with an update
+     * so that the update is applied only if nobody else has updated the user in the meantime.
+     *
+     * @return the version of the user or {@code null} when the version is unknown.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    private void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean isValid() {
         return !(isNull(username) || username.isBlank());
@@ -133,9 +165,11 @@ public class UserDto implements WithCopy<Builder>, JsonSerializable, Validable,
             .withGivenName(givenName)
             .withFamilyName(familyName)
             .withInstitution(institution)
-            .withRoles(listRoles());
+            .withRoles(listRoles())
+            .withVersion(version);
     }
 
+    /*The version is metadata of the stored entry and not part of the user's content*/
     @Override
     @JacocoGenerated
     public boolean equals(Object o) {
@@ -170,6 +204,7 @@ public class UserDto implements WithCopy<Builder>, JsonSerializable, Validable,
         private String familyName;
         private String institution;
         private List<RoleDto> roles;
+        private Long version;
 
         private Builder() {
             roles = Collections.emptyList();
@@ -200,6 +235,11 @@ public class UserDto implements WithCopy<Builder>, JsonSerializable, Validable,
             return this;
         }
 
+        public Builder withVersion(Long version) {
+            this.version = version;
+            return this;
+        }
+
         /**
          * creates a UserDto instance.
          *
@@ -0,0 +1,75 @@
+package no.unit.nva.useraccessmanagement.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import no.unit.nva.useraccessmanagement.model.UserImportResult.Status;
+import nva.commons.core.JacocoGenerated;
+import nva.commons.core.JsonSerializable;
+
+/**
+ * The outcome of a bulk import of users, with one {@link UserImportResult} per imported user in the order of the
+ * import.
+ */
+public class UserImportReport implements JsonSerializable {
+
+    private List<UserImportResult> results;
+
+    @JacocoGenerated
+    public UserImportReport() {
+        this.results = new ArrayList<>();
+    }
+
+    private UserImportReport(List<UserImportResult> results) {
+        this.results = results;
+    }
+
+    public static UserImportReport fromList(List<UserImportResult> results) {
+        return new UserImportReport(results);
+    }
+
+    public List<UserImportResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<UserImportResult> results) {
+        this.results = results;
+    }
+
+    /**
+     * Counts the users that have an import status.
+     *
+     * @param status the import status.
+     * @return the number of users with the status.
+     */
+    @JsonIgnore
+    public long count(Status status) {
+        return results.stream().filter(result -> status == result.getStatus()).count();
+    }
+
+    @Override
+    @JacocoGenerated
+    public String toString() {
+        return toJsonString();
+    }
+
+    @Override
+    @JacocoGenerated
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        UserImportReport that = (UserImportReport) o;
+        return Objects.equals(getResults(), that.getResults());
+    }
+
+    @Override
+    @JacocoGenerated
+    public int hashCode() {
+        return Objects.hash(getResults());
+    }
+}
@@ -0,0 +1,116 @@
+package no.unit.nva.useraccessmanagement.model;
+
+import java.util.Objects;
+import nva.commons.core.JacocoGenerated;
+import nva.commons.core.JsonSerializable;
+
+/**
+ * The outcome of importing one user.
+ */
+public class UserImportResult implements JsonSerializable {
+
+    private String username;
+    private Status status;
+    private String message;
+
+    @JacocoGenerated
+    public UserImportResult() {
+    }
+
+    private UserImportResult(String username, Status status, String message) {
+        this.username = username;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static UserImportResult created(String username) {
+        return new UserImportResult(username, Status.CREATED, null);
+    }
+
+    public static UserImportResult conflict(String username, String message) {
+        return new UserImportResult(username, Status.CONFLICT, message);
+    }
+
+    public static UserImportResult invalid(String username, String message) {
+        return new UserImportResult(username, Status.INVALID, message);
+    }
+
+    public static UserImportResult error(String username, String message) {
+        return new UserImportResult(username, Status.ERROR, message);
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /**
+     * The reason why the user was not created.
+     *
+     * @return the reason or {@code null} when the user was created.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    @JacocoGenerated
+    public String toString() {
+        return toJsonString();
+    }
+
+    @Override
+    @JacocoGenerated
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        UserImportResult that = (UserImportResult) o;
+        return Objects.equals(getUsername(), that.getUsername())
+            && getStatus() == that.getStatus()
+            && Objects.equals(getMessage(), that.getMessage());
+    }
+
+    @Override
+    @JacocoGenerated
+    public int hashCode() {
+        return Objects.hash(getUsername(), getStatus(), getMessage());
+    }
+
+    public enum Status {
+        /**
+         * The user was written.
+         */
+        CREATED,
+        /**
+         * A user with the same username exists or appears earlier in the same import. Nothing was written.
+         */
+        CONFLICT,
+        /**
+         * The user is not valid. Nothing was written.
+         */
+        INVALID,
+        /**
+         * The user could not be written. The import of the user can be repeated.
+         */
+        ERROR
+    }
+}
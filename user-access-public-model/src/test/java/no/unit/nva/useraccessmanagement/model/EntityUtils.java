@@ -16,6 +16,7 @@ public final class EntityUtils {
     public static final String SOME_ROLENAME = "SomeRole";
     public static final String SOME_INSTITUTION = "SomeInstitution";
     public static final String EMPTY_STRING = "";
+    public static final Long SOME_VERSION = 1L;
     public static final Set<String> SAMPLE_ACCESS_RIGHTS =
         Collections.singleton("APPROVE_DOI_REQUEST");
     private static final String SOME_GIVEN_NAME = "givenName";
@@ -116,6 +117,7 @@ public final class EntityUtils {
             .withGivenName(SOME_GIVEN_NAME)
             .withFamilyName(SOME_FAMILY_NAME)
             .withRoles(Collections.singletonList(sampleRole))
+            .withVersion(SOME_VERSION)
             .build();
     }
 
@@ -0,0 +1,40 @@
+package no.unit.nva.useraccessmanagement.model;
+
+import static nva.commons.core.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import java.io.IOException;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class InstitutionStatsDtoTest {
+
+    public static final String SOME_INSTITUTION = "someInstitution";
+    public static final String SOME_ROLE = "someRole";
+    public static final String SOME_OTHER_ROLE = "anotherRole";
+
+    @Test
+    public void ofSortsTheRolesByName() {
+        InstitutionStatsDto stats = sampleStats();
+
+        assertThat(stats.getUsersPerRole().keySet(), contains(SOME_OTHER_ROLE, SOME_ROLE));
+    }
+
+    @Test
+    public void institutionStatsCanBeSerializedAndDeserialized() throws IOException {
+        InstitutionStatsDto stats = sampleStats();
+        String json = objectMapper.writeValueAsString(stats);
+
+        InstitutionStatsDto deserialized = objectMapper.readValue(json, InstitutionStatsDto.class);
+
+        assertThat(deserialized, is(equalTo(stats)));
+        assertThat(deserialized.getUserCount(), is(equalTo(3L)));
+        assertThat(deserialized.isRecountNeeded(), is(true));
+    }
+
+    private static InstitutionStatsDto sampleStats() {
+        return InstitutionStatsDto.of(SOME_INSTITUTION, 3L, Map.of(SOME_ROLE, 2L, SOME_OTHER_ROLE, 1L), true);
+    }
+}
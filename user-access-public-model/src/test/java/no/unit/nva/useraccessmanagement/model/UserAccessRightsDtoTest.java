@@ -0,0 +1,59 @@
+package no.unit.nva.useraccessmanagement.model;
+
+import static no.unit.nva.hamcrest.DoesNotHaveNullOrEmptyFields.doesNotHaveNullOrEmptyFields;
+import static nva.commons.core.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.util.Set;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.model.interfaces.Typed;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+public class UserAccessRightsDtoTest extends DtoTest {
+
+    public static final String SOME_USERNAME = "someUsername";
+    public static final String SOME_INSTITUTION = "someInstitution";
+    public static final String SOME_ACCESS_RIGHT = "APPROVE_DOI_REQUEST";
+    public static final long SOME_VERSION = 3L;
+    public static final String BLANK_USERNAME = " ";
+
+    @Test
+    public void userAccessRightsDtoIsSerializedWithType() throws InvalidEntryInternalException {
+        ObjectNode json = objectMapper.convertValue(sampleAccessRights(), ObjectNode.class);
+        assertThatSerializedItemContainsType(json, UserAccessRightsDto.TYPE);
+    }
+
+    @Test
+    public void userAccessRightsDtoCanBeDeserializedAsTypedObject()
+        throws InvalidEntryInternalException, IOException {
+        UserAccessRightsDto accessRights = sampleAccessRights();
+        String json = objectMapper.writeValueAsString(accessRights);
+
+        Typed deserialized = objectMapper.readValue(json, Typed.class);
+
+        assertThat(deserialized, doesNotHaveNullOrEmptyFields());
+        assertThat(deserialized, is(equalTo(accessRights)));
+    }
+
+    @Test
+    public void buildThrowsInvalidEntryInternalExceptionWhenUsernameIsBlank() {
+        Executable action = () -> UserAccessRightsDto.newBuilder().withUsername(BLANK_USERNAME).build();
+        InvalidEntryInternalException exception = assertThrows(InvalidEntryInternalException.class, action);
+        assertThat(exception.getMessage(), containsString(UserAccessRightsDto.MISSING_FIELD_ERROR));
+    }
+
+    private static UserAccessRightsDto sampleAccessRights() throws InvalidEntryInternalException {
+        return UserAccessRightsDto.newBuilder()
+            .withUsername(SOME_USERNAME)
+            .withInstitution(SOME_INSTITUTION)
+            .withAccessRights(Set.of(SOME_ACCESS_RIGHT))
+            .withVersion(SOME_VERSION)
+            .build();
+    }
+}
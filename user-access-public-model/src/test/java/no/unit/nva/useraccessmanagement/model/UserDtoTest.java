@@ -134,6 +134,19 @@ public class UserDtoTest extends DtoTest {
         assertThat(user.getAccessRights(), is(equalTo(expectedAccessRights)));
     }
 
+    @Test
+    public void getAccessRightsReturnsNullAndJsonLeavesOutRolesWhenUserHasNoRolesField()
+        throws InvalidEntryInternalException {
+        UserDto user = UserDto.newBuilder().withUsername(SOME_USERNAME).withRoles(null).build();
+
+        ObjectNode json = objectMapper.convertValue(user, ObjectNode.class);
+
+        assertThat(user.getAccessRights(), is(equalTo(null)));
+        assertThat(json.has("roles"), is(false));
+        assertThat(json.has("accessRights"), is(false));
+        assertThat(json.has("institution"), is(false));
+    }
+
     @Test
     void userDtoHasAConstructorWithoutArgs() {
         new UserDto();
@@ -0,0 +1,44 @@
+package no.unit.nva.useraccessmanagement.model;
+
+import static nva.commons.core.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import java.io.IOException;
+import java.util.List;
+import no.unit.nva.useraccessmanagement.model.UserImportResult.Status;
+import org.junit.jupiter.api.Test;
+
+public class UserImportReportTest {
+
+    public static final String SOME_USERNAME = "someUsername";
+    public static final String SOME_MESSAGE = "someMessage";
+
+    @Test
+    public void countReturnsTheNumberOfResultsWithTheStatus() {
+        UserImportReport report = sampleReport();
+
+        assertThat(report.count(Status.CREATED), is(equalTo(1L)));
+        assertThat(report.count(Status.CONFLICT), is(equalTo(1L)));
+        assertThat(report.count(Status.INVALID), is(equalTo(1L)));
+        assertThat(report.count(Status.ERROR), is(equalTo(1L)));
+    }
+
+    @Test
+    public void userImportReportCanBeSerializedAndDeserialized() throws IOException {
+        UserImportReport report = sampleReport();
+        String json = objectMapper.writeValueAsString(report);
+
+        UserImportReport deserialized = objectMapper.readValue(json, UserImportReport.class);
+
+        assertThat(deserialized, is(equalTo(report)));
+    }
+
+    private static UserImportReport sampleReport() {
+        return UserImportReport.fromList(List.of(
+            UserImportResult.created(SOME_USERNAME),
+            UserImportResult.conflict(SOME_USERNAME, SOME_MESSAGE),
+            UserImportResult.invalid(SOME_USERNAME, SOME_MESSAGE),
+            UserImportResult.error(SOME_USERNAME, SOME_MESSAGE)));
+    }
+}
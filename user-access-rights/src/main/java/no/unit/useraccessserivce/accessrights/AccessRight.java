@@ -3,18 +3,83 @@ package no.unit.useraccessserivce.accessrights;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * The access rights that roles can give. Every access right has a fixed bit position, so that a set of access rights
+ * can be stored as a single number. The bit positions are stored in the database: they must never be changed or
+ * reused, and new access rights get the next free position.
+ */
 public enum AccessRight {
 
-    APPROVE_DOI_REQUEST,
-    REJECT_DOI_REQUEST,
-    READ_DOI_REQUEST,
-    EDIT_OWN_INSTITUTION_RESOURCES;
+    APPROVE_DOI_REQUEST(0),
+    REJECT_DOI_REQUEST(1),
+    READ_DOI_REQUEST(2),
+    EDIT_OWN_INSTITUTION_RESOURCES(3);
 
     private static final Map<String, AccessRight> index = createIndex();
+    private static final AccessRight[] ALL_ACCESS_RIGHTS = values();
+
+    private final long bit;
+
+    AccessRight(int bitPosition) {
+        this.bit = 1L << bitPosition;
+    }
+
+    /**
+     * The bit of the access right in the bitmasks created by {@link #toBitmask(Collection)}.
+     *
+     * @return a number with only the bit of the access right set.
+     */
+    public long getBit() {
+        return bit;
+    }
+
+    /**
+     * Checks whether a bitmask contains the access right.
+     *
+     * @param bitmask a bitmask created by {@link #toBitmask(Collection)}.
+     * @return {@code true} if the bit of the access right is set in the bitmask.
+     */
+    public boolean isIn(long bitmask) {
+        return (bitmask & bit) != 0;
+    }
+
+    /**
+     * Creates a bitmask that contains the bits of the access rights.
+     *
+     * @param accessRights the access rights.
+     * @return the bitmask.
+     */
+    public static long toBitmask(Collection<AccessRight> accessRights) {
+        long bitmask = 0;
+        for (AccessRight accessRight : accessRights) {
+            bitmask |= accessRight.bit;
+        }
+        return bitmask;
+    }
+
+    /**
+     * Creates the set of access rights whose bits are set in a bitmask. Bits that do not belong to any access right are
+     * ignored.
+     *
+     * @param bitmask a bitmask created by {@link #toBitmask(Collection)}.
+     * @return the access rights.
+     */
+    public static Set<AccessRight> fromBitmask(long bitmask) {
+        Set<AccessRight> accessRights = EnumSet.noneOf(AccessRight.class);
+        for (AccessRight accessRight : ALL_ACCESS_RIGHTS) {
+            if (accessRight.isIn(bitmask)) {
+                accessRights.add(accessRight);
+            }
+        }
+        return accessRights;
+    }
 
     /**
      * Creates an no.unit.useraccessserivce.accessrights.AccessRight instance from a string (case insensitive).
@@ -7,6 +7,9 @@ import static org.hamcrest.core.StringContains.containsString;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
 import nva.commons.core.JsonUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
@@ -14,6 +17,7 @@ import org.junit.jupiter.api.function.Executable;
 class AccessRightTest {
 
     public static final String APPROVE_DOI_REQUEST_STRING = "\"APPROVE_DOI_REQUEST\"";
+    public static final long UNKNOWN_BIT = 1L << 62;
 
     @Test
     public void fromStringParsesStringCaseInsensitive() {
@@ -43,4 +47,30 @@ class AccessRightTest {
         AccessRight accessRight = JsonUtils.objectMapper.readValue(accessRightString, AccessRight.class);
         assertThat(accessRight, is(equalTo(AccessRight.APPROVE_DOI_REQUEST)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void fromBitmaskReturnsTheAccessRightsThatWereConvertedToBitmask() {
+        Set<AccessRight> accessRights = EnumSet.of(AccessRight.APPROVE_DOI_REQUEST, AccessRight.READ_DOI_REQUEST);
+        long bitmask = AccessRight.toBitmask(accessRights);
+
+        assertThat(AccessRight.fromBitmask(bitmask), is(equalTo(accessRights)));
+        assertThat(AccessRight.APPROVE_DOI_REQUEST.isIn(bitmask), is(true));
+        assertThat(AccessRight.REJECT_DOI_REQUEST.isIn(bitmask), is(false));
+    }
+
+    @Test
+    public void fromBitmaskIgnoresBitsThatDoNotBelongToAnyAccessRight() {
+        long bitmask = AccessRight.toBitmask(EnumSet.allOf(AccessRight.class)) | UNKNOWN_BIT;
+        assertThat(AccessRight.fromBitmask(bitmask), is(equalTo(EnumSet.allOf(AccessRight.class))));
+    }
+
+    @Test
+    public void everyAccessRightHasItsOwnBit() {
+        long distinctBits = Arrays.stream(AccessRight.values())
+            .mapToLong(AccessRight::getBit)
+            .filter(bit -> Long.bitCount(bit) == 1)
+            .distinct()
+            .count();
+        assertThat(distinctBits, is(equalTo((long) AccessRight.values().length)));
+    }
+}
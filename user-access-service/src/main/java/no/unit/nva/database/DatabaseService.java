@@ -1,10 +1,16 @@
 package no.unit.nva.database;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import no.unit.nva.useraccessmanagement.model.BatchGetUsersResponse;
+import no.unit.nva.useraccessmanagement.model.InstitutionStatsDto;
 import no.unit.nva.useraccessmanagement.model.RoleDto;
+import no.unit.nva.useraccessmanagement.model.UserAccessRightsDto;
 import no.unit.nva.useraccessmanagement.model.UserDto;
+import no.unit.nva.useraccessmanagement.model.UserImportReport;
 import nva.commons.apigateway.exceptions.ConflictException;
 import nva.commons.apigateway.exceptions.NotFoundException;
 
@@ -14,15 +20,56 @@ public interface DatabaseService {
 
     UserDto getUser(UserDto queryObject) throws InvalidEntryInternalException, NotFoundException;
 
+    UserDto getUser(UserDto queryObject, UserFields fields) throws InvalidEntryInternalException, NotFoundException;
+
+    UserDto getUserWithConsistentRead(UserDto queryObject) throws InvalidEntryInternalException, NotFoundException;
+
+    BatchGetUsersResponse getUsers(Collection<String> usernames)
+        throws InvalidInputException, InvalidEntryInternalException;
+
+    UserAccessRightsDto getUserAccessRights(UserDto queryObject)
+        throws InvalidEntryInternalException, NotFoundException;
+
     List<UserDto> listUsers(String institutionId) throws InvalidEntryInternalException;
 
+    UserPage listUsers(String institutionId, int pageSize, String cursor) throws InvalidInputException;
+
+    UserPage listUsers(String institutionId, int pageSize, String cursor, UserFields fields)
+        throws InvalidInputException;
+
+    UserPage searchUsers(String institutionId, String usernamePrefix, int pageSize, String cursor, UserFields fields)
+        throws InvalidInputException;
+
+    List<UserDto> searchUsersByName(String institutionId, String query, int limit, UserFields fields)
+        throws InvalidInputException;
+
+    UserPage listUsersByRole(String roleName, int pageSize, String cursor) throws InvalidInputException;
+
+    InstitutionStatsDto getInstitutionStats(String institutionId);
+
+    InstitutionRecountResult recountInstitution(String institutionId, Duration timeBudget);
+
     void addUser(UserDto user) throws InvalidEntryInternalException, ConflictException, InvalidInputException;
 
+    UserImportReport addUsers(Collection<UserDto> users) throws InvalidInputException, InvalidEntryInternalException;
+
     void addRole(RoleDto roleDto)
         throws ConflictException, InvalidInputException, InvalidEntryInternalException;
 
     void updateUser(UserDto user)
+        throws InvalidEntryInternalException, NotFoundException, InvalidInputException, ConflictException;
+
+    void updateRole(RoleDto roleDto)
         throws InvalidEntryInternalException, NotFoundException, InvalidInputException;
 
+    RolePropagationResult propagateRole(RoleDto roleDto, String checkpoint, Duration timeBudget)
+        throws InvalidEntryInternalException, NotFoundException, InvalidInputException;
+
+    UserIndexBackfillResult backfillUserIndices(String checkpoint, Duration timeBudget) throws InvalidInputException;
+
+    UserIndexBackfillResult continueUserIndexBackfill(Duration timeBudget);
+
     RoleDto getRole(RoleDto input) throws InvalidEntryInternalException, NotFoundException;
+
+    RoleDto getRoleWithConsistentRead(RoleDto input) throws InvalidEntryInternalException, NotFoundException;
 }
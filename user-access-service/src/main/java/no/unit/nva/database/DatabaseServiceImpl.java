@@ -3,13 +3,19 @@ package no.unit.nva.database;
 import static java.util.Objects.requireNonNull;
 import static nva.commons.core.attempt.Try.attempt;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.amazonaws.services.dynamodbv2.document.Table;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import no.unit.nva.useraccessmanagement.dao.RoleDb;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import no.unit.nva.useraccessmanagement.model.BatchGetUsersResponse;
+import no.unit.nva.useraccessmanagement.model.InstitutionStatsDto;
 import no.unit.nva.useraccessmanagement.model.RoleDto;
+import no.unit.nva.useraccessmanagement.model.UserAccessRightsDto;
 import no.unit.nva.useraccessmanagement.model.UserDto;
+import no.unit.nva.useraccessmanagement.model.UserImportReport;
 import nva.commons.apigateway.exceptions.ConflictException;
 import nva.commons.apigateway.exceptions.NotFoundException;
 import nva.commons.core.Environment;
@@ -18,61 +24,297 @@ import nva.commons.core.attempt.Failure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * The entry point of the service. Every operation records its DynamoDB calls in a {@link DynamoDbMetrics} tagged with
+ * the name of the operation, which is written as CloudWatch metrics when the operation ends.
+ */
 @SuppressWarnings("PMD.GodClass")
 public class DatabaseServiceImpl implements DatabaseService {
 
     public static final String DYNAMO_DB_CLIENT_NOT_SET_ERROR = "DynamoDb client has not been set";
+    public static final String GET_USER_OPERATION = "getUser";
+    public static final String GET_USER_WITH_CONSISTENT_READ_OPERATION = "getUserWithConsistentRead";
+    public static final String GET_USERS_OPERATION = "getUsers";
+    public static final String GET_USER_ACCESS_RIGHTS_OPERATION = "getUserAccessRights";
+    public static final String LIST_USERS_OPERATION = "listUsers";
+    public static final String LIST_USERS_BY_ROLE_OPERATION = "listUsersByRole";
+    public static final String GET_INSTITUTION_STATS_OPERATION = "getInstitutionStats";
+    public static final String RECOUNT_INSTITUTION_OPERATION = "recountInstitution";
+    public static final String SEARCH_USERS_OPERATION = "searchUsers";
+    public static final String SEARCH_USERS_BY_NAME_OPERATION = "searchUsersByName";
+    public static final String ADD_USER_OPERATION = "addUser";
+    public static final String ADD_USERS_OPERATION = "addUsers";
+    public static final String ADD_ROLE_OPERATION = "addRole";
+    public static final String UPDATE_USER_OPERATION = "updateUser";
+    public static final String UPDATE_ROLE_OPERATION = "updateRole";
+    public static final String PROPAGATE_ROLE_OPERATION = "propagateRole";
+    public static final String BACKFILL_USER_INDICES_OPERATION = "backfillUserIndices";
+    public static final String CONTINUE_USER_INDEX_BACKFILL_OPERATION = "continueUserIndexBackfill";
+    public static final String GET_ROLE_OPERATION = "getRole";
+    public static final String GET_ROLE_WITH_CONSISTENT_READ_OPERATION = "getRoleWithConsistentRead";
 
     private static final Logger logger = LoggerFactory.getLogger(DatabaseServiceImpl.class);
 
     private final UserService userService;
     private final RoleService roleService;
+    private final RolePropagator rolePropagator;
+    private final UserIndexBackfill userIndexBackfill;
+    private final InstitutionStatsService institutionStats;
+    private final InstitutionRecount institutionRecount;
 
     @JacocoGenerated
     public DatabaseServiceImpl() {
-        this(AmazonDynamoDBClientBuilder.defaultClient(), new Environment());
+        this(DynamoDbClientFactory.createClient(new Environment()), new Environment());
     }
 
     public DatabaseServiceImpl(AmazonDynamoDB dynamoDbClient, Environment environment) {
-        this(createTable(dynamoDbClient, environment));
+        this(dynamoDbClient, createTable(dynamoDbClient, environment), RoleCache.fromEnvironment(environment),
+            RolePropagationSettings.fromEnvironment(environment));
     }
 
-    public DatabaseServiceImpl(Table table) {
+    public DatabaseServiceImpl(AmazonDynamoDB dynamoDbClient, Table table) {
+        this(dynamoDbClient, table, RoleCache.withDefaults());
+    }
+
+    public DatabaseServiceImpl(AmazonDynamoDB dynamoDbClient, Table table, RoleCache roleCache) {
+        this(dynamoDbClient, table, roleCache, RolePropagationSettings.withDefaults());
+    }
+
+    public DatabaseServiceImpl(AmazonDynamoDB dynamoDbClient, Table table, RoleCache roleCache,
+                               RolePropagationSettings propagationSettings) {
         super();
-        this.roleService = new RoleService(table);
-        this.userService = new UserService(table, roleService);
+        RoleMembershipService roleMemberships = new RoleMembershipService(table, dynamoDbClient);
+        NameTokenService nameTokens = new NameTokenService(table, dynamoDbClient);
+        this.institutionStats = new InstitutionStatsService(table, dynamoDbClient);
+        this.institutionRecount = new InstitutionRecount(table, dynamoDbClient);
+        this.roleService = new RoleService(table, dynamoDbClient, roleCache);
+        this.userService = new UserService(table, dynamoDbClient, roleService, roleMemberships, nameTokens,
+            institutionStats);
+        this.rolePropagator = new RolePropagator(table, dynamoDbClient, propagationSettings, roleMemberships);
+        this.userIndexBackfill = new UserIndexBackfill(table, dynamoDbClient, roleService, roleMemberships,
+            nameTokens);
     }
 
     @Override
     public UserDto getUser(UserDto queryObject) throws InvalidEntryInternalException, NotFoundException {
-        return userService.getUser(queryObject);
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(GET_USER_OPERATION)) {
+            return userService.getUser(queryObject);
+        }
+    }
+
+    @Override
+    public UserDto getUser(UserDto queryObject, UserFields fields)
+        throws InvalidEntryInternalException, NotFoundException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(GET_USER_OPERATION)) {
+            return userService.getUser(queryObject, fields);
+        }
+    }
+
+    @Override
+    public UserDto getUserWithConsistentRead(UserDto queryObject)
+        throws InvalidEntryInternalException, NotFoundException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(GET_USER_WITH_CONSISTENT_READ_OPERATION)) {
+            return userService.getUserWithConsistentRead(queryObject);
+        }
+    }
+
+    @Override
+    public BatchGetUsersResponse getUsers(Collection<String> usernames)
+        throws InvalidInputException, InvalidEntryInternalException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(GET_USERS_OPERATION)) {
+            return userService.getUsers(usernames);
+        }
+    }
+
+    @Override
+    public UserAccessRightsDto getUserAccessRights(UserDto queryObject)
+        throws InvalidEntryInternalException, NotFoundException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(GET_USER_ACCESS_RIGHTS_OPERATION)) {
+            return userService.getUserAccessRights(queryObject);
+        }
     }
 
     @Override
     public List<UserDto> listUsers(String institutionId) {
-        return userService.listUsers(institutionId);
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(LIST_USERS_OPERATION)) {
+            return userService.listUsers(institutionId);
+        }
+    }
+
+    @Override
+    public UserPage listUsers(String institutionId, int pageSize, String cursor) throws InvalidInputException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(LIST_USERS_OPERATION)) {
+            return userService.listUsers(institutionId, pageSize, cursor);
+        }
+    }
+
+    @Override
+    public UserPage listUsers(String institutionId, int pageSize, String cursor, UserFields fields)
+        throws InvalidInputException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(LIST_USERS_OPERATION)) {
+            return userService.listUsers(institutionId, pageSize, cursor, fields);
+        }
+    }
+
+    @Override
+    public UserPage searchUsers(String institutionId, String usernamePrefix, int pageSize, String cursor,
+                                UserFields fields) throws InvalidInputException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(SEARCH_USERS_OPERATION)) {
+            return userService.searchUsers(institutionId, usernamePrefix, pageSize, cursor, fields);
+        }
+    }
+
+    @Override
+    public List<UserDto> searchUsersByName(String institutionId, String query, int limit, UserFields fields)
+        throws InvalidInputException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(SEARCH_USERS_BY_NAME_OPERATION)) {
+            return userService.searchUsersByName(institutionId, query, limit, fields);
+        }
+    }
+
+    @Override
+    public UserPage listUsersByRole(String roleName, int pageSize, String cursor) throws InvalidInputException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(LIST_USERS_BY_ROLE_OPERATION)) {
+            return userService.listUsersByRole(roleName, pageSize, cursor);
+        }
+    }
+
+    @Override
+    public InstitutionStatsDto getInstitutionStats(String institutionId) {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(GET_INSTITUTION_STATS_OPERATION)) {
+            return institutionStats.getInstitutionStats(institutionId);
+        }
+    }
+
+    /**
+     * Counts the users of an institution and sets its counters to the absolute numbers, so that counters that have
+     * drifted or that have never counted the users written before the counters existed are repaired. See {@link
+     * InstitutionRecount#recount(String, Duration)}.
+     *
+     * @param institutionId the institution.
+     * @param timeBudget    the time after which no new page of users is started.
+     * @return the number of counted users and whether the counters have been set.
+     */
+    @Override
+    public InstitutionRecountResult recountInstitution(String institutionId, Duration timeBudget) {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(RECOUNT_INSTITUTION_OPERATION)) {
+            return institutionRecount.recount(institutionId, timeBudget);
+        }
     }
 
     @Override
     public void addUser(UserDto user) throws InvalidEntryInternalException, ConflictException, InvalidInputException {
-        this.userService.addUser(user);
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(ADD_USER_OPERATION)) {
+            this.userService.addUser(user);
+        }
+    }
+
+    @Override
+    public UserImportReport addUsers(Collection<UserDto> users)
+        throws InvalidInputException, InvalidEntryInternalException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(ADD_USERS_OPERATION)) {
+            return this.userService.addUsers(users);
+        }
     }
 
     @Override
     public void addRole(RoleDto roleDto)
         throws InvalidInputException, InvalidEntryInternalException, ConflictException {
-        this.roleService.addRole(roleDto);
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(ADD_ROLE_OPERATION)) {
+            this.roleService.addRole(roleDto);
+        }
     }
 
     @Override
     public void updateUser(UserDto user)
-        throws InvalidEntryInternalException, InvalidInputException, NotFoundException {
-        this.userService.updateUser(user);
+        throws InvalidEntryInternalException, InvalidInputException, NotFoundException, ConflictException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(UPDATE_USER_OPERATION)) {
+            this.userService.updateUser(user);
+        }
+    }
+
+    @Override
+    public void updateRole(RoleDto roleDto)
+        throws InvalidEntryInternalException, NotFoundException, InvalidInputException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(UPDATE_ROLE_OPERATION)) {
+            this.roleService.updateRole(roleDto);
+        }
+    }
+
+    /**
+     * Writes the stored version of the role in the users that have an outdated copy of it. The role is read with a
+     * strongly consistent read, so that a propagation started right after an update propagates the update.
+     *
+     * @param roleDto    the role. Only the role name is taken into account.
+     * @param checkpoint the checkpoint returned by the previous run, or {@code null} for starting from the beginning.
+     * @param timeBudget the time after which no new batch of users is started.
+     * @return the result of the run.
+     * @throws NotFoundException             when the role does not exist.
+     * @throws InvalidInputException         when the checkpoint is not valid.
+     * @throws InvalidEntryInternalException when the stored role is not valid.
+     */
+    @Override
+    public RolePropagationResult propagateRole(RoleDto roleDto, String checkpoint, Duration timeBudget)
+        throws InvalidEntryInternalException, NotFoundException, InvalidInputException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(PROPAGATE_ROLE_OPERATION)) {
+            RoleDto storedRole = this.roleService.getRoleWithConsistentRead(roleDto);
+            return this.rolePropagator.propagate(RoleDb.fromRoleDto(storedRole), checkpoint, timeBudget);
+        }
+    }
+
+    /**
+     * Writes the role edges and name tokens of the stored users, so that users that were written before the indices
+     * existed, or whose indices could not be written after the user, can be listed by role and searched by name. See
+     * {@link UserIndexBackfill}.
+     *
+     * @param checkpoint the checkpoint returned by the previous run, or {@code null} for starting from the beginning.
+     * @param timeBudget the time after which no new page of users is started.
+     * @return the result of the run.
+     * @throws InvalidInputException when the checkpoint is not valid.
+     */
+    @Override
+    public UserIndexBackfillResult backfillUserIndices(String checkpoint, Duration timeBudget)
+        throws InvalidInputException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(BACKFILL_USER_INDICES_OPERATION)) {
+            return this.userIndexBackfill.backfill(checkpoint, timeBudget);
+        }
+    }
+
+    /**
+     * Continues the backfill of the role edges and name tokens from where the previous call stopped. To be run on a
+     * schedule, see {@link UserIndexBackfill#continueBackfill(Duration)}.
+     *
+     * @param timeBudget the time after which no new page of users is started.
+     * @return the result of the run.
+     */
+    @Override
+    public UserIndexBackfillResult continueUserIndexBackfill(Duration timeBudget) {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(CONTINUE_USER_INDEX_BACKFILL_OPERATION)) {
+            return this.userIndexBackfill.continueBackfill(timeBudget);
+        }
     }
 
     @Override
     public RoleDto getRole(RoleDto queryObject) throws InvalidEntryInternalException, NotFoundException {
-        return this.roleService.getRole(queryObject);
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(GET_ROLE_OPERATION)) {
+            return this.roleService.getRole(queryObject);
+        }
+    }
+
+    @Override
+    public RoleDto getRoleWithConsistentRead(RoleDto queryObject)
+        throws InvalidEntryInternalException, NotFoundException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(GET_ROLE_WITH_CONSISTENT_READ_OPERATION)) {
+            return this.roleService.getRoleWithConsistentRead(queryObject);
+        }
+    }
+
+    /**
+     * Initializes the database connection and the entry mappings, so that the cost is paid during the initialization
+     * of the Lambda container instead of in the first request.
+     */
+    public void warmUp() {
+        userService.warmUp();
     }
 
     protected static Table createTable(AmazonDynamoDB dynamoDbClient, Environment environment) {
@@ -1,16 +1,44 @@
 package no.unit.nva.database;
 
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY;
 import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.document.BatchGetItemOutcome;
+import com.amazonaws.services.dynamodbv2.document.DynamoDB;
 import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.ItemUtils;
+import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
+import com.amazonaws.services.dynamodbv2.document.PutItemOutcome;
 import com.amazonaws.services.dynamodbv2.document.Table;
+import com.amazonaws.services.dynamodbv2.document.TableKeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
+import com.amazonaws.services.dynamodbv2.document.spec.PutItemSpec;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.DeleteRequest;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import no.unit.nva.useraccessmanagement.dao.DynamoEntryCodec;
 import no.unit.nva.useraccessmanagement.dao.DynamoEntryWithRangeKey;
 import no.unit.nva.useraccessmanagement.exceptions.EmptyInputException;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
 import no.unit.nva.useraccessmanagement.model.interfaces.Validable;
+import nva.commons.apigateway.exceptions.ConflictException;
+import nva.commons.apigateway.exceptions.NotFoundException;
 import nva.commons.core.JsonSerializable;
 import nva.commons.core.attempt.Failure;
 import org.slf4j.Logger;
@@ -19,12 +47,33 @@ import org.slf4j.LoggerFactory;
 public class DatabaseSubService {
 
     public static final String EMPTY_INPUT_ERROR_MESSAGE = "Expected non-empty input, but input is empty";
+    public static final String UNPROCESSED_KEYS_ERROR_MESSAGE = "Failed to fetch all keys after retries. Unprocessed: ";
+    public static final String BATCH_INTERRUPTION_ERROR = "Interruption while waiting to retry unprocessed keys.";
+    public static final String UNPROCESSED_ITEMS_ERROR_MESSAGE =
+        "Failed to write all items after retries. Unprocessed: ";
+    public static final int MAX_BATCH_GET_SIZE = 100;
+    public static final int MAX_BATCH_WRITE_SIZE = 25;
+    public static final int MAX_BATCH_RETRIES = 5;
+    protected static final long BATCH_RETRY_BASE_WAITING_TIME = 50;
+    public static final String ENTRY_DOES_NOT_EXIST_CONDITION = "attribute_not_exists(" + PRIMARY_KEY_HASH_KEY + ")";
+    public static final String ENTRY_EXISTS_CONDITION = "attribute_exists(" + PRIMARY_KEY_HASH_KEY + ")";
+    public static final String VERSION_NAME_PLACEHOLDER = "#version";
+    public static final String EXPECTED_VERSION_PLACEHOLDER = ":expectedVersion";
+    public static final String VERSION_MATCHES_CONDITION = VERSION_NAME_PLACEHOLDER + " = "
+        + EXPECTED_VERSION_PLACEHOLDER;
+    public static final String UNVERSIONED_ENTRY_EXISTS_CONDITION = ENTRY_EXISTS_CONDITION
+        + " AND attribute_not_exists(" + VERSION_NAME_PLACEHOLDER + ")";
+    public static final long INITIAL_VERSION = 1L;
     private static final Logger logger = LoggerFactory.getLogger(DatabaseSubService.class);
 
     protected Table table;
+    protected final DynamoDB dynamoDb;
+    protected final AmazonDynamoDB client;
 
-    protected DatabaseSubService(Table table) {
+    protected DatabaseSubService(Table table, AmazonDynamoDB client) {
         this.table = table;
+        this.client = client;
+        this.dynamoDb = new DynamoDB(client);
     }
 
     protected static void validate(Validable input) throws InvalidInputException {
@@ -44,6 +93,20 @@ public class DatabaseSubService {
         return Optional.ofNullable(queryObject).map(JsonSerializable::toString).orElse(EMPTY_INPUT_ERROR_MESSAGE);
     }
 
+    /**
+     * Writes a debug message followed by an object as JSON. The object is only converted when debug logging is
+     * enabled, since the conversion costs more than the rest of most requests.
+     *
+     * @param logger  the logger.
+     * @param message the message.
+     * @param object  the object.
+     */
+    protected static void debugWithJson(Logger logger, String message, JsonSerializable object) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(message + convertToStringOrWriteErrorMessage(object));
+        }
+    }
+
     protected static Item fetchItemForTable(Table table, DynamoEntryWithRangeKey requestEntry) {
         return table.getItem(
             PRIMARY_KEY_HASH_KEY, requestEntry.getPrimaryHashKey(),
@@ -51,6 +114,65 @@ public class DatabaseSubService {
         );
     }
 
+    /**
+     * Writes an item only if there is no item with the same primary key, in a single request. Concurrent writes of the
+     * same new entry result in exactly one successful write.
+     *
+     * @param item            the item to be written.
+     * @param conflictMessage the message of the exception thrown when the entry already exists.
+     * @throws ConflictException when an entry with the same primary key already exists.
+     */
+    protected void putItemIfNotExists(Item item, String conflictMessage) throws ConflictException {
+        PutItemSpec putItemSpec = new PutItemSpec()
+            .withItem(item)
+            .withConditionExpression(ENTRY_DOES_NOT_EXIST_CONDITION);
+        putItemWithCondition(putItemSpec, conflictMessage);
+    }
+
+    /**
+     * Overwrites an item only if there is an item with the same primary key, in a single request.
+     *
+     * @param item            the new version of the item.
+     * @param notFoundMessage the message of the exception thrown when the entry does not exist.
+     * @throws NotFoundException when there is no entry with the same primary key.
+     */
+    protected void putItemIfExists(Item item, String notFoundMessage) throws NotFoundException {
+        PutItemSpec putItemSpec = new PutItemSpec()
+            .withItem(item)
+            .withConditionExpression(ENTRY_EXISTS_CONDITION);
+        try {
+            table.putItem(putItemSpec);
+        } catch (ConditionalCheckFailedException e) {
+            throw new NotFoundException(notFoundMessage);
+        }
+    }
+
+    /**
+     * Overwrites an existing item only if the stored item has the expected version, in a single request. Entries
+     * stored before versioning was introduced have no version, and they are expected when the expected version is
+     * {@code null}.
+     *
+     * @param item            the new version of the item.
+     * @param expectedVersion the version of the stored item or {@code null} for an item without version.
+     * @param conflictMessage the message of the exception thrown when the stored item has a different version.
+     * @return the item that was overwritten.
+     * @throws ConflictException when the stored item does not have the expected version or does not exist.
+     */
+    protected Item putItemIfVersionMatches(Item item, Long expectedVersion, String conflictMessage)
+        throws ConflictException {
+        PutItemSpec putItemSpec = new PutItemSpec()
+            .withItem(item)
+            .withNameMap(Map.of(VERSION_NAME_PLACEHOLDER, DynamoEntryCodec.VERSION_FIELD))
+            .withReturnValues(ReturnValue.ALL_OLD);
+        if (isNull(expectedVersion)) {
+            putItemSpec.withConditionExpression(UNVERSIONED_ENTRY_EXISTS_CONDITION);
+        } else {
+            putItemSpec.withConditionExpression(VERSION_MATCHES_CONDITION)
+                .withValueMap(Map.of(EXPECTED_VERSION_PLACEHOLDER, expectedVersion));
+        }
+        return putItemWithCondition(putItemSpec, conflictMessage).getItem();
+    }
+
     // PMD complains about the log error format but this call seems legit according to SLF4J
     // see http://slf4j.org/faq.html#exception_message
     @SuppressWarnings("PMD.InvalidLogMessageFormat")
@@ -63,7 +185,197 @@ public class DatabaseSubService {
         }
     }
 
+    /*Entries written before versioning was introduced get the initial version on their first update*/
+    protected static long nextVersion(Long expectedVersion) {
+        return nonNull(expectedVersion) ? expectedVersion + 1 : INITIAL_VERSION;
+    }
+
+    protected static PrimaryKey primaryKey(DynamoEntryWithRangeKey entry) {
+        return new PrimaryKey(PRIMARY_KEY_HASH_KEY, entry.getPrimaryHashKey(),
+            PRIMARY_KEY_RANGE_KEY, entry.getPrimaryRangeKey());
+    }
+
     protected Item fetchItem(DynamoEntryWithRangeKey requestEntry) {
         return fetchItemForTable(table, requestEntry);
     }
+
+    /**
+     * Fetches an item with a strongly consistent read, so that the result reflects all writes that have completed
+     * before the read.
+     *
+     * @param requestEntry the entry containing the primary key.
+     * @return the item or {@code null} if the item does not exist.
+     */
+    protected Item fetchItemWithConsistentRead(DynamoEntryWithRangeKey requestEntry) {
+        GetItemSpec getItemSpec = new GetItemSpec()
+            .withPrimaryKey(primaryKey(requestEntry))
+            .withConsistentRead(true);
+        return table.getItem(getItemSpec);
+    }
+
+    /**
+     * Fetches multiple items with BatchGetItem. The keys are split in chunks of {@link #MAX_BATCH_GET_SIZE} and any
+     * unprocessed keys are retried with an increasing waiting time. Items that do not exist are not included in the
+     * result, and the order of the result is not guaranteed. Every item is fetched once, even when its key is given
+     * more than once.
+     *
+     * @param keys the primary keys of the items.
+     * @return the items that were found.
+     */
+    protected List<Item> batchGetItems(Collection<PrimaryKey> keys) {
+        return fetchInChunks(keys, false);
+    }
+
+    /**
+     * Fetches multiple items in the same way as {@link #batchGetItems}, but with strongly consistent reads, so that the
+     * result reflects all writes that have completed before the read.
+     *
+     * @param keys the primary keys of the items.
+     * @return the items that were found.
+     */
+    protected List<Item> batchGetItemsWithConsistentRead(Collection<PrimaryKey> keys) {
+        return fetchInChunks(keys, true);
+    }
+
+    /**
+     * Writes and deletes multiple items with BatchWriteItem. The requests are split in chunks of {@link
+     * #MAX_BATCH_WRITE_SIZE} and any unprocessed items are retried with an increasing waiting time. The writes are not
+     * atomic: when an exception is thrown, some of the requests may have been applied.
+     *
+     * @param itemsToPut   the items to be written.
+     * @param keysToDelete  the primary keys of the items to be deleted.
+     */
+    protected void batchWriteItems(Collection<Item> itemsToPut, Collection<PrimaryKey> keysToDelete) {
+        List<WriteRequest> requests = new ArrayList<>(putRequests(itemsToPut));
+        keysToDelete.forEach(key -> requests.add(
+            new WriteRequest().withDeleteRequest(new DeleteRequest().withKey(toAttributeValues(key)))));
+        List<WriteRequest> unprocessedRequests = writeRequestsRetryingUnprocessedItems(requests);
+        if (!unprocessedRequests.isEmpty()) {
+            throw new IllegalStateException(UNPROCESSED_ITEMS_ERROR_MESSAGE + unprocessedRequests);
+        }
+    }
+
+    /**
+     * Writes multiple items with BatchWriteItem in the same way as {@link #batchWriteItems}, but reports the items
+     * that were still unprocessed after the retries instead of failing, so that the caller can tell which items were
+     * written. Every chunk is attempted, also after a chunk with unprocessed items.
+     *
+     * @param itemsToPut the items to be written. No two items may have the same primary key.
+     * @return the items that were not written.
+     */
+    protected List<Item> batchPutItems(Collection<Item> itemsToPut) {
+        return writeRequestsRetryingUnprocessedItems(putRequests(itemsToPut)).stream()
+            .map(request -> ItemUtils.toItem(request.getPutRequest().getItem()))
+            .collect(Collectors.toList());
+    }
+
+    protected static <T> List<List<T>> partition(List<T> list, int chunkSize) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < list.size(); start += chunkSize) {
+            chunks.add(list.subList(start, Math.min(start + chunkSize, list.size())));
+        }
+        return chunks;
+    }
+
+    protected static void waitBeforeRetry(int effort) {
+        try {
+            Thread.sleep(BATCH_RETRY_BASE_WAITING_TIME * (1L << effort));
+        } catch (InterruptedException e) {
+            logger.error(BATCH_INTERRUPTION_ERROR, e);
+            throw new RuntimeException(BATCH_INTERRUPTION_ERROR, e);
+        }
+    }
+
+    private PutItemOutcome putItemWithCondition(PutItemSpec putItemSpec, String conflictMessage)
+        throws ConflictException {
+        try {
+            return table.putItem(putItemSpec);
+        } catch (ConditionalCheckFailedException e) {
+            throw new ConflictException(conflictMessage);
+        }
+    }
+
+    private List<Item> fetchInChunks(Collection<PrimaryKey> keys, boolean consistentRead) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Item> items = new ArrayList<>();
+        for (List<PrimaryKey> chunk : partition(distinctKeys(keys), MAX_BATCH_GET_SIZE)) {
+            TableKeysAndAttributes request = new TableKeysAndAttributes(table.getTableName())
+                .withPrimaryKeys(chunk.toArray(PrimaryKey[]::new))
+                .withConsistentRead(consistentRead);
+            items.addAll(fetchChunkRetryingUnprocessedKeys(dynamoDb.batchGetItem(request)));
+        }
+        return items;
+    }
+
+    private List<Item> fetchChunkRetryingUnprocessedKeys(BatchGetItemOutcome firstOutcome) {
+        List<Item> items = new ArrayList<>(tableItems(firstOutcome));
+        Map<String, KeysAndAttributes> unprocessedKeys = firstOutcome.getUnprocessedKeys();
+        int effort = 0;
+        while (hasUnprocessedKeys(unprocessedKeys)) {
+            if (effort >= MAX_BATCH_RETRIES) {
+                throw new IllegalStateException(UNPROCESSED_KEYS_ERROR_MESSAGE + unprocessedKeys);
+            }
+            waitBeforeRetry(effort);
+            BatchGetItemOutcome outcome = dynamoDb.batchGetItemUnprocessed(unprocessedKeys);
+            items.addAll(tableItems(outcome));
+            unprocessedKeys = outcome.getUnprocessedKeys();
+            effort++;
+        }
+        return items;
+    }
+
+    private List<WriteRequest> writeRequestsRetryingUnprocessedItems(List<WriteRequest> requests) {
+        List<WriteRequest> unprocessedRequests = new ArrayList<>();
+        for (List<WriteRequest> chunk : partition(requests, MAX_BATCH_WRITE_SIZE)) {
+            unprocessedRequests.addAll(writeChunkRetryingUnprocessedItems(Map.of(table.getTableName(), chunk)));
+        }
+        return unprocessedRequests;
+    }
+
+    private List<WriteRequest> writeChunkRetryingUnprocessedItems(Map<String, List<WriteRequest>> requests) {
+        Map<String, List<WriteRequest>> unprocessedItems = dynamoDb.batchWriteItemUnprocessed(requests)
+            .getUnprocessedItems();
+        int effort = 0;
+        while (hasUnprocessedKeys(unprocessedItems) && effort < MAX_BATCH_RETRIES) {
+            waitBeforeRetry(effort);
+            unprocessedItems = dynamoDb.batchWriteItemUnprocessed(unprocessedItems).getUnprocessedItems();
+            effort++;
+        }
+        return hasUnprocessedKeys(unprocessedItems)
+            ? unprocessedItems.getOrDefault(table.getTableName(), Collections.emptyList())
+            : Collections.emptyList();
+    }
+
+    private static List<WriteRequest> putRequests(Collection<Item> items) {
+        return items.stream()
+            .map(ItemUtils::toAttributeValues)
+            .map(attributes -> new WriteRequest().withPutRequest(new PutRequest().withItem(attributes)))
+            .collect(Collectors.toList());
+    }
+
+    /*BatchGetItem rejects a request that contains the same key twice. Keys are compared by their attribute values*/
+    private static List<PrimaryKey> distinctKeys(Collection<PrimaryKey> keys) {
+        Map<Map<String, AttributeValue>, PrimaryKey> keysByValues = new LinkedHashMap<>();
+        keys.forEach(key -> keysByValues.putIfAbsent(toAttributeValues(key), key));
+        return new ArrayList<>(keysByValues.values());
+    }
+
+    protected static Map<String, AttributeValue> toAttributeValues(PrimaryKey key) {
+        Map<String, AttributeValue> attributes = new HashMap<>();
+        key.getComponents().forEach(
+            component -> attributes.put(component.getName(), ItemUtils.toAttributeValue(component.getValue())));
+        return attributes;
+    }
+
+    private List<Item> tableItems(BatchGetItemOutcome outcome) {
+        return Optional.ofNullable(outcome.getTableItems())
+            .map(tableItems -> tableItems.get(table.getTableName()))
+            .orElse(Collections.emptyList());
+    }
+
+    private static boolean hasUnprocessedKeys(Map<String, ?> unprocessedKeys) {
+        return nonNull(unprocessedKeys) && !unprocessedKeys.isEmpty();
+    }
 }
@@ -0,0 +1,100 @@
+package no.unit.nva.database;
+
+import static nva.commons.core.attempt.Try.attempt;
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.retry.PredefinedRetryPolicies;
+import com.amazonaws.retry.RetryPolicy;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+import java.util.Optional;
+import nva.commons.core.Environment;
+import nva.commons.core.JacocoGenerated;
+import nva.commons.core.attempt.Failure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates DynamoDB clients with HTTP settings suited for short Lambda invocations: TCP keep-alive for reusing
+ * connections between warm invocations, short timeouts, and a bounded number of retries. All settings can be
+ * overridden with environment variables. Missing or invalid values are replaced by the defaults.
+ */
+public final class DynamoDbClientFactory {
+
+    public static final String MAX_CONNECTIONS_ENV_VARIABLE = "DYNAMODB_MAX_CONNECTIONS";
+    public static final String CONNECTION_TIMEOUT_ENV_VARIABLE = "DYNAMODB_CONNECTION_TIMEOUT_MILLIS";
+    public static final String REQUEST_TIMEOUT_ENV_VARIABLE = "DYNAMODB_REQUEST_TIMEOUT_MILLIS";
+    public static final String CLIENT_EXECUTION_TIMEOUT_ENV_VARIABLE = "DYNAMODB_CLIENT_EXECUTION_TIMEOUT_MILLIS";
+    public static final String MAX_ERROR_RETRIES_ENV_VARIABLE = "DYNAMODB_MAX_ERROR_RETRIES";
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 50;
+    public static final int DEFAULT_CONNECTION_TIMEOUT_MILLIS = 1000;
+    public static final int DEFAULT_REQUEST_TIMEOUT_MILLIS = 2000;
+    public static final int DEFAULT_CLIENT_EXECUTION_TIMEOUT_MILLIS = 5000;
+    public static final int DEFAULT_MAX_ERROR_RETRIES = 3;
+    public static final long CONNECTION_MAX_IDLE_MILLIS = 60_000;
+    public static final String INVALID_CLIENT_SETTING_WARNING =
+        "Invalid DynamoDB client setting, using default value: ";
+
+    private static final Logger logger = LoggerFactory.getLogger(DynamoDbClientFactory.class);
+
+    private DynamoDbClientFactory() {
+    }
+
+    /**
+     * Creates a DynamoDB client with the configuration returned by {@link #clientConfiguration(Environment)}. The
+     * calls of the client are recorded in the {@link DynamoDbMetrics} of the running operation.
+     *
+     * @param environment the environment.
+     * @return an {@link AmazonDynamoDB} client.
+     */
+    @JacocoGenerated
+    public static AmazonDynamoDB createClient(Environment environment) {
+        return AmazonDynamoDBClientBuilder.standard()
+            .withClientConfiguration(clientConfiguration(environment))
+            .withRequestHandlers(new DynamoDbMetricsHandler())
+            .build();
+    }
+
+    /**
+     * Creates the HTTP configuration of the DynamoDB client.
+     *
+     * @param environment the environment.
+     * @return a {@link ClientConfiguration}.
+     */
+    public static ClientConfiguration clientConfiguration(Environment environment) {
+        int requestTimeout = readNumber(environment, REQUEST_TIMEOUT_ENV_VARIABLE, DEFAULT_REQUEST_TIMEOUT_MILLIS);
+        int maxErrorRetries = readNumber(environment, MAX_ERROR_RETRIES_ENV_VARIABLE, DEFAULT_MAX_ERROR_RETRIES);
+        return new ClientConfiguration()
+            .withMaxConnections(readNumber(environment, MAX_CONNECTIONS_ENV_VARIABLE, DEFAULT_MAX_CONNECTIONS))
+            .withConnectionTimeout(
+                readNumber(environment, CONNECTION_TIMEOUT_ENV_VARIABLE, DEFAULT_CONNECTION_TIMEOUT_MILLIS))
+            .withSocketTimeout(requestTimeout)
+            .withRequestTimeout(requestTimeout)
+            .withClientExecutionTimeout(
+                readNumber(environment, CLIENT_EXECUTION_TIMEOUT_ENV_VARIABLE, DEFAULT_CLIENT_EXECUTION_TIMEOUT_MILLIS))
+            .withTcpKeepAlive(true)
+            .withConnectionMaxIdleMillis(CONNECTION_MAX_IDLE_MILLIS)
+            .withMaxErrorRetry(maxErrorRetries)
+            .withRetryPolicy(retryPolicy(maxErrorRetries));
+    }
+
+    private static RetryPolicy retryPolicy(int maxErrorRetries) {
+        return PredefinedRetryPolicies.getDynamoDBDefaultRetryPolicyWithCustomMaxRetries(maxErrorRetries);
+    }
+
+    private static int readNumber(Environment environment, String variableName, int defaultValue) {
+        return environment.readEnvOpt(variableName)
+            .flatMap(DynamoDbClientFactory::parseNonNegativeNumber)
+            .orElse(defaultValue);
+    }
+
+    private static Optional<Integer> parseNonNegativeNumber(String value) {
+        return attempt(() -> Integer.parseInt(value))
+            .toOptional(DynamoDbClientFactory::logInvalidSetting)
+            .filter(number -> number >= 0);
+    }
+
+    private static <T> void logInvalidSetting(Failure<T> failure) {
+        logger.warn(INVALID_CLIENT_SETTING_WARNING + failure.getException().getMessage());
+    }
+}
@@ -0,0 +1,165 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static nva.commons.core.JsonUtils.objectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the DynamoDB calls of one operation of the service, such as {@code getUser} or {@code listUsers}, and
+ * writes them as one log line in the CloudWatch embedded metric format (EMF) when the operation ends. CloudWatch
+ * turns the line into metrics with the operation as dimension: the number of calls, the time spent in DynamoDB, the
+ * consumed capacity units, the number of items read or written and the number of failed calls.
+ *
+ * <p>The calls are recorded by {@link DynamoDbMetricsHandler}, which must be registered in the DynamoDB client. The
+ * operation is kept in an inheritable thread-local, so calls made by threads started during the operation are also
+ * recorded.
+ */
+public final class DynamoDbMetrics implements AutoCloseable {
+
+    public static final String NAMESPACE = "NVA/UserAccessService";
+    public static final String OPERATION_DIMENSION = "Operation";
+    public static final String CALLS_METRIC = "DynamoDbCalls";
+    public static final String LATENCY_METRIC = "DynamoDbLatency";
+    public static final String CONSUMED_CAPACITY_METRIC = "ConsumedCapacity";
+    public static final String ITEM_COUNT_METRIC = "ItemCount";
+    public static final String ERRORS_METRIC = "DynamoDbErrors";
+    public static final String CALLS_BY_API_PROPERTY = "DynamoDbCallsByApi";
+    public static final String COUNT_UNIT = "Count";
+    public static final String MILLISECONDS_UNIT = "Milliseconds";
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private static final Logger logger = LoggerFactory.getLogger(DynamoDbMetrics.class);
+    private static final InheritableThreadLocal<DynamoDbMetrics> runningOperation = new InheritableThreadLocal<>();
+
+    private final String operation;
+    private final DynamoDbMetrics enclosingOperation;
+    private final Map<String, Integer> callsByApi = new TreeMap<>();
+    private final Object lock = new Object();
+    private int calls;
+    private long latencyNanos;
+    private double consumedCapacity;
+    private long itemCount;
+    private int errors;
+
+    private DynamoDbMetrics(String operation, DynamoDbMetrics enclosingOperation) {
+        this.operation = operation;
+        this.enclosingOperation = enclosingOperation;
+    }
+
+    /**
+     * Starts recording the DynamoDB calls of an operation in the current thread. The metrics are written when the
+     * returned object is closed.
+     *
+     * @param operation the name of the operation.
+     * @return the metrics of the operation.
+     */
+    public static DynamoDbMetrics startOperation(String operation) {
+        DynamoDbMetrics metrics = new DynamoDbMetrics(operation, runningOperation.get());
+        runningOperation.set(metrics);
+        return metrics;
+    }
+
+    /**
+     * The operation that is running in the current thread.
+     *
+     * @return the metrics of the operation, or empty when no operation is running.
+     */
+    public static Optional<DynamoDbMetrics> currentOperation() {
+        return Optional.ofNullable(runningOperation.get());
+    }
+
+    /**
+     * Records a successful DynamoDB call.
+     *
+     * @param api              the name of the DynamoDB API, for example {@code GetItem}.
+     * @param latencyNanos     the duration of the call.
+     * @param consumedCapacity the capacity units consumed by the call.
+     * @param itemCount        the number of items read or written by the call.
+     */
+    public void recordCall(String api, long latencyNanos, double consumedCapacity, long itemCount) {
+        synchronized (lock) {
+            recordAttempt(api, latencyNanos);
+            this.consumedCapacity += consumedCapacity;
+            this.itemCount += itemCount;
+        }
+    }
+
+    /**
+     * Records a failed DynamoDB call.
+     *
+     * @param api          the name of the DynamoDB API, for example {@code GetItem}.
+     * @param latencyNanos the duration of the call.
+     */
+    public void recordError(String api, long latencyNanos) {
+        synchronized (lock) {
+            recordAttempt(api, latencyNanos);
+            this.errors++;
+        }
+    }
+
+    /**
+     * Creates the log line in the CloudWatch embedded metric format.
+     *
+     * @return a JSON object in one line.
+     */
+    public String toEmfLine() {
+        ObjectNode line = objectMapper.createObjectNode();
+        line.set("_aws", emfMetadata());
+        line.put(OPERATION_DIMENSION, operation);
+        synchronized (lock) {
+            line.put(CALLS_METRIC, calls);
+            line.put(LATENCY_METRIC, latencyNanos / NANOS_PER_MILLI);
+            line.put(CONSUMED_CAPACITY_METRIC, consumedCapacity);
+            line.put(ITEM_COUNT_METRIC, itemCount);
+            line.put(ERRORS_METRIC, errors);
+            line.set(CALLS_BY_API_PROPERTY, objectMapper.valueToTree(callsByApi));
+        }
+        return line.toString();
+    }
+
+    /**
+     * Ends the operation and writes its metrics.
+     */
+    @Override
+    public void close() {
+        if (isNull(enclosingOperation)) {
+            runningOperation.remove();
+        } else {
+            runningOperation.set(enclosingOperation);
+        }
+        logger.info(toEmfLine());
+    }
+
+    private void recordAttempt(String api, long latencyNanos) {
+        this.calls++;
+        this.latencyNanos += latencyNanos;
+        this.callsByApi.merge(api, 1, Integer::sum);
+    }
+
+    private ObjectNode emfMetadata() {
+        ObjectNode directive = objectMapper.createObjectNode();
+        directive.put("Namespace", NAMESPACE);
+        directive.putArray("Dimensions").addArray().add(OPERATION_DIMENSION);
+        ArrayNode metrics = directive.putArray("Metrics");
+        addMetric(metrics, CALLS_METRIC, COUNT_UNIT);
+        addMetric(metrics, LATENCY_METRIC, MILLISECONDS_UNIT);
+        addMetric(metrics, CONSUMED_CAPACITY_METRIC, COUNT_UNIT);
+        addMetric(metrics, ITEM_COUNT_METRIC, COUNT_UNIT);
+        addMetric(metrics, ERRORS_METRIC, COUNT_UNIT);
+
+        ObjectNode metadata = objectMapper.createObjectNode();
+        metadata.put("Timestamp", System.currentTimeMillis());
+        metadata.putArray("CloudWatchMetrics").add(directive);
+        return metadata;
+    }
+
+    private static void addMetric(ArrayNode metrics, String name, String unit) {
+        metrics.addObject().put("Name", name).put("Unit", unit);
+    }
+}
@@ -0,0 +1,165 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.handlers.HandlerContextKey;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemResult;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Records every call of the DynamoDB client in the {@link DynamoDbMetrics} of the operation that is running in the
+ * calling thread. The calls get {@code ReturnConsumedCapacity=TOTAL}, so that DynamoDB returns the consumed capacity
+ * units. Calls made outside an operation are neither changed nor recorded.
+ */
+public class DynamoDbMetricsHandler extends RequestHandler2 {
+
+    public static final String REQUEST_SUFFIX = "Request";
+    private static final HandlerContextKey<Long> START_TIME = new HandlerContextKey<>("DynamoDbMetricsStartTime");
+    private static final long SINGLE_ITEM = 1L;
+
+    @Override
+    public AmazonWebServiceRequest beforeExecution(AmazonWebServiceRequest request) {
+        if (DynamoDbMetrics.currentOperation().isPresent()) {
+            requestConsumedCapacity(request);
+        }
+        return request;
+    }
+
+    @Override
+    public void beforeRequest(Request<?> request) {
+        request.addHandlerContext(START_TIME, System.nanoTime());
+    }
+
+    @Override
+    public void afterResponse(Request<?> request, Response<?> response) {
+        DynamoDbMetrics.currentOperation().ifPresent(metrics -> {
+            Object result = response.getAwsResponse();
+            metrics.recordCall(apiName(request), elapsedNanos(request), consumedCapacity(result),
+                itemCount(request.getOriginalRequest(), result));
+        });
+    }
+
+    @Override
+    public void afterError(Request<?> request, Response<?> response, Exception e) {
+        DynamoDbMetrics.currentOperation()
+            .ifPresent(metrics -> metrics.recordError(apiName(request), elapsedNanos(request)));
+    }
+
+    /*The name of the request class without the suffix, for example GetItem*/
+    private static String apiName(Request<?> request) {
+        String requestClass = request.getOriginalRequest().getClass().getSimpleName();
+        return requestClass.endsWith(REQUEST_SUFFIX)
+            ? requestClass.substring(0, requestClass.length() - REQUEST_SUFFIX.length())
+            : requestClass;
+    }
+
+    private static long elapsedNanos(Request<?> request) {
+        Long startTime = request.getHandlerContext(START_TIME);
+        return isNull(startTime) ? 0 : System.nanoTime() - startTime;
+    }
+
+    private static void requestConsumedCapacity(AmazonWebServiceRequest request) {
+        ReturnConsumedCapacity total = ReturnConsumedCapacity.TOTAL;
+        if (request instanceof GetItemRequest) {
+            ((GetItemRequest) request).setReturnConsumedCapacity(total);
+        } else if (request instanceof PutItemRequest) {
+            ((PutItemRequest) request).setReturnConsumedCapacity(total);
+        } else if (request instanceof UpdateItemRequest) {
+            ((UpdateItemRequest) request).setReturnConsumedCapacity(total);
+        } else if (request instanceof DeleteItemRequest) {
+            ((DeleteItemRequest) request).setReturnConsumedCapacity(total);
+        } else if (request instanceof QueryRequest) {
+            ((QueryRequest) request).setReturnConsumedCapacity(total);
+        } else if (request instanceof BatchGetItemRequest) {
+            ((BatchGetItemRequest) request).setReturnConsumedCapacity(total);
+        } else if (request instanceof BatchWriteItemRequest) {
+            ((BatchWriteItemRequest) request).setReturnConsumedCapacity(total);
+        } else if (request instanceof TransactWriteItemsRequest) {
+            ((TransactWriteItemsRequest) request).setReturnConsumedCapacity(total);
+        }
+    }
+
+    private static double consumedCapacity(Object result) {
+        if (result instanceof GetItemResult) {
+            return capacityUnits(((GetItemResult) result).getConsumedCapacity());
+        } else if (result instanceof PutItemResult) {
+            return capacityUnits(((PutItemResult) result).getConsumedCapacity());
+        } else if (result instanceof UpdateItemResult) {
+            return capacityUnits(((UpdateItemResult) result).getConsumedCapacity());
+        } else if (result instanceof DeleteItemResult) {
+            return capacityUnits(((DeleteItemResult) result).getConsumedCapacity());
+        } else if (result instanceof QueryResult) {
+            return capacityUnits(((QueryResult) result).getConsumedCapacity());
+        } else if (result instanceof BatchGetItemResult) {
+            return capacityUnits(((BatchGetItemResult) result).getConsumedCapacity());
+        } else if (result instanceof BatchWriteItemResult) {
+            return capacityUnits(((BatchWriteItemResult) result).getConsumedCapacity());
+        } else if (result instanceof TransactWriteItemsResult) {
+            return capacityUnits(((TransactWriteItemsResult) result).getConsumedCapacity());
+        }
+        return 0;
+    }
+
+    /*The items returned by reads and the items written by writes*/
+    private static long itemCount(AmazonWebServiceRequest request, Object result) {
+        if (result instanceof GetItemResult) {
+            return nonNull(((GetItemResult) result).getItem()) ? SINGLE_ITEM : 0;
+        } else if (result instanceof QueryResult) {
+            return Optional.ofNullable(((QueryResult) result).getCount()).orElse(0);
+        } else if (result instanceof BatchGetItemResult) {
+            return totalSize(((BatchGetItemResult) result).getResponses());
+        } else if (result instanceof BatchWriteItemResult) {
+            return totalSize(((BatchWriteItemRequest) request).getRequestItems())
+                - totalSize(((BatchWriteItemResult) result).getUnprocessedItems());
+        } else if (result instanceof TransactWriteItemsResult) {
+            return ((TransactWriteItemsRequest) request).getTransactItems().size();
+        } else if (result instanceof PutItemResult || result instanceof UpdateItemResult
+                   || result instanceof DeleteItemResult) {
+            return SINGLE_ITEM;
+        }
+        return 0;
+    }
+
+    private static double capacityUnits(ConsumedCapacity consumedCapacity) {
+        return Optional.ofNullable(consumedCapacity)
+            .map(ConsumedCapacity::getCapacityUnits)
+            .orElse(0.0);
+    }
+
+    private static double capacityUnits(List<ConsumedCapacity> consumedCapacities) {
+        return Optional.ofNullable(consumedCapacities).orElse(Collections.emptyList()).stream()
+            .mapToDouble(DynamoDbMetricsHandler::capacityUnits)
+            .sum();
+    }
+
+    private static long totalSize(Map<String, ? extends Collection<?>> itemsPerTable) {
+        return Optional.ofNullable(itemsPerTable).orElse(Collections.emptyMap()).values().stream()
+            .mapToLong(Collection::size)
+            .sum();
+    }
+}
@@ -0,0 +1,240 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static no.unit.nva.database.InstitutionStatsService.COUNTER_NAME_PLACEHOLDER_PREFIX;
+import static no.unit.nva.database.InstitutionStatsService.COUNTER_UPDATES_FIELD;
+import static no.unit.nva.database.InstitutionStatsService.COUNTER_UPDATES_PLACEHOLDER;
+import static no.unit.nva.database.InstitutionStatsService.RECOUNTED_FIELD;
+import static no.unit.nva.database.InstitutionStatsService.TYPE;
+import static no.unit.nva.database.InstitutionStatsService.TYPE_NAME_PLACEHOLDER;
+import static no.unit.nva.database.InstitutionStatsService.TYPE_VALUE_PLACEHOLDER;
+import static no.unit.nva.database.InstitutionStatsService.USER_COUNT_FIELD;
+import static no.unit.nva.database.InstitutionStatsService.count;
+import static no.unit.nva.database.InstitutionStatsService.counters;
+import static no.unit.nva.database.InstitutionStatsService.numberValue;
+import static no.unit.nva.database.InstitutionStatsService.statsKey;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.SEARCH_USERS_BY_INSTITUTION_INDEX_NAME;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.SECONDARY_INDEX_1_HASH_KEY;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.document.Index;
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.ItemCollection;
+import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
+import com.amazonaws.services.dynamodbv2.document.QueryOutcome;
+import com.amazonaws.services.dynamodbv2.document.Table;
+import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
+import com.amazonaws.services.dynamodbv2.document.spec.QuerySpec;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import no.unit.nva.useraccessmanagement.dao.DynamoEntryCodec;
+import no.unit.nva.useraccessmanagement.dao.DynamoEntryWithRangeKey;
+import no.unit.nva.useraccessmanagement.dao.UserDb;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Repairs the {@link InstitutionStatsService} counters of an institution by counting its users in the institution
+ * index and setting the counters to the absolute numbers. The counters are otherwise only changed by the deltas of
+ * the writes of users, so users that were written before the counters existed are never counted, and a counter update
+ * that has failed is never made up for.
+ */
+public class InstitutionRecount extends DatabaseSubService {
+
+    public static final String RECOUNT_TYPE = "INSTITUTION_RECOUNT";
+    public static final String RECOUNT_COUNTS_FIELD = "counts";
+    public static final String RECOUNT_START_KEY_FIELD = "startKey";
+    public static final int RECOUNT_PAGE_SIZE = 500;
+    public static final String RECOUNTED_NAME_PLACEHOLDER = "#recounted";
+    public static final String RECOUNTED_VALUE_PLACEHOLDER = ":recounted";
+    public static final String COUNT_VALUE_PLACEHOLDER_PREFIX = ":count";
+    public static final String STALE_COUNTER_NAME_PLACEHOLDER_PREFIX = "#stale";
+    public static final String COUNTER_UPDATES_AT_START_PLACEHOLDER = ":counterUpdatesAtStart";
+    public static final String NO_COUNTER_UPDATES_SINCE_START_CONDITION = "attribute_not_exists("
+        + COUNTER_UPDATES_PLACEHOLDER + ") OR " + COUNTER_UPDATES_PLACEHOLDER + " = "
+        + COUNTER_UPDATES_AT_START_PLACEHOLDER;
+    public static final String RECOUNT_CONFLICT_WARNING =
+        "Users were counted during the recount, the institution should be recounted again: ";
+
+    private static final Logger logger = LoggerFactory.getLogger(InstitutionRecount.class);
+
+    private final Index institutionsIndex;
+
+    public InstitutionRecount(Table table, AmazonDynamoDB client) {
+        super(table, client);
+        this.institutionsIndex = table.getIndex(SEARCH_USERS_BY_INSTITUTION_INDEX_NAME);
+    }
+
+    /**
+     * Counts the users of an institution in its index, and sets its counters to the absolute numbers. The users are
+     * read in pages of {@link #RECOUNT_PAGE_SIZE} users. When the time budget is used before all users are counted,
+     * the partial counts and the position in the index are stored in a recount item of the institution, and the next
+     * call continues from there.
+     *
+     * <p>Every counter update also increases {@link InstitutionStatsService#COUNTER_UPDATES_FIELD}. The recounted
+     * numbers are only written if it has not changed since the recount started, since a user that was counted by its
+     * write during the recount may or may not have been counted by the recount. Otherwise, the recount starts over on
+     * the next call.
+     *
+     * @param institution the institution.
+     * @param timeBudget  the time after which no new page is started. At least one page is always counted.
+     * @return the number of users counted by this call and whether the counters have been set.
+     */
+    public InstitutionRecountResult recount(String institution, Duration timeBudget) {
+        Instant deadline = Instant.now().plus(timeBudget);
+        Item storedRecount = fetchWithConsistentRead(recountKey(institution));
+        Map<String, Map<String, Long>> counts = new TreeMap<>();
+        counts.put(institution, storedCounts(storedRecount));
+        long counterUpdatesAtStart = nonNull(storedRecount)
+            ? storedRecount.getLong(COUNTER_UPDATES_FIELD)
+            : counterUpdates(fetchWithConsistentRead(statsKey(institution)));
+        PrimaryKey startKey = storedStartKey(storedRecount);
+        int countedUsers = 0;
+        do {
+            ItemCollection<QueryOutcome> page = institutionsIndex.query(recountQuery(institution, startKey));
+            for (Item item : page) {
+                count(counts, UserDb.fromItem(item), 1L);
+                countedUsers++;
+            }
+            startKey = lastEvaluatedKey(page).map(InstitutionRecount::toPrimaryKey).orElse(null);
+        } while (nonNull(startKey) && Instant.now().isBefore(deadline));
+
+        if (nonNull(startKey)) {
+            storeRecount(institution, counts.get(institution), counterUpdatesAtStart, startKey);
+            return new InstitutionRecountResult(countedUsers, false);
+        }
+        table.deleteItem(recountKey(institution));
+        return new InstitutionRecountResult(countedUsers,
+            setCounters(institution, counts.get(institution), counterUpdatesAtStart));
+    }
+
+    private static long counterUpdates(Item item) {
+        return nonNull(item) && item.hasAttribute(COUNTER_UPDATES_FIELD) ? item.getLong(COUNTER_UPDATES_FIELD) : 0L;
+    }
+
+    /*The recounted numbers replace all counters, and counters of roles that no user has anymore are removed*/
+    private boolean setCounters(String institution, Map<String, Long> recountedCounters, long counterUpdatesAtStart) {
+        Map<String, Long> counters = new TreeMap<>(recountedCounters);
+        counters.putIfAbsent(USER_COUNT_FIELD, 0L);
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        names.put(TYPE_NAME_PLACEHOLDER, DynamoEntryCodec.TYPE_FIELD);
+        values.put(TYPE_VALUE_PLACEHOLDER, new AttributeValue(TYPE));
+        names.put(RECOUNTED_NAME_PLACEHOLDER, RECOUNTED_FIELD);
+        values.put(RECOUNTED_VALUE_PLACEHOLDER, new AttributeValue().withBOOL(true));
+        names.put(COUNTER_UPDATES_PLACEHOLDER, COUNTER_UPDATES_FIELD);
+        values.put(COUNTER_UPDATES_AT_START_PLACEHOLDER, numberValue(counterUpdatesAtStart));
+        List<String> assignments = new ArrayList<>();
+        assignments.add(TYPE_NAME_PLACEHOLDER + " = " + TYPE_VALUE_PLACEHOLDER);
+        assignments.add(RECOUNTED_NAME_PLACEHOLDER + " = " + RECOUNTED_VALUE_PLACEHOLDER);
+        for (Map.Entry<String, Long> counter : counters.entrySet()) {
+            String name = COUNTER_NAME_PLACEHOLDER_PREFIX + assignments.size();
+            String value = COUNT_VALUE_PLACEHOLDER_PREFIX + assignments.size();
+            names.put(name, counter.getKey());
+            values.put(value, numberValue(counter.getValue()));
+            assignments.add(name + " = " + value);
+        }
+        List<String> removals = new ArrayList<>();
+        for (String staleCounter : staleCounters(institution, counters)) {
+            String name = STALE_COUNTER_NAME_PLACEHOLDER_PREFIX + removals.size();
+            names.put(name, staleCounter);
+            removals.add(name);
+        }
+        String updateExpression = "SET " + String.join(", ", assignments)
+            + (removals.isEmpty() ? "" : " REMOVE " + String.join(", ", removals));
+        try {
+            client.updateItem(new UpdateItemRequest()
+                .withTableName(table.getTableName())
+                .withKey(toAttributeValues(statsKey(institution)))
+                .withUpdateExpression(updateExpression)
+                .withConditionExpression(NO_COUNTER_UPDATES_SINCE_START_CONDITION)
+                .withExpressionAttributeNames(names)
+                .withExpressionAttributeValues(values));
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            logger.warn(RECOUNT_CONFLICT_WARNING + institution);
+            return false;
+        }
+    }
+
+    /*A counter created after this read changes the counter updates, so the conditional write of the recount fails*/
+    private List<String> staleCounters(String institution, Map<String, Long> recountedCounters) {
+        List<String> staleCounters = new ArrayList<>(counters(fetchWithConsistentRead(statsKey(institution))).keySet());
+        staleCounters.removeAll(recountedCounters.keySet());
+        return staleCounters;
+    }
+
+    private void storeRecount(String institution, Map<String, Long> counts, long counterUpdatesAtStart,
+                              PrimaryKey startKey) {
+        Map<String, Object> startKeyValues = new TreeMap<>();
+        startKey.getComponents().forEach(component -> startKeyValues.put(component.getName(), component.getValue()));
+        table.putItem(new Item()
+            .withPrimaryKey(recountKey(institution))
+            .withString(DynamoEntryCodec.TYPE_FIELD, RECOUNT_TYPE)
+            .withMap(RECOUNT_COUNTS_FIELD, counts)
+            .withLong(COUNTER_UPDATES_FIELD, counterUpdatesAtStart)
+            .withMap(RECOUNT_START_KEY_FIELD, startKeyValues));
+    }
+
+    private static Map<String, Long> storedCounts(Item storedRecount) {
+        Map<String, Long> counts = new TreeMap<>();
+        if (nonNull(storedRecount)) {
+            storedRecount.<Number>getMap(RECOUNT_COUNTS_FIELD)
+                .forEach((counter, count) -> counts.put(counter, count.longValue()));
+        }
+        return counts;
+    }
+
+    private static PrimaryKey storedStartKey(Item storedRecount) {
+        if (isNull(storedRecount)) {
+            return null;
+        }
+        PrimaryKey startKey = new PrimaryKey();
+        storedRecount.<Object>getMap(RECOUNT_START_KEY_FIELD).forEach(startKey::addComponent);
+        return startKey;
+    }
+
+    private Item fetchWithConsistentRead(PrimaryKey key) {
+        return table.getItem(new GetItemSpec().withPrimaryKey(key).withConsistentRead(true));
+    }
+
+    private static QuerySpec recountQuery(String institution, PrimaryKey startKey) {
+        QuerySpec querySpec = new QuerySpec()
+            .withHashKey(SECONDARY_INDEX_1_HASH_KEY, institution)
+            .withMaxResultSize(RECOUNT_PAGE_SIZE)
+            .withConsistentRead(false);
+        if (nonNull(startKey)) {
+            querySpec.withExclusiveStartKey(startKey);
+        }
+        return querySpec;
+    }
+
+    private static Optional<Map<String, AttributeValue>> lastEvaluatedKey(ItemCollection<QueryOutcome> page) {
+        return Optional.ofNullable(page.getLastLowLevelResult())
+            .map(QueryOutcome::getQueryResult)
+            .map(QueryResult::getLastEvaluatedKey);
+    }
+
+    private static PrimaryKey toPrimaryKey(Map<String, AttributeValue> lastEvaluatedKey) {
+        PrimaryKey key = new PrimaryKey();
+        lastEvaluatedKey.forEach((name, value) -> key.addComponent(name, value.getS()));
+        return key;
+    }
+
+    private static PrimaryKey recountKey(String institution) {
+        String key = String.join(DynamoEntryWithRangeKey.FIELD_DELIMITER, RECOUNT_TYPE, institution);
+        return new PrimaryKey(PRIMARY_KEY_HASH_KEY, key, PRIMARY_KEY_RANGE_KEY, key);
+    }
+}
@@ -0,0 +1,31 @@
+package no.unit.nva.database;
+
+/**
+ * The outcome of one run of the recount of the users of an institution, see
+ * {@link InstitutionRecount#recount(String, java.time.Duration)}. When the run is not complete, the recount has
+ * to be run again until it is.
+ */
+public class InstitutionRecountResult {
+
+    private final int countedUsers;
+    private final boolean complete;
+
+    public InstitutionRecountResult(int countedUsers, boolean complete) {
+        this.countedUsers = countedUsers;
+        this.complete = complete;
+    }
+
+    public int getCountedUsers() {
+        return countedUsers;
+    }
+
+    /**
+     * Whether the counters of the institution have been set to the recounted numbers.
+     *
+     * @return {@code false} when the run stopped before all users were counted, or when users of the institution were
+     *     counted by their writes during the recount, so that the recounted numbers could not be written.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
@@ -0,0 +1,203 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY;
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
+import com.amazonaws.services.dynamodbv2.document.Table;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import no.unit.nva.useraccessmanagement.dao.DynamoEntryCodec;
+import no.unit.nva.useraccessmanagement.dao.DynamoEntryWithRangeKey;
+import no.unit.nva.useraccessmanagement.dao.RoleDb;
+import no.unit.nva.useraccessmanagement.dao.UserDb;
+import no.unit.nva.useraccessmanagement.model.InstitutionStatsDto;
+import nva.commons.core.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Maintains and reads the counters of the users of each institution, so that the number of users of an institution
+ * and of each of its roles can be read with a single GetItem instead of listing the users.
+ *
+ * <p>The counters of an institution are the attributes of one item: {@link #USER_COUNT_FIELD} counts the users and
+ * every {@link #ROLE_COUNT_FIELD_PREFIX} attribute counts the users that have a role. The counters are changed with
+ * UpdateItem requests with {@code ADD} expressions right after the users have been written. They are not written in
+ * the same transaction as the users, so that concurrent writes of users of the same institution do not conflict on the
+ * counter item. A counter update that fails is logged and does not fail the write of the user, so the counters are
+ * approximate. Users without institution are not counted.
+ *
+ * <p>The counters are repaired by the {@link InstitutionRecount}, which counts the users of an institution in its
+ * index and sets the counters to the absolute numbers. Users that were written before the counters existed are only
+ * counted by the recount, so the counters of an institution are reported as needing a recount until it has been
+ * recounted once, and whenever a counter has become negative.
+ */
+public class InstitutionStatsService extends DatabaseSubService {
+
+    public static final String TYPE = "INSTITUTION_STATS";
+    public static final String USER_COUNT_FIELD = "userCount";
+    public static final String ROLE_COUNT_FIELD_PREFIX = "usersWithRole#";
+    public static final String TYPE_NAME_PLACEHOLDER = "#type";
+    public static final String TYPE_VALUE_PLACEHOLDER = ":type";
+    public static final String COUNTER_NAME_PLACEHOLDER_PREFIX = "#counter";
+    public static final String DELTA_VALUE_PLACEHOLDER_PREFIX = ":delta";
+    public static final String COUNTER_UPDATES_FIELD = "counterUpdates";
+    public static final String COUNTER_UPDATES_PLACEHOLDER = "#counterUpdates";
+    public static final String ONE_PLACEHOLDER = ":one";
+    public static final String RECOUNTED_FIELD = "recounted";
+    public static final String COUNTER_UPDATE_FAILURE_WARNING =
+        "Failed to update the user counters, the institution should be recounted: ";
+
+    private static final Logger logger = LoggerFactory.getLogger(InstitutionStatsService.class);
+
+    public InstitutionStatsService(Table table, AmazonDynamoDB client) {
+        super(table, client);
+    }
+
+    /**
+     * Counts users that have been added, with one UpdateItem request per institution.
+     *
+     * @param addedUsers the users that have been added.
+     */
+    public void countAddedUsers(Collection<UserDb> addedUsers) {
+        Map<String, Map<String, Long>> deltas = new TreeMap<>();
+        addedUsers.forEach(user -> count(deltas, user, 1L));
+        updates(deltas).forEach(this::updateItem);
+    }
+
+    /**
+     * Changes the counters after a user has been overwritten. A user that moves to another institution is counted out
+     * of the old institution and into the new one.
+     *
+     * @param oldUser     the user that was overwritten.
+     * @param writtenUser the user that was written.
+     */
+    public void countChangedUser(UserDb oldUser, UserDb writtenUser) {
+        Map<String, Map<String, Long>> deltas = new TreeMap<>();
+        count(deltas, oldUser, -1L);
+        count(deltas, writtenUser, 1L);
+        updates(deltas).forEach(this::updateItem);
+    }
+
+    /**
+     * Reads the counters of an institution. A recount is needed when the institution has never been recounted or a
+     * counter is negative, and negative counters are not reported as numbers of users.
+     *
+     * @param institution the institution.
+     * @return the number of users of the institution and of each of its roles, all zero when no user has been counted.
+     */
+    public InstitutionStatsDto getInstitutionStats(String institution) {
+        Item item = table.getItem(statsKey(institution));
+        Map<String, Long> counters = counters(item);
+        Map<String, Long> usersPerRole = new TreeMap<>();
+        counters.forEach((counter, count) -> {
+            if (counter.startsWith(ROLE_COUNT_FIELD_PREFIX) && count > 0) {
+                usersPerRole.put(counter.substring(ROLE_COUNT_FIELD_PREFIX.length()), count);
+            }
+        });
+        long userCount = counters.getOrDefault(USER_COUNT_FIELD, 0L);
+        boolean negativeCounters = counters.values().stream().anyMatch(count -> count < 0);
+        boolean recountNeeded = isNull(item) || !item.hasAttribute(RECOUNTED_FIELD) || negativeCounters;
+        return InstitutionStatsDto.of(institution, Math.max(userCount, 0L), usersPerRole, recountNeeded);
+    }
+
+    /**
+     * The primary hash and range key of the counters of an institution.
+     *
+     * @param institution the institution.
+     * @return the key, which is the type of the counters followed by the institution.
+     */
+    public static String primaryKeyOfInstitution(String institution) {
+        return String.join(DynamoEntryWithRangeKey.FIELD_DELIMITER, TYPE, institution);
+    }
+
+    /*Roles that all users of the institution have lost keep a counter of zero until the institution is recounted*/
+    static Map<String, Long> counters(Item item) {
+        Map<String, Object> attributes = nonNull(item) ? item.asMap() : Collections.emptyMap();
+        Map<String, Long> counters = new TreeMap<>();
+        attributes.forEach((name, value) -> {
+            if (USER_COUNT_FIELD.equals(name) || name.startsWith(ROLE_COUNT_FIELD_PREFIX)) {
+                counters.put(name, ((Number) value).longValue());
+            }
+        });
+        return counters;
+    }
+
+    static void count(Map<String, Map<String, Long>> deltas, UserDb user, long delta) {
+        if (isNull(user) || StringUtils.isBlank(user.getInstitution())) {
+            return;
+        }
+        Map<String, Long> counters = deltas.computeIfAbsent(user.getInstitution(), institution -> new TreeMap<>());
+        counters.merge(USER_COUNT_FIELD, delta, Long::sum);
+        user.getRoles().stream()
+            .map(RoleDb::getName)
+            .distinct()
+            .forEach(roleName -> counters.merge(ROLE_COUNT_FIELD_PREFIX + roleName, delta, Long::sum));
+    }
+
+    private List<UpdateItemRequest> updates(Map<String, Map<String, Long>> deltas) {
+        List<UpdateItemRequest> updates = new ArrayList<>();
+        deltas.forEach((institution, counters) -> {
+            counters.values().removeIf(delta -> delta == 0);
+            if (!counters.isEmpty()) {
+                updates.add(update(institution, counters));
+            }
+        });
+        return updates;
+    }
+
+    /*The type is set on every update, since the first ADD creates the item*/
+    private UpdateItemRequest update(String institution, Map<String, Long> counters) {
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        names.put(TYPE_NAME_PLACEHOLDER, DynamoEntryCodec.TYPE_FIELD);
+        values.put(TYPE_VALUE_PLACEHOLDER, new AttributeValue(TYPE));
+        names.put(COUNTER_UPDATES_PLACEHOLDER, COUNTER_UPDATES_FIELD);
+        values.put(ONE_PLACEHOLDER, numberValue(1L));
+        List<String> additions = new ArrayList<>();
+        additions.add(COUNTER_UPDATES_PLACEHOLDER + " " + ONE_PLACEHOLDER);
+        for (Map.Entry<String, Long> counter : counters.entrySet()) {
+            String name = COUNTER_NAME_PLACEHOLDER_PREFIX + additions.size();
+            String value = DELTA_VALUE_PLACEHOLDER_PREFIX + additions.size();
+            names.put(name, counter.getKey());
+            values.put(value, numberValue(counter.getValue()));
+            additions.add(name + " " + value);
+        }
+        return new UpdateItemRequest()
+            .withTableName(table.getTableName())
+            .withKey(toAttributeValues(statsKey(institution)))
+            .withUpdateExpression("SET " + TYPE_NAME_PLACEHOLDER + " = " + TYPE_VALUE_PLACEHOLDER
+                + " ADD " + String.join(", ", additions))
+            .withExpressionAttributeNames(names)
+            .withExpressionAttributeValues(values);
+    }
+
+    static AttributeValue numberValue(long number) {
+        return new AttributeValue().withN(String.valueOf(number));
+    }
+
+    static PrimaryKey statsKey(String institution) {
+        String key = primaryKeyOfInstitution(institution);
+        return new PrimaryKey(PRIMARY_KEY_HASH_KEY, key, PRIMARY_KEY_RANGE_KEY, key);
+    }
+
+    /*The user has already been written, so a failed update leaves the counters behind instead of failing the write*/
+    private void updateItem(UpdateItemRequest update) {
+        try {
+            client.updateItem(update);
+        } catch (AmazonClientException e) {
+            logger.warn(COUNTER_UPDATE_FAILURE_WARNING + update.getKey(), e);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
+import com.amazonaws.services.dynamodbv2.document.RangeKeyCondition;
+import com.amazonaws.services.dynamodbv2.document.Table;
+import com.amazonaws.services.dynamodbv2.document.spec.DeleteItemSpec;
+import com.amazonaws.services.dynamodbv2.document.spec.QuerySpec;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import no.unit.nva.useraccessmanagement.dao.DynamoEntryCodec;
+import no.unit.nva.useraccessmanagement.dao.DynamoEntryWithRangeKey;
+import no.unit.nva.useraccessmanagement.dao.NameTokenDb;
+import no.unit.nva.useraccessmanagement.dao.UserDb;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import nva.commons.core.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Maintains and queries the {@link NameTokenDb} tokens, which index the users of each institution by the words of
+ * their given and family names.
+ *
+ * <p>Like the {@link RoleMembershipService} edges, the tokens of a user are written and deleted after the user has
+ * been written, so a write of a user that fails its condition changes no tokens. Users whose current names no longer
+ * match the query are filtered out when the users are searched. Missing tokens are written by the {@link
+ * UserIndexBackfill}.
+ */
+public class NameTokenService extends DatabaseSubService {
+
+    public static final int MAX_QUERY_WORDS = 5;
+    public static final int MAX_TOKENS_READ_PER_WORD = 1000;
+    public static final int EXACT_MATCH_SCORE = 2;
+    public static final int PREFIX_MATCH_SCORE = 1;
+    public static final String EMPTY_NAME_QUERY_ERROR = "Name query should contain at least one letter or digit: ";
+    public static final String TOO_MANY_QUERY_WORDS_ERROR =
+        "Name query should contain at most " + MAX_QUERY_WORDS + " words: ";
+    public static final String WRITTEN_VERSION_PLACEHOLDER = ":writtenVersion";
+    public static final String TOKEN_IS_NOT_NEWER_CONDITION = "attribute_not_exists(" + VERSION_NAME_PLACEHOLDER
+        + ") OR " + VERSION_NAME_PLACEHOLDER + " <= " + WRITTEN_VERSION_PLACEHOLDER;
+    public static final String KEPT_NAME_TOKEN_DEBUG_MESSAGE = "Kept name token written by a later update: ";
+
+    private static final Logger logger = LoggerFactory.getLogger(NameTokenService.class);
+
+    public NameTokenService(Table table, AmazonDynamoDB client) {
+        super(table, client);
+    }
+
+    /**
+     * Writes the tokens of the names of a user. Existing tokens are overwritten.
+     *
+     * @param user the user, with the version that has been written.
+     */
+    public void addTokens(UserDb user) {
+        addTokens(List.of(user));
+    }
+
+    /**
+     * Writes the tokens of the names of multiple users with as few BatchWriteItem requests as possible. Existing tokens
+     * are overwritten.
+     *
+     * @param users the users, with the versions that have been written.
+     */
+    public void addTokens(Collection<UserDb> users) {
+        List<Item> tokens = users.stream()
+            .flatMap(user -> nameTokens(user).stream())
+            .map(NameTokenDb::toItem)
+            .collect(Collectors.toList());
+        batchWriteItems(tokens, Collections.emptyList());
+    }
+
+    /**
+     * Deletes the tokens of the words that the names of a user had before an update and do not have after it, and all
+     * the tokens of the old institution when the user has moved. A token is kept when it has been written for a later
+     * version of the user than the written one.
+     *
+     * @param oldUser     the user before the update, or {@code null} if there was no user.
+     * @param writtenUser the user that was written.
+     */
+    public void removeTokens(UserDb oldUser, UserDb writtenUser) {
+        if (isNull(oldUser)) {
+            return;
+        }
+        Set<String> writtenKeys = nameTokens(writtenUser).stream()
+            .map(NameTokenService::tokenKey)
+            .collect(Collectors.toSet());
+        nameTokens(oldUser).stream()
+            .filter(token -> !writtenKeys.contains(tokenKey(token)))
+            .forEach(token -> deleteUnlessNewer(token, writtenUser.getVersion()));
+    }
+
+    /**
+     * Searches the users of an institution by name. Every word of the query is matched against the words of the given
+     * and family names of the users, with a {@code begins_with} query on the tokens of the institution. A word that
+     * equals a word of the names scores {@link #EXACT_MATCH_SCORE}, a word that is the start of a word of the names
+     * scores {@link #PREFIX_MATCH_SCORE}, and the users are ordered by their total score and then by username.
+     *
+     * <p>At most {@link #MAX_TOKENS_READ_PER_WORD} tokens are read for each word of the query, so very short words at
+     * large institutions may not find all users.
+     *
+     * @param institution the institution.
+     * @param query       the words to search for.
+     * @param limit       the maximum number of users.
+     * @return the matching users, best match first.
+     * @throws InvalidInputException when the query has no words or more than {@link #MAX_QUERY_WORDS} words.
+     */
+    public List<UserDb> searchUsers(String institution, String query, int limit) throws InvalidInputException {
+        List<String> queryWords = queryWords(query);
+        Map<String, Set<String>> matchedTokensByUsername = new HashMap<>();
+        for (String queryWord : queryWords) {
+            for (NameTokenDb token : tokensStartingWith(institution, queryWord)) {
+                matchedTokensByUsername.computeIfAbsent(token.getUsername(), username -> new HashSet<>())
+                    .add(token.getToken());
+            }
+        }
+        List<String> candidates = matchedTokensByUsername.keySet().stream()
+            .sorted(Comparator.comparing(
+                (String username) -> score(matchedTokensByUsername.get(username), queryWords)).reversed()
+                .thenComparing(Comparator.naturalOrder()))
+            .collect(Collectors.toList());
+        return fetchMatchingUsers(institution, candidates, queryWords, limit);
+    }
+
+    /**
+     * The score of names for a query.
+     *
+     * @param nameTokens the tokens of the names.
+     * @param queryWords the tokens of the query.
+     * @return the sum of the scores of the words of the query, {@code 0} when no word matches.
+     */
+    public static int score(Collection<String> nameTokens, List<String> queryWords) {
+        int score = 0;
+        for (String queryWord : queryWords) {
+            if (nameTokens.contains(queryWord)) {
+                score += EXACT_MATCH_SCORE;
+            } else if (nameTokens.stream().anyMatch(token -> token.startsWith(queryWord))) {
+                score += PREFIX_MATCH_SCORE;
+            }
+        }
+        return score;
+    }
+
+    /*Candidates are verified in rank order, one batch of the limit at a time, until enough users still match*/
+    private List<UserDb> fetchMatchingUsers(String institution, List<String> candidates, List<String> queryWords,
+                                            int limit) {
+        List<UserDb> matchingUsers = new ArrayList<>();
+        for (List<String> batch : partition(candidates, limit)) {
+            List<PrimaryKey> userKeys = batch.stream().map(NameTokenService::userKey).collect(Collectors.toList());
+            batchGetItems(userKeys).stream()
+                .map(item -> UserDb.fromItem(item))
+                .filter(user -> institution.equals(user.getInstitution()))
+                .filter(user -> score(tokensOfNames(user), queryWords) > 0)
+                .forEach(matchingUsers::add);
+            if (matchingUsers.size() >= limit) {
+                break;
+            }
+        }
+        return matchingUsers.stream()
+            .sorted(Comparator.comparing((UserDb user) -> score(tokensOfNames(user), queryWords)).reversed()
+                .thenComparing(UserDb::getUsername))
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    private List<NameTokenDb> tokensStartingWith(String institution, String queryWord) {
+        QuerySpec query = new QuerySpec()
+            .withHashKey(PRIMARY_KEY_HASH_KEY, NameTokenDb.primaryHashKeyOfInstitution(institution))
+            .withRangeKeyCondition(new RangeKeyCondition(PRIMARY_KEY_RANGE_KEY).beginsWith(queryWord))
+            .withMaxResultSize(MAX_TOKENS_READ_PER_WORD)
+            .withConsistentRead(false);
+        return StreamSupport.stream(table.query(query).spliterator(), false)
+            .map(NameTokenDb::fromItem)
+            .collect(Collectors.toList());
+    }
+
+    private void deleteUnlessNewer(NameTokenDb token, Long writtenVersion) {
+        DeleteItemSpec deleteItemSpec = new DeleteItemSpec()
+            .withPrimaryKey(primaryKey(token))
+            .withConditionExpression(TOKEN_IS_NOT_NEWER_CONDITION)
+            .withNameMap(Map.of(VERSION_NAME_PLACEHOLDER, DynamoEntryCodec.VERSION_FIELD))
+            .withValueMap(Map.of(WRITTEN_VERSION_PLACEHOLDER, writtenVersion));
+        try {
+            table.deleteItem(deleteItemSpec);
+        } catch (ConditionalCheckFailedException e) {
+            logger.debug("{}{}, {}", KEPT_NAME_TOKEN_DEBUG_MESSAGE, token.getPrimaryHashKey(),
+                token.getPrimaryRangeKey());
+        }
+    }
+
+    private static List<String> queryWords(String query) throws InvalidInputException {
+        List<String> queryWords = new ArrayList<>(NameTokenDb.tokensOf(query));
+        if (queryWords.isEmpty()) {
+            throw new InvalidInputException(EMPTY_NAME_QUERY_ERROR + query);
+        }
+        if (queryWords.size() > MAX_QUERY_WORDS) {
+            throw new InvalidInputException(TOO_MANY_QUERY_WORDS_ERROR + query);
+        }
+        return queryWords;
+    }
+
+    /*Users without institution cannot be searched, since the tokens are stored in the partition of the institution*/
+    private static List<NameTokenDb> nameTokens(UserDb user) {
+        if (StringUtils.isBlank(user.getInstitution())) {
+            return Collections.emptyList();
+        }
+        return tokensOfNames(user).stream()
+            .map(token -> nameToken(user, token))
+            .collect(Collectors.toList());
+    }
+
+    private static NameTokenDb nameToken(UserDb user, String token) {
+        NameTokenDb nameToken = NameTokenDb.of(user.getInstitution(), token, user.getUsername());
+        nameToken.setUserVersion(user.getVersion());
+        return nameToken;
+    }
+
+    private static Set<String> tokensOfNames(UserDb user) {
+        return NameTokenDb.tokensOf(user.getGivenName(), user.getFamilyName());
+    }
+
+    private static String tokenKey(NameTokenDb token) {
+        return token.getPrimaryHashKey() + DynamoEntryWithRangeKey.FIELD_DELIMITER + token.getPrimaryRangeKey();
+    }
+
+    /*The primary hash and range keys of a user are both the type of the user followed by the username*/
+    private static PrimaryKey userKey(String username) {
+        String key = String.join(DynamoEntryWithRangeKey.FIELD_DELIMITER, UserDb.TYPE, username);
+        return new PrimaryKey(PRIMARY_KEY_HASH_KEY, key, PRIMARY_KEY_RANGE_KEY, key);
+    }
+}
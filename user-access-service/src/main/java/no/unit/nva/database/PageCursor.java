@@ -0,0 +1,76 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static nva.commons.core.JsonUtils.objectMapper;
+import static nva.commons.core.attempt.Try.attempt;
+import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.fasterxml.jackson.core.type.TypeReference;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+
+/**
+ * Converts the {@code LastEvaluatedKey} of a DynamoDB query to an opaque URL-safe string and back. Only keys with
+ * string values are supported, which is the case for all the keys of the UsersAndRoles table and its indices.
+ */
+public final class PageCursor {
+
+    public static final String INVALID_CURSOR_ERROR = "Invalid cursor: ";
+    private static final TypeReference<Map<String, String>> KEY_TYPE = new TypeReference<>() {
+    };
+
+    private PageCursor() {
+    }
+
+    /**
+     * Encodes the last evaluated key of a query.
+     *
+     * @param lastEvaluatedKey the last evaluated key as returned by DynamoDB.
+     * @return the cursor or {@code null} when there is no last evaluated key.
+     */
+    public static String encode(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (isNull(lastEvaluatedKey) || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+        Map<String, String> keyValues = new TreeMap<>();
+        lastEvaluatedKey.forEach((name, value) -> keyValues.put(name, value.getS()));
+        byte[] json = attempt(() -> objectMapper.writeValueAsBytes(keyValues))
+            .orElseThrow(fail -> new IllegalStateException(fail.getException()));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+    }
+
+    /**
+     * Decodes a cursor to the key values it was created from.
+     *
+     * @param cursor           the cursor.
+     * @param expectedKeyNames the attribute names that the key of the queried table or index consists of.
+     * @return the key values by attribute name.
+     * @throws InvalidInputException when the cursor was not created by {@link #encode(Map)} for the same key.
+     */
+    public static Map<String, String> decode(String cursor, Set<String> expectedKeyNames)
+        throws InvalidInputException {
+        Map<String, String> keyValues = attempt(() -> Base64.getUrlDecoder().decode(cursor))
+            .map(json -> objectMapper.readValue(new String(json, StandardCharsets.UTF_8), KEY_TYPE))
+            .orElseThrow(fail -> new InvalidInputException(INVALID_CURSOR_ERROR + cursor));
+        if (isNull(keyValues) || !keyValues.keySet().equals(expectedKeyNames) || keyValues.containsValue(null)) {
+            throw new InvalidInputException(INVALID_CURSOR_ERROR + cursor);
+        }
+        return keyValues;
+    }
+
+    /**
+     * Creates the exclusive start key of a query from decoded key values.
+     *
+     * @param keyValues the key values as returned by {@link #decode(String, Set)}.
+     * @return a {@link PrimaryKey} to be used as exclusive start key.
+     */
+    public static PrimaryKey toExclusiveStartKey(Map<String, String> keyValues) {
+        PrimaryKey startKey = new PrimaryKey();
+        keyValues.forEach(startKey::addComponent);
+        return startKey;
+    }
+}
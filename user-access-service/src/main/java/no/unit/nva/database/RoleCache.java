@@ -0,0 +1,197 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static nva.commons.core.attempt.Try.attempt;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import no.unit.nva.useraccessmanagement.dao.RoleDb;
+import nva.commons.core.Environment;
+import nva.commons.core.attempt.Failure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded in-memory cache of {@link RoleDb} entries by role name. Roles change rarely, so a cache living as long as the
+ * Lambda container saves a database read for almost every role lookup. Entries expire after a configurable time, so
+ * role changes made by other containers become visible to {@link #get(String)} after at most one TTL.
+ *
+ * <p>The roles that are copied into users must not be older than the last role update of any container. They are
+ * cached together with the role generation that was read before they were fetched, and {@link #get(String, long)}
+ * returns them only while the generation is unchanged, see {@link RoleService#fetchRoleDaos}.
+ */
+public class RoleCache {
+
+    public static final String ROLE_CACHE_TTL_ENV_VARIABLE = "ROLE_CACHE_TTL_SECONDS";
+    public static final String ROLE_CACHE_MAX_ENTRIES_ENV_VARIABLE = "ROLE_CACHE_MAX_ENTRIES";
+    public static final long DEFAULT_TTL_SECONDS = 300;
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    public static final String INVALID_CACHE_SETTING_WARNING = "Invalid role cache setting, using default value: ";
+    public static final long UNKNOWN_GENERATION = -1L;
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleCache.class);
+    private static final boolean ACCESS_ORDER = true;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Map<String, CacheEntry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Object lock = new Object();
+
+    /**
+     * Creates a cache.
+     *
+     * @param ttl        the time an entry is considered fresh.
+     * @param maxEntries the maximum number of entries. The least recently used entry is evicted when exceeded.
+     * @param clock      the clock used for checking the expiration of entries.
+     */
+    public RoleCache(Duration ttl, int maxEntries, Clock clock) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, ACCESS_ORDER) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > RoleCache.this.maxEntries;
+            }
+        };
+    }
+
+    public static RoleCache withDefaults() {
+        return new RoleCache(Duration.ofSeconds(DEFAULT_TTL_SECONDS), DEFAULT_MAX_ENTRIES, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a cache with TTL and size read from the environment variables {@link #ROLE_CACHE_TTL_ENV_VARIABLE} and
+     * {@link #ROLE_CACHE_MAX_ENTRIES_ENV_VARIABLE}. Missing or invalid values are replaced by the defaults.
+     *
+     * @param environment the environment.
+     * @return a {@link RoleCache}.
+     */
+    public static RoleCache fromEnvironment(Environment environment) {
+        long ttlSeconds = readNumber(environment, ROLE_CACHE_TTL_ENV_VARIABLE).orElse(DEFAULT_TTL_SECONDS);
+        int maxEntries = readNumber(environment, ROLE_CACHE_MAX_ENTRIES_ENV_VARIABLE)
+            .map(Long::intValue)
+            .orElse(DEFAULT_MAX_ENTRIES);
+        return new RoleCache(Duration.ofSeconds(ttlSeconds), maxEntries, Clock.systemUTC());
+    }
+
+    /**
+     * Returns the cached role if there is a fresh entry for the role name.
+     *
+     * @param roleName the role name.
+     * @return the cached role or empty when there is no fresh entry.
+     */
+    public Optional<RoleDb> get(String roleName) {
+        return find(roleName, entry -> true);
+    }
+
+    /**
+     * Returns the cached role if there is a fresh entry for the role name that was cached in the given role generation.
+     *
+     * @param roleName   the role name.
+     * @param generation the current role generation.
+     * @return the cached role or empty when there is no fresh entry of the generation.
+     */
+    public Optional<RoleDb> get(String roleName, long generation) {
+        return find(roleName, entry -> entry.generation == generation);
+    }
+
+    /**
+     * Adds or replaces a role in the cache, without role generation. The role is returned only by {@link #get(String)}.
+     *
+     * @param role the role as it is stored in the database.
+     */
+    public void put(RoleDb role) {
+        put(role, UNKNOWN_GENERATION);
+    }
+
+    /**
+     * Adds or replaces a role in the cache.
+     *
+     * @param role       the role as it is stored in the database.
+     * @param generation the role generation that was read before the role was fetched with a consistent read.
+     */
+    public void put(RoleDb role, long generation) {
+        if (isDisabled() || isNull(role.getName())) {
+            return;
+        }
+        synchronized (lock) {
+            entries.put(role.getName(), new CacheEntry(role, clock.instant().plus(ttl), generation));
+        }
+    }
+
+    public void invalidate(String roleName) {
+        synchronized (lock) {
+            entries.remove(roleName);
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private Optional<RoleDb> find(String roleName, Predicate<CacheEntry> usable) {
+        synchronized (lock) {
+            CacheEntry entry = entries.get(roleName);
+            if (nonNull(entry) && entry.isExpired(clock.instant())) {
+                entries.remove(roleName);
+            } else if (nonNull(entry) && usable.test(entry)) {
+                hits.incrementAndGet();
+                return Optional.of(entry.role);
+            }
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+    }
+
+    private boolean isDisabled() {
+        return maxEntries <= 0 || ttl.isZero() || ttl.isNegative();
+    }
+
+    private static Optional<Long> readNumber(Environment environment, String variableName) {
+        return environment.readEnvOpt(variableName)
+            .flatMap(value -> attempt(() -> Long.parseLong(value)).toOptional(RoleCache::logInvalidSetting));
+    }
+
+    private static <T> void logInvalidSetting(Failure<T> failure) {
+        logger.warn(INVALID_CACHE_SETTING_WARNING + failure.getException().getMessage());
+    }
+
+    private static class CacheEntry {
+
+        private final RoleDb role;
+        private final Instant expiresAt;
+        private final long generation;
+
+        public CacheEntry(RoleDb role, Instant expiresAt, long generation) {
+            this.role = role;
+            this.expiresAt = expiresAt;
+            this.generation = generation;
+        }
+
+        public boolean isExpired(Instant now) {
+            return !now.isBefore(expiresAt);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package no.unit.nva.database;
+
+import java.util.List;
+import java.util.Optional;
+import no.unit.nva.useraccessmanagement.dao.UserDb;
+
+/**
+ * One page of the users that have a role. The cursor is present only when there may be more users after this page.
+ */
+public class RoleMembersPage {
+
+    private final List<UserDb> members;
+    private final String nextCursor;
+
+    public RoleMembersPage(List<UserDb> members, String nextCursor) {
+        this.members = members;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<UserDb> getMembers() {
+        return members;
+    }
+
+    public Optional<String> getNextCursor() {
+        return Optional.ofNullable(nextCursor);
+    }
+}
@@ -0,0 +1,198 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.ItemCollection;
+import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
+import com.amazonaws.services.dynamodbv2.document.QueryOutcome;
+import com.amazonaws.services.dynamodbv2.document.RangeKeyCondition;
+import com.amazonaws.services.dynamodbv2.document.Table;
+import com.amazonaws.services.dynamodbv2.document.spec.DeleteItemSpec;
+import com.amazonaws.services.dynamodbv2.document.spec.QuerySpec;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import no.unit.nva.useraccessmanagement.dao.DynamoEntryCodec;
+import no.unit.nva.useraccessmanagement.dao.RoleDb;
+import no.unit.nva.useraccessmanagement.dao.RoleMembershipDb;
+import no.unit.nva.useraccessmanagement.dao.UserDb;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Maintains and queries the {@link RoleMembershipDb} edges, which index the users by role.
+ *
+ * <p>The edges of a user are written and deleted after the user has been written, so a write of a user that fails its
+ * condition changes no edges. Edges of users that no longer have the role are filtered out when the members are
+ * listed. Users that were written before the edges existed, or whose edges could not be written after the user, get
+ * their edges from the {@link UserIndexBackfill}.
+ */
+public class RoleMembershipService extends DatabaseSubService {
+
+    public static final Set<String> MEMBERSHIP_KEY_NAMES = Set.of(PRIMARY_KEY_HASH_KEY, PRIMARY_KEY_RANGE_KEY);
+    public static final String WRITTEN_VERSION_PLACEHOLDER = ":writtenVersion";
+    public static final String EDGE_IS_NOT_NEWER_CONDITION = "attribute_not_exists(" + VERSION_NAME_PLACEHOLDER + ")"
+        + " OR " + VERSION_NAME_PLACEHOLDER + " <= " + WRITTEN_VERSION_PLACEHOLDER;
+    public static final String KEPT_MEMBERSHIP_DEBUG_MESSAGE = "Kept membership written by a later update: ";
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleMembershipService.class);
+
+    public RoleMembershipService(Table table, AmazonDynamoDB client) {
+        super(table, client);
+    }
+
+    /**
+     * Writes the edges of all the roles of a user. Existing edges are overwritten.
+     *
+     * @param user the user, with the version that has been written.
+     */
+    public void addMemberships(UserDb user) {
+        addMemberships(List.of(user));
+    }
+
+    /**
+     * Writes the edges of all the roles of multiple users with as few BatchWriteItem requests as possible. Existing
+     * edges are overwritten.
+     *
+     * @param users the users, with the versions that have been written.
+     */
+    public void addMemberships(Collection<UserDb> users) {
+        List<Item> edges = users.stream()
+            .flatMap(user -> user.getRoles().stream().map(role -> membership(role.getName(), user)))
+            .distinct()
+            .map(RoleMembershipDb::toItem)
+            .collect(Collectors.toList());
+        batchWriteItems(edges, Collections.emptyList());
+    }
+
+    /**
+     * Deletes the edges of the roles that a user had before an update and does not have after it. An edge is kept when
+     * it has been written for a later version of the user than the written one, since the later version may have the
+     * role again.
+     *
+     * @param oldUser     the user before the update, or {@code null} if there was no user.
+     * @param writtenUser the user that was written.
+     */
+    public void removeMemberships(UserDb oldUser, UserDb writtenUser) {
+        for (String roleName : removedRoles(oldUser, writtenUser)) {
+            deleteUnlessNewer(RoleMembershipDb.of(roleName, writtenUser.getUsername()), writtenUser.getVersion());
+        }
+    }
+
+    /**
+     * One page of the users that have a role. The page is read with a single query of at most {@code pageSize} edges,
+     * and the users are fetched with BatchGetItem. The users are ordered by username, and a page may contain fewer
+     * users than the page size even when there are more pages, since edges of users that no longer have the role are
+     * left out.
+     *
+     * @param roleName the name of the role.
+     * @param pageSize the maximum number of edges that are read.
+     * @param cursor   the cursor returned with the previous page, or {@code null} for the first page.
+     * @return the users of the page and the cursor of the next page.
+     * @throws InvalidInputException when the cursor is not a cursor of the same role.
+     */
+    public RoleMembersPage listMembers(String roleName, int pageSize, String cursor) throws InvalidInputException {
+        QuerySpec query = new QuerySpec()
+            .withHashKey(PRIMARY_KEY_HASH_KEY, RoleMembershipDb.primaryHashKeyOfRole(roleName))
+            .withRangeKeyCondition(
+                new RangeKeyCondition(PRIMARY_KEY_RANGE_KEY).beginsWith(RoleMembershipDb.USER_KEY_PREFIX))
+            .withMaxResultSize(pageSize)
+            .withConsistentRead(false);
+        if (nonNull(cursor)) {
+            query.withExclusiveStartKey(startKeyFromCursor(roleName, cursor));
+        }
+        ItemCollection<QueryOutcome> edges = table.query(query);
+        List<RoleMembershipDb> memberships = StreamSupport.stream(edges.spliterator(), false)
+            .map(RoleMembershipDb::fromItem)
+            .collect(Collectors.toList());
+        return new RoleMembersPage(fetchMembers(roleName, memberships), PageCursor.encode(lastEvaluatedKey(edges)));
+    }
+
+    private List<UserDb> fetchMembers(String roleName, List<RoleMembershipDb> memberships) {
+        List<PrimaryKey> userKeys = memberships.stream()
+            .map(RoleMembershipService::userKey)
+            .collect(Collectors.toList());
+        Map<String, UserDb> usersByUsername = batchGetItems(userKeys).stream()
+            .map(item -> UserDb.fromItem(item))
+            .collect(Collectors.toMap(UserDb::getUsername, Function.identity()));
+        return memberships.stream()
+            .map(membership -> usersByUsername.get(membership.getUsername()))
+            .filter(Objects::nonNull)
+            .filter(user -> hasRole(user, roleName))
+            .collect(Collectors.toList());
+    }
+
+    private void deleteUnlessNewer(RoleMembershipDb membership, Long writtenVersion) {
+        DeleteItemSpec deleteItemSpec = new DeleteItemSpec()
+            .withPrimaryKey(primaryKey(membership))
+            .withConditionExpression(EDGE_IS_NOT_NEWER_CONDITION)
+            .withNameMap(Map.of(VERSION_NAME_PLACEHOLDER, DynamoEntryCodec.VERSION_FIELD))
+            .withValueMap(Map.of(WRITTEN_VERSION_PLACEHOLDER, writtenVersion));
+        try {
+            table.deleteItem(deleteItemSpec);
+        } catch (ConditionalCheckFailedException e) {
+            logger.debug("{}{}, {}", KEPT_MEMBERSHIP_DEBUG_MESSAGE, membership.getPrimaryHashKey(),
+                membership.getPrimaryRangeKey());
+        }
+    }
+
+    private static Set<String> removedRoles(UserDb oldUser, UserDb writtenUser) {
+        if (isNull(oldUser)) {
+            return Collections.emptySet();
+        }
+        Set<String> writtenRoles = roleNames(writtenUser.getRoles());
+        return roleNames(oldUser.getRoles()).stream()
+            .filter(roleName -> !writtenRoles.contains(roleName))
+            .collect(Collectors.toSet());
+    }
+
+    private static Set<String> roleNames(Collection<RoleDb> roles) {
+        return roles.stream().map(RoleDb::getName).collect(Collectors.toSet());
+    }
+
+    private static boolean hasRole(UserDb user, String roleName) {
+        return user.getRoles().stream().anyMatch(role -> roleName.equals(role.getName()));
+    }
+
+    private static RoleMembershipDb membership(String roleName, UserDb user) {
+        RoleMembershipDb membership = RoleMembershipDb.of(roleName, user.getUsername());
+        membership.setUserVersion(user.getVersion());
+        return membership;
+    }
+
+    /*The range key of an edge is the primary key of the user, which has the same hash and range key*/
+    private static PrimaryKey userKey(RoleMembershipDb membership) {
+        return new PrimaryKey(PRIMARY_KEY_HASH_KEY, membership.getPrimaryRangeKey(),
+            PRIMARY_KEY_RANGE_KEY, membership.getPrimaryRangeKey());
+    }
+
+    private static PrimaryKey startKeyFromCursor(String roleName, String cursor) throws InvalidInputException {
+        Map<String, String> keyValues = PageCursor.decode(cursor, MEMBERSHIP_KEY_NAMES);
+        if (!RoleMembershipDb.primaryHashKeyOfRole(roleName).equals(keyValues.get(PRIMARY_KEY_HASH_KEY))) {
+            throw new InvalidInputException(PageCursor.INVALID_CURSOR_ERROR + cursor);
+        }
+        return PageCursor.toExclusiveStartKey(keyValues);
+    }
+
+    private static Map<String, AttributeValue> lastEvaluatedKey(ItemCollection<QueryOutcome> edges) {
+        return Optional.ofNullable(edges.getLastLowLevelResult())
+            .map(QueryOutcome::getQueryResult)
+            .map(QueryResult::getLastEvaluatedKey)
+            .orElse(null);
+    }
+}
@@ -0,0 +1,39 @@
+package no.unit.nva.database;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The outcome of one run of the propagation of a role to the users. When the run stopped before all users were
+ * checked, the checkpoint is present and the propagation can be resumed from it. The checkpoint is opaque to the
+ * clients. The users that could not be updated are listed by username, and they are updated by a later run of the
+ * propagation from the beginning.
+ */
+public class RolePropagationResult {
+
+    private final int updatedUsers;
+    private final List<String> failedUsers;
+    private final String checkpoint;
+
+    public RolePropagationResult(int updatedUsers, List<String> failedUsers, String checkpoint) {
+        this.updatedUsers = updatedUsers;
+        this.failedUsers = List.copyOf(failedUsers);
+        this.checkpoint = checkpoint;
+    }
+
+    public int getUpdatedUsers() {
+        return updatedUsers;
+    }
+
+    public List<String> getFailedUsers() {
+        return failedUsers;
+    }
+
+    public Optional<String> getCheckpoint() {
+        return Optional.ofNullable(checkpoint);
+    }
+
+    public boolean isComplete() {
+        return getCheckpoint().isEmpty();
+    }
+}
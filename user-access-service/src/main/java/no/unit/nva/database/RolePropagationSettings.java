@@ -0,0 +1,75 @@
+package no.unit.nva.database;
+
+import static nva.commons.core.attempt.Try.attempt;
+import java.util.Optional;
+import nva.commons.core.Environment;
+import nva.commons.core.attempt.Failure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Limits of the propagation of a role to the users: how many entries are read from the table in each batch and how
+ * many users are written in parallel. The parallelism bounds the write throughput of a propagation, so that it does not
+ * starve the requests of the other handlers sharing the table capacity.
+ */
+public class RolePropagationSettings {
+
+    public static final String BATCH_SIZE_ENV_VARIABLE = "ROLE_PROPAGATION_BATCH_SIZE";
+    public static final String PARALLELISM_ENV_VARIABLE = "ROLE_PROPAGATION_PARALLELISM";
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_PARALLELISM = 8;
+    public static final String INVALID_PROPAGATION_SETTING_WARNING =
+        "Invalid role propagation setting, using default value: ";
+
+    private static final Logger logger = LoggerFactory.getLogger(RolePropagationSettings.class);
+
+    private final int batchSize;
+    private final int parallelism;
+
+    /**
+     * Creates the settings.
+     *
+     * @param batchSize   the maximum number of table entries read in each batch.
+     * @param parallelism the maximum number of users written at the same time.
+     */
+    public RolePropagationSettings(int batchSize, int parallelism) {
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+    }
+
+    public static RolePropagationSettings withDefaults() {
+        return new RolePropagationSettings(DEFAULT_BATCH_SIZE, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Creates the settings from the environment variables {@link #BATCH_SIZE_ENV_VARIABLE} and {@link
+     * #PARALLELISM_ENV_VARIABLE}. Missing, invalid or non-positive values are replaced by the defaults.
+     *
+     * @param environment the environment.
+     * @return a {@link RolePropagationSettings}.
+     */
+    public static RolePropagationSettings fromEnvironment(Environment environment) {
+        return new RolePropagationSettings(
+            readNumber(environment, BATCH_SIZE_ENV_VARIABLE).orElse(DEFAULT_BATCH_SIZE),
+            readNumber(environment, PARALLELISM_ENV_VARIABLE).orElse(DEFAULT_PARALLELISM));
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    private static Optional<Integer> readNumber(Environment environment, String variableName) {
+        return environment.readEnvOpt(variableName)
+            .flatMap(value -> attempt(() -> Integer.parseInt(value))
+                .toOptional(RolePropagationSettings::logInvalidSetting))
+            .filter(number -> number > 0);
+    }
+
+    private static <T> void logInvalidSetting(Failure<T> failure) {
+        logger.warn(INVALID_PROPAGATION_SETTING_WARNING + failure.getException().getMessage());
+    }
+}
@@ -0,0 +1,177 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.document.Table;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import no.unit.nva.useraccessmanagement.dao.RoleDb;
+import no.unit.nva.useraccessmanagement.dao.UserDb;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import nva.commons.apigateway.exceptions.ConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rewrites the copies of a role that are stored in the users, after the role has been updated.
+ *
+ * <p>The users that have the role are read in batches through the edges of the {@link RoleMembershipService}, so the
+ * table is not scanned. The users of a batch that have an outdated copy of the role are written in parallel, with at
+ * most {@link RolePropagationSettings#getParallelism()} concurrent writes. Every write is conditional on the version of
+ * the user, so a concurrent update of a user is never overwritten: the user is read again and the role is applied to
+ * the new version. Users whose copy of the role is already up to date are not
+ * written, so running the propagation again for the same role is harmless.
+ *
+ * <p>The propagation stops after the first batch that ends after the time budget has been used, and it returns a
+ * checkpoint from which it can be resumed. A user that cannot be written, for example because it keeps being updated
+ * concurrently, does not stop the propagation: the user is reported as failed in the result, and running the
+ * propagation again retries it.
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public class RolePropagator extends DatabaseSubService {
+
+    public static final int MAX_UPDATE_ATTEMPTS = 3;
+    public static final String PROPAGATION_FAILURE_ERROR = "Failed to propagate role to user: ";
+    public static final String PROPAGATION_INTERRUPTION_ERROR = "Interruption while propagating role: ";
+    public static final String PROPAGATION_DEBUG_MESSAGE = "Propagated role to users. Role, updated users: ";
+    public static final String PROPAGATION_FAILURE_WARNING = "Failed to propagate role. Role, user: ";
+
+    private static final Logger logger = LoggerFactory.getLogger(RolePropagator.class);
+
+    private final RolePropagationSettings settings;
+    private final RoleMembershipService roleMemberships;
+
+    public RolePropagator(Table table, AmazonDynamoDB client, RolePropagationSettings settings,
+                          RoleMembershipService roleMemberships) {
+        super(table, client);
+        this.settings = settings;
+        this.roleMemberships = roleMemberships;
+    }
+
+    /**
+     * Writes the role in all users that have a copy of the role that differs from it.
+     *
+     * @param role       the current version of the role.
+     * @param checkpoint the checkpoint returned by the previous run, or {@code null} for starting from the beginning.
+     * @param timeBudget the time after which no new batch is started. At least one batch is always processed.
+     * @return the number of updated users, the users that could not be updated and the checkpoint when there are
+     *     users left to check.
+     * @throws InvalidInputException when the checkpoint is not valid.
+     */
+    public RolePropagationResult propagate(RoleDb role, String checkpoint, Duration timeBudget)
+        throws InvalidInputException {
+        Instant deadline = Instant.now().plus(timeBudget);
+        ExecutorService executor = Executors.newFixedThreadPool(settings.getParallelism());
+        try {
+            int updatedUsers = 0;
+            List<String> failedUsers = new ArrayList<>();
+            String nextCheckpoint = checkpoint;
+            do {
+                RoleMembersPage batch =
+                    roleMemberships.listMembers(role.getName(), settings.getBatchSize(), nextCheckpoint);
+                updatedUsers += updateUsersOfBatch(executor, role, batch.getMembers(), failedUsers);
+                nextCheckpoint = batch.getNextCursor().orElse(null);
+            } while (nonNull(nextCheckpoint) && Instant.now().isBefore(deadline));
+            logger.debug("{}{}, {}", PROPAGATION_DEBUG_MESSAGE, role.getName(), updatedUsers);
+            return new RolePropagationResult(updatedUsers, failedUsers, nextCheckpoint);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int updateUsersOfBatch(ExecutorService executor, RoleDb role, List<UserDb> users,
+                                   List<String> failedUsers) {
+        Map<String, Future<Boolean>> updates = new LinkedHashMap<>();
+        for (UserDb user : users) {
+            if (hasOutdatedCopyOfRole(user, role)) {
+                updates.put(user.getUsername(), executor.submit(updateUserTask(user, role)));
+            }
+        }
+        int updatedUsers = 0;
+        for (Map.Entry<String, Future<Boolean>> update : updates.entrySet()) {
+            Optional<Boolean> updated = waitForUpdate(update.getValue(), role);
+            if (updated.isEmpty()) {
+                logger.warn("{}{}, {}", PROPAGATION_FAILURE_WARNING, role.getName(), update.getKey());
+                failedUsers.add(update.getKey());
+            } else if (updated.get()) {
+                updatedUsers++;
+            }
+        }
+        return updatedUsers;
+    }
+
+    private Callable<Boolean> updateUserTask(UserDb user, RoleDb role) {
+        return () -> updateUser(user, role);
+    }
+
+    /*A user that is still changed concurrently after the last attempt fails with the ConflictException*/
+    private boolean updateUser(UserDb user, RoleDb role) throws InvalidEntryInternalException, ConflictException {
+        UserDb currentUser = user;
+        for (int attempt = 1; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+            if (writeRoleIfUserIsUnchanged(currentUser, role)) {
+                return true;
+            }
+            currentUser = UserDb.fromItem(fetchItemWithConsistentRead(currentUser));
+            if (isNull(currentUser) || !hasOutdatedCopyOfRole(currentUser, role)) {
+                return false;
+            }
+        }
+        writeRole(currentUser, role);
+        return true;
+    }
+
+    private boolean writeRoleIfUserIsUnchanged(UserDb user, RoleDb role) throws InvalidEntryInternalException {
+        try {
+            writeRole(user, role);
+            return true;
+        } catch (ConflictException conflict) {
+            return false;
+        }
+    }
+
+    private void writeRole(UserDb user, RoleDb role) throws InvalidEntryInternalException, ConflictException {
+        putItemIfVersionMatches(withRole(user, role).toItem(), user.getVersion(),
+            PROPAGATION_FAILURE_ERROR + user.getUsername());
+    }
+
+    /*Empty when the update of the user failed. The failure is reported instead of stopping the propagation*/
+    private static Optional<Boolean> waitForUpdate(Future<Boolean> update, RoleDb role) {
+        try {
+            return Optional.of(update.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(PROPAGATION_INTERRUPTION_ERROR + role.getName(), e);
+        } catch (ExecutionException e) {
+            logger.warn(e.getCause().getMessage(), e.getCause());
+            return Optional.empty();
+        }
+    }
+
+    private static boolean hasOutdatedCopyOfRole(UserDb user, RoleDb role) {
+        return user.getRoles().stream()
+            .anyMatch(userRole -> role.getName().equals(userRole.getName()) && !role.equals(userRole));
+    }
+
+    private static UserDb withRole(UserDb user, RoleDb role) throws InvalidEntryInternalException {
+        List<RoleDb> roles = user.getRoles().stream()
+            .map(userRole -> role.getName().equals(userRole.getName()) ? role : userRole)
+            .collect(Collectors.toList());
+        return user.copy()
+            .withRoles(roles)
+            .withVersion(nextVersion(user.getVersion()))
+            .build();
+    }
+}
@@ -1,9 +1,24 @@
 package no.unit.nva.database;
 
 import static java.util.Objects.nonNull;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
 import com.amazonaws.services.dynamodbv2.document.Table;
+import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
+import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 import no.unit.nva.useraccessmanagement.dao.RoleDb;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
@@ -22,10 +37,19 @@ public class RoleService extends DatabaseSubService {
     public static final String GET_ROLE_DEBUG_MESSAGE = "Getting role:";
 
     public static final String ADD_ROLE_DEBUG_MESSAGE = "Adding role:";
+    public static final String UPDATE_ROLE_DEBUG_MESSAGE = "Updating role:";
+    public static final String ROLE_GENERATION_KEY = "ROLE_GENERATION";
+    public static final String GENERATION_FIELD = "generation";
+    public static final String GENERATION_NAME_PLACEHOLDER = "#generation";
+    public static final String GENERATION_INCREMENT_PLACEHOLDER = ":increment";
+    public static final long INITIAL_GENERATION = 0L;
     private static final Logger logger = LoggerFactory.getLogger(RoleService.class);
 
-    protected RoleService(Table table) {
-        super(table);
+    private final RoleCache roleCache;
+
+    protected RoleService(Table table, AmazonDynamoDB client, RoleCache roleCache) {
+        super(table, client);
+        this.roleCache = roleCache;
     }
 
     /**
@@ -34,16 +58,39 @@ public class RoleService extends DatabaseSubService {
      * @param roleDto the role to be added.
      * @throws ConflictException             when a role with the same name exists.
      * @throws InvalidInputException         when the input entry is not valid.
-     * @throws InvalidEntryInternalException when there is an entry in the database and that entry is not valid.
+     * @throws InvalidEntryInternalException when the input cannot be converted to a database entry.
      */
     public void addRole(RoleDto roleDto) throws ConflictException, InvalidInputException,
                                                 InvalidEntryInternalException {
 
-        logger.debug(ADD_ROLE_DEBUG_MESSAGE + convertToStringOrWriteErrorMessage(roleDto));
+        debugWithJson(logger, ADD_ROLE_DEBUG_MESSAGE, roleDto);
+
+        validate(roleDto);
+        putItemIfNotExists(RoleDb.fromRoleDto(roleDto).toItem(),
+            ROLE_ALREADY_EXISTS_ERROR_MESSAGE + roleDto.getRoleName());
+        roleCache.invalidate(roleDto.getRoleName());
+    }
+
+    /**
+     * Update an existing role. The copies of the role that are stored in the users are not updated by this method,
+     * see {@link RolePropagator}. After the role has been written, the role generation is increased, so that no
+     * container copies a role that it has cached before the update into users.
+     *
+     * @param roleDto the updated role.
+     * @throws NotFoundException             when there is no role with the same name.
+     * @throws InvalidInputException         when the input entry is not valid.
+     * @throws InvalidEntryInternalException when the input cannot be converted to a database entry.
+     */
+    public void updateRole(RoleDto roleDto) throws NotFoundException, InvalidInputException,
+                                                   InvalidEntryInternalException {
+
+        debugWithJson(logger, UPDATE_ROLE_DEBUG_MESSAGE, roleDto);
 
         validate(roleDto);
-        checkRoleDoesNotExist(roleDto);
-        table.putItem(RoleDb.fromRoleDto(roleDto).toItem());
+        RoleDb updatedRole = RoleDb.fromRoleDto(roleDto);
+        putItemIfExists(updatedRole.toItem(), ROLE_NOT_FOUND_MESSAGE + roleDto.getRoleName());
+        increaseRoleGeneration();
+        roleCache.put(updatedRole);
     }
 
     /**
@@ -59,35 +106,125 @@ public class RoleService extends DatabaseSubService {
             .orElseThrow(() -> handleRoleNotFound(queryObject));
     }
 
+    /**
+     * Fetches a role using a strongly consistent read, bypassing the role cache. To be used when the role must reflect
+     * a write that has just completed, for example when returning a newly created role.
+     *
+     * @param queryObject the query object containing the rolename.
+     * @return the Role that corresponds to the given rolename.
+     * @throws NotFoundException             when a role with the specified name does not exist in the database.
+     * @throws InvalidEntryInternalException when the role stored in the database has invalid stucture.
+     */
+    public RoleDto getRoleWithConsistentRead(RoleDto queryObject)
+        throws NotFoundException, InvalidEntryInternalException {
+        debugWithJson(logger, GET_ROLE_DEBUG_MESSAGE, queryObject);
+        return Optional.ofNullable(attemptFetchRole(queryObject, this::fetchRoleDaoWithConsistentRead))
+            .orElseThrow(() -> handleRoleNotFound(queryObject));
+    }
+
     protected RoleDb fetchRoleDao(RoleDb queryObject) {
-        Item item = fetchItem(queryObject);
-        return (item != null) ? RoleDb.fromItem(item, RoleDb.class) : null;
+        return roleCache.get(queryObject.getName())
+            .orElseGet(() -> fetchRoleDaoFromTable(queryObject));
     }
 
-    private static NotFoundException handleRoleNotFound(RoleDto queryObject) {
-        logger.debug(ROLE_NOT_FOUND_MESSAGE + queryObject.getRoleName());
-        return new NotFoundException(ROLE_NOT_FOUND_MESSAGE + queryObject.getRoleName());
+    /**
+     * Fetches the current version of multiple roles, to be copied into users. A role updated by another Lambda
+     * container must not be read from the cache of this container, since a stale copy written in a user after the
+     * update has been propagated would never be repaired. Therefore the role generation, which every role update
+     * increases, is read with a strongly consistent GetItem first. Roles that were cached in the same generation are
+     * taken from the cache, and the other roles are fetched with a strongly consistent BatchGetItem and cached in the
+     * generation.
+     *
+     * @param queryObjects the roles to be fetched. Only the role names are taken into account.
+     * @return the roles that exist in the database, in the same order as the query objects.
+     */
+    protected List<RoleDb> fetchRoleDaos(Collection<RoleDb> queryObjects) {
+        if (queryObjects.isEmpty()) {
+            return Collections.emptyList();
+        }
+        long generation = readRoleGeneration();
+        Map<String, RoleDb> currentRoles = new HashMap<>();
+        List<RoleDb> uncachedRoles = new ArrayList<>();
+        for (RoleDb queryObject : queryObjects) {
+            Optional<RoleDb> cachedRole = roleCache.get(queryObject.getName(), generation);
+            if (cachedRole.isPresent()) {
+                currentRoles.put(cachedRole.get().getPrimaryHashKey(), cachedRole.get());
+            } else {
+                uncachedRoles.add(queryObject);
+            }
+        }
+        for (RoleDb role : fetchRoleDaosFromTable(uncachedRoles)) {
+            roleCache.put(role, generation);
+            currentRoles.put(role.getPrimaryHashKey(), role);
+        }
+
+        return queryObjects.stream()
+            .map(queryObject -> currentRoles.get(queryObject.getPrimaryHashKey()))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
     }
 
-    private Optional<RoleDto> getRoleAsOptional(RoleDto queryObject) throws InvalidEntryInternalException {
-        logger.debug(GET_ROLE_DEBUG_MESSAGE + convertToStringOrWriteErrorMessage(queryObject));
-        return Optional.ofNullable(attemptFetchRole(queryObject));
+    private RoleDb fetchRoleDaoFromTable(RoleDb queryObject) {
+        return cacheRole(fetchItem(queryObject));
+    }
+
+    private RoleDb fetchRoleDaoWithConsistentRead(RoleDb queryObject) {
+        return cacheRole(fetchItemWithConsistentRead(queryObject));
     }
 
-    private void checkRoleDoesNotExist(RoleDto roleDto) throws ConflictException, InvalidEntryInternalException {
-        if (roleAlreadyExists(roleDto)) {
-            throw new ConflictException(ROLE_ALREADY_EXISTS_ERROR_MESSAGE + roleDto.getRoleName());
+    private RoleDb cacheRole(Item item) {
+        RoleDb role = (item != null) ? RoleDb.fromItem(item) : null;
+        if (nonNull(role)) {
+            roleCache.put(role);
         }
+        return role;
+    }
+
+    private List<RoleDb> fetchRoleDaosFromTable(Collection<RoleDb> queryObjects) {
+        List<PrimaryKey> keys = queryObjects.stream()
+            .map(DatabaseSubService::primaryKey)
+            .collect(Collectors.toList());
+        return batchGetItemsWithConsistentRead(keys).stream()
+            .map(item -> RoleDb.fromItem(item))
+            .collect(Collectors.toList());
     }
 
-    private boolean roleAlreadyExists(RoleDto roleDto) throws InvalidEntryInternalException {
-        return getRoleAsOptional(roleDto).isPresent();
+    private long readRoleGeneration() {
+        Item item = table.getItem(new GetItemSpec()
+            .withPrimaryKey(roleGenerationKey())
+            .withConsistentRead(true));
+        return nonNull(item) && item.hasAttribute(GENERATION_FIELD)
+            ? item.getLong(GENERATION_FIELD)
+            : INITIAL_GENERATION;
+    }
+
+    private void increaseRoleGeneration() {
+        table.updateItem(new UpdateItemSpec()
+            .withPrimaryKey(roleGenerationKey())
+            .withUpdateExpression("ADD " + GENERATION_NAME_PLACEHOLDER + " " + GENERATION_INCREMENT_PLACEHOLDER)
+            .withNameMap(Map.of(GENERATION_NAME_PLACEHOLDER, GENERATION_FIELD))
+            .withValueMap(Map.of(GENERATION_INCREMENT_PLACEHOLDER, 1L)));
+    }
+
+    private static PrimaryKey roleGenerationKey() {
+        return new PrimaryKey(PRIMARY_KEY_HASH_KEY, ROLE_GENERATION_KEY, PRIMARY_KEY_RANGE_KEY, ROLE_GENERATION_KEY);
+    }
+
+    private static NotFoundException handleRoleNotFound(RoleDto queryObject) {
+        logger.debug("{}{}", ROLE_NOT_FOUND_MESSAGE, queryObject.getRoleName());
+        return new NotFoundException(ROLE_NOT_FOUND_MESSAGE + queryObject.getRoleName());
+    }
+
+    private Optional<RoleDto> getRoleAsOptional(RoleDto queryObject) throws InvalidEntryInternalException {
+        debugWithJson(logger, GET_ROLE_DEBUG_MESSAGE, queryObject);
+        return Optional.ofNullable(attemptFetchRole(queryObject, this::fetchRoleDao));
     }
 
-    private RoleDto attemptFetchRole(RoleDto queryObject) throws InvalidEntryInternalException {
+    private RoleDto attemptFetchRole(RoleDto queryObject, UnaryOperator<RoleDb> roleFetcher)
+        throws InvalidEntryInternalException {
         RoleDb roledb = Try.of(queryObject)
             .map(RoleDb::fromRoleDto)
-            .map(this::fetchRoleDao)
+            .map(roleFetcher::apply)
             .orElseThrow(DatabaseSubService::handleError);
         return nonNull(roledb) ? roledb.toRoleDto() : null;
     }
@@ -0,0 +1,40 @@
+package no.unit.nva.database;
+
+import nva.commons.core.Environment;
+import nva.commons.core.JacocoGenerated;
+
+/**
+ * Holds one {@link DatabaseService} for the whole Lambda container. It is created the first time it is requested,
+ * which is normally during the initialization of the handler, and it is reused by all later invocations. The
+ * database client is created with {@link DynamoDbClientFactory} and warmed up before the service is returned.
+ */
+public final class SharedDatabaseService {
+
+    private SharedDatabaseService() {
+    }
+
+    /**
+     * Returns the shared {@link DatabaseService}, creating it on the first call.
+     *
+     * @return the shared {@link DatabaseService}.
+     */
+    @JacocoGenerated
+    public static DatabaseService getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    @JacocoGenerated
+    private static DatabaseService createWarmDatabaseService(Environment environment) {
+        DatabaseServiceImpl databaseService =
+            new DatabaseServiceImpl(DynamoDbClientFactory.createClient(environment), environment);
+        databaseService.warmUp();
+        return databaseService;
+    }
+
+    /*The JVM initializes the holder class once, on the first call of getInstance(), and without locking afterwards*/
+    @JacocoGenerated
+    private static final class InstanceHolder {
+
+        private static final DatabaseService INSTANCE = createWarmDatabaseService(new Environment());
+    }
+}
@@ -0,0 +1,144 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
+import com.amazonaws.services.dynamodbv2.document.spec.QuerySpec;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import no.unit.nva.useraccessmanagement.dao.DynamoEntryCodec;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import no.unit.nva.useraccessmanagement.model.UserDto;
+
+/**
+ * The fields of the users that a client asks for, for clients such as pickers that only need the names of the users.
+ * Only the attributes of the fields are read from the database, and the fields that are not asked for are left out of
+ * the returned users. The username and the version are always read, since they identify the user and its ETag. The
+ * access rights are derived from the roles, so asking for one of them returns both.
+ */
+public final class UserFields {
+
+    public static final String FIELD_DELIMITER = ",";
+    public static final String ROLES = "roles";
+    public static final String ACCESS_RIGHTS = "accessRights";
+    public static final Map<String, String> ATTRIBUTES_OF_FIELDS = Map.of(
+        DynamoEntryCodec.USERNAME_FIELD, DynamoEntryCodec.USERNAME_FIELD,
+        DynamoEntryCodec.VERSION_FIELD, DynamoEntryCodec.VERSION_FIELD,
+        DynamoEntryCodec.INSTITUTION_FIELD, DynamoEntryCodec.INSTITUTION_FIELD,
+        DynamoEntryCodec.GIVEN_NAME_FIELD, DynamoEntryCodec.GIVEN_NAME_FIELD,
+        DynamoEntryCodec.FAMILY_NAME_FIELD, DynamoEntryCodec.FAMILY_NAME_FIELD,
+        ROLES, DynamoEntryCodec.ROLES_FIELD,
+        ACCESS_RIGHTS, DynamoEntryCodec.ROLES_FIELD);
+    public static final String UNKNOWN_FIELD_ERROR =
+        "Unknown field. Fields should be some of " + new TreeSet<>(ATTRIBUTES_OF_FIELDS.keySet()) + ". Field was: ";
+    public static final Set<String> ALWAYS_READ_ATTRIBUTES =
+        Set.of(DynamoEntryCodec.USERNAME_FIELD, DynamoEntryCodec.VERSION_FIELD);
+    private static final String NAME_PLACEHOLDER_PREFIX = "#";
+    private static final UserFields ALL_FIELDS = new UserFields(Collections.emptySet());
+
+    private final Set<String> attributes;
+
+    private UserFields(Set<String> attributes) {
+        this.attributes = attributes;
+    }
+
+    /**
+     * All the fields of the users.
+     *
+     * @return the fields.
+     */
+    public static UserFields all() {
+        return ALL_FIELDS;
+    }
+
+    /**
+     * Reads the comma-separated field names of a {@code fields} query parameter.
+     *
+     * @param fields the field names, or {@code null} or blank for all fields.
+     * @return the fields.
+     * @throws InvalidInputException when a field name is not a field of the users.
+     */
+    public static UserFields fromQueryParameter(String fields) throws InvalidInputException {
+        if (isNull(fields) || fields.isBlank()) {
+            return all();
+        }
+        Set<String> attributes = new TreeSet<>(ALWAYS_READ_ATTRIBUTES);
+        for (String field : fields.split(FIELD_DELIMITER)) {
+            String attribute = ATTRIBUTES_OF_FIELDS.get(field.strip());
+            if (isNull(attribute)) {
+                throw new InvalidInputException(UNKNOWN_FIELD_ERROR + field.strip());
+            }
+            attributes.add(attribute);
+        }
+        return new UserFields(Collections.unmodifiableSet(attributes));
+    }
+
+    public boolean isAll() {
+        return attributes.isEmpty();
+    }
+
+    /**
+     * Reads only the attributes of the fields.
+     *
+     * @param getItemSpec the read of a user.
+     * @return the same read.
+     */
+    public GetItemSpec project(GetItemSpec getItemSpec) {
+        return isAll() ? getItemSpec : getItemSpec
+            .withProjectionExpression(projectionExpression())
+            .withNameMap(nameMap());
+    }
+
+    /**
+     * Reads only the attributes of the fields.
+     *
+     * @param querySpec the query of users.
+     * @return the same query.
+     */
+    public QuerySpec project(QuerySpec querySpec) {
+        return isAll() ? querySpec : querySpec
+            .withProjectionExpression(projectionExpression())
+            .withNameMap(nameMap());
+    }
+
+    /**
+     * Leaves out the fields that were not asked for. A user read with {@link #project} lacks them already, except for
+     * the roles and the access rights, which would otherwise be returned as empty.
+     *
+     * @param user a user.
+     * @return the user with the fields only.
+     * @throws InvalidEntryInternalException when the user is invalid.
+     */
+    public UserDto trim(UserDto user) throws InvalidEntryInternalException {
+        if (isAll()) {
+            return user;
+        }
+        return user.copy()
+            .withInstitution(isRead(DynamoEntryCodec.INSTITUTION_FIELD) ? user.getInstitution() : null)
+            .withGivenName(isRead(DynamoEntryCodec.GIVEN_NAME_FIELD) ? user.getGivenName() : null)
+            .withFamilyName(isRead(DynamoEntryCodec.FAMILY_NAME_FIELD) ? user.getFamilyName() : null)
+            .withRoles(isRead(DynamoEntryCodec.ROLES_FIELD) ? user.getRoles() : null)
+            .build();
+    }
+
+    private boolean isRead(String attribute) {
+        return attributes.contains(attribute);
+    }
+
+    private String projectionExpression() {
+        return attributes.stream()
+            .map(attribute -> NAME_PLACEHOLDER_PREFIX + attribute)
+            .collect(Collectors.joining(", "));
+    }
+
+    /*Placeholders avoid conflicts between the attribute names and the reserved words of DynamoDB*/
+    private Map<String, String> nameMap() {
+        Map<String, String> nameMap = new LinkedHashMap<>();
+        attributes.forEach(attribute -> nameMap.put(NAME_PLACEHOLDER_PREFIX + attribute, attribute));
+        return nameMap;
+    }
+}
@@ -0,0 +1,234 @@
+package no.unit.nva.database;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.ItemCollection;
+import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
+import com.amazonaws.services.dynamodbv2.document.ScanOutcome;
+import com.amazonaws.services.dynamodbv2.document.Table;
+import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
+import com.amazonaws.services.dynamodbv2.document.spec.ScanSpec;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import no.unit.nva.useraccessmanagement.dao.DynamoEntryWithRangeKey;
+import no.unit.nva.useraccessmanagement.dao.RoleDb;
+import no.unit.nva.useraccessmanagement.dao.UserDb;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import nva.commons.apigateway.exceptions.ConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the {@link RoleMembershipService} edges and the {@link NameTokenService} tokens of all stored users, so that
+ * users that were written before the indices existed, or whose indices could not be written after the user, can be
+ * listed by role and searched by name.
+ *
+ * <p>The table is scanned in pages of {@link #PAGE_SIZE} users, and the edges and tokens of each page are written
+ * with BatchWriteItem. Existing edges and tokens are overwritten, so running the backfill again is harmless, and users
+ * that are written while the backfill is running are indexed by their own writes. The backfill stops after the first
+ * page that ends after the time budget has been used, and it returns a checkpoint from which it can be resumed.
+ *
+ * <p>A user without edges is not reached by the {@link RolePropagator}, so its copies of the roles may be outdated.
+ * Before the users of a page are indexed, their copies of the roles are therefore replaced by the current roles. The
+ * write is conditional on the version of the user, and a user that has been written concurrently is skipped, since
+ * that write has copied the current roles.
+ *
+ * <p>{@link #continueBackfill(Duration)} is run on a schedule. It stores its checkpoint in the table, so that each run
+ * continues where the previous one stopped, and it starts over when all users have been indexed.
+ */
+public class UserIndexBackfill extends DatabaseSubService {
+
+    public static final int PAGE_SIZE = 100;
+    public static final Set<String> TABLE_KEY_NAMES = Set.of(PRIMARY_KEY_HASH_KEY, PRIMARY_KEY_RANGE_KEY);
+    public static final String HASH_KEY_NAME_PLACEHOLDER = "#hashKey";
+    public static final String USER_KEY_PREFIX_PLACEHOLDER = ":userKeyPrefix";
+    public static final String USER_FILTER = "begins_with(" + HASH_KEY_NAME_PLACEHOLDER + ", "
+        + USER_KEY_PREFIX_PLACEHOLDER + ")";
+    public static final String USER_KEY_PREFIX = UserDb.TYPE + DynamoEntryWithRangeKey.FIELD_DELIMITER;
+    public static final String STORED_CHECKPOINT_KEY = "USER_INDEX_BACKFILL";
+    public static final String CHECKPOINT_FIELD = "checkpoint";
+    public static final String BACKFILL_DEBUG_MESSAGE = "Backfilled indices of users. Indexed, synced: ";
+    public static final String ROLE_SYNC_FAILURE_WARNING = "Failed to copy the current roles into user: ";
+    public static final String INVALID_STORED_CHECKPOINT_WARNING =
+        "Invalid stored backfill checkpoint, starting from the beginning: ";
+
+    private static final Logger logger = LoggerFactory.getLogger(UserIndexBackfill.class);
+
+    private final RoleService roleService;
+    private final RoleMembershipService roleMemberships;
+    private final NameTokenService nameTokens;
+
+    public UserIndexBackfill(Table table, AmazonDynamoDB client, RoleService roleService,
+                             RoleMembershipService roleMemberships, NameTokenService nameTokens) {
+        super(table, client);
+        this.roleService = roleService;
+        this.roleMemberships = roleMemberships;
+        this.nameTokens = nameTokens;
+    }
+
+    /**
+     * Writes the edges and tokens of the users, page by page.
+     *
+     * @param checkpoint the checkpoint returned by the previous run, or {@code null} for starting from the beginning.
+     * @param timeBudget the time after which no new page is started. At least one page is always processed.
+     * @return the number of indexed users and the checkpoint when there are users left.
+     * @throws InvalidInputException when the checkpoint is not valid.
+     */
+    public UserIndexBackfillResult backfill(String checkpoint, Duration timeBudget) throws InvalidInputException {
+        return backfillFrom(exclusiveStartKey(checkpoint), timeBudget);
+    }
+
+    /**
+     * Continues the backfill from the checkpoint stored by the previous call, and stores the new checkpoint. When the
+     * previous call indexed the last users, the backfill starts from the beginning.
+     *
+     * @param timeBudget the time after which no new page is started. At least one page is always processed.
+     * @return the result of this run.
+     */
+    public UserIndexBackfillResult continueBackfill(Duration timeBudget) {
+        UserIndexBackfillResult result = backfillFrom(storedStartKey(), timeBudget);
+        storeCheckpoint(result.getCheckpoint().orElse(null));
+        return result;
+    }
+
+    private UserIndexBackfillResult backfillFrom(PrimaryKey startKey, Duration timeBudget) {
+        Instant deadline = Instant.now().plus(timeBudget);
+        int indexedUsers = 0;
+        int syncedUsers = 0;
+        PrimaryKey nextStartKey = startKey;
+        String nextCheckpoint;
+        do {
+            ItemCollection<ScanOutcome> page = table.scan(scanSpec(nextStartKey));
+            List<UserDb> users = StreamSupport.stream(page.spliterator(), false)
+                .map(UserDb::fromItem)
+                .collect(Collectors.toList());
+            syncedUsers += syncRolesAndIndex(users);
+            indexedUsers += users.size();
+            Map<String, AttributeValue> lastEvaluatedKey = lastEvaluatedKey(page);
+            nextCheckpoint = PageCursor.encode(lastEvaluatedKey);
+            nextStartKey = nonNull(nextCheckpoint) ? toPrimaryKey(lastEvaluatedKey) : null;
+        } while (nonNull(nextCheckpoint) && Instant.now().isBefore(deadline));
+        logger.debug("{}{}, {}", BACKFILL_DEBUG_MESSAGE, indexedUsers, syncedUsers);
+        return new UserIndexBackfillResult(indexedUsers, syncedUsers, nextCheckpoint);
+    }
+
+    /*Returns the number of users whose copies of the roles were replaced*/
+    private int syncRolesAndIndex(List<UserDb> users) {
+        Map<String, RoleDb> currentRoles = currentRoles(users);
+        int syncedUsers = 0;
+        List<UserDb> usersToIndex = new ArrayList<>();
+        for (UserDb user : users) {
+            Optional<UserDb> syncedUser = syncRoles(user, currentRoles);
+            syncedUsers += syncedUser.isPresent() ? 1 : 0;
+            usersToIndex.add(syncedUser.orElse(user));
+        }
+        roleMemberships.addMemberships(usersToIndex);
+        nameTokens.addTokens(usersToIndex);
+        return syncedUsers;
+    }
+
+    private Map<String, RoleDb> currentRoles(List<UserDb> users) {
+        Map<String, RoleDb> roleQueries = new LinkedHashMap<>();
+        users.forEach(user -> user.getRoles().forEach(role -> roleQueries.putIfAbsent(role.getName(), role)));
+        return roleService.fetchRoleDaos(roleQueries.values()).stream()
+            .collect(Collectors.toMap(RoleDb::getName, Function.identity()));
+    }
+
+    /*Empty when the copies were current or the user could not be written. The user is indexed in both cases*/
+    private Optional<UserDb> syncRoles(UserDb user, Map<String, RoleDb> currentRoles) {
+        List<RoleDb> roles = user.getRoles().stream()
+            .map(role -> currentRoles.getOrDefault(role.getName(), role))
+            .collect(Collectors.toList());
+        if (roles.equals(user.getRoles())) {
+            return Optional.empty();
+        }
+        try {
+            UserDb syncedUser = user.copy()
+                .withRoles(roles)
+                .withVersion(nextVersion(user.getVersion()))
+                .build();
+            putItemIfVersionMatches(syncedUser.toItem(), user.getVersion(), ROLE_SYNC_FAILURE_WARNING
+                + user.getUsername());
+            return Optional.of(syncedUser);
+        } catch (ConflictException | InvalidEntryInternalException e) {
+            logger.warn("{}{}", ROLE_SYNC_FAILURE_WARNING, user.getUsername());
+            return Optional.empty();
+        }
+    }
+
+    private PrimaryKey storedStartKey() {
+        Item item = table.getItem(new GetItemSpec()
+            .withPrimaryKey(storedCheckpointKey())
+            .withConsistentRead(true));
+        String checkpoint = nonNull(item) ? item.getString(CHECKPOINT_FIELD) : null;
+        try {
+            return exclusiveStartKey(checkpoint);
+        } catch (InvalidInputException e) {
+            logger.warn(INVALID_STORED_CHECKPOINT_WARNING + checkpoint);
+            return null;
+        }
+    }
+
+    private void storeCheckpoint(String checkpoint) {
+        if (isNull(checkpoint)) {
+            table.deleteItem(storedCheckpointKey());
+        } else {
+            table.putItem(new Item()
+                .withPrimaryKey(storedCheckpointKey())
+                .withString(CHECKPOINT_FIELD, checkpoint));
+        }
+    }
+
+    private static PrimaryKey storedCheckpointKey() {
+        return new PrimaryKey(PRIMARY_KEY_HASH_KEY, STORED_CHECKPOINT_KEY,
+            PRIMARY_KEY_RANGE_KEY, STORED_CHECKPOINT_KEY);
+    }
+
+    private static PrimaryKey exclusiveStartKey(String checkpoint) throws InvalidInputException {
+        return nonNull(checkpoint)
+            ? PageCursor.toExclusiveStartKey(PageCursor.decode(checkpoint, TABLE_KEY_NAMES))
+            : null;
+    }
+
+    private static PrimaryKey toPrimaryKey(Map<String, AttributeValue> lastEvaluatedKey) {
+        PrimaryKey key = new PrimaryKey();
+        lastEvaluatedKey.forEach((name, value) -> key.addComponent(name, value.getS()));
+        return key;
+    }
+
+    private static ScanSpec scanSpec(PrimaryKey startKey) {
+        ScanSpec scanSpec = new ScanSpec()
+            .withFilterExpression(USER_FILTER)
+            .withNameMap(Map.of(HASH_KEY_NAME_PLACEHOLDER, PRIMARY_KEY_HASH_KEY))
+            .withValueMap(Map.of(USER_KEY_PREFIX_PLACEHOLDER, USER_KEY_PREFIX))
+            .withMaxResultSize(PAGE_SIZE)
+            .withConsistentRead(false);
+        if (nonNull(startKey)) {
+            scanSpec.withExclusiveStartKey(startKey);
+        }
+        return scanSpec;
+    }
+
+    private static Map<String, AttributeValue> lastEvaluatedKey(ItemCollection<ScanOutcome> page) {
+        return Optional.ofNullable(page.getLastLowLevelResult())
+            .map(ScanOutcome::getScanResult)
+            .map(ScanResult::getLastEvaluatedKey)
+            .orElse(null);
+    }
+}
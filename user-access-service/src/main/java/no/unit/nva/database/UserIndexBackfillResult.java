@@ -0,0 +1,41 @@
+package no.unit.nva.database;
+
+import java.util.Optional;
+
+/**
+ * The outcome of one run of the {@link UserIndexBackfill}. When the run stopped before all users were indexed, the
+ * checkpoint is present and the backfill can be resumed from it. The checkpoint is opaque to the clients.
+ */
+public class UserIndexBackfillResult {
+
+    private final int indexedUsers;
+    private final int syncedUsers;
+    private final String checkpoint;
+
+    public UserIndexBackfillResult(int indexedUsers, int syncedUsers, String checkpoint) {
+        this.indexedUsers = indexedUsers;
+        this.syncedUsers = syncedUsers;
+        this.checkpoint = checkpoint;
+    }
+
+    public int getIndexedUsers() {
+        return indexedUsers;
+    }
+
+    /**
+     * The number of indexed users whose copies of the roles were outdated and have been replaced by the current roles.
+     *
+     * @return the number of users.
+     */
+    public int getSyncedUsers() {
+        return syncedUsers;
+    }
+
+    public Optional<String> getCheckpoint() {
+        return Optional.ofNullable(checkpoint);
+    }
+
+    public boolean isComplete() {
+        return getCheckpoint().isEmpty();
+    }
+}
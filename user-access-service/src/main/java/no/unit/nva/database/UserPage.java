@@ -0,0 +1,28 @@
+package no.unit.nva.database;
+
+import java.util.List;
+import java.util.Optional;
+import no.unit.nva.useraccessmanagement.model.UserDto;
+
+/**
+ * One page of the result of listing users. The cursor is opaque to the clients and it is present only when there may be
+ * more users after this page.
+ */
+public class UserPage {
+
+    private final List<UserDto> users;
+    private final String nextCursor;
+
+    public UserPage(List<UserDto> users, String nextCursor) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<UserDto> getUsers() {
+        return users;
+    }
+
+    public Optional<String> getNextCursor() {
+        return Optional.ofNullable(nextCursor);
+    }
+}
@@ -1,27 +1,54 @@
 package no.unit.nva.database;
 
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY;
 import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.SEARCH_USERS_BY_INSTITUTION_INDEX_NAME;
 import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.SECONDARY_INDEX_1_HASH_KEY;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.SECONDARY_INDEX_1_RANGE_KEY;
+import static nva.commons.core.JsonUtils.objectMapper;
 import static nva.commons.core.attempt.Try.attempt;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.document.Index;
 import com.amazonaws.services.dynamodbv2.document.Item;
 import com.amazonaws.services.dynamodbv2.document.ItemCollection;
+import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
 import com.amazonaws.services.dynamodbv2.document.QueryOutcome;
+import com.amazonaws.services.dynamodbv2.document.RangeKeyCondition;
 import com.amazonaws.services.dynamodbv2.document.Table;
+import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
 import com.amazonaws.services.dynamodbv2.document.spec.QuerySpec;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import no.unit.nva.useraccessmanagement.dao.DynamoEntryCodec;
+import no.unit.nva.useraccessmanagement.dao.DynamoEntryWithRangeKey;
 import no.unit.nva.useraccessmanagement.dao.RoleDb;
 import no.unit.nva.useraccessmanagement.dao.UserDb;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import no.unit.nva.useraccessmanagement.model.BatchGetUsersResponse;
+import no.unit.nva.useraccessmanagement.model.UserAccessRightsDto;
 import no.unit.nva.useraccessmanagement.model.UserDto;
+import no.unit.nva.useraccessmanagement.model.UserImportReport;
+import no.unit.nva.useraccessmanagement.model.UserImportResult;
 import nva.commons.apigateway.exceptions.ConflictException;
 import nva.commons.apigateway.exceptions.NotFoundException;
+import nva.commons.core.attempt.Failure;
 import nva.commons.core.attempt.Try;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,17 +57,50 @@ public class UserService extends DatabaseSubService {
 
     public static final String USER_NOT_FOUND_MESSAGE = "Could not find user with username: ";
     public static final String GET_USER_DEBUG_MESSAGE = "Getting user: ";
+    public static final String GET_ACCESS_RIGHTS_DEBUG_MESSAGE = "Getting access rights of user: ";
     public static final String ADD_USER_DEBUG_MESSAGE = "Adding user: ";
     public static final String UPDATE_USER_DEBUG_MESSAGE = "Updating user: ";
     public static final String USER_ALREADY_EXISTS_ERROR_MESSAGE = "User already exists: ";
+    public static final String CONCURRENT_UPDATE_ERROR_MESSAGE =
+        "User has been updated by another request. Fetch the user and try again: ";
+    public static final String INVALID_PAGE_SIZE_ERROR = "Page size should be a positive number. Page size was: ";
+    public static final String EMPTY_USERNAME_PREFIX_ERROR = "Username prefix should not be empty";
+    public static final int MAX_USERS_PER_IMPORT = 1000;
+    public static final String TOO_MANY_USERS_ERROR =
+        "An import can contain at most " + MAX_USERS_PER_IMPORT + " users. Number of users was: ";
+    public static final String DUPLICATE_USERNAME_ERROR = "User appears more than once in the import: ";
+    public static final String USER_NOT_WRITTEN_ERROR = "User could not be written. Try again: ";
+    public static final String IMPORT_USERS_DEBUG_MESSAGE = "Importing users: ";
+    public static final int MAX_USERS_PER_BATCH_GET = 1000;
+    public static final String TOO_MANY_USERNAMES_ERROR =
+        "A batch get can contain at most " + MAX_USERS_PER_BATCH_GET + " usernames. Number of usernames was: ";
+    public static final String GET_USERS_DEBUG_MESSAGE = "Getting users: ";
+    public static final String WARM_UP_USERNAME = "warmUpUser";
+    public static final String WARM_UP_FAILURE_WARNING = "Warm-up of the database connection failed: ";
+    public static final Map<String, String> ACCESS_RIGHTS_ATTRIBUTE_NAMES = Map.of(
+        "#username", DynamoEntryCodec.USERNAME_FIELD,
+        "#institution", DynamoEntryCodec.INSTITUTION_FIELD,
+        "#effectiveAccessRights", DynamoEntryCodec.EFFECTIVE_ACCESS_RIGHTS_FIELD,
+        VERSION_NAME_PLACEHOLDER, DynamoEntryCodec.VERSION_FIELD);
+    public static final String ACCESS_RIGHTS_PROJECTION = String.join(", ", ACCESS_RIGHTS_ATTRIBUTE_NAMES.keySet());
+    public static final Set<String> INSTITUTION_INDEX_KEY_NAMES = Set.of(PRIMARY_KEY_HASH_KEY, PRIMARY_KEY_RANGE_KEY,
+        SECONDARY_INDEX_1_HASH_KEY, SECONDARY_INDEX_1_RANGE_KEY);
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     private final Index institutionsIndex;
     private final RoleService roleService;
+    private final RoleMembershipService roleMemberships;
+    private final NameTokenService nameTokens;
+    private final InstitutionStatsService institutionStats;
 
-    public UserService(Table table, RoleService roleService) {
-        super(table);
+    public UserService(Table table, AmazonDynamoDB client, RoleService roleService,
+                       RoleMembershipService roleMemberships, NameTokenService nameTokens,
+                       InstitutionStatsService institutionStats) {
+        super(table, client);
         this.roleService = roleService;
+        this.roleMemberships = roleMemberships;
+        this.nameTokens = nameTokens;
+        this.institutionStats = institutionStats;
         this.institutionsIndex = this.table.getIndex(SEARCH_USERS_BY_INSTITUTION_INDEX_NAME);
     }
 
@@ -57,6 +117,110 @@ public class UserService extends DatabaseSubService {
             .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND_MESSAGE + queryObject.getUsername()));
     }
 
+    /**
+     * Fetches some of the fields of a user. Only the attributes of the fields are read from the database.
+     *
+     * @param queryObject the DTO containing the username.
+     * @param fields      the fields to read.
+     * @return the user with the fields.
+     * @throws InvalidEntryInternalException when the entry stored in the database is invalid
+     * @throws NotFoundException             when there is no user with that username
+     */
+    public UserDto getUser(UserDto queryObject, UserFields fields)
+        throws InvalidEntryInternalException, NotFoundException {
+        if (fields.isAll()) {
+            return getUser(queryObject);
+        }
+        debugWithJson(logger, GET_USER_DEBUG_MESSAGE, queryObject);
+        UserDb queryEntry = UserDb.fromUserDto(queryObject);
+        Item item = table.getItem(fields.project(new GetItemSpec().withPrimaryKey(primaryKey(queryEntry))));
+        if (isNull(item)) {
+            throw new NotFoundException(USER_NOT_FOUND_MESSAGE + queryObject.getUsername());
+        }
+        return fields.trim(UserDb.fromItem(item).toUserDto());
+    }
+
+    /**
+     * Fetches a user using a strongly consistent read. To be used when the user must reflect a write that has just
+     * completed, for example when returning a newly created user.
+     *
+     * @param queryObject the DTO containing the search information.
+     * @return the DTO of the user in the database.
+     * @throws InvalidEntryInternalException when the entry stored in the database is invalid
+     * @throws NotFoundException             when there is no use with that username
+     */
+    public UserDto getUserWithConsistentRead(UserDto queryObject)
+        throws InvalidEntryInternalException, NotFoundException {
+        debugWithJson(logger, GET_USER_DEBUG_MESSAGE, queryObject);
+        return Optional.ofNullable(attemptToFetchObject(queryObject, this::fetchItemWithConsistentRead))
+            .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND_MESSAGE + queryObject.getUsername()));
+    }
+
+    /**
+     * Fetches the access rights of a user. Only the username, the institution, the version and the stored bitmask of
+     * the access rights are read, so the roles and the personal details of the user are neither read nor serialized.
+     * Users stored without the bitmask are read in full once, and their access rights are computed from their roles.
+     *
+     * @param queryObject the DTO containing the username.
+     * @return the access rights of the user.
+     * @throws InvalidEntryInternalException when the entry stored in the database is invalid
+     * @throws NotFoundException             when there is no user with that username
+     */
+    public UserAccessRightsDto getUserAccessRights(UserDto queryObject)
+        throws InvalidEntryInternalException, NotFoundException {
+        logger.debug("{}{}", GET_ACCESS_RIGHTS_DEBUG_MESSAGE, queryObject.getUsername());
+        UserDb queryEntry = UserDb.fromUserDto(queryObject);
+        Item item = table.getItem(new GetItemSpec()
+            .withPrimaryKey(primaryKey(queryEntry))
+            .withProjectionExpression(ACCESS_RIGHTS_PROJECTION)
+            .withNameMap(ACCESS_RIGHTS_ATTRIBUTE_NAMES));
+        if (isNull(item)) {
+            throw new NotFoundException(USER_NOT_FOUND_MESSAGE + queryObject.getUsername());
+        }
+        if (!item.hasAttribute(DynamoEntryCodec.EFFECTIVE_ACCESS_RIGHTS_FIELD)) {
+            item = fetchItem(queryEntry);
+        }
+        return UserDb.fromItem(item).toUserAccessRightsDto();
+    }
+
+    /**
+     * Fetches many users at once with BatchGetItem, instead of one GetItem per user. Repeated usernames are fetched
+     * once. Users that do not exist do not fail the call, but are reported in the missing usernames of the response.
+     *
+     * @param usernames the usernames of the users.
+     * @return the users that exist, in the order of the usernames, and the usernames of the users that do not exist.
+     * @throws InvalidInputException         when a username is empty or there are more than {@link
+     *                                       #MAX_USERS_PER_BATCH_GET} usernames.
+     * @throws InvalidEntryInternalException when an entry stored in the database is invalid.
+     */
+    public BatchGetUsersResponse getUsers(Collection<String> usernames)
+        throws InvalidInputException, InvalidEntryInternalException {
+        List<String> uniqueUsernames = usernames.stream().distinct().collect(Collectors.toList());
+        if (uniqueUsernames.size() > MAX_USERS_PER_BATCH_GET) {
+            throw new InvalidInputException(TOO_MANY_USERNAMES_ERROR + uniqueUsernames.size());
+        }
+        logger.debug("{}{}", GET_USERS_DEBUG_MESSAGE, uniqueUsernames.size());
+        List<PrimaryKey> keys = new ArrayList<>();
+        for (String username : uniqueUsernames) {
+            keys.add(primaryKey(userKey(username)));
+        }
+        Map<String, UserDto> foundUsers = new HashMap<>();
+        for (Item item : batchGetItems(keys)) {
+            UserDto user = UserDb.fromItem(item).toUserDto();
+            foundUsers.put(user.getUsername(), user);
+        }
+        List<UserDto> users = new ArrayList<>();
+        List<String> missingUsernames = new ArrayList<>();
+        for (String username : uniqueUsernames) {
+            if (foundUsers.containsKey(username)) {
+                users.add(foundUsers.get(username));
+            } else {
+                missingUsernames.add(username);
+            }
+        }
+        return BatchGetUsersResponse.of(users, missingUsernames);
+    }
+
     /**
      * List of users for a specified institution.
      *
@@ -65,51 +229,328 @@ public class UserService extends DatabaseSubService {
      */
     public List<UserDto> listUsers(String institutionIdentifier) {
         QuerySpec listUsersQuery = createListUsersByInstitutionQuery(institutionIdentifier);
-        List<Item> items = toList(institutionsIndex.query(listUsersQuery));
+        return toUserDtos(institutionsIndex.query(listUsersQuery), UserFields.all());
+    }
+
+    /**
+     * One page of the users of a specified institution. The users are read one DynamoDB page at a time and at most
+     * {@code pageSize} users are read.
+     *
+     * @param institutionIdentifier the identifier of the institution
+     * @param pageSize              the maximum number of users in the page.
+     * @param cursor                the cursor returned with the previous page, or {@code null} for the first page.
+     * @return the users of the page and the cursor of the next page.
+     * @throws InvalidInputException when the page size is not positive or the cursor is not a cursor of the same
+     *                               institution.
+     */
+    public UserPage listUsers(String institutionIdentifier, int pageSize, String cursor) throws InvalidInputException {
+        return listUsers(institutionIdentifier, pageSize, cursor, UserFields.all());
+    }
+
+    /**
+     * One page of the users of a specified institution, with some of the fields of the users. Only the attributes of
+     * the fields are read from the database.
+     *
+     * @param institutionIdentifier the identifier of the institution
+     * @param pageSize              the maximum number of users in the page.
+     * @param cursor                the cursor returned with the previous page, or {@code null} for the first page.
+     * @param fields                the fields to read.
+     * @return the users of the page and the cursor of the next page.
+     * @throws InvalidInputException when the page size is not positive or the cursor is not a cursor of the same
+     *                               institution.
+     */
+    public UserPage listUsers(String institutionIdentifier, int pageSize, String cursor, UserFields fields)
+        throws InvalidInputException {
+        return queryUsersOfInstitution(createListUsersByInstitutionQuery(institutionIdentifier),
+            institutionIdentifier, pageSize, cursor, fields);
+    }
+
+    /**
+     * One page of the users of a specified institution whose usernames start with a prefix. The prefix is a
+     * {@code begins_with} condition on the range key of the institution index, which is the username, so only the
+     * matching users are read. The prefix is case-sensitive, as the usernames are.
+     *
+     * @param institutionIdentifier the identifier of the institution
+     * @param usernamePrefix        the start of the usernames.
+     * @param pageSize              the maximum number of users in the page.
+     * @param cursor                the cursor returned with the previous page of the same search, or {@code null}
+     *                              for the first page.
+     * @param fields                the fields to read.
+     * @return the users of the page and the cursor of the next page.
+     * @throws InvalidInputException when the prefix is empty, the page size is not positive or the cursor is not a
+     *                               cursor of the same search.
+     */
+    public UserPage searchUsers(String institutionIdentifier, String usernamePrefix, int pageSize, String cursor,
+                                UserFields fields) throws InvalidInputException {
+        if (isNull(usernamePrefix) || usernamePrefix.isEmpty()) {
+            throw new InvalidInputException(EMPTY_USERNAME_PREFIX_ERROR);
+        }
+        QuerySpec searchUsersQuery = createListUsersByInstitutionQuery(institutionIdentifier)
+            .withRangeKeyCondition(new RangeKeyCondition(SECONDARY_INDEX_1_RANGE_KEY).beginsWith(usernamePrefix));
+        if (nonNull(cursor) && !usernameInCursor(institutionIdentifier, cursor).startsWith(usernamePrefix)) {
+            throw new InvalidInputException(PageCursor.INVALID_CURSOR_ERROR + cursor);
+        }
+        return queryUsersOfInstitution(searchUsersQuery, institutionIdentifier, pageSize, cursor, fields);
+    }
 
-        return items.stream()
-            .map(item -> UserDb.fromItem(item, UserDb.class))
+    /**
+     * Searches the users of an institution by the words of their given and family names. The words are matched
+     * case-insensitively and without accents, and a word of the query may be the start of a word of the names. The
+     * users are found through the {@link NameTokenService} tokens of the institution, so the institution is not
+     * listed.
+     *
+     * @param institutionIdentifier the identifier of the institution
+     * @param query                 the words to search for.
+     * @param limit                 the maximum number of users.
+     * @param fields                the fields to return.
+     * @return the matching users, best match first.
+     * @throws InvalidInputException when the limit is not positive or the query has no words or too many words.
+     */
+    public List<UserDto> searchUsersByName(String institutionIdentifier, String query, int limit, UserFields fields)
+        throws InvalidInputException {
+        if (limit < 1) {
+            throw new InvalidInputException(INVALID_PAGE_SIZE_ERROR + limit);
+        }
+        return nameTokens.searchUsers(institutionIdentifier, query, limit).stream()
+            .map(attempt(user -> fields.trim(user.toUserDto())))
+            .flatMap(Try::stream)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * One page of the users that have a role. The users are found through the {@link RoleMembershipService} edges of
+     * the role, so the table is not scanned.
+     *
+     * @param roleName the name of the role.
+     * @param pageSize the maximum number of users in the page.
+     * @param cursor   the cursor returned with the previous page, or {@code null} for the first page.
+     * @return the users of the page and the cursor of the next page.
+     * @throws InvalidInputException when the page size is not positive or the cursor is not a cursor of the same role.
+     */
+    public UserPage listUsersByRole(String roleName, int pageSize, String cursor) throws InvalidInputException {
+        if (pageSize < 1) {
+            throw new InvalidInputException(INVALID_PAGE_SIZE_ERROR + pageSize);
+        }
+        RoleMembersPage members = roleMemberships.listMembers(roleName, pageSize, cursor);
+        List<UserDto> users = members.getMembers().stream()
             .map(attempt(UserDb::toUserDto))
             .flatMap(Try::stream)
             .collect(Collectors.toList());
+        return new UserPage(users, members.getNextCursor().orElse(null));
     }
 
     /**
-     * Adds a user.
+     * Adds a user. The user is counted in the {@link InstitutionStatsService} counters of its institution after it has
+     * been written.
+     *
+     * <p>The role edges and name tokens of the user are written after the user, and they are not part of its write.
+     * When they cannot be written, the user exists but is not listed by role or found by name until the scheduled
+     * {@link UserIndexBackfill} has indexed it.
      *
      * @param user the user to be added.
-     * @throws InvalidEntryInternalException when a user with same username exists and the entry in the database is
-     *                                       invalid.
+     * @throws InvalidEntryInternalException when the input cannot be converted to a database entry.
      * @throws ConflictException             when the entry exists.
      * @throws InvalidInputException         when the input entry is not valid.
      */
     public void addUser(UserDto user) throws InvalidEntryInternalException, ConflictException, InvalidInputException {
-        logger.debug(ADD_USER_DEBUG_MESSAGE + convertToStringOrWriteErrorMessage(user));
+        debugWithJson(logger, ADD_USER_DEBUG_MESSAGE, user);
 
         validate(user);
-        checkUserDoesNotAlreadyExist(user);
-        UserDb databaseEntryWithSyncedRoles = syncRoleDetails(UserDb.fromUserDto(user));
-        table.putItem(databaseEntryWithSyncedRoles.toItem());
+        UserDb databaseEntryWithSyncedRoles = syncRoleDetails(UserDb.fromUserDto(user))
+            .copy()
+            .withVersion(INITIAL_VERSION)
+            .build();
+        putItemIfNotExists(databaseEntryWithSyncedRoles.toItem(),
+            USER_ALREADY_EXISTS_ERROR_MESSAGE + user.getUsername());
+        roleMemberships.addMemberships(databaseEntryWithSyncedRoles);
+        nameTokens.addTokens(databaseEntryWithSyncedRoles);
+        institutionStats.countAddedUsers(List.of(databaseEntryWithSyncedRoles));
     }
 
     /**
-     * Update an existing user.
+     * Adds many users at once. The users are validated, the roles of all users are fetched once, the existing users
+     * are found with BatchGetItem and the new users are written with BatchWriteItem, so the cost per user is a
+     * fraction of {@link #addUser}. Invalid users, duplicates and existing users are reported and skipped, and the
+     * remaining users are written.
+     *
+     * <p>BatchWriteItem has no conditions, so unlike {@link #addUser} the import does not protect against a user
+     * that is created by another request while the import is running. The import is meant for onboarding
+     * institutions, when their users are not created from other sources at the same time. The written users are
+     * counted after the import, with one update of the counters of each institution.
+     *
+     * @param users the users to be added.
+     * @return one result per user, in the same order as the input.
+     * @throws InvalidInputException         when there are more than {@link #MAX_USERS_PER_IMPORT} users.
+     * @throws InvalidEntryInternalException when a validated user cannot be converted to a database entry (should
+     *                                       never happen).
+     */
+    public UserImportReport addUsers(Collection<UserDto> users)
+        throws InvalidInputException, InvalidEntryInternalException {
+        if (users.size() > MAX_USERS_PER_IMPORT) {
+            throw new InvalidInputException(TOO_MANY_USERS_ERROR + users.size());
+        }
+        logger.debug("{}{}", IMPORT_USERS_DEBUG_MESSAGE, users.size());
+        List<UserDto> input = new ArrayList<>(users);
+        UserImportResult[] results = new UserImportResult[input.size()];
+        Map<String, Integer> positions = new HashMap<>();
+        Map<String, UserDb> newUsers = validUsersWithUniqueUsernames(input, results, positions);
+        for (String existingUsername : existingUsernames(newUsers.values())) {
+            newUsers.remove(existingUsername);
+            results[positions.get(existingUsername)] =
+                UserImportResult.conflict(existingUsername, USER_ALREADY_EXISTS_ERROR_MESSAGE + existingUsername);
+        }
+        List<UserDb> usersWithSyncedRoles = usersWithSyncedRoles(newUsers.values());
+        Set<String> unwrittenUsernames = batchPutItems(toItems(usersWithSyncedRoles)).stream()
+            .map(item -> UserDb.fromItem(item).getUsername())
+            .collect(Collectors.toSet());
+        List<UserDb> writtenUsers = new ArrayList<>();
+        for (UserDb user : usersWithSyncedRoles) {
+            String username = user.getUsername();
+            if (unwrittenUsernames.contains(username)) {
+                results[positions.get(username)] = UserImportResult.error(username, USER_NOT_WRITTEN_ERROR + username);
+            } else {
+                results[positions.get(username)] = UserImportResult.created(username);
+                writtenUsers.add(user);
+            }
+        }
+        roleMemberships.addMemberships(writtenUsers);
+        nameTokens.addTokens(writtenUsers);
+        institutionStats.countAddedUsers(writtenUsers);
+        return UserImportReport.fromList(Arrays.asList(results));
+    }
+
+    /**
+     * Update an existing user. The update is written only if the stored user has not been changed since the expected
+     * version. When the input contains a version, that version is expected and the user is not read before the
+     * update. Otherwise, the stored user is read first and its version is expected.
+     *
+     * <p>When the update moves the user to another institution or changes its roles, the {@link
+     * InstitutionStatsService} counters are changed after the write, from the overwritten user.
+     *
+     * <p>As in {@link #addUser}, the role edges and name tokens are written after the user, and the scheduled {@link
+     * UserIndexBackfill} writes those that could not be written.
      *
      * @param updateObject the updated user information.
      * @throws InvalidEntryInternalException when a user with same username exists and the entry in the database is
      *                                       invalid.
      * @throws InvalidInputException         when the input entry is invalid.
      * @throws NotFoundException             when there is no user with the same username in the database.
+     * @throws ConflictException             when the stored user does not have the expected version.
      */
     public void updateUser(UserDto updateObject)
-        throws InvalidEntryInternalException, InvalidInputException, NotFoundException {
+        throws InvalidEntryInternalException, InvalidInputException, NotFoundException, ConflictException {
 
-        logger.debug(UPDATE_USER_DEBUG_MESSAGE + updateObject.toJsonString());
+        debugWithJson(logger, UPDATE_USER_DEBUG_MESSAGE, updateObject);
         validate(updateObject);
+        if (nonNull(updateObject.getVersion())) {
+            updateUserWithExpectedVersion(updateObject);
+        } else {
+            updateUserWithStoredVersion(updateObject);
+        }
+    }
+
+    /**
+     * Reads a user that does not exist and converts a sample user to and from JSON, so that the HTTP connection pool,
+     * the item mappings and the JSON mappings are initialized before the first request. Failures are logged and
+     * ignored, since the warm-up is only an optimization.
+     */
+    public void warmUp() {
+        attempt(this::readWarmUpUser).toOptional(UserService::logWarmUpFailure);
+    }
+
+    private UserDto readWarmUpUser() throws InvalidEntryInternalException, IOException {
+        UserDto warmUpUser = UserDto.newBuilder().withUsername(WARM_UP_USERNAME).build();
+        String json = objectMapper.writeValueAsString(warmUpUser);
+        getUserAsOptional(objectMapper.readValue(json, UserDto.class));
+        return warmUpUser;
+    }
+
+    private static <T> void logWarmUpFailure(Failure<T> failure) {
+        logger.warn(WARM_UP_FAILURE_WARNING + failure.getException().getMessage());
+    }
+
+    /*Fills in the results of the invalid and duplicate users and returns the rest by username, in input order*/
+    private static Map<String, UserDb> validUsersWithUniqueUsernames(List<UserDto> input, UserImportResult[] results,
+                                                                     Map<String, Integer> positions) {
+        Map<String, UserDb> validUsers = new LinkedHashMap<>();
+        for (int position = 0; position < input.size(); position++) {
+            UserDto user = input.get(position);
+            String username = nonNull(user) ? user.getUsername() : null;
+            if (isInvalid(user)) {
+                results[position] = UserImportResult.invalid(username, UserDto.INVALID_USER_ERROR_MESSAGE);
+            } else if (validUsers.containsKey(username)) {
+                results[position] = UserImportResult.conflict(username, DUPLICATE_USERNAME_ERROR + username);
+            } else {
+                try {
+                    validUsers.put(username, UserDb.fromUserDto(user));
+                    positions.put(username, position);
+                } catch (InvalidEntryInternalException e) {
+                    results[position] = UserImportResult.invalid(username, e.getMessage());
+                }
+            }
+        }
+        return validUsers;
+    }
+
+    private static UserDb userKey(String username) throws InvalidInputException, InvalidEntryInternalException {
+        if (isNull(username) || username.isBlank()) {
+            throw new InvalidInputException(UserDto.INVALID_USER_ERROR_MESSAGE);
+        }
+        return UserDb.newBuilder().withUsername(username).build();
+    }
+
+    private Set<String> existingUsernames(Collection<UserDb> users) {
+        List<PrimaryKey> keys = users.stream()
+            .map(DatabaseSubService::primaryKey)
+            .collect(Collectors.toList());
+        return batchGetItems(keys).stream()
+            .map(item -> UserDb.fromItem(item).getUsername())
+            .collect(Collectors.toSet());
+    }
+
+    /*The roles of all users are fetched together, so that every role is read at most once*/
+    private List<UserDb> usersWithSyncedRoles(Collection<UserDb> users) throws InvalidEntryInternalException {
+        Map<String, RoleDb> roleQueries = new LinkedHashMap<>();
+        users.forEach(user -> user.getRoles().forEach(role -> roleQueries.putIfAbsent(role.getName(), role)));
+        Map<String, RoleDb> currentRoles = roleService.fetchRoleDaos(roleQueries.values()).stream()
+            .collect(Collectors.toMap(RoleDb::getName, Function.identity()));
+        List<UserDb> usersWithSyncedRoles = new ArrayList<>();
+        for (UserDb user : users) {
+            usersWithSyncedRoles.add(withRolesAndInitialVersion(user, currentRoles));
+        }
+        return usersWithSyncedRoles;
+    }
+
+    private static UserDb withRolesAndInitialVersion(UserDb user, Map<String, RoleDb> currentRoles)
+        throws InvalidEntryInternalException {
+        List<RoleDb> roles = user.getRoles().stream()
+            .map(role -> currentRoles.get(role.getName()))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+        return user.copy().withRoles(roles).withVersion(INITIAL_VERSION).build();
+    }
+
+    private static List<Item> toItems(List<UserDb> users) {
+        return users.stream().map(UserDb::toItem).collect(Collectors.toList());
+    }
+
+    private void updateUserWithExpectedVersion(UserDto updateObject)
+        throws InvalidEntryInternalException, NotFoundException, ConflictException {
+        UserDb updatedObjectWithSyncedRoles = syncRoleDetails(UserDb.fromUserDto(updateObject));
+        try {
+            updateTable(updatedObjectWithSyncedRoles, updateObject.getVersion());
+        } catch (ConflictException conflict) {
+            getExistingUserOrSendNotFoundError(updateObject);
+            throw conflict;
+        }
+    }
+
+    private void updateUserWithStoredVersion(UserDto updateObject)
+        throws InvalidEntryInternalException, NotFoundException, ConflictException {
         UserDto existingUser = getExistingUserOrSendNotFoundError(updateObject);
         UserDb updatedObjectWithSyncedRoles = syncRoleDetails(UserDb.fromUserDto(updateObject));
         if (userHasChanged(existingUser, updatedObjectWithSyncedRoles)) {
-            updateTable(updatedObjectWithSyncedRoles);
+            updateTable(updatedObjectWithSyncedRoles, existingUser.getVersion());
         }
     }
 
@@ -118,44 +559,75 @@ public class UserService extends DatabaseSubService {
     }
 
     private Optional<UserDto> getUserAsOptional(UserDto queryObject) throws InvalidEntryInternalException {
-        logger.debug(GET_USER_DEBUG_MESSAGE + convertToStringOrWriteErrorMessage(queryObject));
-        UserDto searchResult = attemptToFetchObject(queryObject);
+        debugWithJson(logger, GET_USER_DEBUG_MESSAGE, queryObject);
+        UserDto searchResult = attemptToFetchObject(queryObject, this::fetchItem);
         return Optional.ofNullable(searchResult);
     }
 
+    private UserPage queryUsersOfInstitution(QuerySpec query, String institutionIdentifier, int pageSize,
+                                             String cursor, UserFields fields) throws InvalidInputException {
+        if (pageSize < 1) {
+            throw new InvalidInputException(INVALID_PAGE_SIZE_ERROR + pageSize);
+        }
+        QuerySpec pageQuery = fields.project(query).withMaxResultSize(pageSize);
+        if (nonNull(cursor)) {
+            pageQuery.withExclusiveStartKey(startKeyFromCursor(institutionIdentifier, cursor));
+        }
+        ItemCollection<QueryOutcome> searchResult = institutionsIndex.query(pageQuery);
+        List<UserDto> users = toUserDtos(searchResult, fields);
+        return new UserPage(users, PageCursor.encode(lastEvaluatedKey(searchResult)));
+    }
+
     private QuerySpec createListUsersByInstitutionQuery(String institution) {
         return new QuerySpec().withHashKey(SECONDARY_INDEX_1_HASH_KEY, institution)
             .withConsistentRead(false);
     }
 
-    private void checkUserDoesNotAlreadyExist(UserDto user) throws InvalidEntryInternalException, ConflictException {
-        if (userAlreadyExists(user)) {
-            throw new ConflictException(USER_ALREADY_EXISTS_ERROR_MESSAGE + user.getUsername());
-        }
-    }
-
     private UserDto getExistingUserOrSendNotFoundError(UserDto queryObject)
         throws NotFoundException, InvalidEntryInternalException {
         return getUserAsOptional(queryObject)
             .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND_MESSAGE + queryObject.getUsername()));
     }
 
-    private boolean userAlreadyExists(UserDto user) throws InvalidEntryInternalException {
-        return this.getUserAsOptional(user).isPresent();
+    private static PrimaryKey startKeyFromCursor(String institutionIdentifier, String cursor)
+        throws InvalidInputException {
+        return PageCursor.toExclusiveStartKey(decodeInstitutionCursor(institutionIdentifier, cursor));
     }
 
-    private List<Item> toList(ItemCollection<QueryOutcome> searchResult) {
-        List<Item> items = new ArrayList<>();
-        for (Item item : searchResult) {
-            items.add(item);
+    private static String usernameInCursor(String institutionIdentifier, String cursor)
+        throws InvalidInputException {
+        return decodeInstitutionCursor(institutionIdentifier, cursor).get(SECONDARY_INDEX_1_RANGE_KEY);
+    }
+
+    private static Map<String, String> decodeInstitutionCursor(String institutionIdentifier, String cursor)
+        throws InvalidInputException {
+        Map<String, String> keyValues = PageCursor.decode(cursor, INSTITUTION_INDEX_KEY_NAMES);
+        if (!institutionIdentifier.equals(keyValues.get(SECONDARY_INDEX_1_HASH_KEY))) {
+            throw new InvalidInputException(PageCursor.INVALID_CURSOR_ERROR + cursor);
         }
-        return items;
+        return keyValues;
+    }
+
+    private static Map<String, AttributeValue> lastEvaluatedKey(ItemCollection<QueryOutcome> searchResult) {
+        return Optional.ofNullable(searchResult.getLastLowLevelResult())
+            .map(QueryOutcome::getQueryResult)
+            .map(QueryResult::getLastEvaluatedKey)
+            .orElse(null);
     }
 
-    private UserDto attemptToFetchObject(UserDto queryObject) throws InvalidEntryInternalException {
+    private static List<UserDto> toUserDtos(ItemCollection<QueryOutcome> searchResult, UserFields fields) {
+        return StreamSupport.stream(searchResult.spliterator(), false)
+            .map(item -> UserDb.fromItem(item))
+            .map(attempt(user -> fields.trim(user.toUserDto())))
+            .flatMap(Try::stream)
+            .collect(Collectors.toList());
+    }
+
+    private UserDto attemptToFetchObject(UserDto queryObject, Function<DynamoEntryWithRangeKey, Item> itemFetcher)
+        throws InvalidEntryInternalException {
         UserDb userDb = attempt(() -> UserDb.fromUserDto(queryObject))
-            .map(this::fetchItem)
-            .map(item -> UserDb.fromItem(item, UserDb.class))
+            .map(itemFetcher::apply)
+            .map(item -> UserDb.fromItem(item))
             .orElseThrow(DatabaseSubService::handleError);
         return nonNull(userDb) ? userDb.toUserDto() : null;
     }
@@ -165,8 +637,21 @@ public class UserService extends DatabaseSubService {
         return !desiredUpdateWithSyncedRoles.equals(UserDb.fromUserDto(existingUser));
     }
 
-    private void updateTable(UserDb userUpdateWithSyncedRoles) {
-        table.putItem(userUpdateWithSyncedRoles.toItem());
+    private void updateTable(UserDb userUpdateWithSyncedRoles, Long expectedVersion)
+        throws InvalidEntryInternalException, ConflictException {
+        UserDb nextVersion = userUpdateWithSyncedRoles.copy()
+            .withVersion(nextVersion(expectedVersion))
+            .build();
+        Item oldItem = putItemIfVersionMatches(nextVersion.toItem(), expectedVersion,
+            CONCURRENT_UPDATE_ERROR_MESSAGE + userUpdateWithSyncedRoles.getUsername());
+        UserDb oldUser = UserDb.fromItem(oldItem);
+        roleMemberships.addMemberships(nextVersion);
+        nameTokens.addTokens(nextVersion);
+        roleMemberships.removeMemberships(oldUser, nextVersion);
+        nameTokens.removeTokens(oldUser, nextVersion);
+        if (nonNull(oldUser)) {
+            institutionStats.countChangedUser(oldUser, nextVersion);
+        }
     }
 
     private UserDb userWithSyncedRoles(UserDb currentUser) throws InvalidEntryInternalException {
@@ -174,13 +659,7 @@ public class UserService extends DatabaseSubService {
         return currentUser.copy().withRoles(roles).build();
     }
 
-    // TODO: use batch query for minimizing the cost.
     private List<RoleDb> currentRoles(UserDb currentUser) {
-        return currentUser
-            .getRoles()
-            .stream()
-            .map(roleService::fetchRoleDao)
-            .filter(Objects::nonNull)
-            .collect(Collectors.toList());
+        return roleService.fetchRoleDaos(currentUser.getRoles());
     }
 }
@@ -1,33 +1,80 @@
 package no.unit.nva.database;
 
+import static java.util.Objects.nonNull;
+import static no.unit.nva.database.DatabaseSubService.UNPROCESSED_KEYS_ERROR_MESSAGE;
 import static no.unit.nva.database.RoleService.ROLE_NOT_FOUND_MESSAGE;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY;
+import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY;
 import static nva.commons.core.attempt.Try.attempt;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
+import com.amazonaws.services.dynamodbv2.document.PutItemOutcome;
 import com.amazonaws.services.dynamodbv2.document.Table;
+import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
+import com.amazonaws.services.dynamodbv2.document.spec.PutItemSpec;
 import com.amazonaws.services.dynamodbv2.model.AmazonDynamoDBException;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughputExceededException;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import no.unit.nva.useraccessmanagement.dao.DynamoEntryWithRangeKey;
 import no.unit.nva.useraccessmanagement.dao.RoleDb;
+import no.unit.nva.useraccessmanagement.dao.RoleMembershipDb;
 import no.unit.nva.useraccessmanagement.dao.UserDb;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
 import no.unit.nva.useraccessmanagement.model.RoleDto;
 import no.unit.nva.useraccessmanagement.model.UserDto;
+import no.unit.nva.useraccessmanagement.model.UserImportReport;
+import no.unit.nva.useraccessmanagement.model.UserImportResult.Status;
+import no.unit.useraccessserivce.accessrights.AccessRight;
+import nva.commons.apigateway.exceptions.ConflictException;
+import nva.commons.apigateway.exceptions.NotFoundException;
 import nva.commons.logutils.LogUtils;
 import nva.commons.logutils.TestAppender;
 import org.hamcrest.core.StringContains;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
+import org.mockito.ArgumentCaptor;
 
 public class DatabaseServiceImplTest extends DatabaseAccessor {
 
     public static final String SOME_INSTITUTION = "someInstitution";
     public static final String SOME_USERNAME = "someUsername";
+    public static final String SOME_OTHER_USERNAME = "someOtherUsername";
     public static final String EXPECTED_EXCEPTION_MESSAGE = "ExpectedExceptionMessage";
+    public static final Long SOME_VERSION = 3L;
 
     private UserDto someUser;
     private DatabaseServiceImpl databaseService;
@@ -88,23 +135,285 @@ public class DatabaseServiceImplTest extends DatabaseAccessor {
             StringContains.containsString(ROLE_NOT_FOUND_MESSAGE));
     }
 
+    @Test
+    public void addUserRetriesUnprocessedKeysWhenFetchingTheRolesOfTheUser()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        AmazonDynamoDB client = clientReturningAllKeysAsUnprocessedOnFirstBatchGet();
+        DatabaseService service = new DatabaseServiceImpl(client, DatabaseServiceImpl.createTable(localDynamo,
+            envWithTableName));
+
+        RoleDto existingRole = EntityUtils.createRole(EntityUtils.SOME_ROLENAME);
+        service.addRole(existingRole);
+        UserDto user = EntityUtils.createUserWithRolesAndInstitution();
+        service.addUser(user);
+
+        UserDto savedUser = service.getUser(user);
+        assertThat(savedUser.getRoles(), contains(existingRole));
+        verify(client, times(2)).batchGetItem(any(BatchGetItemRequest.class));
+    }
+
+    @Test
+    public void addUserThrowsExceptionWhenKeysRemainUnprocessedAfterAllRetries()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException {
+        AmazonDynamoDB client = mock(AmazonDynamoDB.class);
+        when(client.batchGetItem(any(BatchGetItemRequest.class)))
+            .thenAnswer(invocation -> allKeysUnprocessed(invocation.getArgument(0)));
+        DatabaseService service = new DatabaseServiceImpl(client, DatabaseServiceImpl.createTable(localDynamo,
+            envWithTableName));
+        service.addRole(EntityUtils.createRole(EntityUtils.SOME_ROLENAME));
+
+        UserDto user = EntityUtils.createUserWithRolesAndInstitution();
+        Executable action = () -> service.addUser(user);
+        IllegalStateException exception = assertThrows(IllegalStateException.class, action);
+        assertThat(exception.getMessage(), containsString(UNPROCESSED_KEYS_ERROR_MESSAGE));
+    }
+
+    @Test
+    public void getUserWithConsistentReadSendsStronglyConsistentGetItemRequest()
+        throws InvalidEntryInternalException, NotFoundException {
+        Table table = mock(Table.class);
+        when(table.getItem(any(GetItemSpec.class))).thenReturn(UserDb.fromUserDto(someUser).toItem());
+        DatabaseService service = new DatabaseServiceImpl(mock(AmazonDynamoDB.class), table);
+
+        service.getUserWithConsistentRead(someUser);
+
+        ArgumentCaptor<GetItemSpec> request = ArgumentCaptor.forClass(GetItemSpec.class);
+        verify(table).getItem(request.capture());
+        assertThat(request.getValue().isConsistentRead(), is(true));
+    }
+
+    @Test
+    public void addUsersReportsUsersThatAreStillUnprocessedAfterRetriesAsErrorsAndAddsTheOtherUsers()
+        throws InvalidEntryInternalException, InvalidInputException, NotFoundException {
+        UserDto unwritableUser = UserDto.newBuilder().withUsername(SOME_USERNAME).build();
+        UserDto writableUser = UserDto.newBuilder().withUsername(SOME_OTHER_USERNAME).build();
+        AmazonDynamoDB client = clientNeverWritingUser(unwritableUser);
+        DatabaseService service = new DatabaseServiceImpl(client, DatabaseServiceImpl.createTable(localDynamo,
+            envWithTableName));
+
+        UserImportReport report = service.addUsers(List.of(unwritableUser, writableUser));
+
+        assertThat(report.getResults().get(0).getStatus(), is(equalTo(Status.ERROR)));
+        assertThat(report.getResults().get(0).getMessage(), containsString(UserService.USER_NOT_WRITTEN_ERROR));
+        assertThat(report.getResults().get(1).getStatus(), is(equalTo(Status.CREATED)));
+        assertThat(service.getUser(writableUser), is(equalTo(writableUser)));
+        int numberOfAttempts = DatabaseSubService.MAX_BATCH_RETRIES + 1;
+        verify(client, times(numberOfAttempts)).batchWriteItem(any(BatchWriteItemRequest.class));
+    }
+
+    @Test
+    public void addUsersWritesTheMembershipsOfTheWrittenUsersOnly()
+        throws InvalidEntryInternalException, InvalidInputException, ConflictException {
+        RoleDto role = EntityUtils.createRole(EntityUtils.SOME_ROLENAME);
+        UserDto unwritableUser = userWithRole(SOME_USERNAME, role);
+        UserDto writableUser = userWithRole(SOME_OTHER_USERNAME, role);
+        Table table = DatabaseServiceImpl.createTable(localDynamo, envWithTableName);
+        DatabaseService service = new DatabaseServiceImpl(clientNeverWritingUser(unwritableUser), table);
+        service.addRole(role);
+
+        service.addUsers(List.of(unwritableUser, writableUser));
+
+        assertThat(table.getItem(membershipKey(role, SOME_USERNAME)), is(nullValue()));
+        assertThat(table.getItem(membershipKey(role, SOME_OTHER_USERNAME)), is(not(nullValue())));
+    }
+
+    @Test
+    public void getRoleWithConsistentReadSendsStronglyConsistentGetItemRequest()
+        throws InvalidEntryInternalException, NotFoundException {
+        RoleDto sampleRole = EntityUtils.createRole(EntityUtils.SOME_ROLENAME);
+        Table table = mock(Table.class);
+        when(table.getItem(any(GetItemSpec.class))).thenReturn(RoleDb.fromRoleDto(sampleRole).toItem());
+        DatabaseService service = new DatabaseServiceImpl(mock(AmazonDynamoDB.class), table);
+
+        service.getRoleWithConsistentRead(sampleRole);
+
+        ArgumentCaptor<GetItemSpec> request = ArgumentCaptor.forClass(GetItemSpec.class);
+        verify(table).getItem(request.capture());
+        assertThat(request.getValue().isConsistentRead(), is(true));
+    }
+
+    @Test
+    public void updateUserWritesConditionallyWithoutReadingTheUserWhenInputContainsVersion()
+        throws InvalidEntryInternalException, NotFoundException, InvalidInputException, ConflictException {
+        Table table = mock(Table.class);
+        when(table.putItem(any(PutItemSpec.class))).thenReturn(new PutItemOutcome(new PutItemResult()));
+        DatabaseService service = new DatabaseServiceImpl(mock(AmazonDynamoDB.class), table);
+        UserDto userUpdate = someUser.copy().withVersion(SOME_VERSION).build();
+
+        service.updateUser(userUpdate);
+
+        ArgumentCaptor<PutItemSpec> request = ArgumentCaptor.forClass(PutItemSpec.class);
+        verify(table).putItem(request.capture());
+        verify(table, never()).getItem(anyString(), anyString(), anyString(), anyString());
+        verify(table, never()).getItem(any(GetItemSpec.class));
+        assertThat(request.getValue().getConditionExpression(),
+            is(equalTo(DatabaseSubService.VERSION_MATCHES_CONDITION)));
+        assertThat(request.getValue().getValueMap().get(DatabaseSubService.EXPECTED_VERSION_PLACEHOLDER),
+            is(equalTo(SOME_VERSION)));
+        assertThat(UserDb.fromItem(request.getValue().getItem()).getVersion(), is(equalTo(SOME_VERSION + 1)));
+    }
+
+    @Test
+    public void propagateRoleReportsUsersThatKeepBeingChangedAndUpdatesTheOtherUsers()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        Table table = spy(DatabaseServiceImpl.createTable(localDynamo, envWithTableName));
+        DatabaseService service = new DatabaseServiceImpl(localDynamo, table);
+        RoleDto existingRole = EntityUtils.createRole(EntityUtils.SOME_ROLENAME);
+        service.addRole(existingRole);
+        UserDto conflictingUser = userWithRole(SOME_USERNAME, existingRole);
+        UserDto otherUser = userWithRole(SOME_OTHER_USERNAME, existingRole);
+        service.addUser(conflictingUser);
+        service.addUser(otherUser);
+        RoleDto roleUpdate = existingRole.copy().withAccessRights(Set.of(AccessRight.REJECT_DOI_REQUEST.toString()))
+            .build();
+        service.updateRole(roleUpdate);
+        String conflictingUserKey = UserDb.fromUserDto(conflictingUser).getPrimaryHashKey();
+        doThrow(new ConditionalCheckFailedException(EXPECTED_EXCEPTION_MESSAGE)).when(table)
+            .putItem(argThat((PutItemSpec spec) -> isPutOfItem(spec, conflictingUserKey)));
+
+        RolePropagationResult result = service.propagateRole(roleUpdate, null, Duration.ofMinutes(1));
+
+        assertThat(result.isComplete(), is(true));
+        assertThat(result.getUpdatedUsers(), is(equalTo(1)));
+        assertThat(result.getFailedUsers(), contains(SOME_USERNAME));
+        assertThat(service.getUser(otherUser).getRoles(), contains(roleUpdate));
+        assertThat(service.getUser(conflictingUser).getRoles(), contains(existingRole));
+    }
+
+    @Test
+    public void addUserStoresTheUserAndLogsWarningWhenTheCountersCannotBeUpdated()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        TestAppender testAppender = LogUtils.getTestingAppender(InstitutionStatsService.class);
+        AmazonDynamoDB client = clientFailingToUpdateTheCounters();
+        DatabaseService service = new DatabaseServiceImpl(client, DatabaseServiceImpl.createTable(localDynamo,
+            envWithTableName));
+        RoleDto existingRole = EntityUtils.createRole(EntityUtils.SOME_ROLENAME);
+        service.addRole(existingRole);
+        UserDto user = userWithRole(SOME_USERNAME, existingRole);
+
+        service.addUser(user);
+
+        assertThat(service.getUser(user).getRoles(), contains(existingRole));
+        assertThat(testAppender.getMessages(), containsString(InstitutionStatsService.COUNTER_UPDATE_FAILURE_WARNING));
+        assertThat(service.getInstitutionStats(SOME_INSTITUTION).getUserCount(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void warmUpReadsFromTheDatabaseWithoutLoggingWarningsWhenTheDatabaseIsAvailable() {
+        TestAppender testAppender = LogUtils.getTestingAppender(UserService.class);
+        Table table = spy(DatabaseServiceImpl.createTable(localDynamo, envWithTableName));
+        DatabaseServiceImpl service = new DatabaseServiceImpl(localDynamo, table);
+
+        service.warmUp();
+
+        verify(table).getItem(anyString(), anyString(), anyString(), anyString());
+        assertThat(testAppender.getMessages(), not(containsString(UserService.WARM_UP_FAILURE_WARNING)));
+    }
+
+    @Test
+    public void warmUpLogsWarningAndDoesNotThrowExceptionWhenTheDatabaseIsNotAvailable() {
+        TestAppender testAppender = LogUtils.getTestingAppender(UserService.class);
+        DatabaseServiceImpl service = new DatabaseServiceImpl(mock(AmazonDynamoDB.class),
+            mockMapperThrowingException());
+
+        service.warmUp();
+
+        assertThat(testAppender.getMessages(), containsString(UserService.WARM_UP_FAILURE_WARNING));
+    }
+
+    private AmazonDynamoDB clientReturningAllKeysAsUnprocessedOnFirstBatchGet() {
+        AmazonDynamoDB client = mock(AmazonDynamoDB.class);
+        when(client.batchGetItem(any(BatchGetItemRequest.class)))
+            .thenAnswer(invocation -> allKeysUnprocessed(invocation.getArgument(0)))
+            .thenAnswer(invocation -> localDynamo.batchGetItem((BatchGetItemRequest) invocation.getArgument(0)));
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class)))
+            .thenAnswer(invocation -> localDynamo.batchWriteItem((BatchWriteItemRequest) invocation.getArgument(0)));
+        when(client.updateItem(any(UpdateItemRequest.class)))
+            .thenAnswer(invocation -> localDynamo.updateItem((UpdateItemRequest) invocation.getArgument(0)));
+        return client;
+    }
+
+    private AmazonDynamoDB clientFailingToUpdateTheCounters() {
+        AmazonDynamoDB client = mock(AmazonDynamoDB.class);
+        when(client.batchGetItem(any(BatchGetItemRequest.class)))
+            .thenAnswer(invocation -> localDynamo.batchGetItem((BatchGetItemRequest) invocation.getArgument(0)));
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class)))
+            .thenAnswer(invocation -> localDynamo.batchWriteItem((BatchWriteItemRequest) invocation.getArgument(0)));
+        when(client.updateItem(any(UpdateItemRequest.class)))
+            .thenThrow(new ProvisionedThroughputExceededException(EXPECTED_EXCEPTION_MESSAGE));
+        return client;
+    }
+
+    private AmazonDynamoDB clientNeverWritingUser(UserDto user) throws InvalidEntryInternalException {
+        String primaryHashKey = UserDb.fromUserDto(user).getPrimaryHashKey();
+        AmazonDynamoDB client = mock(AmazonDynamoDB.class);
+        when(client.batchGetItem(any(BatchGetItemRequest.class)))
+            .thenAnswer(invocation -> localDynamo.batchGetItem((BatchGetItemRequest) invocation.getArgument(0)));
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class)))
+            .thenAnswer(invocation -> writeAllItemsExcept(invocation.getArgument(0), primaryHashKey));
+        return client;
+    }
+
+    private BatchWriteItemResult writeAllItemsExcept(BatchWriteItemRequest request, String primaryHashKey) {
+        Map<String, List<WriteRequest>> unprocessedItems = new HashMap<>();
+        request.getRequestItems().forEach((tableName, writeRequests) -> {
+            Map<Boolean, List<WriteRequest>> unwritable = writeRequests.stream()
+                .collect(Collectors.partitioningBy(writeRequest -> isPutOfItem(writeRequest, primaryHashKey)));
+            if (!unwritable.get(false).isEmpty()) {
+                localDynamo.batchWriteItem(new BatchWriteItemRequest(Map.of(tableName, unwritable.get(false))));
+            }
+            if (!unwritable.get(true).isEmpty()) {
+                unprocessedItems.put(tableName, unwritable.get(true));
+            }
+        });
+        return new BatchWriteItemResult().withUnprocessedItems(unprocessedItems);
+    }
+
+    private static boolean isPutOfItem(PutItemSpec putItemSpec, String primaryHashKey) {
+        return nonNull(putItemSpec) && primaryHashKey.equals(putItemSpec.getItem().getString(PRIMARY_KEY_HASH_KEY));
+    }
+
+    private static UserDto userWithRole(String username, RoleDto role) throws InvalidEntryInternalException {
+        return UserDto.newBuilder()
+            .withUsername(username)
+            .withInstitution(SOME_INSTITUTION)
+            .withRoles(List.of(role))
+            .build();
+    }
+
+    private static PrimaryKey membershipKey(RoleDto role, String username) {
+        RoleMembershipDb membership = RoleMembershipDb.of(role.getRoleName(), username);
+        return new PrimaryKey(PRIMARY_KEY_HASH_KEY, membership.getPrimaryHashKey(),
+            PRIMARY_KEY_RANGE_KEY, membership.getPrimaryRangeKey());
+    }
+
+    private static boolean isPutOfItem(WriteRequest writeRequest, String primaryHashKey) {
+        return nonNull(writeRequest.getPutRequest())
+            && primaryHashKey.equals(writeRequest.getPutRequest().getItem().get(PRIMARY_KEY_HASH_KEY).getS());
+    }
+
+    private static BatchGetItemResult allKeysUnprocessed(BatchGetItemRequest request) {
+        return new BatchGetItemResult()
+            .withResponses(Collections.emptyMap())
+            .withUnprocessedKeys(request.getRequestItems());
+    }
 
     private DatabaseService mockServiceReceivingInvalidUserDbInstance() {
         UserDb userWithoutUsername = new UserDb();
         Table table = mockTableReturningInvalidEntry(userWithoutUsername);
-        return new DatabaseServiceImpl(table);
+        return new DatabaseServiceImpl(mock(AmazonDynamoDB.class), table);
     }
 
     private DatabaseService mockServiceReceivingInvalidRoleDbInstance() {
         RoleDb roleWithoutName = new RoleDb();
 
         Table table = mockTableReturningInvalidEntry(roleWithoutName);
-        return new DatabaseServiceImpl(table);
+        return new DatabaseServiceImpl(mock(AmazonDynamoDB.class), table);
     }
 
     private DatabaseService mockServiceThrowsExceptionWhenLoadingRole() {
         Table mockMapper = mockMapperThrowingException();
-        return new DatabaseServiceImpl(mockMapper);
+        return new DatabaseServiceImpl(mock(AmazonDynamoDB.class), mockMapper);
     }
 
     private Table mockMapperThrowingException() {
@@ -3,6 +3,7 @@ package no.unit.nva.database;
 import static java.util.Objects.nonNull;
 import static no.unit.nva.database.DatabaseServiceImpl.DYNAMO_DB_CLIENT_NOT_SET_ERROR;
 import static no.unit.nva.database.DatabaseServiceImpl.createTable;
+import static no.unit.nva.database.DatabaseSubService.MAX_BATCH_GET_SIZE;
 import static no.unit.nva.database.EntityUtils.SOME_ROLENAME;
 import static no.unit.nva.database.EntityUtils.createRole;
 import static no.unit.nva.database.EntityUtils.createUserWithoutUsername;
@@ -14,8 +15,14 @@ import static no.unit.nva.hamcrest.DoesNotHaveNullOrEmptyFields.doesNotHaveNullO
 import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_HASH_KEY;
 import static no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails.PRIMARY_KEY_RANGE_KEY;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
@@ -25,17 +32,38 @@ import static org.hamcrest.core.StringContains.containsString;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import com.amazonaws.services.dynamodbv2.document.Item;
 import com.amazonaws.services.dynamodbv2.document.Table;
+import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import no.unit.nva.useraccessmanagement.constants.DatabaseIndexDetails;
+import no.unit.nva.useraccessmanagement.dao.DynamoEntryCodec;
+import no.unit.nva.useraccessmanagement.dao.NameTokenDb;
 import no.unit.nva.useraccessmanagement.dao.RoleDb;
+import no.unit.nva.useraccessmanagement.dao.RoleMembershipDb;
 import no.unit.nva.useraccessmanagement.dao.UserDb;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
 import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import no.unit.nva.useraccessmanagement.model.BatchGetUsersResponse;
+import no.unit.nva.useraccessmanagement.model.InstitutionStatsDto;
 import no.unit.nva.useraccessmanagement.model.RoleDto;
+import no.unit.nva.useraccessmanagement.model.UserAccessRightsDto;
 import no.unit.nva.useraccessmanagement.model.UserDto;
+import no.unit.nva.useraccessmanagement.model.UserImportReport;
+import no.unit.nva.useraccessmanagement.model.UserImportResult;
+import no.unit.nva.useraccessmanagement.model.UserImportResult.Status;
 import no.unit.useraccessserivce.accessrights.AccessRight;
 import nva.commons.apigateway.exceptions.ConflictException;
 import nva.commons.apigateway.exceptions.NotFoundException;
@@ -55,9 +83,19 @@ public class DatabaseServiceTest extends DatabaseAccessor {
     private static final String SOME_OTHER_USERNAME = "someotherusername";
     private static final String SOME_GIVEN_NAME = "givenName";
     private static final String SOME_FAMILY_NAME = "familyName";
+    private static final String SOME_OTHER_GIVEN_NAME = "otherGivenName";
+    private static final String SOME_OTHER_FAMILY_NAME = "otherFamilyName";
+    private static final Long SOME_VERSION = 1L;
     private static final String SOME_INSTITUTION = "SomeInstitution";
     private static final String SOME_OTHER_ROLE = "SOME_OTHER_ROLE";
+    private static final String SOME_ROLE_WITHOUT_USERS = "SOME_ROLE_WITHOUT_USERS";
     private static final String SOME_OTHER_INSTITUTION = "Some other institution";
+    private static final int PAGE_SIZE = 3;
+    private static final int NUMBER_OF_LISTED_USERS = 10;
+    private static final int NUMBER_OF_CONCURRENT_CALLS = 10;
+    private static final int NUMBER_OF_IMPORTED_USERS = 2 * DatabaseSubService.MAX_BATCH_WRITE_SIZE + 1;
+    private static final int NUMBER_OF_FETCHED_USERS = MAX_BATCH_GET_SIZE + 1;
+    private static final String BLANK_USERNAME = " ";
     private DatabaseService db;
 
     @BeforeEach
@@ -93,213 +131,1393 @@ public class DatabaseServiceTest extends DatabaseAccessor {
         assertThat(exception.getMessage(), containsString(ROLE_NOT_FOUND_MESSAGE));
     }
 
+    @Test
+    public void getRoleWithConsistentReadReturnsRoleWhenRoleNameExistsInDatabase()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        RoleDto insertedRole = createSampleRoleAndAddToDb(SOME_ROLENAME);
+        RoleDto savedRole = db.getRoleWithConsistentRead(insertedRole);
+        assertThat(savedRole, is(equalTo(insertedRole)));
+    }
+
+    @Test
+    public void getRoleWithConsistentReadThrowsNotFoundExceptionWhenRoleNameDoesNotExist()
+        throws InvalidEntryInternalException {
+        RoleDto queryObject = createRole(SOME_ROLENAME);
+        Executable action = () -> db.getRoleWithConsistentRead(queryObject);
+
+        NotFoundException exception = assertThrows(NotFoundException.class, action);
+        assertThat(exception.getMessage(), containsString(ROLE_NOT_FOUND_MESSAGE));
+    }
+
     @DisplayName("addRole() inserts valid role")
     @Test
-    public void addRoleInsertsValidItemInDatabase()
-        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
-        RoleDto insertedUser = createSampleRoleAndAddToDb(SOME_ROLENAME);
-        RoleDto savedUser = db.getRole(insertedUser);
+    public void addRoleInsertsValidItemInDatabase()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        RoleDto insertedUser = createSampleRoleAndAddToDb(SOME_ROLENAME);
+        RoleDto savedUser = db.getRole(insertedUser);
+
+        assertThat(insertedUser, doesNotHaveNullOrEmptyFields());
+        assertThat(savedUser, is(equalTo(insertedUser)));
+    }
+
+    @DisplayName("addRole() throws Exception when trying to save role without name")
+    @Test
+    public void addRoleShouldNotSaveUserWithoutUsername() throws InvalidEntryInternalException {
+        RoleDto illegalRole = createIllegalRole();
+        Executable illegalAction = () -> db.addRole(illegalRole);
+        InvalidInputException exception = assertThrows(InvalidInputException.class, illegalAction);
+        assertThat(exception.getMessage(), containsString(RoleDto.MISSING_ROLE_NAME_ERROR));
+    }
+
+    @DisplayName("addRole() throws ConflictException when trying to save user with existing username")
+    @Test
+    public void addRoleThrowsConflictExceptionWhenTryingToSaveAlreadyExistingUser()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+
+        String conflictingRoleName = SOME_ROLENAME;
+        createSampleRoleAndAddToDb(conflictingRoleName);
+
+        RoleDto conflictingRole = createRole(conflictingRoleName);
+
+        Executable action = () -> db.addRole(conflictingRole);
+        ConflictException exception = assertThrows(ConflictException.class, action);
+        assertThat(exception.getMessage(), containsString(ROLE_ALREADY_EXISTS_ERROR_MESSAGE));
+    }
+
+    @DisplayName("getUser() returns non empty user when username exists in database")
+    @Test
+    public void databaseServiceReturnsNonEmptyUserWhenUsernameExistsInDatabase()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        UserDto insertedUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        UserDto savedUser = db.getUser(insertedUser);
+
+        assertThat(insertedUser, doesNotHaveNullOrEmptyFields());
+        assertThat(savedUser, is(equalTo(insertedUser)));
+    }
+
+    @Test
+    public void getUserWithConsistentReadReturnsUserWhenUsernameExistsInDatabase()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        UserDto insertedUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        UserDto savedUser = db.getUserWithConsistentRead(insertedUser);
+        assertThat(savedUser, is(equalTo(insertedUser)));
+    }
+
+    @Test
+    public void getUserWithConsistentReadThrowsNotFoundExceptionWhenUsernameDoesNotExist()
+        throws InvalidEntryInternalException {
+        UserDto queryObject = UserDto.newBuilder().withUsername(SOME_USERNAME).build();
+        Executable action = () -> db.getUserWithConsistentRead(queryObject);
+
+        NotFoundException exception = assertThrows(NotFoundException.class, action);
+        assertThat(exception.getMessage(), containsString(USER_NOT_FOUND_MESSAGE));
+    }
+
+    @DisplayName("getUser() throws NotFoundException when the username does exist in the database")
+    @Test
+    public void getUserAccessRightsReturnsTheAccessRightsOfTheRolesOfTheUser()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        UserDto insertedUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+
+        UserAccessRightsDto accessRights = db.getUserAccessRights(insertedUser);
+
+        assertThat(accessRights.getUsername(), is(equalTo(SOME_USERNAME)));
+        assertThat(accessRights.getInstitution(), is(equalTo(SOME_INSTITUTION)));
+        assertThat(accessRights.getAccessRights(), is(equalTo(insertedUser.getAccessRights())));
+        assertThat(accessRights.getVersion(), is(equalTo(UserService.INITIAL_VERSION)));
+    }
+
+    @Test
+    public void getUserAccessRightsReturnsAccessRightsOfUsersStoredWithoutTheBitmask()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        UserDto insertedUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        Item storedItem = UserDb.fromUserDto(insertedUser).toItem();
+        clientToExistingDatabase().putItem(
+            storedItem.removeAttribute(DynamoEntryCodec.EFFECTIVE_ACCESS_RIGHTS_FIELD));
+
+        UserAccessRightsDto accessRights = db.getUserAccessRights(insertedUser);
+
+        assertThat(accessRights.getAccessRights(), is(equalTo(insertedUser.getAccessRights())));
+    }
+
+    @Test
+    public void getUserAccessRightsThrowsNotFoundExceptionWhenUsernameDoesNotExist()
+        throws InvalidEntryInternalException {
+        UserDto queryObject = UserDto.newBuilder().withUsername(SOME_USERNAME).build();
+        Executable action = () -> db.getUserAccessRights(queryObject);
+        NotFoundException exception = assertThrows(NotFoundException.class, action);
+        assertThat(exception.getMessage(), containsString(UserService.USER_NOT_FOUND_MESSAGE));
+    }
+
+    @Test
+    public void getUserWithFieldsReturnsOnlyTheFieldsAndTheUsername()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        UserDto insertedUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+
+        UserDto user = db.getUser(insertedUser, UserFields.fromQueryParameter("givenName,familyName"));
+
+        assertThat(user.getUsername(), is(equalTo(SOME_USERNAME)));
+        assertThat(user.getGivenName(), is(equalTo(insertedUser.getGivenName())));
+        assertThat(user.getFamilyName(), is(equalTo(insertedUser.getFamilyName())));
+        assertThat(user.getVersion(), is(equalTo(UserService.INITIAL_VERSION)));
+        assertThat(user.getInstitution(), is(nullValue()));
+        assertThat(user.getRoles(), is(nullValue()));
+        assertThat(user.getAccessRights(), is(nullValue()));
+    }
+
+    @Test
+    public void getUserWithFieldsReturnsTheRolesWhenTheAccessRightsAreRequested()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        UserDto insertedUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+
+        UserDto user = db.getUser(insertedUser, UserFields.fromQueryParameter("accessRights"));
+
+        assertThat(user.getRoles(), is(equalTo(insertedUser.getRoles())));
+        assertThat(user.getAccessRights(), is(equalTo(insertedUser.getAccessRights())));
+        assertThat(user.getGivenName(), is(nullValue()));
+    }
+
+    @Test
+    public void getUserWithAllFieldsReturnsTheWholeUser()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        UserDto insertedUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+
+        UserDto user = db.getUser(insertedUser, UserFields.all());
+
+        assertThat(user, is(equalTo(insertedUser)));
+        assertThat(user.getGivenName(), is(equalTo(insertedUser.getGivenName())));
+    }
+
+    @Test
+    public void getUserWithFieldsThrowsNotFoundExceptionWhenUsernameDoesNotExist()
+        throws InvalidEntryInternalException, InvalidInputException {
+        UserDto queryObject = UserDto.newBuilder().withUsername(SOME_USERNAME).build();
+        UserFields fields = UserFields.fromQueryParameter("givenName");
+        Executable action = () -> db.getUser(queryObject, fields);
+
+        NotFoundException exception = assertThrows(NotFoundException.class, action);
+        assertThat(exception.getMessage(), containsString(USER_NOT_FOUND_MESSAGE));
+    }
+
+    @Test
+    public void databaseServiceThrowsNotFoundExceptionWhenUsernameDoesNotExist() throws InvalidEntryInternalException {
+        UserDto queryObject = UserDto.newBuilder().withUsername(SOME_USERNAME).build();
+        Executable action = () -> db.getUser(queryObject);
+
+        NotFoundException exception = assertThrows(NotFoundException.class, action);
+        assertThat(exception.getMessage(), containsString(USER_NOT_FOUND_MESSAGE));
+    }
+
+    @DisplayName("addUser() inserts valid user with institution and roles in database")
+    @Test
+    public void addUserInsertsValidItemInDatabase()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        UserDto insertedUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        UserDto savedUser = db.getUser(insertedUser);
+
+        assertThat(insertedUser, doesNotHaveNullOrEmptyFields());
+        assertThat(savedUser, is(equalTo(insertedUser)));
+    }
+
+    @DisplayName("addUser() saves user with roles and without institution")
+    @Test
+    public void addUserSavesAUserWithoutInstitution() throws InvalidEntryInternalException, ConflictException,
+                                                             InvalidInputException, NotFoundException {
+        UserDto expectedUser = createSampleUserAndAddUserToDb(SOME_USERNAME, null, SOME_ROLENAME);
+        UserDto actualUser = db.getUser(expectedUser);
+
+        assertThat(actualUser, is(equalTo(expectedUser)));
+        assertThat(actualUser.getInstitution(), is(equalTo(null)));
+    }
+
+    @DisplayName("addUser() saves user with institution without roles")
+    @Test
+    public void addUserShouldSaveUserWithoutRoles()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        UserDto expectedUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, null);
+        UserDto actualUser = db.getUser(expectedUser);
+
+        assertThat(actualUser, is(equalTo(expectedUser)));
+    }
+
+    @DisplayName("addUser() throws Exception when trying to save user without username")
+    @Test
+    public void addUserShouldNotSaveUserWithoutUsername() {
+        Executable illegalAction = () -> db.addUser(createUserWithoutUsername());
+        InvalidInputException exception = assertThrows(InvalidInputException.class, illegalAction);
+        assertThat(exception.getClass(), is(equalTo(InvalidInputException.class)));
+        assertThat(exception.getMessage(), containsString(UserDto.INVALID_USER_ERROR_MESSAGE));
+    }
+
+    @DisplayName("addUser() throws ConflictException when trying to save user with existing username")
+    @Test
+    public void addUserThrowsConflictExceptionWhenTryingToSaveAlreadyExistingUser()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+
+        String conflictingUsername = SOME_USERNAME;
+        createSampleUserAndAddUserToDb(conflictingUsername, SOME_INSTITUTION, SOME_ROLENAME);
+
+        UserDto conflictingUser = createUserWithRole(conflictingUsername,
+            SOME_OTHER_INSTITUTION, createRole(SOME_OTHER_ROLE));
+
+        Executable action = () -> db.addUser(conflictingUser);
+        ConflictException exception = assertThrows(ConflictException.class, action);
+        assertThat(exception.getMessage(), containsString(USER_ALREADY_EXISTS_ERROR_MESSAGE));
+    }
+
+    @Test
+    public void addUserAddsExactlyOneUserWhenTheSameUsernameIsAddedConcurrently()
+        throws InvalidEntryInternalException, InterruptedException, ExecutionException, NotFoundException {
+        RoleDto existingRole = createRole(SOME_ROLENAME);
+        addRoleToDb(existingRole);
+        List<Callable<Void>> concurrentCalls = new ArrayList<>();
+        for (int index = 0; index < NUMBER_OF_CONCURRENT_CALLS; index++) {
+            UserDto user = createUserWithRole(SOME_USERNAME, SOME_INSTITUTION + index, existingRole);
+            concurrentCalls.add(() -> {
+                db.addUser(user);
+                return null;
+            });
+        }
+
+        List<Throwable> failures = runConcurrently(concurrentCalls);
+
+        assertThat(failures.size(), is(equalTo(NUMBER_OF_CONCURRENT_CALLS - 1)));
+        failures.forEach(failure -> assertThat(failure, is(instanceOf(ConflictException.class))));
+        UserDto savedUser = db.getUser(createSampleUserWithoutInstitutionOrRoles(SOME_USERNAME));
+        assertThat(savedUser.getInstitution(), startsWith(SOME_INSTITUTION));
+    }
+
+    @Test
+    public void addUserAddsAndCountsAllUsersWhenUsersOfTheSameInstitutionAreAddedConcurrently()
+        throws InvalidEntryInternalException, InterruptedException, ExecutionException, InvalidInputException {
+        RoleDto existingRole = createRole(SOME_ROLENAME);
+        addRoleToDb(existingRole);
+        List<Callable<Void>> concurrentCalls = new ArrayList<>();
+        for (int index = 0; index < NUMBER_OF_CONCURRENT_CALLS; index++) {
+            UserDto user = createUserWithRole(SOME_USERNAME + index, SOME_INSTITUTION, existingRole);
+            concurrentCalls.add(() -> {
+                db.addUser(user);
+                return null;
+            });
+        }
+
+        List<Throwable> failures = runConcurrently(concurrentCalls);
+
+        assertThat(failures, is(empty()));
+        InstitutionStatsDto stats = db.getInstitutionStats(SOME_INSTITUTION);
+        assertThat(stats.getUserCount(), is(equalTo((long) NUMBER_OF_CONCURRENT_CALLS)));
+        assertThat(stats.getUsersPerRole(), is(equalTo(Map.of(SOME_ROLENAME, (long) NUMBER_OF_CONCURRENT_CALLS))));
+    }
+
+    @Test
+    public void addRoleAddsExactlyOneRoleWhenTheSameRoleIsAddedConcurrently()
+        throws InvalidEntryInternalException, InterruptedException, ExecutionException, NotFoundException {
+        List<Callable<Void>> concurrentCalls = new ArrayList<>();
+        for (int index = 0; index < NUMBER_OF_CONCURRENT_CALLS; index++) {
+            RoleDto role = createRole(SOME_ROLENAME);
+            concurrentCalls.add(() -> {
+                db.addRole(role);
+                return null;
+            });
+        }
+
+        List<Throwable> failures = runConcurrently(concurrentCalls);
+
+        assertThat(failures.size(), is(equalTo(NUMBER_OF_CONCURRENT_CALLS - 1)));
+        failures.forEach(failure -> assertThat(failure, is(instanceOf(ConflictException.class))));
+        assertThat(db.getRole(createRole(SOME_ROLENAME)), is(equalTo(createRole(SOME_ROLENAME))));
+    }
+
+    @Test
+    public void addUserAddsCurrentlySavedVersionOfRoleInNewUser()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException, NotFoundException {
+        RoleDto existingRole = createSampleRoleAndAddToDb(SOME_ROLENAME);
+        assertThat(existingRole, doesNotHaveNullOrEmptyFields());
+
+        UserDto userWithoutRoleDetails = createUserWithRoleReference(existingRole);
+        db.addUser(userWithoutRoleDetails);
+        UserDto savedUser = db.getUser(userWithoutRoleDetails);
+        RoleDto actualRole = savedUser.getRoles().stream().collect(SingletonCollector.collect());
+        assertThat(actualRole, is(equalTo(existingRole)));
+    }
+
+    @Test
+    public void addUserDoesNotAddNonExistingRolesInCreatedUser()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        UserDto userWithNonExistingRole = createUserWithRole(SOME_USERNAME, SOME_INSTITUTION,
+            createRole(SOME_ROLENAME));
+        db.addUser(userWithNonExistingRole);
+
+        UserDto actualUser = db.getUser(userWithNonExistingRole);
+        UserDto expectedUser = userWithNonExistingRole.copy().withRoles(Collections.emptyList()).build();
+
+        assertThat(actualUser, is(equalTo(expectedUser)));
+    }
+
+    @Test
+    public void addUserAddsAllExistingRolesWhenUserHasMoreRolesThanTheBatchGetLimit()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        List<RoleDto> existingRoles = new ArrayList<>();
+        for (int roleIndex = 0; roleIndex <= MAX_BATCH_GET_SIZE; roleIndex++) {
+            existingRoles.add(createSampleRoleAndAddToDb(SOME_ROLENAME + roleIndex));
+        }
+        UserDto userWithManyRoles = UserDto.newBuilder()
+            .withUsername(SOME_USERNAME)
+            .withInstitution(SOME_INSTITUTION)
+            .withRoles(existingRoles)
+            .build();
+        db.addUser(userWithManyRoles);
+
+        UserDto savedUser = db.getUser(userWithManyRoles);
+        assertThat(savedUser.getRoles(), containsInAnyOrder(existingRoles.toArray()));
+    }
+
+    @Test
+    public void addUserAddsTheRoleWhenTheUserHasTheSameRoleTwice()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        RoleDto existingRole = createSampleRoleAndAddToDb(SOME_ROLENAME);
+        UserDto userWithRepeatedRole = UserDto.newBuilder()
+            .withUsername(SOME_USERNAME)
+            .withInstitution(SOME_INSTITUTION)
+            .withRoles(List.of(existingRole, existingRole))
+            .build();
+        db.addUser(userWithRepeatedRole);
+
+        UserDto savedUser = db.getUser(userWithRepeatedRole);
+        assertThat(savedUser.getRoles(), hasItem(existingRole));
+    }
+
+    @Test
+    public void getRoleReadsRoleFromCacheAfterTheFirstFetch()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        RoleCache roleCache = RoleCache.withDefaults();
+        DatabaseService service = new DatabaseServiceImpl(localDynamo, clientToExistingDatabase(), roleCache);
+        RoleDto existingRole = createRole(SOME_ROLENAME);
+        service.addRole(existingRole);
+
+        service.getRole(existingRole);
+        assertThat(roleCache.getHits(), is(equalTo(0L)));
+        service.getRole(existingRole);
+        assertThat(roleCache.getHits(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void addUserReadsTheRolesFromTheCacheWhenNoRoleHasBeenUpdatedSinceTheyWereCopiedIntoAUser()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        RoleCache roleCache = RoleCache.withDefaults();
+        DatabaseService service = new DatabaseServiceImpl(localDynamo, clientToExistingDatabase(), roleCache);
+        RoleDto existingRole = createRole(SOME_ROLENAME);
+        service.addRole(existingRole);
+        service.addUser(createUserWithRole(SOME_USERNAME, SOME_INSTITUTION, existingRole));
+        long hitsBefore = roleCache.getHits();
+
+        UserDto user = createUserWithRole(SOME_OTHER_USERNAME, SOME_INSTITUTION, existingRole);
+        service.addUser(user);
+
+        assertThat(roleCache.getHits(), is(equalTo(hitsBefore + 1)));
+        assertThat(service.getUser(user), is(equalTo(user)));
+    }
+
+    @Test
+    public void addUserCopiesTheCurrentRoleWhenTheRoleHasBeenUpdatedByAnotherContainer()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        DatabaseService service = new DatabaseServiceImpl(localDynamo, clientToExistingDatabase(),
+            RoleCache.withDefaults());
+        DatabaseService otherContainer = new DatabaseServiceImpl(localDynamo, clientToExistingDatabase(),
+            RoleCache.withDefaults());
+        RoleDto existingRole = createRole(SOME_ROLENAME);
+        service.addRole(existingRole);
+        service.getRole(existingRole);
+        service.addUser(createUserWithRole(SOME_OTHER_USERNAME, SOME_INSTITUTION, existingRole));
+        RoleDto roleUpdate = roleWithOtherAccessRights(existingRole);
+        otherContainer.updateRole(roleUpdate);
+
+        UserDto user = createUserWithRole(SOME_USERNAME, SOME_INSTITUTION, existingRole);
+        service.addUser(user);
+
+        assertThat(service.getUser(user).getRoles(), is(equalTo(Collections.singletonList(roleUpdate))));
+    }
+
+    @DisplayName("updateUser() updates existing user with input user when input user is valid")
+    @Test
+    public void updateUserUpdatesAssignsCorrectVersionOfRoleInUser()
+        throws ConflictException, InvalidEntryInternalException, NotFoundException, InvalidInputException {
+        RoleDto existingRole = createRole(SOME_ROLENAME);
+        db.addRole(existingRole);
+        UserDto existingUser = createUserWithRole(SOME_USERNAME, SOME_INSTITUTION, existingRole);
+        db.addUser(existingUser);
+
+        UserDto userUpdate = userUpdateWithRoleMissingAccessRights(existingUser);
+
+        UserDto expectedUser = existingUser.copy().withGivenName(SOME_GIVEN_NAME).build();
+        db.updateUser(userUpdate);
+        UserDto actualUser = db.getUser(expectedUser);
+        assertThat(actualUser, is(equalTo(expectedUser)));
+        assertThat(actualUser, is(not(sameInstance(expectedUser))));
+    }
+
+    @DisplayName("updateUser() updates existing user with input user when input user is valid")
+    @Test
+    public void updateUserUpdatesExistingUserWithInputUserWhenInputUserIsValid()
+        throws ConflictException, InvalidEntryInternalException, NotFoundException, InvalidInputException {
+        UserDto existingUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        UserDto expectedUser = cloneAndChangeRole(existingUser);
+
+        db.updateUser(expectedUser);
+        UserDto actualUser = db.getUser(expectedUser);
+        assertThat(actualUser, is(equalTo(expectedUser)));
+        assertThat(actualUser, is(not(sameInstance(expectedUser))));
+    }
+
+    @DisplayName("updateUser() throws NotFoundException when the input username does not exist")
+    @Test
+    public void updateUserThrowsNotFoundExceptionWhenTheInputUsernameDoesNotExist()
+        throws InvalidEntryInternalException {
+        UserDto userUpdate = createSampleUser(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        Executable action = () -> db.updateUser(userUpdate);
+        NotFoundException exception = assertThrows(NotFoundException.class, action);
+        assertThat(exception.getMessage(), containsString(USER_NOT_FOUND_MESSAGE));
+    }
+
+    @DisplayName("updateUser() throws InvalidInputException when the input is invalid ")
+    @Test
+    public void updateUserThrowsInvalidInputExceptionWhenTheInputIsInvalid()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException, NoSuchMethodException,
+               IllegalAccessException, InvocationTargetException {
+        createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        UserDto invalidUser = createUserWithoutUsername();
+        Executable action = () -> db.updateUser(invalidUser);
+        InvalidInputException exception = assertThrows(InvalidInputException.class, action);
+        assertThat(exception.getMessage(), containsString(UserDto.INVALID_USER_ERROR_MESSAGE));
+    }
+
+    @Test
+    public void addUserStoresUserWithInitialVersion()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        UserDto insertedUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        UserDto savedUser = db.getUser(insertedUser);
+        assertThat(savedUser.getVersion(), is(equalTo(UserService.INITIAL_VERSION)));
+    }
+
+    @Test
+    public void updateUserIncrementsVersionOfTheUser()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        UserDto existingUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        UserDto userUpdate = existingUser.copy().withGivenName(SOME_OTHER_GIVEN_NAME).withVersion(null).build();
+
+        db.updateUser(userUpdate);
+
+        UserDto savedUser = db.getUser(userUpdate);
+        assertThat(savedUser.getGivenName(), is(equalTo(SOME_OTHER_GIVEN_NAME)));
+        assertThat(savedUser.getVersion(), is(equalTo(UserService.INITIAL_VERSION + 1)));
+    }
+
+    @Test
+    public void updateUserUpdatesUserWhenInputContainsTheStoredVersion()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        UserDto storedUser = db.getUser(createSampleUserWithoutInstitutionOrRoles(SOME_USERNAME));
+        UserDto userUpdate = storedUser.copy().withGivenName(SOME_OTHER_GIVEN_NAME).build();
+
+        db.updateUser(userUpdate);
+
+        UserDto savedUser = db.getUser(userUpdate);
+        assertThat(savedUser, is(equalTo(userUpdate)));
+        assertThat(savedUser.getVersion(), is(equalTo(storedUser.getVersion() + 1)));
+    }
+
+    @Test
+    public void updateUserThrowsConflictExceptionWhenInputContainsAnOutdatedVersion()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        UserDto existingUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        UserDto storedUser = db.getUser(existingUser);
+        db.updateUser(storedUser.copy().withGivenName(SOME_OTHER_GIVEN_NAME).build());
+
+        UserDto outdatedUpdate = storedUser.copy().withFamilyName(SOME_OTHER_FAMILY_NAME).build();
+        Executable action = () -> db.updateUser(outdatedUpdate);
+
+        ConflictException exception = assertThrows(ConflictException.class, action);
+        assertThat(exception.getMessage(), containsString(UserService.CONCURRENT_UPDATE_ERROR_MESSAGE));
+        assertThat(db.getUser(existingUser).getGivenName(), is(equalTo(SOME_OTHER_GIVEN_NAME)));
+    }
+
+    @Test
+    public void updateUserThrowsNotFoundExceptionWhenInputContainsVersionAndUserDoesNotExist()
+        throws InvalidEntryInternalException {
+        UserDto userUpdate = createSampleUser(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME)
+            .copy()
+            .withVersion(UserService.INITIAL_VERSION)
+            .build();
+        Executable action = () -> db.updateUser(userUpdate);
+        NotFoundException exception = assertThrows(NotFoundException.class, action);
+        assertThat(exception.getMessage(), containsString(USER_NOT_FOUND_MESSAGE));
+    }
+
+    @Test
+    public void updateUserAddsInitialVersionToUserStoredWithoutVersion()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        UserDb userWithoutVersion = UserDb.newBuilder().withUsername(SOME_USERNAME).build();
+        clientToLocalDatabase().putItem(userWithoutVersion.toItem());
+        UserDto userUpdate = userWithoutVersion.toUserDto().copy().withGivenName(SOME_OTHER_GIVEN_NAME).build();
+
+        db.updateUser(userUpdate);
+
+        UserDto savedUser = db.getUser(userUpdate);
+        assertThat(savedUser.getGivenName(), is(equalTo(SOME_OTHER_GIVEN_NAME)));
+        assertThat(savedUser.getVersion(), is(equalTo(UserService.INITIAL_VERSION)));
+    }
+
+    @Test
+    public void updateUserAppliesExactlyOneUpdateWhenTheSameVersionIsUpdatedConcurrently()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException,
+               InterruptedException, ExecutionException {
+        UserDto existingUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        UserDto storedUser = db.getUser(existingUser);
+        List<Callable<Void>> concurrentCalls = new ArrayList<>();
+        for (int index = 0; index < NUMBER_OF_CONCURRENT_CALLS; index++) {
+            UserDto userUpdate = storedUser.copy().withGivenName(SOME_GIVEN_NAME + index).build();
+            concurrentCalls.add(() -> {
+                db.updateUser(userUpdate);
+                return null;
+            });
+        }
+
+        List<Throwable> failures = runConcurrently(concurrentCalls);
+
+        assertThat(failures.size(), is(equalTo(NUMBER_OF_CONCURRENT_CALLS - 1)));
+        failures.forEach(failure -> assertThat(failure, is(instanceOf(ConflictException.class))));
+        assertThat(db.getUser(existingUser).getVersion(), is(equalTo(storedUser.getVersion() + 1)));
+    }
+
+    @Test
+    public void addUsersAddsAllUsersWithTheCurrentVersionOfTheirRolesInMoreThanOneBatch()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        RoleDto existingRole = createSampleRoleAndAddToDb(SOME_ROLENAME);
+        List<UserDto> users = sampleUsersForImport(NUMBER_OF_IMPORTED_USERS);
+
+        UserImportReport report = db.addUsers(users);
+
+        assertThat(report.count(Status.CREATED), is(equalTo((long) NUMBER_OF_IMPORTED_USERS)));
+        for (UserDto user : users) {
+            UserDto savedUser = db.getUser(user);
+            assertThat(savedUser, is(equalTo(user)));
+            assertThat(savedUser.getRoles(), is(equalTo(Collections.singletonList(existingRole))));
+            assertThat(savedUser.getVersion(), is(equalTo(UserService.INITIAL_VERSION)));
+        }
+    }
+
+    @Test
+    public void addUsersWritesTheMembershipsOfTheImportedUsers()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException {
+        createSampleRoleAndAddToDb(SOME_ROLENAME);
+        List<UserDto> users = sampleUsersForImport(NUMBER_OF_IMPORTED_USERS);
+
+        db.addUsers(users);
+
+        UserPage usersWithRole = db.listUsersByRole(SOME_ROLENAME, NUMBER_OF_IMPORTED_USERS + 1, null);
+        assertThat(usernames(usersWithRole.getUsers()), containsInAnyOrder(usernames(users).toArray()));
+    }
+
+    @Test
+    public void addUsersDoesNotAddRolesThatDoNotExist()
+        throws InvalidEntryInternalException, InvalidInputException, NotFoundException {
+        UserDto userWithNonExistingRole = createSampleUser(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+
+        db.addUsers(List.of(userWithNonExistingRole));
+
+        assertThat(db.getUser(userWithNonExistingRole).getRoles(), is(empty()));
+    }
+
+    @Test
+    public void addUsersReportsTheOutcomeOfEveryUserInTheOrderOfTheInput()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException {
+        UserDto existingUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        UserDto newUser = createSampleUser(SOME_OTHER_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        UserDto invalidUser = new UserDto();
+        List<UserDto> users = List.of(existingUser, newUser, invalidUser, newUser);
+
+        List<UserImportResult> results = db.addUsers(users).getResults();
+
+        assertThat(results.stream().map(UserImportResult::getStatus).collect(Collectors.toList()),
+            contains(Status.CONFLICT, Status.CREATED, Status.INVALID, Status.CONFLICT));
+        assertThat(results.get(0).getMessage(), containsString(UserService.USER_ALREADY_EXISTS_ERROR_MESSAGE));
+        assertThat(results.get(1).getMessage(), is(nullValue()));
+        assertThat(results.get(2).getMessage(), containsString(UserDto.INVALID_USER_ERROR_MESSAGE));
+        assertThat(results.get(3).getMessage(), containsString(UserService.DUPLICATE_USERNAME_ERROR));
+    }
+
+    @Test
+    public void addUsersDoesNotOverwriteExistingUsers()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        UserDto existingUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        UserDto userUpdate = existingUser.copy().withGivenName(SOME_OTHER_GIVEN_NAME).build();
+
+        db.addUsers(List.of(userUpdate));
+
+        assertThat(db.getUser(existingUser).getGivenName(), is(equalTo(SOME_GIVEN_NAME)));
+    }
+
+    @Test
+    public void addUsersThrowsInvalidInputExceptionWhenThereAreTooManyUsers() throws InvalidEntryInternalException {
+        List<UserDto> users = sampleUsersForImport(UserService.MAX_USERS_PER_IMPORT + 1);
+
+        Executable action = () -> db.addUsers(users);
+
+        InvalidInputException exception = assertThrows(InvalidInputException.class, action);
+        assertThat(exception.getMessage(), containsString(UserService.TOO_MANY_USERS_ERROR));
+    }
+
+    @Test
+    public void getUsersReturnsTheUsersInTheOrderOfTheUsernamesWhenUsersAreMoreThanOneBatch()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException {
+        createSampleRoleAndAddToDb(SOME_ROLENAME);
+        List<UserDto> users = sampleUsersForImport(NUMBER_OF_FETCHED_USERS);
+        db.addUsers(users);
+        List<String> usernames = usernames(users);
+        Collections.reverse(usernames);
+
+        BatchGetUsersResponse response = db.getUsers(usernames);
+
+        assertThat(usernames(response.getUsers()), contains(usernames.toArray()));
+        assertThat(response.getMissingUsernames(), is(empty()));
+    }
+
+    @Test
+    public void getUsersReportsMissingUsersAndReturnsRepeatedUsersOnce()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException {
+        UserDto existingUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+
+        BatchGetUsersResponse response = db.getUsers(List.of(SOME_OTHER_USERNAME, SOME_USERNAME, SOME_USERNAME));
+
+        assertThat(response.getUsers(), contains(existingUser));
+        assertThat(response.getMissingUsernames(), contains(SOME_OTHER_USERNAME));
+    }
+
+    @Test
+    public void getUsersReturnsEmptyResponseWhenThereAreNoUsernames()
+        throws InvalidEntryInternalException, InvalidInputException {
+        BatchGetUsersResponse response = db.getUsers(Collections.emptyList());
+
+        assertThat(response.getUsers(), is(empty()));
+        assertThat(response.getMissingUsernames(), is(empty()));
+    }
+
+    @Test
+    public void getUsersThrowsInvalidInputExceptionWhenAUsernameIsBlank() {
+        Executable action = () -> db.getUsers(List.of(SOME_USERNAME, BLANK_USERNAME));
+
+        InvalidInputException exception = assertThrows(InvalidInputException.class, action);
+        assertThat(exception.getMessage(), containsString(UserDto.INVALID_USER_ERROR_MESSAGE));
+    }
+
+    @Test
+    public void getUsersThrowsInvalidInputExceptionWhenThereAreTooManyUsernames() {
+        List<String> usernames = IntStream.rangeClosed(0, UserService.MAX_USERS_PER_BATCH_GET)
+            .mapToObj(index -> SOME_USERNAME + index)
+            .collect(Collectors.toList());
+
+        Executable action = () -> db.getUsers(usernames);
+
+        InvalidInputException exception = assertThrows(InvalidInputException.class, action);
+        assertThat(exception.getMessage(), containsString(UserService.TOO_MANY_USERNAMES_ERROR));
+    }
+
+    @Test
+    public void listUsersByInstitutionReturnsAllUsersForSpecifiedInstitution()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        UserDto someUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        UserDto someOtherUser = createSampleUserAndAddUserToDb(SOME_OTHER_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        List<UserDto> queryResult = db.listUsers(SOME_INSTITUTION);
+        assertThat(queryResult, containsInAnyOrder(someUser, someOtherUser));
+    }
+
+    @Test
+    public void listUsersByInstitutionReturnsEmptyListWhenThereAreNoUsersForSpecifiedInstitution()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        List<UserDto> queryResult = db.listUsers(SOME_OTHER_INSTITUTION);
+        assertThat(queryResult, is(empty()));
+    }
+
+    @Test
+    public void listUsersReturnsAllUsersOfInstitutionInPagesOfRequestedSize()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        List<UserDto> insertedUsers = insertUsersOfSameInstitution(NUMBER_OF_LISTED_USERS);
+        createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_OTHER_INSTITUTION, SOME_ROLENAME);
+
+        List<UserDto> listedUsers = new ArrayList<>();
+        int numberOfPages = 0;
+        String cursor = null;
+        do {
+            UserPage page = db.listUsers(SOME_INSTITUTION, PAGE_SIZE, cursor);
+            assertThat(page.getUsers().size(), is(lessThanOrEqualTo(PAGE_SIZE)));
+            listedUsers.addAll(page.getUsers());
+            cursor = page.getNextCursor().orElse(null);
+            numberOfPages++;
+        } while (nonNull(cursor));
+
+        assertThat(listedUsers, containsInAnyOrder(insertedUsers.toArray()));
+        assertThat(numberOfPages, is(greaterThanOrEqualTo(NUMBER_OF_LISTED_USERS / PAGE_SIZE)));
+    }
+
+    @Test
+    public void listUsersReturnsPageWithoutCursorWhenAllUsersFitInOnePage()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        List<UserDto> insertedUsers = insertUsersOfSameInstitution(PAGE_SIZE - 1);
+        UserPage page = db.listUsers(SOME_INSTITUTION, PAGE_SIZE, null);
+        assertThat(page.getUsers(), containsInAnyOrder(insertedUsers.toArray()));
+        assertThat(page.getNextCursor().isPresent(), is(false));
+    }
+
+    @Test
+    public void listUsersWithFieldsReturnsOnlyTheFieldsOfAllUsersInPages()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        List<UserDto> insertedUsers = insertUsersOfSameInstitution(PAGE_SIZE + 1);
+        UserFields fields = UserFields.fromQueryParameter("username,familyName");
+
+        List<UserDto> listedUsers = new ArrayList<>();
+        String cursor = null;
+        do {
+            UserPage page = db.listUsers(SOME_INSTITUTION, PAGE_SIZE, cursor, fields);
+            listedUsers.addAll(page.getUsers());
+            cursor = page.getNextCursor().orElse(null);
+        } while (nonNull(cursor));
+
+        assertThat(listedUsers.stream().map(UserDto::getUsername).collect(Collectors.toList()),
+            containsInAnyOrder(insertedUsers.stream().map(UserDto::getUsername).toArray()));
+        for (UserDto user : listedUsers) {
+            assertThat(user.getFamilyName(), is(equalTo(SOME_FAMILY_NAME)));
+            assertThat(user.getGivenName(), is(nullValue()));
+            assertThat(user.getInstitution(), is(nullValue()));
+            assertThat(user.getRoles(), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void searchUsersReturnsOnlyTheUsersWithUsernamesStartingWithThePrefixInPages()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        List<UserDto> matchingUsers = insertUsersOfSameInstitution(PAGE_SIZE + 1);
+        createSampleUserAndAddUserToDb(SOME_OTHER_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        createSampleUserAndAddUserToDb(SOME_USERNAME + "0", SOME_OTHER_INSTITUTION, SOME_ROLENAME);
+
+        List<UserDto> foundUsers = new ArrayList<>();
+        String cursor = null;
+        do {
+            UserPage page = db.searchUsers(SOME_INSTITUTION, SOME_USERNAME, PAGE_SIZE, cursor, UserFields.all());
+            assertThat(page.getUsers().size(), is(lessThanOrEqualTo(PAGE_SIZE)));
+            foundUsers.addAll(page.getUsers());
+            cursor = page.getNextCursor().orElse(null);
+        } while (nonNull(cursor));
+
+        assertThat(foundUsers, containsInAnyOrder(matchingUsers.toArray()));
+    }
+
+    @Test
+    public void searchUsersReturnsEmptyPageWhenNoUsernameStartsWithThePrefix()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        insertUsersOfSameInstitution(PAGE_SIZE);
+
+        UserPage page = db.searchUsers(SOME_INSTITUTION, SOME_OTHER_USERNAME, PAGE_SIZE, null, UserFields.all());
+
+        assertThat(page.getUsers(), is(empty()));
+        assertThat(page.getNextCursor().isPresent(), is(false));
+    }
+
+    @Test
+    public void searchUsersThrowsInvalidInputExceptionWhenPrefixIsEmpty() {
+        Executable action = () -> db.searchUsers(SOME_INSTITUTION, "", PAGE_SIZE, null, UserFields.all());
+        InvalidInputException exception = assertThrows(InvalidInputException.class, action);
+        assertThat(exception.getMessage(), containsString(UserService.EMPTY_USERNAME_PREFIX_ERROR));
+    }
+
+    @Test
+    public void searchUsersThrowsInvalidInputExceptionWhenCursorBelongsToAnotherPrefix()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        insertUsersOfSameInstitution(PAGE_SIZE + 1);
+        String cursor = db.listUsers(SOME_INSTITUTION, PAGE_SIZE, null).getNextCursor().orElseThrow();
+
+        Executable action = () -> db.searchUsers(SOME_INSTITUTION, SOME_OTHER_USERNAME, PAGE_SIZE, cursor,
+            UserFields.all());
+        InvalidInputException exception = assertThrows(InvalidInputException.class, action);
+        assertThat(exception.getMessage(), containsString(PageCursor.INVALID_CURSOR_ERROR));
+    }
+
+    @Test
+    public void listUsersThrowsInvalidInputExceptionWhenCursorIsNotValid() {
+        String invalidCursor = "notAValidCursor";
+        Executable action = () -> db.listUsers(SOME_INSTITUTION, PAGE_SIZE, invalidCursor);
+        InvalidInputException exception = assertThrows(InvalidInputException.class, action);
+        assertThat(exception.getMessage(), containsString(PageCursor.INVALID_CURSOR_ERROR));
+    }
+
+    @Test
+    public void listUsersThrowsInvalidInputExceptionWhenCursorBelongsToAnotherInstitution()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        insertUsersOfSameInstitution(PAGE_SIZE + 1);
+        String cursor = db.listUsers(SOME_INSTITUTION, PAGE_SIZE, null).getNextCursor().orElseThrow();
+
+        Executable action = () -> db.listUsers(SOME_OTHER_INSTITUTION, PAGE_SIZE, cursor);
+        InvalidInputException exception = assertThrows(InvalidInputException.class, action);
+        assertThat(exception.getMessage(), containsString(PageCursor.INVALID_CURSOR_ERROR));
+    }
+
+    @Test
+    public void listUsersThrowsInvalidInputExceptionWhenPageSizeIsNotPositive() {
+        Executable action = () -> db.listUsers(SOME_INSTITUTION, 0, null);
+        InvalidInputException exception = assertThrows(InvalidInputException.class, action);
+        assertThat(exception.getMessage(), containsString(UserService.INVALID_PAGE_SIZE_ERROR));
+    }
+
+    @Test
+    public void listUsersByRoleReturnsAllUsersWithTheRoleInPagesOfRequestedSize()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        List<UserDto> usersWithRole = insertUsersOfSameInstitution(NUMBER_OF_LISTED_USERS);
+        createSampleUserAndAddUserToDb(SOME_OTHER_USERNAME, SOME_INSTITUTION, SOME_OTHER_ROLE);
+
+        List<UserDto> listedUsers = new ArrayList<>();
+        String cursor = null;
+        do {
+            UserPage page = db.listUsersByRole(SOME_ROLENAME, PAGE_SIZE, cursor);
+            assertThat(page.getUsers().size(), is(lessThanOrEqualTo(PAGE_SIZE)));
+            listedUsers.addAll(page.getUsers());
+            cursor = page.getNextCursor().orElse(null);
+        } while (nonNull(cursor));
+
+        assertThat(usernames(listedUsers), containsInAnyOrder(usernames(usersWithRole).toArray()));
+    }
+
+    @Test
+    public void listUsersByRoleReturnsUsersOfTheirCurrentRolesAfterUpdate()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException, NotFoundException {
+        UserDto existingUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+
+        db.updateUser(cloneAndChangeRole(existingUser));
+
+        assertThat(db.listUsersByRole(SOME_ROLENAME, PAGE_SIZE, null).getUsers(), is(empty()));
+        assertThat(usernames(db.listUsersByRole(SOME_OTHER_ROLE, PAGE_SIZE, null).getUsers()),
+            containsInAnyOrder(SOME_USERNAME));
+        assertThat(fetchMembership(SOME_ROLENAME, SOME_USERNAME), is(nullValue()));
+    }
+
+    @Test
+    public void listUsersByRoleLeavesOutUsersWithMembershipOfRoleThatTheyDoNotHave()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        clientToExistingDatabase().putItem(RoleMembershipDb.of(SOME_OTHER_ROLE, SOME_USERNAME).toItem());
+
+        UserPage page = db.listUsersByRole(SOME_OTHER_ROLE, PAGE_SIZE, null);
+
+        assertThat(page.getUsers(), is(empty()));
+    }
+
+    @Test
+    public void updateUserKeepsMembershipThatHasBeenWrittenForALaterVersionOfTheUser()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException, NotFoundException {
+        UserDto existingUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        RoleMembershipDb membershipOfLaterVersion = RoleMembershipDb.of(SOME_ROLENAME, SOME_USERNAME);
+        membershipOfLaterVersion.setUserVersion(UserService.INITIAL_VERSION + NUMBER_OF_LISTED_USERS);
+        clientToExistingDatabase().putItem(membershipOfLaterVersion.toItem());
+
+        db.updateUser(cloneAndChangeRole(existingUser));
+
+        assertThat(fetchMembership(SOME_ROLENAME, SOME_USERNAME), is(equalTo(membershipOfLaterVersion)));
+    }
+
+    @Test
+    public void backfillUserIndicesIndexesUsersWrittenWithoutIndicesAndCanBeResumedFromTheCheckpoint()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException {
+        createSampleRoleAndAddToDb(SOME_ROLENAME);
+        List<UserDto> usersWithoutIndices = insertUsersWithoutIndices(UserIndexBackfill.PAGE_SIZE + 1);
+        assertThat(db.listUsersByRole(SOME_ROLENAME, PAGE_SIZE, null).getUsers(), is(empty()));
+
+        UserIndexBackfillResult result = db.backfillUserIndices(null, Duration.ZERO);
+        assertThat(result.isComplete(), is(false));
+        int indexedUsers = result.getIndexedUsers();
+        while (!result.isComplete()) {
+            result = db.backfillUserIndices(result.getCheckpoint().orElseThrow(), Duration.ZERO);
+            indexedUsers += result.getIndexedUsers();
+        }
+
+        assertThat(indexedUsers, is(equalTo(usersWithoutIndices.size())));
+        UserPage usersWithRole = db.listUsersByRole(SOME_ROLENAME, usersWithoutIndices.size() + 1, null);
+        assertThat(usernames(usersWithRole.getUsers()),
+            containsInAnyOrder(usernames(usersWithoutIndices).toArray()));
+        assertThat(db.searchUsersByName(SOME_INSTITUTION, "kari", PAGE_SIZE, UserFields.all()).size(),
+            is(equalTo(PAGE_SIZE)));
+    }
+
+    @Test
+    public void backfillUserIndicesThrowsInvalidInputExceptionWhenCheckpointIsNotValid() {
+        Executable action = () -> db.backfillUserIndices("notAValidCheckpoint", Duration.ZERO);
+        InvalidInputException exception = assertThrows(InvalidInputException.class, action);
+        assertThat(exception.getMessage(), containsString(PageCursor.INVALID_CURSOR_ERROR));
+    }
+
+    @Test
+    public void continueUserIndexBackfillContinuesFromTheStoredCheckpointAndStartsOverWhenAllUsersAreIndexed()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException {
+        createSampleRoleAndAddToDb(SOME_ROLENAME);
+        List<UserDto> usersWithoutIndices = insertUsersWithoutIndices(UserIndexBackfill.PAGE_SIZE + 1);
+
+        UserIndexBackfillResult firstRun = db.continueUserIndexBackfill(Duration.ZERO);
+        assertThat(firstRun.isComplete(), is(false));
+        UserIndexBackfillResult secondRun = db.continueUserIndexBackfill(Duration.ofMinutes(1));
+        assertThat(secondRun.isComplete(), is(true));
+        UserIndexBackfillResult thirdRun = db.continueUserIndexBackfill(Duration.ZERO);
+
+        int indexedUsers = firstRun.getIndexedUsers() + secondRun.getIndexedUsers();
+        assertThat(indexedUsers, is(equalTo(usersWithoutIndices.size())));
+        assertThat(thirdRun.getIndexedUsers(), is(equalTo(firstRun.getIndexedUsers())));
+        UserPage usersWithRole = db.listUsersByRole(SOME_ROLENAME, usersWithoutIndices.size() + 1, null);
+        assertThat(usernames(usersWithRole.getUsers()),
+            containsInAnyOrder(usernames(usersWithoutIndices).toArray()));
+    }
+
+    @Test
+    public void continueUserIndexBackfillReplacesOutdatedCopiesOfTheRolesOfUsersWithoutIndices()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        RoleDto existingRole = createSampleRoleAndAddToDb(SOME_ROLENAME);
+        UserDto userWithoutIndices = insertUsersWithoutIndices(1).get(0);
+        RoleDto roleUpdate = roleWithOtherAccessRights(existingRole);
+        db.updateRole(roleUpdate);
+
+        UserIndexBackfillResult result = db.continueUserIndexBackfill(Duration.ZERO);
+
+        assertThat(result.getSyncedUsers(), is(equalTo(1)));
+        assertThat(db.getUser(userWithoutIndices).getRoles(), contains(roleUpdate));
+        assertThat(db.continueUserIndexBackfill(Duration.ZERO).getSyncedUsers(), is(equalTo(0)));
+    }
+
+    @Test
+    public void searchUsersByNameReturnsUsersWhoseNamesStartWithTheWordsOfTheQueryBestMatchFirst()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        createUserWithNamesAndAddUserToDb("kari", SOME_INSTITUTION, "Kari", "Nordmann");
+        createUserWithNamesAndAddUserToDb("karina", SOME_INSTITUTION, "Karina", "Nord");
+        createUserWithNamesAndAddUserToDb("ola", SOME_INSTITUTION, "Ola", "Hansen");
+        createUserWithNamesAndAddUserToDb("kari2", SOME_OTHER_INSTITUTION, "Kari", "Nordmann");
+
+        List<UserDto> users = db.searchUsersByName(SOME_INSTITUTION, "KARI nordmann", PAGE_SIZE, UserFields.all());
+
+        assertThat(usernames(users), contains("kari", "karina"));
+    }
+
+    @Test
+    public void searchUsersByNameMatchesNamesWithoutCaseAndAccents()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        createUserWithNamesAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, "\u00c5se-Marie", "\u00d8deg\u00e5rd");
+
+        List<UserDto> users = db.searchUsersByName(SOME_INSTITUTION, "ase odeg", PAGE_SIZE, UserFields.all());
+
+        assertThat(usernames(users), contains(SOME_USERNAME));
+        assertThat(usernames(db.searchUsersByName(SOME_INSTITUTION, "marie", PAGE_SIZE, UserFields.all())),
+            contains(SOME_USERNAME));
+    }
+
+    @Test
+    public void searchUsersByNameReturnsAtMostTheLimitOfUsers()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        for (int index = 0; index < PAGE_SIZE + 1; index++) {
+            createUserWithNamesAndAddUserToDb(SOME_USERNAME + index, SOME_INSTITUTION, "Kari", "Nordmann");
+        }
+
+        List<UserDto> users = db.searchUsersByName(SOME_INSTITUTION, "kari", PAGE_SIZE, UserFields.all());
+
+        assertThat(usernames(users), contains(SOME_USERNAME + 0, SOME_USERNAME + 1, SOME_USERNAME + 2));
+    }
+
+    @Test
+    public void searchUsersByNameFindsTheCurrentNamesOfUpdatedUsersOnly()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException, NotFoundException {
+        UserDto user = createUserWithNamesAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, "Kari", "Nordmann");
+
+        db.updateUser(user.copy().withFamilyName("Hansen").build());
+
+        assertThat(db.searchUsersByName(SOME_INSTITUTION, "nordmann", PAGE_SIZE, UserFields.all()), is(empty()));
+        assertThat(usernames(db.searchUsersByName(SOME_INSTITUTION, "hansen", PAGE_SIZE, UserFields.all())),
+            contains(SOME_USERNAME));
+        assertThat(fetchNameToken(SOME_INSTITUTION, "nordmann", SOME_USERNAME), is(nullValue()));
+    }
+
+    @Test
+    public void searchUsersByNameFindsUsersThatHaveMovedInTheirNewInstitutionOnly()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException, NotFoundException {
+        UserDto user = createUserWithNamesAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, "Kari", "Nordmann");
 
-        assertThat(insertedUser, doesNotHaveNullOrEmptyFields());
-        assertThat(savedUser, is(equalTo(insertedUser)));
+        db.updateUser(user.copy().withInstitution(SOME_OTHER_INSTITUTION).build());
+
+        assertThat(db.searchUsersByName(SOME_INSTITUTION, "kari", PAGE_SIZE, UserFields.all()), is(empty()));
+        assertThat(usernames(db.searchUsersByName(SOME_OTHER_INSTITUTION, "kari", PAGE_SIZE, UserFields.all())),
+            contains(SOME_USERNAME));
+        assertThat(fetchNameToken(SOME_INSTITUTION, "kari", SOME_USERNAME), is(nullValue()));
     }
 
-    @DisplayName("addRole() throws Exception when trying to save role without name")
     @Test
-    public void addRoleShouldNotSaveUserWithoutUsername() throws InvalidEntryInternalException {
-        RoleDto illegalRole = createIllegalRole();
-        Executable illegalAction = () -> db.addRole(illegalRole);
-        InvalidInputException exception = assertThrows(InvalidInputException.class, illegalAction);
-        assertThat(exception.getMessage(), containsString(RoleDto.MISSING_ROLE_NAME_ERROR));
+    public void searchUsersByNameLeavesOutUsersWithTokenOfNameThatTheyDoNotHave()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        createUserWithNamesAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, "Kari", "Nordmann");
+        clientToExistingDatabase().putItem(NameTokenDb.of(SOME_INSTITUTION, "hansen", SOME_USERNAME).toItem());
+
+        assertThat(db.searchUsersByName(SOME_INSTITUTION, "hansen", PAGE_SIZE, UserFields.all()), is(empty()));
     }
 
-    @DisplayName("addRole() throws ConflictException when trying to save user with existing username")
     @Test
-    public void addRoleThrowsConflictExceptionWhenTryingToSaveAlreadyExistingUser()
+    public void searchUsersByNameReturnsOnlyTheRequestedFields()
         throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        createUserWithNamesAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, "Kari", "Nordmann");
 
-        String conflictingRoleName = SOME_ROLENAME;
-        createSampleRoleAndAddToDb(conflictingRoleName);
+        UserDto user = db.searchUsersByName(SOME_INSTITUTION, "kari", PAGE_SIZE,
+            UserFields.fromQueryParameter("givenName")).get(0);
 
-        RoleDto conflictingRole = createRole(conflictingRoleName);
+        assertThat(user.getGivenName(), is(equalTo("Kari")));
+        assertThat(user.getFamilyName(), is(nullValue()));
+        assertThat(user.getInstitution(), is(nullValue()));
+        assertThat(user.getRoles(), is(nullValue()));
+    }
 
-        Executable action = () -> db.addRole(conflictingRole);
-        ConflictException exception = assertThrows(ConflictException.class, action);
-        assertThat(exception.getMessage(), containsString(ROLE_ALREADY_EXISTS_ERROR_MESSAGE));
+    @Test
+    public void searchUsersByNameThrowsInvalidInputExceptionWhenQueryHasNoWords() {
+        Executable action = () -> db.searchUsersByName(SOME_INSTITUTION, " - ", PAGE_SIZE, UserFields.all());
+        InvalidInputException exception = assertThrows(InvalidInputException.class, action);
+        assertThat(exception.getMessage(), containsString(NameTokenService.EMPTY_NAME_QUERY_ERROR));
     }
 
-    @DisplayName("getUser() returns non empty user when username exists in database")
     @Test
-    public void databaseServiceReturnsNonEmptyUserWhenUsernameExistsInDatabase()
-        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
-        UserDto insertedUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
-        UserDto savedUser = db.getUser(insertedUser);
+    public void searchUsersByNameThrowsInvalidInputExceptionWhenQueryHasTooManyWords() {
+        Executable action = () -> db.searchUsersByName(SOME_INSTITUTION, "a b c d e f", PAGE_SIZE, UserFields.all());
+        InvalidInputException exception = assertThrows(InvalidInputException.class, action);
+        assertThat(exception.getMessage(), containsString(NameTokenService.TOO_MANY_QUERY_WORDS_ERROR));
+    }
 
-        assertThat(insertedUser, doesNotHaveNullOrEmptyFields());
-        assertThat(savedUser, is(equalTo(insertedUser)));
+    @Test
+    public void searchUsersByNameThrowsInvalidInputExceptionWhenLimitIsNotPositive() {
+        Executable action = () -> db.searchUsersByName(SOME_INSTITUTION, "kari", 0, UserFields.all());
+        InvalidInputException exception = assertThrows(InvalidInputException.class, action);
+        assertThat(exception.getMessage(), containsString(UserService.INVALID_PAGE_SIZE_ERROR));
     }
 
-    @DisplayName("getUser() throws NotFoundException when the username does exist in the database")
     @Test
-    public void databaseServiceThrowsNotFoundExceptionWhenUsernameDoesNotExist() throws InvalidEntryInternalException {
-        UserDto queryObject = UserDto.newBuilder().withUsername(SOME_USERNAME).build();
-        Executable action = () -> db.getUser(queryObject);
+    public void getInstitutionStatsReturnsTheNumberOfUsersOfTheInstitutionAndOfEachRole()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        insertUsersOfSameInstitution(2);
+        createSampleUserAndAddUserToDb(SOME_OTHER_USERNAME, SOME_INSTITUTION, SOME_OTHER_ROLE);
+        createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_OTHER_INSTITUTION, SOME_ROLENAME);
 
-        NotFoundException exception = assertThrows(NotFoundException.class, action);
-        assertThat(exception.getMessage(), containsString(USER_NOT_FOUND_MESSAGE));
+        InstitutionStatsDto stats = db.getInstitutionStats(SOME_INSTITUTION);
+
+        assertThat(stats.getInstitution(), is(equalTo(SOME_INSTITUTION)));
+        assertThat(stats.getUserCount(), is(equalTo(3L)));
+        assertThat(stats.getUsersPerRole(), is(equalTo(Map.of(SOME_ROLENAME, 2L, SOME_OTHER_ROLE, 1L))));
     }
 
-    @DisplayName("addUser() inserts valid user with institution and roles in database")
     @Test
-    public void addUserInsertsValidItemInDatabase()
-        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
-        UserDto insertedUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
-        UserDto savedUser = db.getUser(insertedUser);
+    public void getInstitutionStatsReturnsZeroUsersWhenNoUserOfTheInstitutionHasBeenAdded()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        createSampleUserAndAddUserToDb(SOME_USERNAME, null, SOME_ROLENAME);
 
-        assertThat(insertedUser, doesNotHaveNullOrEmptyFields());
-        assertThat(savedUser, is(equalTo(insertedUser)));
+        InstitutionStatsDto stats = db.getInstitutionStats(SOME_INSTITUTION);
+
+        assertThat(stats.getUserCount(), is(equalTo(0L)));
+        assertThat(stats.getUsersPerRole().isEmpty(), is(true));
     }
 
-    @DisplayName("addUser() saves user with roles and without institution")
     @Test
-    public void addUserSavesAUserWithoutInstitution() throws InvalidEntryInternalException, ConflictException,
-                                                             InvalidInputException, NotFoundException {
-        UserDto expectedUser = createSampleUserAndAddUserToDb(SOME_USERNAME, null, SOME_ROLENAME);
-        UserDto actualUser = db.getUser(expectedUser);
+    public void getInstitutionStatsReportsThatARecountIsNeededUntilUsersWrittenWithoutCountersAreRecounted()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        insertUsersWithoutIndices(2);
+        createSampleUserAndAddUserToDb(SOME_OTHER_USERNAME, SOME_INSTITUTION, SOME_OTHER_ROLE);
+        InstitutionStatsDto statsBeforeRecount = db.getInstitutionStats(SOME_INSTITUTION);
+        assertThat(statsBeforeRecount.getUserCount(), is(equalTo(1L)));
+        assertThat(statsBeforeRecount.isRecountNeeded(), is(true));
+
+        InstitutionRecountResult result = db.recountInstitution(SOME_INSTITUTION, Duration.ofMinutes(1));
+
+        assertThat(result.isComplete(), is(true));
+        assertThat(result.getCountedUsers(), is(equalTo(3)));
+        InstitutionStatsDto stats = db.getInstitutionStats(SOME_INSTITUTION);
+        assertThat(stats.getUserCount(), is(equalTo(3L)));
+        assertThat(stats.getUsersPerRole(), is(equalTo(Map.of(SOME_ROLENAME, 2L, SOME_OTHER_ROLE, 1L))));
+        assertThat(stats.isRecountNeeded(), is(false));
+    }
 
-        assertThat(actualUser, is(equalTo(expectedUser)));
-        assertThat(actualUser.getInstitution(), is(equalTo(null)));
+    @Test
+    public void getInstitutionStatsDoesNotReportNegativeCountsAndRecountRemovesCountersOfRolesThatNoUserHas()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        db.recountInstitution(SOME_INSTITUTION, Duration.ofMinutes(1));
+        addToCounter(InstitutionStatsService.USER_COUNT_FIELD, -5);
+        addToCounter(InstitutionStatsService.ROLE_COUNT_FIELD_PREFIX + SOME_OTHER_ROLE, -1);
+        addToCounter(InstitutionStatsService.ROLE_COUNT_FIELD_PREFIX + SOME_ROLE_WITHOUT_USERS, 2);
+
+        InstitutionStatsDto driftedStats = db.getInstitutionStats(SOME_INSTITUTION);
+        assertThat(driftedStats.getUserCount(), is(equalTo(0L)));
+        assertThat(driftedStats.getUsersPerRole(), is(equalTo(Map.of(SOME_ROLENAME, 1L, SOME_ROLE_WITHOUT_USERS, 2L))));
+        assertThat(driftedStats.isRecountNeeded(), is(true));
+
+        db.recountInstitution(SOME_INSTITUTION, Duration.ofMinutes(1));
+
+        InstitutionStatsDto stats = db.getInstitutionStats(SOME_INSTITUTION);
+        assertThat(stats.getUserCount(), is(equalTo(1L)));
+        assertThat(stats.getUsersPerRole(), is(equalTo(Map.of(SOME_ROLENAME, 1L))));
+        assertThat(stats.isRecountNeeded(), is(false));
+        assertThat(fetchInstitutionStatsItem().hasAttribute(InstitutionStatsService.ROLE_COUNT_FIELD_PREFIX
+            + SOME_ROLE_WITHOUT_USERS), is(false));
     }
 
-    @DisplayName("addUser() saves user with institution without roles")
     @Test
-    public void addUserShouldSaveUserWithoutRoles()
-        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
-        UserDto expectedUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, null);
-        UserDto actualUser = db.getUser(expectedUser);
+    public void recountInstitutionContinuesFromTheStoredPositionWhenTheTimeBudgetIsUsed()
+        throws InvalidEntryInternalException {
+        List<UserDto> users = insertUsersWithoutIndices(InstitutionRecount.RECOUNT_PAGE_SIZE + 1);
+
+        InstitutionRecountResult result = db.recountInstitution(SOME_INSTITUTION, Duration.ZERO);
+        assertThat(result.isComplete(), is(false));
+        int countedUsers = result.getCountedUsers();
+        while (!result.isComplete()) {
+            result = db.recountInstitution(SOME_INSTITUTION, Duration.ZERO);
+            countedUsers += result.getCountedUsers();
+        }
 
-        assertThat(actualUser, is(equalTo(expectedUser)));
+        assertThat(countedUsers, is(equalTo(users.size())));
+        assertThat(db.getInstitutionStats(SOME_INSTITUTION).getUserCount(), is(equalTo((long) users.size())));
     }
 
-    @DisplayName("addUser() throws Exception when trying to save user without username")
     @Test
-    public void addUserShouldNotSaveUserWithoutUsername() {
-        Executable illegalAction = () -> db.addUser(createUserWithoutUsername());
-        InvalidInputException exception = assertThrows(InvalidInputException.class, illegalAction);
-        assertThat(exception.getClass(), is(equalTo(InvalidInputException.class)));
-        assertThat(exception.getMessage(), containsString(UserDto.INVALID_USER_ERROR_MESSAGE));
+    public void recountInstitutionStartsOverWhenUsersAreCountedByTheirWritesDuringTheRecount()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        List<UserDto> users = insertUsersWithoutIndices(InstitutionRecount.RECOUNT_PAGE_SIZE + 1);
+        assertThat(db.recountInstitution(SOME_INSTITUTION, Duration.ZERO).isComplete(), is(false));
+        createSampleUserAndAddUserToDb(SOME_OTHER_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+
+        InstitutionRecountResult interruptedRecount = db.recountInstitution(SOME_INSTITUTION, Duration.ofMinutes(1));
+        assertThat(interruptedRecount.isComplete(), is(false));
+        assertThat(db.getInstitutionStats(SOME_INSTITUTION).isRecountNeeded(), is(true));
+        InstitutionRecountResult recount = db.recountInstitution(SOME_INSTITUTION, Duration.ofMinutes(1));
+
+        assertThat(recount.isComplete(), is(true));
+        InstitutionStatsDto stats = db.getInstitutionStats(SOME_INSTITUTION);
+        assertThat(stats.getUserCount(), is(equalTo(users.size() + 1L)));
+        assertThat(stats.isRecountNeeded(), is(false));
     }
 
-    @DisplayName("addUser() throws ConflictException when trying to save user with existing username")
     @Test
-    public void addUserThrowsConflictExceptionWhenTryingToSaveAlreadyExistingUser()
+    public void addUserDoesNotCountTheUserWhenTheUserAlreadyExists()
         throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        UserDto conflictingUser = createSampleUser(SOME_USERNAME, SOME_OTHER_INSTITUTION, SOME_ROLENAME);
 
-        String conflictingUsername = SOME_USERNAME;
-        createSampleUserAndAddUserToDb(conflictingUsername, SOME_INSTITUTION, SOME_ROLENAME);
+        assertThrows(ConflictException.class, () -> db.addUser(conflictingUser));
 
-        UserDto conflictingUser = createUserWithRole(conflictingUsername,
-            SOME_OTHER_INSTITUTION, createRole(SOME_OTHER_ROLE));
+        assertThat(db.getInstitutionStats(SOME_INSTITUTION).getUserCount(), is(equalTo(1L)));
+        assertThat(db.getInstitutionStats(SOME_OTHER_INSTITUTION).getUserCount(), is(equalTo(0L)));
+    }
 
-        Executable action = () -> db.addUser(conflictingUser);
-        ConflictException exception = assertThrows(ConflictException.class, action);
-        assertThat(exception.getMessage(), containsString(USER_ALREADY_EXISTS_ERROR_MESSAGE));
+    @Test
+    public void addUserDoesNotWriteMembershipsOrNameTokensWhenTheUserAlreadyExists()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        createUserWithNamesAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, "Kari", "Nordmann");
+        UserDto conflictingUser = createSampleUser(SOME_USERNAME, SOME_OTHER_INSTITUTION, SOME_OTHER_ROLE).copy()
+            .withGivenName("Ola")
+            .build();
+        conflictingUser.getRoles().forEach(this::addRoleToDb);
+
+        assertThrows(ConflictException.class, () -> db.addUser(conflictingUser));
+
+        assertThat(fetchMembership(SOME_OTHER_ROLE, SOME_USERNAME), is(nullValue()));
+        assertThat(fetchNameToken(SOME_OTHER_INSTITUTION, "ola", SOME_USERNAME), is(nullValue()));
+        assertThat(fetchMembership(SOME_ROLENAME, SOME_USERNAME), is(not(nullValue())));
+        assertThat(fetchNameToken(SOME_INSTITUTION, "kari", SOME_USERNAME), is(not(nullValue())));
     }
 
     @Test
-    public void addUserAddsCurrentlySavedVersionOfRoleInNewUser()
+    public void addUsersCountsTheImportedUsers() throws InvalidEntryInternalException, InvalidInputException {
+        addRoleToDb(createRole(SOME_ROLENAME));
+
+        db.addUsers(sampleUsersForImport(NUMBER_OF_IMPORTED_USERS));
+
+        InstitutionStatsDto stats = db.getInstitutionStats(SOME_INSTITUTION);
+        assertThat(stats.getUserCount(), is(equalTo((long) NUMBER_OF_IMPORTED_USERS)));
+        assertThat(stats.getUsersPerRole(), is(equalTo(Map.of(SOME_ROLENAME, (long) NUMBER_OF_IMPORTED_USERS))));
+    }
+
+    @Test
+    public void updateUserMovesTheCountsOfTheUserWhenTheUserMovesToAnotherInstitution()
         throws ConflictException, InvalidEntryInternalException, InvalidInputException, NotFoundException {
-        RoleDto existingRole = createSampleRoleAndAddToDb(SOME_ROLENAME);
-        assertThat(existingRole, doesNotHaveNullOrEmptyFields());
+        UserDto user = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
 
-        UserDto userWithoutRoleDetails = createUserWithRoleReference(existingRole);
-        db.addUser(userWithoutRoleDetails);
-        UserDto savedUser = db.getUser(userWithoutRoleDetails);
-        RoleDto actualRole = savedUser.getRoles().stream().collect(SingletonCollector.collect());
-        assertThat(actualRole, is(equalTo(existingRole)));
+        db.updateUser(user.copy().withInstitution(SOME_OTHER_INSTITUTION).withVersion(null).build());
+
+        InstitutionStatsDto oldInstitution = db.getInstitutionStats(SOME_INSTITUTION);
+        InstitutionStatsDto newInstitution = db.getInstitutionStats(SOME_OTHER_INSTITUTION);
+        assertThat(oldInstitution.getUserCount(), is(equalTo(0L)));
+        assertThat(oldInstitution.getUsersPerRole().isEmpty(), is(true));
+        assertThat(newInstitution.getUserCount(), is(equalTo(1L)));
+        assertThat(newInstitution.getUsersPerRole(), is(equalTo(Map.of(SOME_ROLENAME, 1L))));
     }
 
     @Test
-    public void addUserDoesNotAddNonExistingRolesInCreatedUser()
-        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
-        UserDto userWithNonExistingRole = createUserWithRole(SOME_USERNAME, SOME_INSTITUTION,
-            createRole(SOME_ROLENAME));
-        db.addUser(userWithNonExistingRole);
+    public void updateUserWithVersionMovesTheRoleCountsWhenTheRolesOfTheUserChange()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException, NotFoundException {
+        UserDto user = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        RoleDto otherRole = createSampleRoleAndAddToDb(SOME_OTHER_ROLE);
 
-        UserDto actualUser = db.getUser(userWithNonExistingRole);
-        UserDto expectedUser = userWithNonExistingRole.copy().withRoles(Collections.emptyList()).build();
+        db.updateUser(user.copy()
+            .withRoles(List.of(otherRole))
+            .withVersion(DatabaseSubService.INITIAL_VERSION)
+            .build());
 
-        assertThat(actualUser, is(equalTo(expectedUser)));
+        InstitutionStatsDto stats = db.getInstitutionStats(SOME_INSTITUTION);
+        assertThat(stats.getUserCount(), is(equalTo(1L)));
+        assertThat(stats.getUsersPerRole(), is(equalTo(Map.of(SOME_OTHER_ROLE, 1L))));
     }
 
-    @DisplayName("updateUser() updates existing user with input user when input user is valid")
     @Test
-    public void updateUserUpdatesAssignsCorrectVersionOfRoleInUser()
-        throws ConflictException, InvalidEntryInternalException, NotFoundException, InvalidInputException {
-        RoleDto existingRole = createRole(SOME_ROLENAME);
-        db.addRole(existingRole);
-        UserDto existingUser = createUserWithRole(SOME_USERNAME, SOME_INSTITUTION, existingRole);
-        db.addUser(existingUser);
+    public void updateUserDoesNotChangeTheCountsWhenTheUpdateConflicts()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        UserDto user = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        UserDto staleUpdate = user.copy()
+            .withInstitution(SOME_OTHER_INSTITUTION)
+            .withVersion(DatabaseSubService.INITIAL_VERSION + 1)
+            .build();
 
-        UserDto userUpdate = userUpdateWithRoleMissingAccessRights(existingUser);
+        assertThrows(ConflictException.class, () -> db.updateUser(staleUpdate));
 
-        UserDto expectedUser = existingUser.copy().withGivenName(SOME_GIVEN_NAME).build();
-        db.updateUser(userUpdate);
-        UserDto actualUser = db.getUser(expectedUser);
-        assertThat(actualUser, is(equalTo(expectedUser)));
-        assertThat(actualUser, is(not(sameInstance(expectedUser))));
+        assertThat(db.getInstitutionStats(SOME_INSTITUTION).getUserCount(), is(equalTo(1L)));
+        assertThat(db.getInstitutionStats(SOME_OTHER_INSTITUTION).getUserCount(), is(equalTo(0L)));
     }
 
-    @DisplayName("updateUser() updates existing user with input user when input user is valid")
     @Test
-    public void updateUserUpdatesExistingUserWithInputUserWhenInputUserIsValid()
-        throws ConflictException, InvalidEntryInternalException, NotFoundException, InvalidInputException {
-        UserDto existingUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
-        UserDto expectedUser = cloneAndChangeRole(existingUser);
+    public void listUsersByRoleThrowsInvalidInputExceptionWhenCursorBelongsToAnotherRole()
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        insertUsersOfSameInstitution(PAGE_SIZE + 1);
+        String cursor = db.listUsersByRole(SOME_ROLENAME, PAGE_SIZE, null).getNextCursor().orElseThrow();
 
-        db.updateUser(expectedUser);
-        UserDto actualUser = db.getUser(expectedUser);
-        assertThat(actualUser, is(equalTo(expectedUser)));
-        assertThat(actualUser, is(not(sameInstance(expectedUser))));
+        Executable action = () -> db.listUsersByRole(SOME_OTHER_ROLE, PAGE_SIZE, cursor);
+        InvalidInputException exception = assertThrows(InvalidInputException.class, action);
+        assertThat(exception.getMessage(), containsString(PageCursor.INVALID_CURSOR_ERROR));
     }
 
-    @DisplayName("updateUser() throws NotFoundException when the input username does not exist")
     @Test
-    public void updateUserThrowsNotFoundExceptionWhenTheInputUsernameDoesNotExist()
-        throws InvalidEntryInternalException {
-        UserDto userUpdate = createSampleUser(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
-        Executable action = () -> db.updateUser(userUpdate);
+    public void listUsersByRoleThrowsInvalidInputExceptionWhenPageSizeIsNotPositive() {
+        Executable action = () -> db.listUsersByRole(SOME_ROLENAME, 0, null);
+        InvalidInputException exception = assertThrows(InvalidInputException.class, action);
+        assertThat(exception.getMessage(), containsString(UserService.INVALID_PAGE_SIZE_ERROR));
+    }
+
+    @Test
+    public void updateRoleUpdatesExistingRole()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        RoleDto existingRole = createSampleRoleAndAddToDb(SOME_ROLENAME);
+        RoleDto roleUpdate = roleWithOtherAccessRights(existingRole);
+
+        db.updateRole(roleUpdate);
+
+        assertThat(db.getRole(existingRole), is(equalTo(roleUpdate)));
+        assertThat(db.getRoleWithConsistentRead(existingRole), is(equalTo(roleUpdate)));
+    }
+
+    @Test
+    public void updateRoleThrowsNotFoundExceptionWhenRoleDoesNotExist() throws InvalidEntryInternalException {
+        RoleDto nonExistingRole = createRole(SOME_ROLENAME);
+        Executable action = () -> db.updateRole(nonExistingRole);
         NotFoundException exception = assertThrows(NotFoundException.class, action);
-        assertThat(exception.getMessage(), containsString(USER_NOT_FOUND_MESSAGE));
+        assertThat(exception.getMessage(), containsString(ROLE_NOT_FOUND_MESSAGE));
     }
 
-    @DisplayName("updateUser() throws InvalidInputException when the input is invalid ")
     @Test
-    public void updateUserThrowsInvalidInputExceptionWhenTheInputIsInvalid()
-        throws ConflictException, InvalidEntryInternalException, InvalidInputException, NoSuchMethodException,
-               IllegalAccessException, InvocationTargetException {
-        createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
-        UserDto invalidUser = createUserWithoutUsername();
-        Executable action = () -> db.updateUser(invalidUser);
+    public void updateRoleThrowsInvalidInputExceptionWhenRoleIsInvalid() throws InvalidEntryInternalException {
+        RoleDto illegalRole = createIllegalRole();
+        Executable action = () -> db.updateRole(illegalRole);
         InvalidInputException exception = assertThrows(InvalidInputException.class, action);
-        assertThat(exception.getMessage(), containsString(UserDto.INVALID_USER_ERROR_MESSAGE));
+        assertThat(exception.getMessage(), containsString(RoleDto.MISSING_ROLE_NAME_ERROR));
     }
 
     @Test
-    public void listUsersByInstitutionReturnsAllUsersForSpecifiedInstitution()
-        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
-        UserDto someUser = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
-        UserDto someOtherUser = createSampleUserAndAddUserToDb(SOME_OTHER_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
-        List<UserDto> queryResult = db.listUsers(SOME_INSTITUTION);
-        assertThat(queryResult, containsInAnyOrder(someUser, someOtherUser));
+    public void propagateRoleWritesUpdatedRoleInUsersThatHaveTheRole()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        List<UserDto> usersWithRole = insertUsersOfSameInstitution(NUMBER_OF_LISTED_USERS);
+        UserDto userWithOtherRole = createSampleUserAndAddUserToDb(SOME_OTHER_USERNAME, SOME_INSTITUTION,
+            SOME_OTHER_ROLE);
+        RoleDto roleUpdate = roleWithOtherAccessRights(createRole(SOME_ROLENAME));
+        db.updateRole(roleUpdate);
+
+        RolePropagationResult result = db.propagateRole(roleUpdate, null, Duration.ofMinutes(1));
+
+        assertThat(result.isComplete(), is(true));
+        assertThat(result.getUpdatedUsers(), is(equalTo(NUMBER_OF_LISTED_USERS)));
+        for (UserDto user : usersWithRole) {
+            UserDto savedUser = db.getUser(user);
+            assertThat(savedUser.getRoles(), is(equalTo(Collections.singletonList(roleUpdate))));
+            assertThat(savedUser.getVersion(), is(equalTo(UserService.INITIAL_VERSION + 1)));
+        }
+        assertThat(db.getUser(userWithOtherRole).getVersion(), is(equalTo(UserService.INITIAL_VERSION)));
     }
 
     @Test
-    public void listUsersByInstitutionReturnsEmptyListWhenThereAreNoUsersForSpecifiedInstitution()
-        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
-        createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
-        List<UserDto> queryResult = db.listUsers(SOME_OTHER_INSTITUTION);
-        assertThat(queryResult, is(empty()));
+    public void propagateRoleUpdatesTheEffectiveAccessRightsOfTheUsersThatHaveTheRole()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        UserDto user = createSampleUserAndAddUserToDb(SOME_USERNAME, SOME_INSTITUTION, SOME_ROLENAME);
+        assertThat(fetchUserDb(user.getUsername()).hasAccessRight(AccessRight.REJECT_DOI_REQUEST), is(false));
+        RoleDto roleUpdate = roleWithOtherAccessRights(createRole(SOME_ROLENAME));
+        db.updateRole(roleUpdate);
+
+        db.propagateRole(roleUpdate, null, Duration.ofMinutes(1));
+
+        assertThat(fetchUserDb(user.getUsername()).hasAccessRight(AccessRight.REJECT_DOI_REQUEST), is(true));
+    }
+
+    @Test
+    public void propagateRoleDoesNotWriteUsersWhenTheirCopyOfTheRoleIsUpToDate()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        insertUsersOfSameInstitution(PAGE_SIZE);
+        RoleDto roleUpdate = roleWithOtherAccessRights(createRole(SOME_ROLENAME));
+        db.updateRole(roleUpdate);
+        db.propagateRole(roleUpdate, null, Duration.ofMinutes(1));
+
+        RolePropagationResult secondRun = db.propagateRole(roleUpdate, null, Duration.ofMinutes(1));
+
+        assertThat(secondRun.isComplete(), is(true));
+        assertThat(secondRun.getUpdatedUsers(), is(equalTo(0)));
+    }
+
+    @Test
+    public void propagateRoleReturnsCheckpointWhenTimeBudgetIsUsedAndCanBeResumedFromTheCheckpoint()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException, NotFoundException {
+        DatabaseService service = new DatabaseServiceImpl(localDynamo, clientToExistingDatabase(),
+            RoleCache.withDefaults(), new RolePropagationSettings(PAGE_SIZE, PAGE_SIZE));
+        List<UserDto> usersWithRole = insertUsersOfSameInstitution(NUMBER_OF_LISTED_USERS);
+        RoleDto roleUpdate = roleWithOtherAccessRights(createRole(SOME_ROLENAME));
+        service.updateRole(roleUpdate);
+
+        RolePropagationResult result = service.propagateRole(roleUpdate, null, Duration.ZERO);
+        assertThat(result.isComplete(), is(false));
+        assertThat(result.getUpdatedUsers(), is(lessThanOrEqualTo(PAGE_SIZE)));
+        int updatedUsers = result.getUpdatedUsers();
+        while (!result.isComplete()) {
+            result = service.propagateRole(roleUpdate, result.getCheckpoint().orElseThrow(), Duration.ZERO);
+            updatedUsers += result.getUpdatedUsers();
+        }
+
+        assertThat(updatedUsers, is(equalTo(usersWithRole.size())));
+        for (UserDto user : usersWithRole) {
+            assertThat(service.getUser(user).getRoles(), is(equalTo(Collections.singletonList(roleUpdate))));
+        }
+    }
+
+    @Test
+    public void propagateRoleThrowsInvalidInputExceptionWhenCheckpointIsNotValid()
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException {
+        RoleDto existingRole = createSampleRoleAndAddToDb(SOME_ROLENAME);
+        String invalidCheckpoint = "notAValidCheckpoint";
+        Executable action = () -> db.propagateRole(existingRole, invalidCheckpoint, Duration.ZERO);
+        InvalidInputException exception = assertThrows(InvalidInputException.class, action);
+        assertThat(exception.getMessage(), containsString(PageCursor.INVALID_CURSOR_ERROR));
+    }
+
+    @Test
+    public void propagateRoleThrowsNotFoundExceptionWhenRoleDoesNotExist() throws InvalidEntryInternalException {
+        RoleDto nonExistingRole = createRole(SOME_ROLENAME);
+        Executable action = () -> db.propagateRole(nonExistingRole, null, Duration.ZERO);
+        NotFoundException exception = assertThrows(NotFoundException.class, action);
+        assertThat(exception.getMessage(), containsString(ROLE_NOT_FOUND_MESSAGE));
     }
 
     @Test
@@ -336,6 +1554,7 @@ public class DatabaseServiceTest extends DatabaseAccessor {
             .withFamilyName(SOME_FAMILY_NAME)
             .withInstitution(SOME_INSTITUTION)
             .withRoles(SAMPLE_ROLES)
+            .withVersion(SOME_VERSION)
             .build();
         Table table = clientToLocalDatabase();
         table.putItem(insertedUser.toItem());
@@ -415,12 +1634,58 @@ public class DatabaseServiceTest extends DatabaseAccessor {
         return illegalRole;
     }
 
+    private static RoleDto roleWithOtherAccessRights(RoleDto role) throws InvalidEntryInternalException {
+        return role.copy()
+            .withAccessRights(Set.of(AccessRight.REJECT_DOI_REQUEST.toString()))
+            .build();
+    }
+
     private UserDto cloneAndChangeRole(UserDto existingUser) throws InvalidEntryInternalException {
         RoleDto someOtherRole = createRole(SOME_OTHER_ROLE);
         addRoleToDb(someOtherRole);
         return existingUser.copy().withRoles(Collections.singletonList(someOtherRole)).build();
     }
 
+    private static List<Throwable> runConcurrently(List<Callable<Void>> calls)
+        throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(calls.size());
+        CountDownLatch startSignal = new CountDownLatch(1);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (Callable<Void> call : calls) {
+                results.add(executor.submit(() -> {
+                    startSignal.await();
+                    return call.call();
+                }));
+            }
+            startSignal.countDown();
+            return collectFailures(results);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<Throwable> collectFailures(List<Future<Void>> results) throws InterruptedException {
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<Void> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                failures.add(e.getCause());
+            }
+        }
+        return failures;
+    }
+
+    private List<UserDto> insertUsersOfSameInstitution(int numberOfUsers)
+        throws ConflictException, InvalidEntryInternalException, InvalidInputException {
+        List<UserDto> users = new ArrayList<>();
+        for (int index = 0; index < numberOfUsers; index++) {
+            users.add(createSampleUserAndAddUserToDb(SOME_USERNAME + index, SOME_INSTITUTION, SOME_ROLENAME));
+        }
+        return users;
+    }
+
     private UserDto createSampleUserAndAddUserToDb(String username, String institution, String roleName)
         throws InvalidEntryInternalException, ConflictException, InvalidInputException {
         UserDto userDto = createSampleUser(username, institution, roleName);
@@ -448,6 +1713,7 @@ public class DatabaseServiceTest extends DatabaseAccessor {
             .withUsername(username)
             .withGivenName(SOME_GIVEN_NAME)
             .withFamilyName(SOME_FAMILY_NAME)
+            .withVersion(SOME_VERSION)
             .build();
     }
 
@@ -467,6 +1733,82 @@ public class DatabaseServiceTest extends DatabaseAccessor {
         }
     }
 
+    private UserDto createUserWithNamesAndAddUserToDb(String username, String institution, String givenName,
+                                                      String familyName)
+        throws InvalidEntryInternalException, ConflictException, InvalidInputException {
+        UserDto user = createSampleUser(username, institution, SOME_ROLENAME).copy()
+            .withGivenName(givenName)
+            .withFamilyName(familyName)
+            .build();
+        user.getRoles().forEach(this::addRoleToDb);
+        db.addUser(user);
+        return user;
+    }
+
+    private List<UserDto> insertUsersWithoutIndices(int numberOfUsers) throws InvalidEntryInternalException {
+        Table table = clientToExistingDatabase();
+        List<UserDto> users = new ArrayList<>();
+        for (int index = 0; index < numberOfUsers; index++) {
+            UserDto user = createSampleUser(SOME_USERNAME + index, SOME_INSTITUTION, SOME_ROLENAME).copy()
+                .withGivenName("Kari")
+                .build();
+            table.putItem(UserDb.fromUserDto(user).toItem());
+            users.add(user);
+        }
+        return users;
+    }
+
+    private NameTokenDb fetchNameToken(String institution, String token, String username) {
+        NameTokenDb nameToken = NameTokenDb.of(institution, token, username);
+        return NameTokenDb.fromItem(clientToExistingDatabase().getItem(
+            PRIMARY_KEY_HASH_KEY, nameToken.getPrimaryHashKey(),
+            PRIMARY_KEY_RANGE_KEY, nameToken.getPrimaryRangeKey()));
+    }
+
+    private RoleMembershipDb fetchMembership(String roleName, String username) {
+        RoleMembershipDb membership = RoleMembershipDb.of(roleName, username);
+        return RoleMembershipDb.fromItem(clientToExistingDatabase().getItem(
+            PRIMARY_KEY_HASH_KEY, membership.getPrimaryHashKey(),
+            PRIMARY_KEY_RANGE_KEY, membership.getPrimaryRangeKey()));
+    }
+
+    private List<UserDto> sampleUsersForImport(int numberOfUsers) throws InvalidEntryInternalException {
+        List<UserDto> users = new ArrayList<>();
+        for (int index = 0; index < numberOfUsers; index++) {
+            users.add(createSampleUser(SOME_USERNAME + index, SOME_INSTITUTION, SOME_ROLENAME));
+        }
+        return users;
+    }
+
+    private UserDb fetchUserDb(String username) throws InvalidEntryInternalException {
+        UserDb user = UserDb.newBuilder().withUsername(username).build();
+        return UserDb.fromItem(clientToExistingDatabase().getItem(
+            PRIMARY_KEY_HASH_KEY, user.getPrimaryHashKey(),
+            PRIMARY_KEY_RANGE_KEY, user.getPrimaryRangeKey()));
+    }
+
+    private static List<String> usernames(List<UserDto> users) {
+        return users.stream().map(UserDto::getUsername).collect(Collectors.toList());
+    }
+
+    private void addToCounter(String counter, long delta) {
+        String key = InstitutionStatsService.primaryKeyOfInstitution(SOME_INSTITUTION);
+        clientToExistingDatabase().updateItem(new UpdateItemSpec()
+            .withPrimaryKey(PRIMARY_KEY_HASH_KEY, key, PRIMARY_KEY_RANGE_KEY, key)
+            .withUpdateExpression("ADD #counter :delta")
+            .withNameMap(Map.of("#counter", counter))
+            .withValueMap(Map.of(":delta", delta)));
+    }
+
+    private Item fetchInstitutionStatsItem() {
+        String key = InstitutionStatsService.primaryKeyOfInstitution(SOME_INSTITUTION);
+        return clientToExistingDatabase().getItem(PRIMARY_KEY_HASH_KEY, key, PRIMARY_KEY_RANGE_KEY, key);
+    }
+
+    private Table clientToExistingDatabase() {
+        return DatabaseServiceImpl.createTable(localDynamo, envWithTableName);
+    }
+
     private Table clientToLocalDatabase() {
         return DatabaseServiceImpl.createTable(initializeTestDatabase(), envWithTableName);
     }
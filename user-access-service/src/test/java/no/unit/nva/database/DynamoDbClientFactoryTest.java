@@ -0,0 +1,63 @@
+package no.unit.nva.database;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import com.amazonaws.ClientConfiguration;
+import java.util.Map;
+import no.unit.nva.database.interfaces.WithEnvironment;
+import nva.commons.logutils.LogUtils;
+import nva.commons.logutils.TestAppender;
+import org.junit.jupiter.api.Test;
+
+public class DynamoDbClientFactoryTest implements WithEnvironment {
+
+    public static final String INVALID_NUMBER = "notANumber";
+    public static final String NEGATIVE_NUMBER = "-1";
+
+    @Test
+    public void clientConfigurationUsesKeepAliveAndDefaultSettingsWhenSettingsAreInvalid() {
+        TestAppender appender = LogUtils.getTestingAppender(DynamoDbClientFactory.class);
+        ClientConfiguration configuration = DynamoDbClientFactory.clientConfiguration(mockEnvironment(INVALID_NUMBER));
+
+        assertThat(configuration.useTcpKeepAlive(), is(true));
+        assertThat(configuration.getMaxConnections(), is(equalTo(DynamoDbClientFactory.DEFAULT_MAX_CONNECTIONS)));
+        assertThat(configuration.getConnectionTimeout(),
+            is(equalTo(DynamoDbClientFactory.DEFAULT_CONNECTION_TIMEOUT_MILLIS)));
+        assertThat(configuration.getRequestTimeout(),
+            is(equalTo(DynamoDbClientFactory.DEFAULT_REQUEST_TIMEOUT_MILLIS)));
+        assertThat(configuration.getClientExecutionTimeout(),
+            is(equalTo(DynamoDbClientFactory.DEFAULT_CLIENT_EXECUTION_TIMEOUT_MILLIS)));
+        assertThat(configuration.getMaxErrorRetry(), is(equalTo(DynamoDbClientFactory.DEFAULT_MAX_ERROR_RETRIES)));
+        assertThat(appender.getMessages(), containsString(DynamoDbClientFactory.INVALID_CLIENT_SETTING_WARNING));
+    }
+
+    @Test
+    public void clientConfigurationUsesDefaultSettingsWhenSettingsAreNegative() {
+        ClientConfiguration configuration = DynamoDbClientFactory.clientConfiguration(mockEnvironment(NEGATIVE_NUMBER));
+
+        assertThat(configuration.getMaxConnections(), is(equalTo(DynamoDbClientFactory.DEFAULT_MAX_CONNECTIONS)));
+        assertThat(configuration.getMaxErrorRetry(), is(equalTo(DynamoDbClientFactory.DEFAULT_MAX_ERROR_RETRIES)));
+    }
+
+    @Test
+    public void clientConfigurationReadsSettingsFromEnvironment() {
+        Map<String, String> settings = Map.of(
+            DynamoDbClientFactory.MAX_CONNECTIONS_ENV_VARIABLE, "10",
+            DynamoDbClientFactory.CONNECTION_TIMEOUT_ENV_VARIABLE, "100",
+            DynamoDbClientFactory.REQUEST_TIMEOUT_ENV_VARIABLE, "200",
+            DynamoDbClientFactory.CLIENT_EXECUTION_TIMEOUT_ENV_VARIABLE, "300",
+            DynamoDbClientFactory.MAX_ERROR_RETRIES_ENV_VARIABLE, "1");
+        ClientConfiguration configuration = DynamoDbClientFactory.clientConfiguration(
+            mockEnvironment(settings, DEFAULT_ENV_VALUE));
+
+        assertThat(configuration.getMaxConnections(), is(equalTo(10)));
+        assertThat(configuration.getConnectionTimeout(), is(equalTo(100)));
+        assertThat(configuration.getSocketTimeout(), is(equalTo(200)));
+        assertThat(configuration.getRequestTimeout(), is(equalTo(200)));
+        assertThat(configuration.getClientExecutionTimeout(), is(equalTo(300)));
+        assertThat(configuration.getMaxErrorRetry(), is(equalTo(1)));
+        assertThat(configuration.getRetryPolicy().getMaxErrorRetry(), is(equalTo(1)));
+    }
+}
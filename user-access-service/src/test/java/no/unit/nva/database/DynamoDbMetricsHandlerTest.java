@@ -0,0 +1,122 @@
+package no.unit.nva.database;
+
+import static nva.commons.core.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DynamoDbMetricsHandlerTest {
+
+    public static final String SOME_OPERATION = "someOperation";
+    public static final String SOME_TABLE = "someTable";
+    public static final String SERVICE_NAME = "AmazonDynamoDBv2";
+    public static final Map<String, AttributeValue> SOME_ITEM = Map.of("someKey", new AttributeValue("someValue"));
+    public static final double SOME_CAPACITY = 0.5;
+    public static final int SOME_COUNT = 7;
+
+    private DynamoDbMetricsHandler handler;
+
+    @BeforeEach
+    public void init() {
+        handler = new DynamoDbMetricsHandler();
+    }
+
+    @Test
+    public void beforeExecutionRequestsTheConsumedCapacityWhenAnOperationIsRunning() {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(SOME_OPERATION)) {
+            QueryRequest request = (QueryRequest) handler.beforeExecution(new QueryRequest());
+
+            assertThat(request.getReturnConsumedCapacity(), is(equalTo(ReturnConsumedCapacity.TOTAL.toString())));
+        }
+    }
+
+    @Test
+    public void beforeExecutionDoesNotChangeTheRequestWhenNoOperationIsRunning() {
+        GetItemRequest request = (GetItemRequest) handler.beforeExecution(new GetItemRequest());
+
+        assertThat(request.getReturnConsumedCapacity(), is(nullValue()));
+    }
+
+    @Test
+    public void afterResponseRecordsTheCallTheConsumedCapacityAndTheItemsRead() throws IOException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(SOME_OPERATION)) {
+            GetItemResult getItemResult = new GetItemResult()
+                .withItem(SOME_ITEM)
+                .withConsumedCapacity(new ConsumedCapacity().withCapacityUnits(SOME_CAPACITY));
+            QueryResult queryResult = new QueryResult()
+                .withCount(SOME_COUNT)
+                .withConsumedCapacity(new ConsumedCapacity().withCapacityUnits(SOME_CAPACITY));
+
+            sendCall(new GetItemRequest(), getItemResult);
+            sendCall(new QueryRequest(), queryResult);
+
+            JsonNode line = objectMapper.readTree(metrics.toEmfLine());
+            assertThat(line.get(DynamoDbMetrics.CALLS_METRIC).intValue(), is(equalTo(2)));
+            assertThat(line.get(DynamoDbMetrics.CONSUMED_CAPACITY_METRIC).doubleValue(), is(equalTo(1.0)));
+            assertThat(line.get(DynamoDbMetrics.ITEM_COUNT_METRIC).longValue(), is(equalTo(SOME_COUNT + 1L)));
+            assertThat(line.get(DynamoDbMetrics.CALLS_BY_API_PROPERTY).get("GetItem").intValue(), is(equalTo(1)));
+            assertThat(line.get(DynamoDbMetrics.CALLS_BY_API_PROPERTY).get("Query").intValue(), is(equalTo(1)));
+        }
+    }
+
+    @Test
+    public void afterResponseCountsTheItemsOfABatchWriteThatWereProcessed() throws IOException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(SOME_OPERATION)) {
+            WriteRequest put = new WriteRequest().withPutRequest(new PutRequest().withItem(SOME_ITEM));
+            BatchWriteItemRequest request = new BatchWriteItemRequest()
+                .withRequestItems(Map.of(SOME_TABLE, List.of(put, put, put)));
+            BatchWriteItemResult result = new BatchWriteItemResult()
+                .withUnprocessedItems(Map.of(SOME_TABLE, List.of(put)))
+                .withConsumedCapacity(new ConsumedCapacity().withCapacityUnits(SOME_CAPACITY),
+                    new ConsumedCapacity().withCapacityUnits(SOME_CAPACITY));
+
+            sendCall(request, result);
+
+            JsonNode line = objectMapper.readTree(metrics.toEmfLine());
+            assertThat(line.get(DynamoDbMetrics.ITEM_COUNT_METRIC).longValue(), is(equalTo(2L)));
+            assertThat(line.get(DynamoDbMetrics.CONSUMED_CAPACITY_METRIC).doubleValue(), is(equalTo(1.0)));
+        }
+    }
+
+    @Test
+    public void afterErrorRecordsAFailedCall() throws IOException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(SOME_OPERATION)) {
+            Request<?> request = new DefaultRequest<>(new GetItemRequest(), SERVICE_NAME);
+            handler.beforeRequest(request);
+            handler.afterError(request, null, new RuntimeException());
+
+            JsonNode line = objectMapper.readTree(metrics.toEmfLine());
+            assertThat(line.get(DynamoDbMetrics.CALLS_METRIC).intValue(), is(equalTo(1)));
+            assertThat(line.get(DynamoDbMetrics.ERRORS_METRIC).intValue(), is(equalTo(1)));
+        }
+    }
+
+    private void sendCall(AmazonWebServiceRequest originalRequest, Object result) {
+        Request<?> request = new DefaultRequest<>(originalRequest, SERVICE_NAME);
+        handler.beforeExecution(originalRequest);
+        handler.beforeRequest(request);
+        handler.afterResponse(request, new Response<>(result, null));
+    }
+}
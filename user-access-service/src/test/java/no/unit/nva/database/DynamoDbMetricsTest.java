@@ -0,0 +1,88 @@
+package no.unit.nva.database;
+
+import static nva.commons.core.JsonUtils.objectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.util.Optional;
+import nva.commons.logutils.LogUtils;
+import nva.commons.logutils.TestAppender;
+import org.junit.jupiter.api.Test;
+
+public class DynamoDbMetricsTest {
+
+    public static final String SOME_OPERATION = "someOperation";
+    public static final String SOME_OTHER_OPERATION = "someOtherOperation";
+    public static final String GET_ITEM = "GetItem";
+    public static final String QUERY = "Query";
+    public static final long SOME_LATENCY_NANOS = 2_000_000L;
+    public static final double SOME_CAPACITY = 0.5;
+
+    @Test
+    public void toEmfLineContainsTheSumsOfTheCallsOfTheOperation() throws IOException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(SOME_OPERATION)) {
+            metrics.recordCall(GET_ITEM, SOME_LATENCY_NANOS, SOME_CAPACITY, 1);
+            metrics.recordCall(QUERY, SOME_LATENCY_NANOS, SOME_CAPACITY, 3);
+            metrics.recordError(GET_ITEM, SOME_LATENCY_NANOS);
+
+            JsonNode line = objectMapper.readTree(metrics.toEmfLine());
+
+            assertThat(line.get(DynamoDbMetrics.OPERATION_DIMENSION).textValue(), is(equalTo(SOME_OPERATION)));
+            assertThat(line.get(DynamoDbMetrics.CALLS_METRIC).intValue(), is(equalTo(3)));
+            assertThat(line.get(DynamoDbMetrics.LATENCY_METRIC).doubleValue(), is(equalTo(6.0)));
+            assertThat(line.get(DynamoDbMetrics.CONSUMED_CAPACITY_METRIC).doubleValue(), is(equalTo(1.0)));
+            assertThat(line.get(DynamoDbMetrics.ITEM_COUNT_METRIC).longValue(), is(equalTo(4L)));
+            assertThat(line.get(DynamoDbMetrics.ERRORS_METRIC).intValue(), is(equalTo(1)));
+            assertThat(line.get(DynamoDbMetrics.CALLS_BY_API_PROPERTY).get(GET_ITEM).intValue(), is(equalTo(2)));
+        }
+    }
+
+    @Test
+    public void toEmfLineDeclaresTheMetricsWithTheOperationAsDimension() throws IOException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(SOME_OPERATION)) {
+            JsonNode directive = objectMapper.readTree(metrics.toEmfLine())
+                .get("_aws").get("CloudWatchMetrics").get(0);
+
+            assertThat(directive.get("Namespace").textValue(), is(equalTo(DynamoDbMetrics.NAMESPACE)));
+            assertThat(directive.get("Dimensions").get(0).get(0).textValue(),
+                is(equalTo(DynamoDbMetrics.OPERATION_DIMENSION)));
+            assertThat(directive.get("Metrics").get(0).get("Name").textValue(),
+                is(equalTo(DynamoDbMetrics.CALLS_METRIC)));
+        }
+    }
+
+    @Test
+    public void closeWritesTheMetricsAndEndsTheOperation() {
+        TestAppender appender = LogUtils.getTestingAppender(DynamoDbMetrics.class);
+        DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(SOME_OPERATION);
+
+        metrics.close();
+
+        assertThat(appender.getMessages(), containsString(SOME_OPERATION));
+        assertThat(DynamoDbMetrics.currentOperation(), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    public void closeOfANestedOperationRestoresTheEnclosingOperation() {
+        try (DynamoDbMetrics enclosing = DynamoDbMetrics.startOperation(SOME_OPERATION)) {
+            DynamoDbMetrics.startOperation(SOME_OTHER_OPERATION).close();
+
+            assertThat(DynamoDbMetrics.currentOperation(), is(equalTo(Optional.of(enclosing))));
+        }
+    }
+
+    @Test
+    public void currentOperationIsVisibleInThreadsStartedDuringTheOperation() throws InterruptedException {
+        try (DynamoDbMetrics metrics = DynamoDbMetrics.startOperation(SOME_OPERATION)) {
+            Thread thread = new Thread(() -> DynamoDbMetrics.currentOperation()
+                .ifPresent(current -> current.recordCall(GET_ITEM, SOME_LATENCY_NANOS, SOME_CAPACITY, 1)));
+            thread.start();
+            thread.join();
+
+            assertThat(metrics.toEmfLine(), containsString(GET_ITEM));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package no.unit.nva.database;
+
+import static no.unit.nva.database.EntityUtils.SOME_ROLENAME;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import no.unit.nva.database.interfaces.WithEnvironment;
+import no.unit.nva.useraccessmanagement.dao.RoleDb;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import nva.commons.core.Environment;
+import nva.commons.logutils.LogUtils;
+import nva.commons.logutils.TestAppender;
+import org.junit.jupiter.api.Test;
+
+public class RoleCacheTest implements WithEnvironment {
+
+    public static final Duration SOME_TTL = Duration.ofSeconds(10);
+    public static final int SOME_MAX_ENTRIES = 10;
+    public static final Instant NOW = Instant.parse("2021-01-01T00:00:00Z");
+    public static final String SOME_OTHER_ROLENAME = "SomeOtherRole";
+    public static final String INVALID_NUMBER = "notANumber";
+    public static final long SOME_GENERATION = 3L;
+
+    @Test
+    public void getReturnsCachedRoleAndCountsHitWhenRoleHasBeenAdded() throws InvalidEntryInternalException {
+        RoleCache roleCache = new RoleCache(SOME_TTL, SOME_MAX_ENTRIES, Clock.systemUTC());
+        RoleDb role = RoleDb.newBuilder().withName(SOME_ROLENAME).build();
+        roleCache.put(role);
+
+        assertThat(roleCache.get(SOME_ROLENAME), is(equalTo(Optional.of(role))));
+        assertThat(roleCache.getHits(), is(equalTo(1L)));
+        assertThat(roleCache.getMisses(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void getReturnsEmptyAndCountsMissWhenRoleHasNotBeenAdded() {
+        RoleCache roleCache = new RoleCache(SOME_TTL, SOME_MAX_ENTRIES, Clock.systemUTC());
+
+        assertThat(roleCache.get(SOME_ROLENAME), is(equalTo(Optional.empty())));
+        assertThat(roleCache.getMisses(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void getWithGenerationReturnsCachedRoleOnlyWhenItWasCachedInTheSameGeneration()
+        throws InvalidEntryInternalException {
+        RoleCache roleCache = new RoleCache(SOME_TTL, SOME_MAX_ENTRIES, Clock.systemUTC());
+        RoleDb role = RoleDb.newBuilder().withName(SOME_ROLENAME).build();
+        roleCache.put(role, SOME_GENERATION);
+
+        assertThat(roleCache.get(SOME_ROLENAME, SOME_GENERATION), is(equalTo(Optional.of(role))));
+        assertThat(roleCache.get(SOME_ROLENAME, SOME_GENERATION + 1), is(equalTo(Optional.empty())));
+        assertThat(roleCache.get(SOME_ROLENAME), is(equalTo(Optional.of(role))));
+        assertThat(roleCache.getHits(), is(equalTo(2L)));
+        assertThat(roleCache.getMisses(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void getWithGenerationReturnsEmptyWhenRoleWasCachedWithoutGeneration() throws InvalidEntryInternalException {
+        RoleCache roleCache = new RoleCache(SOME_TTL, SOME_MAX_ENTRIES, Clock.systemUTC());
+        roleCache.put(RoleDb.newBuilder().withName(SOME_ROLENAME).build());
+
+        assertThat(roleCache.get(SOME_ROLENAME, SOME_GENERATION), is(equalTo(Optional.empty())));
+        assertThat(roleCache.get(SOME_ROLENAME).isPresent(), is(true));
+    }
+
+    @Test
+    public void getReturnsEmptyWhenEntryHasExpired() throws InvalidEntryInternalException {
+        Clock clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW, NOW.plus(SOME_TTL));
+        RoleCache roleCache = new RoleCache(SOME_TTL, SOME_MAX_ENTRIES, clock);
+        roleCache.put(RoleDb.newBuilder().withName(SOME_ROLENAME).build());
+
+        assertThat(roleCache.get(SOME_ROLENAME), is(equalTo(Optional.empty())));
+        assertThat(roleCache.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void putEvictsLeastRecentlyUsedEntryWhenMaxEntriesIsExceeded() throws InvalidEntryInternalException {
+        RoleCache roleCache = new RoleCache(SOME_TTL, 1, Clock.systemUTC());
+        roleCache.put(RoleDb.newBuilder().withName(SOME_ROLENAME).build());
+        roleCache.put(RoleDb.newBuilder().withName(SOME_OTHER_ROLENAME).build());
+
+        assertThat(roleCache.size(), is(equalTo(1)));
+        assertThat(roleCache.get(SOME_ROLENAME).isPresent(), is(false));
+        assertThat(roleCache.get(SOME_OTHER_ROLENAME).isPresent(), is(true));
+    }
+
+    @Test
+    public void putDoesNotCacheRolesWhenCacheIsDisabled() throws InvalidEntryInternalException {
+        RoleCache roleCache = new RoleCache(Duration.ZERO, SOME_MAX_ENTRIES, Clock.systemUTC());
+        roleCache.put(RoleDb.newBuilder().withName(SOME_ROLENAME).build());
+
+        assertThat(roleCache.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void invalidateRemovesCachedRole() throws InvalidEntryInternalException {
+        RoleCache roleCache = new RoleCache(SOME_TTL, SOME_MAX_ENTRIES, Clock.systemUTC());
+        roleCache.put(RoleDb.newBuilder().withName(SOME_ROLENAME).build());
+        roleCache.invalidate(SOME_ROLENAME);
+
+        assertThat(roleCache.get(SOME_ROLENAME).isPresent(), is(false));
+    }
+
+    @Test
+    public void fromEnvironmentReadsMaxEntriesFromEnvironment() throws InvalidEntryInternalException {
+        Environment environment = mockEnvironment(
+            Map.of(RoleCache.ROLE_CACHE_MAX_ENTRIES_ENV_VARIABLE, "1", RoleCache.ROLE_CACHE_TTL_ENV_VARIABLE, "60"),
+            null);
+        RoleCache roleCache = RoleCache.fromEnvironment(environment);
+        roleCache.put(RoleDb.newBuilder().withName(SOME_ROLENAME).build());
+        roleCache.put(RoleDb.newBuilder().withName(SOME_OTHER_ROLENAME).build());
+
+        assertThat(roleCache.size(), is(equalTo(1)));
+    }
+
+    @Test
+    public void fromEnvironmentLogsWarningAndUsesDefaultsWhenSettingsAreInvalid()
+        throws InvalidEntryInternalException {
+        TestAppender appender = LogUtils.getTestingAppender(RoleCache.class);
+        RoleCache roleCache = RoleCache.fromEnvironment(mockEnvironment(INVALID_NUMBER));
+        roleCache.put(RoleDb.newBuilder().withName(SOME_ROLENAME).build());
+        roleCache.put(RoleDb.newBuilder().withName(SOME_OTHER_ROLENAME).build());
+
+        assertThat(roleCache.size(), is(equalTo(2)));
+        assertThat(appender.getMessages(), containsString(RoleCache.INVALID_CACHE_SETTING_WARNING));
+    }
+}
@@ -0,0 +1,89 @@
+package no.unit.nva.database;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
+import com.amazonaws.services.dynamodbv2.document.spec.QuerySpec;
+import java.util.Collections;
+import no.unit.nva.useraccessmanagement.dao.DynamoEntryCodec;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidEntryInternalException;
+import no.unit.nva.useraccessmanagement.exceptions.InvalidInputException;
+import no.unit.nva.useraccessmanagement.model.RoleDto;
+import no.unit.nva.useraccessmanagement.model.UserDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+public class UserFieldsTest {
+
+    public static final String SOME_USERNAME = "someUsername";
+    public static final String SOME_ROLENAME = "someRole";
+
+    @Test
+    public void fromQueryParameterReturnsAllFieldsWhenParameterIsMissingOrBlank() throws InvalidInputException {
+        assertThat(UserFields.fromQueryParameter(null).isAll(), is(true));
+        assertThat(UserFields.fromQueryParameter(" ").isAll(), is(true));
+    }
+
+    @Test
+    public void fromQueryParameterThrowsInvalidInputExceptionWhenFieldIsUnknown() {
+        Executable action = () -> UserFields.fromQueryParameter("username, password");
+        InvalidInputException exception = assertThrows(InvalidInputException.class, action);
+        assertThat(exception.getMessage(), containsString(UserFields.UNKNOWN_FIELD_ERROR + "password"));
+    }
+
+    @Test
+    public void projectReadsTheAttributesOfTheFieldsAndTheUsernameAndVersion() throws InvalidInputException {
+        UserFields fields = UserFields.fromQueryParameter(" givenName ");
+
+        GetItemSpec getItemSpec = fields.project(new GetItemSpec());
+
+        String projection = getItemSpec.getProjectionExpression();
+        assertThat(projection, containsString("#" + DynamoEntryCodec.GIVEN_NAME_FIELD));
+        assertThat(projection, containsString("#" + DynamoEntryCodec.USERNAME_FIELD));
+        assertThat(projection, containsString("#" + DynamoEntryCodec.VERSION_FIELD));
+        assertThat(getItemSpec.getNameMap().get("#" + DynamoEntryCodec.GIVEN_NAME_FIELD),
+            is(equalTo(DynamoEntryCodec.GIVEN_NAME_FIELD)));
+    }
+
+    @Test
+    public void projectDoesNotChangeTheQueryWhenAllFieldsAreRead() {
+        QuerySpec querySpec = new QuerySpec();
+
+        QuerySpec projected = UserFields.all().project(querySpec);
+
+        assertThat(projected, is(sameInstance(querySpec)));
+        assertThat(projected.getProjectionExpression(), is(nullValue()));
+    }
+
+    @Test
+    public void trimLeavesOutTheRolesWhenTheRolesAreNotRead()
+        throws InvalidInputException, InvalidEntryInternalException {
+        UserDto trimmed = UserFields.fromQueryParameter("familyName").trim(sampleUser());
+
+        assertThat(trimmed.getRoles(), is(nullValue()));
+        assertThat(trimmed.getAccessRights(), is(nullValue()));
+    }
+
+    @Test
+    public void trimKeepsTheRolesWhenTheAccessRightsAreRead()
+        throws InvalidInputException, InvalidEntryInternalException {
+        UserDto user = sampleUser();
+
+        UserDto trimmed = UserFields.fromQueryParameter("accessRights").trim(user);
+
+        assertThat(trimmed.getRoles(), is(equalTo(user.getRoles())));
+    }
+
+    private static UserDto sampleUser() throws InvalidEntryInternalException {
+        RoleDto role = RoleDto.newBuilder().withName(SOME_ROLENAME).build();
+        return UserDto.newBuilder()
+            .withUsername(SOME_USERNAME)
+            .withRoles(Collections.singletonList(role))
+            .build();
+    }
+}